@@ -0,0 +1,43 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+/**
+ * Payloads shared by the benchmarks.
+ *
+ * @author Maciej Walkowiak
+ */
+final class BenchmarkPayloads {
+
+    private BenchmarkPayloads() {
+    }
+
+    static String jsonPayload(int size) {
+        StringBuilder payload = new StringBuilder(size + 32).append("{\"items\":[");
+        int i = 0;
+        while (payload.length() < size - 32) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append("{\"id\":").append(i++).append(",\"name\":\"item\"}");
+        }
+        return payload.append("]}").toString();
+    }
+
+    static String snsEnvelope(ObjectMapper objectMapper, String payload) throws IOException {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("Type", "Notification");
+        envelope.put("MessageId", "22b80b92-fdea-4c2c-8f9d-bdfb0c7bf324");
+        envelope.put("TopicArn", "arn:aws:sns:eu-west-1:123456789012:benchmark");
+        envelope.put("Message", payload);
+        envelope.put("Timestamp", "2018-11-01T12:00:00.000Z");
+        envelope.put("SignatureVersion", "1");
+        envelope.put("Signature", "EXAMPLEpH+DcEwjAPg8O9mY8dReBSwksfg2S7WKQcikcNKWLQjwu6A4VbeS0QHVCkhRS7fUQvi2egU3N858fiTDN6bkkOxYDVrY0Ad8L10Hs3zH81mtnPk5uvvolIC1CXGu43obcgFxeL3khZl8IKvO61GWB6jI9b5+gLPoBc1Q=");
+        ObjectNode attributes = envelope.putObject("MessageAttributes");
+        attributes.putObject("contentType").put("Type", "String").put("Value", "application/json");
+        return objectMapper.writeValueAsString(envelope);
+    }
+}
@@ -0,0 +1,39 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks matching the given patterns, all of them by default, with the GC profiler reporting
+ * allocation rates, and writes the results as JSON so that runs before and after a change can be compared.
+ *
+ * Usage: {@code java -cp benchmarks.jar org.springframework.cloud.stream.binder.sqs.BenchmarkRunner [pattern...]}
+ *
+ * @author Maciej Walkowiak
+ */
+public final class BenchmarkRunner {
+
+    private static final String RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        if (args.length == 0) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+        for (String pattern : args) {
+            options.include(pattern);
+        }
+        Options runOptions = options.addProfiler(GCProfiler.class)
+                                    .resultFormat(ResultFormatType.JSON)
+                                    .result(RESULT_FILE)
+                                    .build();
+        new Runner(runOptions).run();
+    }
+}
@@ -0,0 +1,115 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySqs;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures consumer dispatch: receiving SNS notifications from an in-memory queue with {@link SqsInboundChannelAdapter},
+ * decoding them with {@link SnsAwareMessageBuilderFactory}, handing them to the binding's input channel and
+ * deleting them afterwards. Every invocation sends one batch of messages and waits until all of them are handled.
+ *
+ * @author Maciej Walkowiak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsumerBenchmark {
+
+    private static final int BATCH_SIZE = 10;
+
+    /**
+     * Kept below 25 KB, so that a batch of ten SNS envelopes stays within the SQS batch size limit.
+     */
+    @Param({"1024", "16384"})
+    public int payloadSize;
+
+    @Param({"1", "4"})
+    public int concurrency;
+
+    @Param({"false", "true"})
+    public boolean deleteBatching;
+
+    private final Semaphore dispatched = new Semaphore(0);
+
+    private InMemorySqs sqs;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private SqsInboundChannelAdapter adapter;
+    private SendMessageBatchRequest sendMessageBatchRequest;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.sqs = new InMemorySqs();
+        String queueUrl = this.sqs.createQueue("benchmark").getQueueUrl();
+
+        String envelope = BenchmarkPayloads.snsEnvelope(new ObjectMapper(), BenchmarkPayloads.jsonPayload(this.payloadSize));
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            entries.add(new SendMessageBatchRequestEntry(String.valueOf(i), envelope));
+        }
+        this.sendMessageBatchRequest = new SendMessageBatchRequest(queueUrl, entries);
+
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.initialize();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, this.taskScheduler);
+
+        DirectChannel inputChannel = new DirectChannel();
+        inputChannel.setBeanFactory(beanFactory);
+        inputChannel.subscribe(message -> this.dispatched.release());
+
+        this.adapter = new SqsInboundChannelAdapter(this.sqs, "benchmark");
+        this.adapter.setConcurrency(this.concurrency);
+        this.adapter.setWaitTimeOut(1);
+        this.adapter.setDeleteBatching(this.deleteBatching);
+        this.adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory());
+        this.adapter.setOutputChannel(inputChannel);
+        this.adapter.setBeanFactory(beanFactory);
+        this.adapter.afterPropertiesSet();
+        this.adapter.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.adapter.stop();
+        this.taskScheduler.shutdown();
+        this.sqs.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void dispatch() throws InterruptedException {
+        this.sqs.sendMessageBatch(this.sendMessageBatchRequest);
+        this.dispatched.acquire(BATCH_SIZE);
+    }
+}
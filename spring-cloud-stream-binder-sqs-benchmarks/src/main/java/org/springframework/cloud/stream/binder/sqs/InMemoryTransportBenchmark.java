@@ -0,0 +1,92 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySns;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySqs;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the in-memory SQS and SNS used by the binder tests, so that benchmarks built on top of it
+ * can tell transport cost apart from binder cost.
+ *
+ * @author Maciej Walkowiak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryTransportBenchmark {
+
+    @Param({"1024", "65536"})
+    public int payloadSize;
+
+    private InMemorySqs sqs;
+    private InMemorySns sns;
+    private String payload;
+    private String queueUrl;
+    private String topicArn;
+    private ReceiveMessageRequest receiveMessageRequest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.sqs = new InMemorySqs();
+        this.sns = new InMemorySns(this.sqs);
+        this.payload = BenchmarkPayloads.jsonPayload(this.payloadSize);
+        this.queueUrl = this.sqs.createQueue("benchmark").getQueueUrl();
+        this.topicArn = this.sns.createTopic("benchmark").getTopicArn();
+        String queueArn = this.sqs.getQueueAttributes(this.queueUrl, Collections.singletonList("QueueArn"))
+                                  .getAttributes()
+                                  .get("QueueArn");
+        this.sns.subscribe(this.topicArn, "sqs", queueArn);
+        this.receiveMessageRequest = new ReceiveMessageRequest(this.queueUrl).withMaxNumberOfMessages(10)
+                                                                             .withWaitTimeSeconds(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.sns.shutdown();
+        this.sqs.shutdown();
+    }
+
+    @Benchmark
+    public Object sendReceiveDelete() {
+        this.sqs.sendMessage(this.queueUrl, this.payload);
+        return receiveAndDelete();
+    }
+
+    @Benchmark
+    public Object publishReceiveDelete() {
+        this.sns.publish(new PublishRequest(this.topicArn, this.payload));
+        return receiveAndDelete();
+    }
+
+    private List<Message> receiveAndDelete() {
+        List<Message> messages = this.sqs.receiveMessage(this.receiveMessageRequest).getMessages();
+        for (Message message : messages) {
+            this.sqs.deleteMessage(this.queueUrl, message.getReceiptHandle());
+        }
+        return messages;
+    }
+}
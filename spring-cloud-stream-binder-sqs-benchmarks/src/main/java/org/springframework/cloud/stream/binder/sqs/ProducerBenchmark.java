@@ -0,0 +1,158 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.stream.binder.sqs.compression.GzipPayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySns;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySqs;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the producer side of a binding: payload conversion in {@link SnsPayloadConvertingChannelInterceptor}
+ * alone, and a full {@code send()} through the output channel, the interceptor and the producer handler the
+ * binder creates for the destination. SNS handlers publish to an in-memory topic without subscriptions, the SQS
+ * handler to a client discarding the batches, so that the numbers reflect binder cost only.
+ *
+ * @author Maciej Walkowiak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProducerBenchmark {
+
+    @Param({"1024", "65536"})
+    public int payloadSize;
+
+    /**
+     * {@code text}, {@code binary} or {@code gzip}.
+     */
+    @Param({"text", "binary", "gzip"})
+    public String encoding;
+
+    /**
+     * {@code sns}, {@code sns-batch} or {@code sqs-batch}.
+     */
+    @Param({"sns", "sns-batch", "sqs-batch"})
+    public String handler;
+
+    private InMemorySqs sqs;
+    private InMemorySns sns;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private SnsPayloadConvertingChannelInterceptor interceptor;
+    private AbstractPublishingMessageHandler messageHandler;
+    private DirectChannel outputChannel;
+    private Message<byte[]> message;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SqsProducerProperties producerProperties = new SqsProducerProperties();
+        producerProperties.setAsync(false);
+        if ("binary".equals(this.encoding)) {
+            producerProperties.setBinary(true);
+        } else if ("gzip".equals(this.encoding)) {
+            producerProperties.setCompression(GzipPayloadCompressor.NAME);
+        }
+        this.interceptor = new SnsPayloadConvertingChannelInterceptor(producerProperties, new PayloadCompressors());
+
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.initialize();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, this.taskScheduler);
+
+        this.sqs = new InMemorySqs();
+        this.sns = new InMemorySns(this.sqs);
+        String topicArn = this.sns.createTopic("benchmark").getTopicArn();
+        this.messageHandler = createMessageHandler(topicArn);
+        this.messageHandler.setBeanFactory(beanFactory);
+        this.messageHandler.afterPropertiesSet();
+        this.messageHandler.start();
+
+        this.outputChannel = new DirectChannel();
+        this.outputChannel.setBeanFactory(beanFactory);
+        this.outputChannel.addInterceptor(this.interceptor);
+        this.outputChannel.subscribe(this.messageHandler);
+        this.outputChannel.afterPropertiesSet();
+
+        this.message = MessageBuilder.withPayload(BenchmarkPayloads.jsonPayload(this.payloadSize).getBytes(StandardCharsets.UTF_8))
+                                     .setHeader("contentType", "application/json")
+                                     .build();
+    }
+
+    private AbstractPublishingMessageHandler createMessageHandler(String topicArn) {
+        if ("sns".equals(this.handler)) {
+            SnsPublishingMessageHandler publishingMessageHandler = new SnsPublishingMessageHandler(this.sns, topicArn);
+            publishingMessageHandler.setAsync(false);
+            return publishingMessageHandler;
+        }
+        AbstractBatchingMessageHandler<?> batchingMessageHandler = "sns-batch".equals(this.handler)
+                                                                   ? new SnsBatchingMessageHandler(this.sns, topicArn)
+                                                                   : new SqsBatchingMessageHandler(new DiscardingSqs(), "benchmark");
+        batchingMessageHandler.setLingerTime(TimeUnit.MINUTES.toMillis(1));
+        batchingMessageHandler.setAsync(false);
+        return batchingMessageHandler;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.messageHandler.stop();
+        this.taskScheduler.shutdown();
+        this.sns.shutdown();
+        this.sqs.shutdown();
+    }
+
+    @Benchmark
+    public Object preSend() {
+        return this.interceptor.preSend(this.message, this.outputChannel);
+    }
+
+    @Benchmark
+    public boolean send() {
+        return this.outputChannel.send(this.message);
+    }
+
+    /**
+     * Acknowledges every batch entry without keeping the messages.
+     */
+    private static class DiscardingSqs extends AbstractAmazonSQSAsync {
+
+        @Override
+        public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest request) {
+            SendMessageBatchResult result = new SendMessageBatchResult();
+            for (SendMessageBatchRequestEntry entry : request.getEntries()) {
+                result.withSuccessful(new SendMessageBatchResultEntry().withId(entry.getId()).withMessageId(entry.getId()));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming SNS envelope decoder with the previous tree-based implementation.
+ *
+ * @author Maciej Walkowiak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnsEnvelopeDecodingBenchmark {
+
+    @Param({"1024", "65536", "262144"})
+    public int payloadSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SnsEnvelopeDecoder envelopeDecoder = new SnsEnvelopeDecoder();
+    private final SnsAwareMessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory();
+
+    private String envelope;
+    private Message<String> message;
+
+    @Setup
+    public void setup() throws IOException {
+        this.envelope = BenchmarkPayloads.snsEnvelope(this.objectMapper, BenchmarkPayloads.jsonPayload(this.payloadSize));
+        this.message = new GenericMessage<>(this.envelope);
+    }
+
+    @Benchmark
+    public Object streamingDecoder() throws IOException {
+        return this.envelopeDecoder.decode(this.envelope);
+    }
+
+    @Benchmark
+    public Object messageBuilderFactory() {
+        return this.messageBuilderFactory.fromMessage(this.message).build();
+    }
+
+    /**
+     * The implementation of {@link SnsAwareMessageBuilderFactory} used before the streaming decoder.
+     */
+    @Benchmark
+    public Object legacyTreeDecoder() throws IOException {
+        JsonNode jsonNode = this.objectMapper.readValue(this.envelope, JsonNode.class);
+        return jsonNode.get("Message").toString()
+                       .replace("\"{", "{")
+                       .replace("}\"", "}")
+                       .replace("\\\"", "\"");
+    }
+}
@@ -0,0 +1,132 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import org.springframework.cloud.stream.binder.sqs.AbstractPublishingMessageHandler;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderHeaders;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsProducerDestination;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Publishes messages to an SNS topic, or sends them directly to an SQS queue, with the AWS SDK v2 asynchronous
+ * clients. Messages sent directly to a queue carry the {@link SqsBinderHeaders#RAW_MESSAGE} attribute.
+ *
+ * In async mode the calling thread only waits for an in-flight permit, when limited; outcomes are routed to
+ * the failure and success channels. Otherwise the calling thread waits for each message to be published, and
+ * failures are thrown to it, so that the retries and dead-lettering of the binding apply.
+ *
+ * @author Maciej Walkowiak
+ */
+class AsyncPublishingMessageHandler extends AbstractPublishingMessageHandler {
+
+    private final SnsAsyncClient snsAsyncClient;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final SqsProducerDestination destination;
+
+    private boolean async;
+
+    /**
+     * @param destination destination with either the ARN of the topic or the URL of the queue messages are sent to
+     */
+    AsyncPublishingMessageHandler(SnsAsyncClient snsAsyncClient, SqsAsyncClient sqsAsyncClient, SqsProducerDestination destination) {
+        this.snsAsyncClient = snsAsyncClient;
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.destination = destination;
+        this.attributesMapper.setRawMessage(destination.getQueueUrl() != null);
+    }
+
+    void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) throws Exception {
+        if (!this.async) {
+            try {
+                completed(message, send(message).join());
+            } catch (RuntimeException e) {
+                throw failedSynchronously(deliveryException(message, e));
+            }
+            return;
+        }
+        acquire(message);
+        CompletableFuture<String> messageId;
+        try {
+            messageId = send(message);
+        } catch (RuntimeException e) {
+            failed(deliveryException(message, e));
+            return;
+        }
+        messageId.whenComplete((id, exception) -> {
+            if (exception == null) {
+                completed(message, id);
+            } else {
+                failed(deliveryException(message, exception));
+            }
+        });
+    }
+
+    /**
+     * @return the id of the message once sent
+     */
+    private CompletableFuture<String> send(Message<?> message) {
+        if (this.destination.getQueueUrl() != null) {
+            SendMessageRequest request = SendMessageRequest.builder()
+                                                           .queueUrl(this.destination.getQueueUrl())
+                                                           .messageBody(this.attributesMapper.toBody(message))
+                                                           .messageAttributes(this.attributesMapper.toAttributes(message.getHeaders(),
+                                                                                                                 AsyncPublishingMessageHandler::sqsAttribute))
+                                                           .messageGroupId(messageGroupId(message))
+                                                           .messageDeduplicationId(messageDeduplicationId(message))
+                                                           .build();
+            return this.sqsAsyncClient.sendMessage(request).thenApply(SendMessageResponse::messageId);
+        }
+        PublishRequest request = PublishRequest.builder()
+                                               .topicArn(this.destination.getTopicArn())
+                                               .message(this.attributesMapper.toBody(message))
+                                               .messageAttributes(this.attributesMapper.toAttributes(message.getHeaders(),
+                                                                                                     AsyncPublishingMessageHandler::snsAttribute))
+                                               .messageGroupId(messageGroupId(message))
+                                               .messageDeduplicationId(messageDeduplicationId(message))
+                                               .build();
+        return this.snsAsyncClient.publish(request).thenApply(PublishResponse::messageId);
+    }
+
+    private static software.amazon.awssdk.services.sqs.model.MessageAttributeValue sqsAttribute(String dataType, String stringValue,
+                                                                                                ByteBuffer binaryValue) {
+        return software.amazon.awssdk.services.sqs.model.MessageAttributeValue.builder()
+                                                                              .dataType(dataType)
+                                                                              .stringValue(stringValue)
+                                                                              .binaryValue(bytes(binaryValue))
+                                                                              .build();
+    }
+
+    private static software.amazon.awssdk.services.sns.model.MessageAttributeValue snsAttribute(String dataType, String stringValue,
+                                                                                                ByteBuffer binaryValue) {
+        return software.amazon.awssdk.services.sns.model.MessageAttributeValue.builder()
+                                                                              .dataType(dataType)
+                                                                              .stringValue(stringValue)
+                                                                              .binaryValue(bytes(binaryValue))
+                                                                              .build();
+    }
+
+    private static SdkBytes bytes(ByteBuffer value) {
+        return value != null ? SdkBytes.fromByteBuffer(value) : null;
+    }
+
+    private MessageDeliveryException deliveryException(Message<?> message, Throwable cause) {
+        return new MessageDeliveryException(message, "Failed to send message to " + this.destination.getName(),
+                                            cause instanceof CompletionException ? cause.getCause() : cause);
+    }
+}
@@ -0,0 +1,390 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import org.springframework.cloud.aws.messaging.core.QueueMessageUtils;
+import org.springframework.cloud.aws.messaging.listener.Acknowledgment;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.stream.binder.sqs.HeaderFilter;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderHeaders;
+import org.springframework.cloud.stream.binder.sqs.VirtualThreads;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.endpoint.MessageProducerSupport;
+import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Consumes messages from an SQS queue with the AWS SDK v2 asynchronous client, without poller threads:
+ * up to {@code concurrency} long-poll receives are kept in flight on the non-blocking transport, each for no more
+ * messages than there are free handlers, so received messages never wait for a handler while their visibility
+ * timeout runs out. Handlers run on a pool of {@code handlers} threads, or on virtual threads.
+ *
+ * Messages of FIFO queues are handled one after another per receive, in order; when one fails, the rest of that
+ * receive's messages are left to become visible again. Messages received while stopping are not handled and
+ * become visible again after their visibility timeout.
+ *
+ * Messages are converted with the same header mapping as those of the other consumer endpoints, and deleted
+ * according to the {@link SqsMessageDeletionPolicy}, with the same semantics as {@code SqsMessageDrivenChannelAdapter}.
+ *
+ * @author Maciej Walkowiak
+ */
+class SqsAsyncInboundChannelAdapter extends MessageProducerSupport {
+
+    private static final int MAX_NUMBER_OF_MESSAGES = 10;
+    private static final int DEFAULT_WAIT_TIME_OUT = 20;
+    private static final long BACK_OFF_TIME = 10000;
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final String queue;
+
+    private int concurrency = 1;
+    private int handlers;
+    private Integer maxNumberOfMessages;
+    private Integer visibilityTimeout;
+    private Integer waitTimeOut;
+    private SqsMessageDeletionPolicy messageDeletionPolicy = SqsMessageDeletionPolicy.NO_REDRIVE;
+    private boolean fifo;
+    private boolean virtualThreads;
+    private HeaderFilter headerFilter;
+    private PayloadStore payloadStore;
+
+    private volatile String queueUrl;
+    private volatile boolean redrivePolicy;
+    private volatile boolean active;
+    private volatile ExecutorService executor;
+
+    /**
+     * Receives in flight and the number of messages they were sent for, guarded by {@code this}.
+     */
+    private int receivesInFlight;
+    private int requested;
+    /**
+     * Messages received and not handled yet, guarded by {@code this}.
+     */
+    private int outstanding;
+
+    SqsAsyncInboundChannelAdapter(SqsAsyncClient sqsAsyncClient, String queue) {
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.queue = queue;
+    }
+
+    /**
+     * Maximum number of receives in flight.
+     */
+    void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Number of messages handled at once, by default {@code concurrency * maxNumberOfMessages}.
+     */
+    void setHandlers(int handlers) {
+        this.handlers = handlers;
+    }
+
+    void setMaxNumberOfMessages(Integer maxNumberOfMessages) {
+        this.maxNumberOfMessages = maxNumberOfMessages;
+    }
+
+    void setVisibilityTimeout(Integer visibilityTimeout) {
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    void setWaitTimeOut(Integer waitTimeOut) {
+        this.waitTimeOut = waitTimeOut;
+    }
+
+    void setMessageDeletionPolicy(SqsMessageDeletionPolicy messageDeletionPolicy) {
+        this.messageDeletionPolicy = messageDeletionPolicy;
+    }
+
+    void setFifo(boolean fifo) {
+        this.fifo = fifo;
+    }
+
+    void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    void setHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+    }
+
+    /**
+     * Store claim-checked payloads are deleted from once their message has been deleted from the queue,
+     * or acknowledged with the {@link SqsMessageDeletionPolicy#NEVER} policy.
+     */
+    void setPayloadStore(PayloadStore payloadStore) {
+        this.payloadStore = payloadStore;
+    }
+
+    @Override
+    public String getComponentType() {
+        return "sqs:async-inbound-channel-adapter";
+    }
+
+    @Override
+    protected void doStart() {
+        this.queueUrl = this.sqsAsyncClient.getQueueUrl(GetQueueUrlRequest.builder().queueName(this.queue).build())
+                                           .join()
+                                           .queueUrl();
+        if (this.messageDeletionPolicy == SqsMessageDeletionPolicy.NO_REDRIVE) {
+            this.redrivePolicy = this.sqsAsyncClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                                                                                                 .queueUrl(this.queueUrl)
+                                                                                                 .attributeNames(QueueAttributeName.REDRIVE_POLICY)
+                                                                                                 .build())
+                                                    .join()
+                                                    .attributes()
+                                                    .containsKey(QueueAttributeName.REDRIVE_POLICY);
+        }
+        this.executor = this.virtualThreads ? VirtualThreads.newExecutor(this.queue + "-handler-")
+                                            : Executors.newFixedThreadPool(handlers(), new CustomizableThreadFactory(this.queue + "-handler-"));
+        this.active = true;
+        poll();
+    }
+
+    @Override
+    protected void doStop() {
+        this.active = false;
+        ExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private int maxNumberOfMessages() {
+        return this.maxNumberOfMessages != null ? Math.min(this.maxNumberOfMessages, MAX_NUMBER_OF_MESSAGES) : MAX_NUMBER_OF_MESSAGES;
+    }
+
+    private int handlers() {
+        return this.handlers > 0 ? this.handlers : this.concurrency * maxNumberOfMessages();
+    }
+
+    /**
+     * Sends receives for the handlers not busy with, nor reserved for, received messages.
+     */
+    private synchronized void poll() {
+        while (this.active && this.receivesInFlight < this.concurrency) {
+            int free = handlers() - this.outstanding - this.requested;
+            if (free <= 0) {
+                return;
+            }
+            int max = Math.min(maxNumberOfMessages(), free);
+            this.receivesInFlight++;
+            this.requested += max;
+            receive(max);
+        }
+    }
+
+    private void receive(int max) {
+        ReceiveMessageRequest request = ReceiveMessageRequest.builder()
+                                                             .queueUrl(this.queueUrl)
+                                                             .attributeNames(QueueAttributeName.ALL)
+                                                             .messageAttributeNames("All")
+                                                             .maxNumberOfMessages(max)
+                                                             .waitTimeSeconds(this.waitTimeOut != null ? this.waitTimeOut : DEFAULT_WAIT_TIME_OUT)
+                                                             .visibilityTimeout(this.visibilityTimeout)
+                                                             .build();
+        CompletableFuture<ReceiveMessageResponse> response;
+        try {
+            response = this.sqsAsyncClient.receiveMessage(request);
+        } catch (RuntimeException e) {
+            failed(max, e);
+            return;
+        }
+        response.whenComplete((result, exception) -> {
+            if (exception != null) {
+                failed(max, exception);
+            } else {
+                received(max, result.messages());
+            }
+        });
+    }
+
+    /**
+     * Keeps the receive counted as in flight during the back-off, so that it is not retried right away.
+     */
+    private void failed(int max, Throwable exception) {
+        if (!this.active) {
+            received(max, Collections.emptyList());
+            return;
+        }
+        logger.warn("Failed to receive messages from queue " + this.queue + ", retrying in " + BACK_OFF_TIME + " ms", exception);
+        getTaskScheduler().schedule(() -> received(max, Collections.emptyList()),
+                                    new Date(System.currentTimeMillis() + BACK_OFF_TIME));
+    }
+
+    private void received(int max, List<software.amazon.awssdk.services.sqs.model.Message> messages) {
+        boolean dispatch = this.active && !messages.isEmpty();
+        synchronized (this) {
+            this.receivesInFlight--;
+            this.requested -= max;
+            if (dispatch) {
+                this.outstanding += messages.size();
+            }
+        }
+        if (dispatch) {
+            int dispatched = 0;
+            try {
+                if (this.fifo) {
+                    this.executor.execute(() -> handleInOrder(messages));
+                    dispatched = messages.size();
+                } else {
+                    for (software.amazon.awssdk.services.sqs.model.Message sqsMessage : messages) {
+                        this.executor.execute(() -> {
+                            handle(sqsMessage);
+                            handled(1);
+                        });
+                        dispatched++;
+                    }
+                }
+            } catch (RejectedExecutionException e) {
+                // stopped while dispatching, the rest become visible again after their visibility timeout
+                handled(messages.size() - dispatched);
+                return;
+            }
+        }
+        poll();
+    }
+
+    private void handleInOrder(List<software.amazon.awssdk.services.sqs.model.Message> messages) {
+        try {
+            for (software.amazon.awssdk.services.sqs.model.Message sqsMessage : messages) {
+                if (!handle(sqsMessage)) {
+                    return;
+                }
+            }
+        } finally {
+            handled(messages.size());
+        }
+    }
+
+    private void handled(int count) {
+        synchronized (this) {
+            this.outstanding -= count;
+        }
+        poll();
+    }
+
+    /**
+     * @return whether the message was handled successfully
+     */
+    private boolean handle(software.amazon.awssdk.services.sqs.model.Message sqsMessage) {
+        boolean success = false;
+        Message<?> message = null;
+        try {
+            message = toMessage(sqsMessage);
+            sendMessage(message);
+            success = true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle message " + sqsMessage.messageId() + " from queue " + this.queue, e);
+        }
+        if (shouldDelete(success)) {
+            CompletableFuture<DeleteMessageResponse> deleted = deleteMessage(sqsMessage.receiptHandle());
+            if (message != null) {
+                deleteStoredPayload(deleted, message.getHeaders().get(SqsBinderHeaders.CLAIM_CHECK));
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Converts the message through the model of the AWS SDK v1 client, to map headers exactly like the other
+     * consumer endpoints of the binder do.
+     */
+    private Message<?> toMessage(software.amazon.awssdk.services.sqs.model.Message sqsMessage) {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(AwsHeaders.QUEUE, this.queue);
+        Map<String, com.amazonaws.services.sqs.model.MessageAttributeValue> attributes = new HashMap<>();
+        for (Map.Entry<String, MessageAttributeValue> attribute : sqsMessage.messageAttributes().entrySet()) {
+            MessageAttributeValue value = attribute.getValue();
+            attributes.put(attribute.getKey(), new com.amazonaws.services.sqs.model.MessageAttributeValue()
+                    .withDataType(value.dataType())
+                    .withStringValue(value.stringValue())
+                    .withBinaryValue(value.binaryValue() != null ? value.binaryValue().asByteBuffer() : null));
+        }
+        if (this.headerFilter != null && !attributes.isEmpty()) {
+            attributes = this.headerFilter.filter(attributes);
+        }
+        com.amazonaws.services.sqs.model.Message source = new com.amazonaws.services.sqs.model.Message()
+                .withMessageId(sqsMessage.messageId())
+                .withReceiptHandle(sqsMessage.receiptHandle())
+                .withMD5OfBody(sqsMessage.md5OfBody())
+                .withBody(sqsMessage.body())
+                .withAttributes(sqsMessage.attributesAsStrings())
+                .withMessageAttributes(attributes);
+        AbstractIntegrationMessageBuilder<?> builder = getMessageBuilderFactory().fromMessage(QueueMessageUtils.createMessage(source, headers));
+        if (this.messageDeletionPolicy == SqsMessageDeletionPolicy.NEVER) {
+            String receiptHandle = sqsMessage.receiptHandle();
+            Object pointer = builder.getHeaders().get(SqsBinderHeaders.CLAIM_CHECK);
+            builder.setHeader(AwsHeaders.ACKNOWLEDGMENT, (Acknowledgment) () -> deleteStoredPayload(deleteMessage(receiptHandle), pointer));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Deletes the stored payload of a message once the message itself has been deleted, so that a message
+     * redelivered after a failed deletion can still retrieve its payload.
+     *
+     * @param pointer pointer to the stored payload, or {@code null} if the payload was not claim-checked
+     */
+    private CompletableFuture<?> deleteStoredPayload(CompletableFuture<DeleteMessageResponse> messageDeleted, Object pointer) {
+        if (this.payloadStore == null || pointer == null) {
+            return messageDeleted;
+        }
+        return messageDeleted.thenRun(() -> {
+            try {
+                this.payloadStore.delete(pointer.toString());
+            } catch (IOException e) {
+                logger.warn("Failed to delete stored payload: " + pointer, e);
+            }
+        });
+    }
+
+    private CompletableFuture<DeleteMessageResponse> deleteMessage(String receiptHandle) {
+        CompletableFuture<DeleteMessageResponse> response = this.sqsAsyncClient.deleteMessage(DeleteMessageRequest.builder()
+                                                                                                                  .queueUrl(this.queueUrl)
+                                                                                                                  .receiptHandle(receiptHandle)
+                                                                                                                  .build());
+        response.whenComplete((result, exception) -> {
+            if (exception != null) {
+                logger.warn("Failed to delete message from queue " + this.queue, exception);
+            }
+        });
+        return response;
+    }
+
+    private boolean shouldDelete(boolean success) {
+        switch (this.messageDeletionPolicy) {
+            case ALWAYS:
+                return true;
+            case ON_SUCCESS:
+                return success;
+            case NO_REDRIVE:
+                return success || !this.redrivePolicy;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import org.springframework.cloud.stream.binder.AbstractMessageChannelBinder;
+import org.springframework.cloud.stream.binder.BinderSpecificPropertiesProvider;
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
+import org.springframework.cloud.stream.binder.ExtendedPropertiesBinder;
+import org.springframework.cloud.stream.binder.sqs.HeaderFilter;
+import org.springframework.cloud.stream.binder.sqs.InFlightLimiter;
+import org.springframework.cloud.stream.binder.sqs.PartitionRoutingMessageHandler;
+import org.springframework.cloud.stream.binder.sqs.SnsAwareMessageBuilderFactory;
+import org.springframework.cloud.stream.binder.sqs.SnsPayloadConvertingChannelInterceptor;
+import org.springframework.cloud.stream.binder.sqs.VirtualThreads;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsExtendedBindingProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsProducerDestination;
+import org.springframework.cloud.stream.provisioning.ConsumerDestination;
+import org.springframework.cloud.stream.provisioning.ProducerDestination;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.channel.AbstractMessageChannel;
+import org.springframework.integration.core.MessageProducer;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Spring Cloud Stream Binder implementation for AWS SQS on the AWS SDK v2 asynchronous clients, registered
+ * as the {@code sqs-sdk2} binder. Bindings are configured with the same properties as those of the {@code sqs}
+ * binder; batching producers, batch and reactive consumers, adaptive concurrency, the visibility heartbeat,
+ * delete batching and binder metrics are not supported, and their properties are ignored with a warning.
+ *
+ * @author Maciej Walkowiak
+ */
+public class SqsAsyncMessageChannelBinder extends
+                                          AbstractMessageChannelBinder<ExtendedConsumerProperties<SqsConsumerProperties>,
+                                                  ExtendedProducerProperties<SqsProducerProperties>, SqsAsyncStreamProvisioner>
+        implements ExtendedPropertiesBinder<MessageChannel, SqsConsumerProperties, SqsProducerProperties> {
+
+    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final SnsAsyncClient snsAsyncClient;
+
+    private SqsExtendedBindingProperties extendedBindingProperties;
+
+    private PayloadCompressors payloadCompressors = new PayloadCompressors();
+
+    private PayloadStore payloadStore;
+
+    private boolean virtualThreads;
+
+    public SqsAsyncMessageChannelBinder(SqsAsyncClient sqsAsyncClient, SnsAsyncClient snsAsyncClient,
+                                        SqsAsyncStreamProvisioner provisioningProvider) {
+        this(sqsAsyncClient, snsAsyncClient, provisioningProvider, new SqsExtendedBindingProperties());
+    }
+
+    public SqsAsyncMessageChannelBinder(SqsAsyncClient sqsAsyncClient, SnsAsyncClient snsAsyncClient,
+                                        SqsAsyncStreamProvisioner provisioningProvider,
+                                        SqsExtendedBindingProperties extendedBindingProperties) {
+        super(new String[0], provisioningProvider);
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.snsAsyncClient = snsAsyncClient;
+        this.extendedBindingProperties = extendedBindingProperties;
+    }
+
+    @Override
+    protected MessageHandler createProducerMessageHandler(ProducerDestination destination, ExtendedProducerProperties<SqsProducerProperties> producerProperties,
+                                                          MessageChannel errorChannel) throws Exception {
+        SqsProducerDestination sqsProducerDestination = (SqsProducerDestination) destination;
+        SqsProducerProperties extension = producerProperties.getExtension();
+        if (extension.isBatchingEnabled()) {
+            logger.warn("Batching is not supported by the sqs-sdk2 binder, messages to " + destination.getName() + " are sent one by one");
+        }
+        InFlightLimiter inFlightLimiter = extension.isAsync() ? new InFlightLimiter(extension.getMaxInFlight(),
+                                                                                   extension.isBlockWhenInFlightLimitReached()) : null;
+        if (!sqsProducerDestination.getPartitions().isEmpty()) {
+            List<MessageHandler> partitionHandlers = new ArrayList<>(sqsProducerDestination.getPartitions().size());
+            for (SqsProducerDestination partition : sqsProducerDestination.getPartitions()) {
+                partitionHandlers.add(createMessageHandler(partition, extension, inFlightLimiter, errorChannel));
+            }
+            return new PartitionRoutingMessageHandler(partitionHandlers);
+        }
+        return createMessageHandler(sqsProducerDestination, extension, inFlightLimiter, errorChannel);
+    }
+
+    private MessageHandler createMessageHandler(SqsProducerDestination sqsProducerDestination, SqsProducerProperties extension,
+                                                InFlightLimiter inFlightLimiter, MessageChannel errorChannel) {
+        AsyncPublishingMessageHandler messageHandler = new AsyncPublishingMessageHandler(this.snsAsyncClient,
+                                                                                         this.sqsAsyncClient,
+                                                                                         sqsProducerDestination);
+        // without the async property messages are published like SnsMessageHandler does: asynchronously without
+        // an in-flight limit, or synchronously to FIFO topics to keep their order
+        messageHandler.setAsync(extension.isAsync() || !extension.isFifo());
+        if (extension.isAsync()) {
+            messageHandler.setInFlightLimiter(inFlightLimiter);
+            if (extension.getSuccessChannel() != null) {
+                messageHandler.setSuccessChannel(getBeanFactory().getBean(extension.getSuccessChannel(), MessageChannel.class));
+            }
+        }
+        if (extension.getMessageGroupIdExpression() != null) {
+            messageHandler.setMessageGroupIdExpression(EXPRESSION_PARSER.parseExpression(extension.getMessageGroupIdExpression()));
+        }
+        if (extension.getMessageDeduplicationIdExpression() != null) {
+            messageHandler.setMessageDeduplicationIdExpression(EXPRESSION_PARSER.parseExpression(extension.getMessageDeduplicationIdExpression()));
+        }
+        messageHandler.setHeaderPatterns(extension.getHeaderPatterns());
+        messageHandler.setProducerTimestamp(extension.isProducerTimestamp());
+        messageHandler.setFailureChannel(errorChannel);
+        messageHandler.setBeanFactory(getBeanFactory());
+        return messageHandler;
+    }
+
+    @Override
+    protected MessageProducer createConsumerEndpoint(ConsumerDestination destination, String group, ExtendedConsumerProperties<SqsConsumerProperties> properties) throws Exception {
+        SqsConsumerProperties extension = properties.getExtension();
+        if (extension.isReactive() || extension.isBatchMode() || extension.isAdaptiveConcurrency()
+            || extension.isVisibilityHeartbeat() || extension.isDeleteBatchingEnabled()) {
+            logger.warn("Reactive and batch mode, adaptive concurrency, visibility heartbeat and delete batching are not supported "
+                        + "by the sqs-sdk2 binder and are ignored for queue " + destination.getName());
+        }
+        SqsAsyncInboundChannelAdapter adapter = new SqsAsyncInboundChannelAdapter(this.sqsAsyncClient, destination.getName());
+        adapter.setConcurrency(properties.getConcurrency());
+        if (extension.getHandlerPoolSize() != null) {
+            adapter.setHandlers(extension.getHandlerPoolSize());
+        }
+        adapter.setVisibilityTimeout(extension.getVisibilityTimeout());
+        adapter.setMaxNumberOfMessages(extension.getMaxNumberOfMessages());
+        adapter.setWaitTimeOut(extension.getWaitTimeOut());
+        if (extension.getMessageDeletionPolicy() != null) {
+            adapter.setMessageDeletionPolicy(extension.getMessageDeletionPolicy());
+        }
+        adapter.setFifo(extension.getQueue() != null && extension.getQueue().isFifoQueue());
+        adapter.setVirtualThreads(this.virtualThreads);
+        if (extension.isDeleteStoredPayloads()) {
+            adapter.setPayloadStore(payloadStore);
+        }
+        SnsAwareMessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory(extension.isRawMessageDelivery(),
+                                                                                                extension.isDecompression() ? payloadCompressors : null,
+                                                                                                payloadStore);
+        messageBuilderFactory.setStreamStoredPayloads(extension.isStreamStoredPayloads());
+        HeaderFilter headerFilter = new HeaderFilter(extension.getHeaderPatterns());
+        if (!headerFilter.isMatchingAll()) {
+            adapter.setHeaderFilter(headerFilter);
+            messageBuilderFactory.setHeaderFilter(headerFilter);
+        }
+        adapter.setMessageBuilderFactory(messageBuilderFactory);
+        adapter.setBeanFactory(getBeanFactory());
+        return adapter;
+    }
+
+    @Override
+    protected void postProcessOutputChannel(MessageChannel outputChannel, ExtendedProducerProperties<SqsProducerProperties> producerProperties) {
+        ((AbstractMessageChannel) outputChannel).addInterceptor(new SnsPayloadConvertingChannelInterceptor(producerProperties.getExtension(),
+                                                                                                           payloadCompressors,
+                                                                                                           payloadStore));
+    }
+
+    @Override
+    public SqsConsumerProperties getExtendedConsumerProperties(String channelName) {
+        return this.extendedBindingProperties.getExtendedConsumerProperties(channelName);
+    }
+
+    @Override
+    public SqsProducerProperties getExtendedProducerProperties(String channelName) {
+        return this.extendedBindingProperties.getExtendedProducerProperties(channelName);
+    }
+
+    @Override
+    public String getDefaultsPrefix() {
+        return this.extendedBindingProperties.getDefaultsPrefix();
+    }
+
+    @Override
+    public Class<? extends BinderSpecificPropertiesProvider> getExtendedPropertiesEntryClass() {
+        return this.extendedBindingProperties.getExtendedPropertiesEntryClass();
+    }
+
+    public void setExtendedBindingProperties(SqsExtendedBindingProperties extendedBindingProperties) {
+        this.extendedBindingProperties = extendedBindingProperties;
+    }
+
+    public void setPayloadCompressors(PayloadCompressors payloadCompressors) {
+        this.payloadCompressors = payloadCompressors;
+    }
+
+    public void setPayloadStore(PayloadStore payloadStore) {
+        this.payloadStore = payloadStore;
+    }
+
+    /**
+     * Whether consumer handlers run on virtual threads; ignored with a warning before Java 21.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads && VirtualThreads.isSupported();
+        if (virtualThreads && !this.virtualThreads) {
+            logger.warn("Virtual threads require Java 21 or later, consumers use platform threads");
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.CreateTopicRequest;
+import software.amazon.awssdk.services.sns.model.CreateTopicResponse;
+import software.amazon.awssdk.services.sns.model.GetSubscriptionAttributesRequest;
+import software.amazon.awssdk.services.sns.model.ListSubscriptionsByTopicRequest;
+import software.amazon.awssdk.services.sns.model.SetSubscriptionAttributesRequest;
+import software.amazon.awssdk.services.sns.model.SubscribeRequest;
+import software.amazon.awssdk.services.sns.model.Subscription;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.CreateQueueResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
+import software.amazon.awssdk.services.sqs.model.SetQueueAttributesRequest;
+
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting;
+import org.springframework.cloud.stream.binder.sqs.properties.ProvisioningMode;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsConsumerDestination;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsProducerDestination;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SubscriptionAttributes;
+import org.springframework.cloud.stream.provisioning.ConsumerDestination;
+import org.springframework.cloud.stream.provisioning.ProducerDestination;
+import org.springframework.cloud.stream.provisioning.ProvisioningException;
+import org.springframework.cloud.stream.provisioning.ProvisioningProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The {@link ProvisioningProvider} implementation for Amazon SQS on the AWS SDK v2 asynchronous clients. Provisions
+ * topics, queues and subscriptions like {@link org.springframework.cloud.stream.binder.sqs.provisioning.SqsStreamProvisioner}:
+ * independent requests are sent in parallel, topic ARNs and queue URLs are cached, and existing topics are read
+ * with a single listing with {@link ProvisioningMode#IF_MISSING} and {@link ProvisioningMode#VERIFY_ONLY}.
+ *
+ * Queues subscribed to a topic get a statement allowing the topic to send messages added to their policy.
+ *
+ * @author Maciej Walkowiak
+ */
+public class SqsAsyncStreamProvisioner implements
+                                       ProvisioningProvider<ExtendedConsumerProperties<SqsConsumerProperties>, ExtendedProducerProperties<SqsProducerProperties>> {
+
+    private static final String FIFO_SUFFIX = ".fifo";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final SnsAsyncClient snsAsyncClient;
+
+    private final Map<String, CompletableFuture<String>> topicArns = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> queueUrls = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<Map<String, String>> existingTopicArns;
+
+    private ProvisioningMode provisioningMode = ProvisioningMode.ALWAYS;
+
+    public SqsAsyncStreamProvisioner(SqsAsyncClient sqsAsyncClient, SnsAsyncClient snsAsyncClient) {
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.snsAsyncClient = snsAsyncClient;
+    }
+
+    public void setProvisioningMode(ProvisioningMode provisioningMode) {
+        this.provisioningMode = provisioningMode;
+    }
+
+    @Override
+    public ProducerDestination provisionProducerDestination(String name,
+                                                            ExtendedProducerProperties<SqsProducerProperties> properties) throws ProvisioningException {
+
+        SqsProducerProperties extension = properties.getExtension();
+        PartitionRouting partitionRouting = properties.isPartitioned() ? extension.getPartitionRouting() : PartitionRouting.FILTER_POLICY;
+        if (extension.isDirectToQueue() || partitionRouting == PartitionRouting.QUEUE) {
+            return provisionDirectProducerDestination(name, properties);
+        }
+
+        if (partitionRouting == PartitionRouting.TOPIC) {
+            List<String> partitionNames = new ArrayList<>(properties.getPartitionCount());
+            List<CompletableFuture<String>> partitionTopicArns = new ArrayList<>(properties.getPartitionCount());
+            for (int partition = 0; partition < properties.getPartitionCount(); partition++) {
+                String partitionName = partitionName(name, partition);
+                partitionNames.add(partitionName);
+                partitionTopicArns.add(topicArn(createTopicRequest(partitionName, extension.isFifo(), extension.isContentBasedDeduplication())));
+            }
+            List<SqsProducerDestination> partitions = new ArrayList<>(partitionNames.size());
+            for (int partition = 0; partition < partitionNames.size(); partition++) {
+                partitions.add(new SqsProducerDestination(partitionNames.get(partition), join(partitionTopicArns.get(partition))));
+            }
+            return new SqsProducerDestination(name, partitions);
+        }
+
+        String topicArn = join(topicArn(createTopicRequest(name, extension.isFifo(), extension.isContentBasedDeduplication())));
+        return new SqsProducerDestination(name, topicArn);
+    }
+
+    /**
+     * Provisions the queue of the single required group, or the queues of each of its partitions
+     * when the binding is partitioned, with the queue properties of the producer when they do not exist yet.
+     */
+    private ProducerDestination provisionDirectProducerDestination(String name,
+                                                                   ExtendedProducerProperties<SqsProducerProperties> properties) {
+        String[] requiredGroups = properties.getRequiredGroups();
+        if (requiredGroups == null || requiredGroups.length != 1) {
+            throw new ProvisioningException("Sending directly to a queue requires exactly one required group for destination: " + name);
+        }
+
+        SqsProducerProperties extension = properties.getExtension();
+        Map<String, String> queueAttributes = extension.getQueue() != null ? extension.getQueue().toQueueAttributes() : new HashMap<>();
+        boolean fifo = extension.isFifo() || queueAttributes.containsKey(QueueAttributeName.FIFO_QUEUE.toString());
+        if (fifo) {
+            queueAttributes.put(QueueAttributeName.FIFO_QUEUE.toString(), "true");
+        }
+        if (extension.isContentBasedDeduplication()) {
+            queueAttributes.put(QueueAttributeName.CONTENT_BASED_DEDUPLICATION.toString(), "true");
+        }
+
+        if (properties.isPartitioned()) {
+            List<String> queueNames = new ArrayList<>(properties.getPartitionCount());
+            List<CompletableFuture<String>> partitionQueueUrls = new ArrayList<>(properties.getPartitionCount());
+            for (int partition = 0; partition < properties.getPartitionCount(); partition++) {
+                String queueName = partitionName(requiredGroups[0], partition);
+                queueNames.add(queueName);
+                partitionQueueUrls.add(queueUrl(fifo ? fifoName(queueName) : queueName, queueAttributes, true));
+            }
+            List<SqsProducerDestination> partitions = new ArrayList<>(queueNames.size());
+            for (int partition = 0; partition < queueNames.size(); partition++) {
+                partitions.add(new SqsProducerDestination(queueNames.get(partition), null, join(partitionQueueUrls.get(partition))));
+            }
+            return new SqsProducerDestination(name, partitions);
+        }
+
+        String queueName = fifo ? fifoName(requiredGroups[0]) : requiredGroups[0];
+        return new SqsProducerDestination(name, null, join(queueUrl(queueName, queueAttributes, true)));
+    }
+
+    @Override
+    public ConsumerDestination provisionConsumerDestination(String name, String group,
+                                                            ExtendedConsumerProperties<SqsConsumerProperties> properties) throws ProvisioningException {
+
+        String queueName = properties.isPartitioned() ? partitionName(group, properties.getInstanceIndex()) : group;
+        boolean fifo = properties.getExtension().getQueue() != null && properties.getExtension().getQueue().isFifoQueue();
+        if (fifo) {
+            queueName = fifoName(queueName);
+        }
+
+        CompletableFuture<String> queueUrl = queueUrl(queueName,
+                                                      properties.getExtension().getQueue() != null ? properties.getExtension().getQueue().toQueueAttributes() : Collections.emptyMap(),
+                                                      false);
+
+        PartitionRouting partitionRouting = properties.isPartitioned() ? properties.getExtension().getPartitionRouting() : PartitionRouting.FILTER_POLICY;
+        if (partitionRouting == PartitionRouting.QUEUE) {
+            join(queueUrl);
+            return new SqsConsumerDestination(queueName);
+        }
+
+        String topicName = partitionRouting == PartitionRouting.TOPIC ? partitionName(name, properties.getInstanceIndex()) : name;
+        CompletableFuture<String> topicArn = topicArn(createTopicRequest(topicName, fifo, false));
+        join(subscribe(join(topicArn), join(queueUrl), partitionRouting, properties));
+
+        return new SqsConsumerDestination(queueName);
+    }
+
+    /**
+     * With {@link ProvisioningMode#IF_MISSING}, attributes missing from an existing subscription or set to another
+     * value are set; with {@link ProvisioningMode#VERIFY_ONLY} such a subscription fails the binding instead.
+     */
+    private CompletableFuture<Void> subscribe(String topicArn, String queueUrl, PartitionRouting partitionRouting,
+                                              ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        Map<String, String> attributes = SubscriptionAttributes.of(partitionRouting, properties);
+        return allowTopic(queueUrl, topicArn).thenCompose(queueArn -> {
+            if (this.provisioningMode == ProvisioningMode.ALWAYS) {
+                return createSubscription(topicArn, queueArn, attributes);
+            }
+            return subscriptionArn(topicArn, queueArn).thenCompose(subscriptionArn -> {
+                if (subscriptionArn != null) {
+                    return updateSubscription(subscriptionArn, attributes, queueUrl, topicArn);
+                }
+                if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY) {
+                    return SqsAsyncStreamProvisioner.<Void>failed(new ProvisioningException("Queue " + queueUrl + " is not subscribed to topic " + topicArn));
+                }
+                return createSubscription(topicArn, queueArn, attributes);
+            });
+        });
+    }
+
+    private CompletableFuture<Void> createSubscription(String topicArn, String queueArn, Map<String, String> attributes) {
+        return this.snsAsyncClient.subscribe(SubscribeRequest.builder()
+                                                             .topicArn(topicArn)
+                                                             .protocol("sqs")
+                                                             .endpoint(queueArn)
+                                                             .attributes(attributes)
+                                                             .build())
+                                  .thenAccept(response -> { });
+    }
+
+    private CompletableFuture<Void> updateSubscription(String subscriptionArn, Map<String, String> attributes, String queueUrl, String topicArn) {
+        GetSubscriptionAttributesRequest request = GetSubscriptionAttributesRequest.builder().subscriptionArn(subscriptionArn).build();
+        return this.snsAsyncClient.getSubscriptionAttributes(request).thenCompose(response -> {
+            Map<String, String> missingAttributes = SubscriptionAttributes.missing(attributes, response.attributes());
+            if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY && !missingAttributes.isEmpty()) {
+                return SqsAsyncStreamProvisioner.<Void>failed(new ProvisioningException("Subscription of queue " + queueUrl + " to topic " + topicArn
+                                                                                        + " does not have the attributes " + missingAttributes));
+            }
+            List<CompletableFuture<?>> updates = new ArrayList<>(missingAttributes.size());
+            for (Map.Entry<String, String> attribute : missingAttributes.entrySet()) {
+                updates.add(this.snsAsyncClient.setSubscriptionAttributes(SetSubscriptionAttributesRequest.builder()
+                                                                                                          .subscriptionArn(subscriptionArn)
+                                                                                                          .attributeName(attribute.getKey())
+                                                                                                          .attributeValue(attribute.getValue())
+                                                                                                          .build()));
+            }
+            return CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0]));
+        });
+    }
+
+    /**
+     * @return the ARN of the subscription of the queue to the topic, {@code null} when the queue is not subscribed
+     */
+    private CompletableFuture<String> subscriptionArn(String topicArn, String queueArn) {
+        List<Subscription> subscriptions = Collections.synchronizedList(new ArrayList<>());
+        return this.snsAsyncClient.listSubscriptionsByTopicPaginator(ListSubscriptionsByTopicRequest.builder().topicArn(topicArn).build())
+                                  .subscriptions()
+                                  .subscribe(subscriptions::add)
+                                  .thenApply(done -> subscriptions.stream()
+                                                                  .filter(subscription -> queueArn.equals(subscription.endpoint()))
+                                                                  .map(Subscription::subscriptionArn)
+                                                                  .findFirst()
+                                                                  .orElse(null));
+    }
+
+    /**
+     * Adds a statement allowing the topic to send messages to the queue to the queue's policy, unless a statement
+     * of the policy already has the topic as its {@code aws:SourceArn} condition.
+     *
+     * @return the ARN of the queue
+     */
+    private CompletableFuture<String> allowTopic(String queueUrl, String topicArn) {
+        GetQueueAttributesRequest request = GetQueueAttributesRequest.builder()
+                                                                     .queueUrl(queueUrl)
+                                                                     .attributeNames(QueueAttributeName.QUEUE_ARN, QueueAttributeName.POLICY)
+                                                                     .build();
+        return this.sqsAsyncClient.getQueueAttributes(request).thenCompose(response -> {
+            String queueArn = response.attributes().get(QueueAttributeName.QUEUE_ARN);
+            String policy = response.attributes().get(QueueAttributeName.POLICY);
+            if (policy != null && allowsTopic(policy, queueArn, topicArn)) {
+                return CompletableFuture.completedFuture(queueArn);
+            }
+            Map<QueueAttributeName, String> attributes = Collections.singletonMap(QueueAttributeName.POLICY,
+                                                                                  policyAllowingTopic(policy, queueArn, topicArn));
+            return this.sqsAsyncClient.setQueueAttributes(SetQueueAttributesRequest.builder()
+                                                                                   .queueUrl(queueUrl)
+                                                                                   .attributes(attributes)
+                                                                                   .build())
+                                      .thenApply(done -> queueArn);
+        });
+    }
+
+    private boolean allowsTopic(String policy, String queueArn, String topicArn) {
+        try {
+            for (JsonNode statement : this.objectMapper.readTree(policy).path("Statement")) {
+                for (JsonNode condition : statement.path("Condition")) {
+                    JsonNode sourceArn = condition.path("aws:SourceArn");
+                    if (topicArn.equals(sourceArn.asText()) || (sourceArn.isArray() && contains(sourceArn, topicArn))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to read the policy of queue " + queueArn, e);
+        }
+    }
+
+    private static boolean contains(JsonNode values, String value) {
+        for (JsonNode element : values) {
+            if (value.equals(element.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String policyAllowingTopic(String policy, String queueArn, String topicArn) {
+        try {
+            ObjectNode document = policy != null ? (ObjectNode) this.objectMapper.readTree(policy) : this.objectMapper.createObjectNode();
+            document.put("Version", "2012-10-17");
+            ArrayNode statements = document.has("Statement") ? (ArrayNode) document.get("Statement") : document.putArray("Statement");
+            ObjectNode statement = statements.addObject();
+            statement.put("Sid", "topic-subscription-" + topicArn);
+            statement.put("Effect", "Allow");
+            statement.putObject("Principal").put("AWS", "*");
+            statement.put("Action", "SQS:SendMessage");
+            statement.put("Resource", queueArn);
+            statement.putObject("Condition").putObject("ArnLike").put("aws:SourceArn", topicArn);
+            return this.objectMapper.writeValueAsString(document);
+        } catch (IOException | ClassCastException e) {
+            throw new ProvisioningException("Failed to add topic " + topicArn + " to the policy of queue " + queueArn, e);
+        }
+    }
+
+    private CompletableFuture<String> topicArn(CreateTopicRequest createTopicRequest) {
+        return cached(this.topicArns, createTopicRequest.name(), topicName -> {
+            if (this.provisioningMode == ProvisioningMode.ALWAYS) {
+                return createTopic(createTopicRequest);
+            }
+            return existingTopicArns().thenCompose(existingTopicArns -> {
+                String existingTopicArn = existingTopicArns.get(topicName);
+                if (existingTopicArn != null) {
+                    return CompletableFuture.completedFuture(existingTopicArn);
+                }
+                if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY) {
+                    return failed(new ProvisioningException("Topic " + topicName + " does not exist"));
+                }
+                return createTopic(createTopicRequest);
+            });
+        });
+    }
+
+    private CompletableFuture<String> createTopic(CreateTopicRequest createTopicRequest) {
+        return this.snsAsyncClient.createTopic(createTopicRequest).thenApply(CreateTopicResponse::topicArn);
+    }
+
+    /**
+     * @param lookUp whether an existing queue is looked up before it is created, regardless of the provisioning
+     *               mode, so that a queue created with other attributes, for example by its consumer, is used as is
+     */
+    private CompletableFuture<String> queueUrl(String queueName, Map<String, String> queueAttributes, boolean lookUp) {
+        return cached(this.queueUrls, queueName, name -> {
+            if (!lookUp && this.provisioningMode == ProvisioningMode.ALWAYS) {
+                return createQueue(name, queueAttributes);
+            }
+            CompletableFuture<String> queueUrl = new CompletableFuture<>();
+            this.sqsAsyncClient.getQueueUrl(GetQueueUrlRequest.builder().queueName(name).build())
+                               .whenComplete((result, exception) -> {
+                                   Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+                                   if (cause == null) {
+                                       queueUrl.complete(result.queueUrl());
+                                   } else if (!(cause instanceof QueueDoesNotExistException)) {
+                                       queueUrl.completeExceptionally(cause);
+                                   } else if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY) {
+                                       queueUrl.completeExceptionally(new ProvisioningException("Queue " + name + " does not exist"));
+                                   } else {
+                                       createQueue(name, queueAttributes).whenComplete((createdQueueUrl, createException) -> {
+                                           if (createException == null) {
+                                               queueUrl.complete(createdQueueUrl);
+                                           } else {
+                                               queueUrl.completeExceptionally(createException);
+                                           }
+                                       });
+                                   }
+                               });
+            return queueUrl;
+        });
+    }
+
+    private CompletableFuture<String> createQueue(String queueName, Map<String, String> queueAttributes) {
+        return this.sqsAsyncClient.createQueue(CreateQueueRequest.builder()
+                                                                 .queueName(queueName)
+                                                                 .attributesWithStrings(queueAttributes)
+                                                                 .build())
+                                  .thenApply(CreateQueueResponse::queueUrl);
+    }
+
+    /**
+     * @return ARNs of all topics existing when first called, by topic name
+     */
+    private CompletableFuture<Map<String, String>> existingTopicArns() {
+        CompletableFuture<Map<String, String>> topics = this.existingTopicArns;
+        if (topics == null) {
+            synchronized (this) {
+                topics = this.existingTopicArns;
+                if (topics == null) {
+                    Map<String, String> topicArns = new ConcurrentHashMap<>();
+                    topics = this.snsAsyncClient.listTopicsPaginator()
+                                                .topics()
+                                                .subscribe(topic -> topicArns.put(topic.topicArn().substring(topic.topicArn().lastIndexOf(':') + 1),
+                                                                                  topic.topicArn()))
+                                                .thenApply(done -> topicArns);
+                    this.existingTopicArns = topics;
+                }
+            }
+        }
+        return topics;
+    }
+
+    /**
+     * Provisions a resource once per name. Failed provisioning is removed from the cache, so it is retried
+     * by the next binding.
+     */
+    private static CompletableFuture<String> cached(Map<String, CompletableFuture<String>> cache, String name,
+                                                    Function<String, CompletableFuture<String>> provisioning) {
+        CompletableFuture<String> future = cache.computeIfAbsent(name, provisioning);
+        future.whenComplete((result, exception) -> {
+            if (exception != null) {
+                cache.remove(name, future);
+            }
+        });
+        return future;
+    }
+
+    private static <T> CompletableFuture<T> failed(Exception exception) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ProvisioningException) {
+                throw (ProvisioningException) e.getCause();
+            }
+            throw new ProvisioningException("Provisioning failed", e.getCause());
+        }
+    }
+
+    private CreateTopicRequest createTopicRequest(String name, boolean fifo, boolean contentBasedDeduplication) {
+        if (!fifo) {
+            return CreateTopicRequest.builder().name(name).build();
+        }
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("FifoTopic", "true");
+        if (contentBasedDeduplication) {
+            attributes.put("ContentBasedDeduplication", "true");
+        }
+        return CreateTopicRequest.builder().name(fifoName(name)).attributes(attributes).build();
+    }
+
+    private static String partitionName(String name, int partition) {
+        return name + "-" + partition;
+    }
+
+    private static String fifoName(String name) {
+        return name.endsWith(FIFO_SUFFIX) ? name : name + FIFO_SUFFIX;
+    }
+}
@@ -0,0 +1,92 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2.config;
+
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSSessionCredentials;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.awscore.client.builder.AwsAsyncClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+
+import org.springframework.cloud.aws.core.region.RegionProvider;
+import org.springframework.cloud.stream.binder.sqs.VirtualThreads;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsBinderConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the AWS SDK v2 asynchronous SQS and SNS clients of the binder on a shared {@link SdkAsyncHttpClient},
+ * with the request timeout and executor of the {@link SqsBinderConfigurationProperties.ClientProperties}.
+ * The region and credentials of Spring Cloud AWS are used when configured, otherwise the default provider chains
+ * of the SDK.
+ *
+ * @author Maciej Walkowiak
+ */
+class AsyncClientFactory {
+
+    private final SdkAsyncHttpClient httpClient;
+    private final AWSCredentialsProvider awsCredentialsProvider;
+    private final RegionProvider regionProvider;
+    private final SqsBinderConfigurationProperties binderConfigurationProperties;
+
+    /**
+     * @param awsCredentialsProvider credentials of Spring Cloud AWS, or {@code null}
+     * @param regionProvider region of Spring Cloud AWS, or {@code null}
+     */
+    AsyncClientFactory(SdkAsyncHttpClient httpClient, AWSCredentialsProvider awsCredentialsProvider, RegionProvider regionProvider,
+                       SqsBinderConfigurationProperties binderConfigurationProperties) {
+        this.httpClient = httpClient;
+        this.awsCredentialsProvider = awsCredentialsProvider;
+        this.regionProvider = regionProvider;
+        this.binderConfigurationProperties = binderConfigurationProperties;
+    }
+
+    /**
+     * @param client name of the client, used for the names of its threads
+     */
+    <B extends AwsClientBuilder<B, C> & AwsAsyncClientBuilder<B, C>, C> C build(B builder, String client) {
+        builder.httpClient(this.httpClient);
+        if (this.awsCredentialsProvider != null) {
+            builder.credentialsProvider(() -> credentials(this.awsCredentialsProvider.getCredentials()));
+        }
+        if (this.regionProvider != null) {
+            builder.region(Region.of(this.regionProvider.getRegion().getName()));
+        }
+        SqsBinderConfigurationProperties.ClientProperties properties = this.binderConfigurationProperties.getClient();
+        if (properties.getRequestTimeout() != null) {
+            builder.overrideConfiguration(ClientOverrideConfiguration.builder()
+                                                                     .apiCallAttemptTimeout(Duration.ofMillis(properties.getRequestTimeout()))
+                                                                     .build());
+        }
+        Executor executor = null;
+        if (this.binderConfigurationProperties.isVirtualThreads() && VirtualThreads.isSupported()) {
+            executor = VirtualThreads.newExecutor(client + "-client-");
+        } else if (properties.getAsyncExecutorThreads() != null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(client + "-client-");
+            threadFactory.setDaemon(true);
+            executor = Executors.newFixedThreadPool(properties.getAsyncExecutorThreads(), threadFactory);
+        }
+        if (executor != null) {
+            builder.asyncConfiguration(ClientAsyncConfiguration.builder()
+                                                               .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, executor)
+                                                               .build());
+        }
+        return builder.build();
+    }
+
+    private static software.amazon.awssdk.auth.credentials.AwsCredentials credentials(AWSCredentials credentials) {
+        if (credentials instanceof AWSSessionCredentials) {
+            return AwsSessionCredentials.create(credentials.getAWSAccessKeyId(), credentials.getAWSSecretKey(),
+                                                ((AWSSessionCredentials) credentials).getSessionToken());
+        }
+        return AwsBasicCredentials.create(credentials.getAWSAccessKeyId(), credentials.getAWSSecretKey());
+    }
+}
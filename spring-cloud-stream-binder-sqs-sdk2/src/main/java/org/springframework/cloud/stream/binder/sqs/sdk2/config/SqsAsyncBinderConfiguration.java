@@ -0,0 +1,137 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2.config;
+
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.aws.core.region.RegionProvider;
+import org.springframework.cloud.stream.binder.Binder;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.cloud.stream.binder.sqs.payload.S3PayloadStore;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsBinderConfigurationProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsExtendedBindingProperties;
+import org.springframework.cloud.stream.binder.sqs.sdk2.SqsAsyncMessageChannelBinder;
+import org.springframework.cloud.stream.binder.sqs.sdk2.SqsAsyncStreamProvisioner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * The configuration of the Spring Cloud Stream SQS Binder on the AWS SDK v2 asynchronous clients, sharing a
+ * non-blocking Netty HTTP client configured with the {@code spring.cloud.stream.sqs.binder.client} properties.
+ *
+ * @author Maciej Walkowiak
+ */
+@Configuration
+@ConditionalOnMissingBean(Binder.class)
+@EnableConfigurationProperties({SqsBinderConfigurationProperties.class,
+                                SqsExtendedBindingProperties.class})
+public class SqsAsyncBinderConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SdkAsyncHttpClient sdkAsyncHttpClient(SqsBinderConfigurationProperties binderConfigurationProperties) {
+        SqsBinderConfigurationProperties.ClientProperties properties = binderConfigurationProperties.getClient();
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                                                                         .tcpKeepAlive(properties.isTcpKeepAlive());
+        if (properties.getMaxConnections() != null) {
+            builder.maxConcurrency(properties.getMaxConnections());
+        }
+        if (properties.getConnectionTimeout() != null) {
+            builder.connectionTimeout(Duration.ofMillis(properties.getConnectionTimeout()));
+        }
+        if (properties.getConnectionTtl() != null) {
+            builder.connectionTimeToLive(Duration.ofMillis(properties.getConnectionTtl()));
+        }
+        if (properties.getSocketTimeout() != null) {
+            builder.readTimeout(Duration.ofMillis(properties.getSocketTimeout()));
+            builder.writeTimeout(Duration.ofMillis(properties.getSocketTimeout()));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SnsAsyncClient snsAsyncClient(SdkAsyncHttpClient sdkAsyncHttpClient,
+                                         ObjectProvider<AWSCredentialsProvider> awsCredentialsProvider,
+                                         ObjectProvider<RegionProvider> regionProvider,
+                                         SqsBinderConfigurationProperties binderConfigurationProperties) {
+        return new AsyncClientFactory(sdkAsyncHttpClient, awsCredentialsProvider.getIfAvailable(), regionProvider.getIfAvailable(),
+                                      binderConfigurationProperties)
+                .build(SnsAsyncClient.builder(), "sns");
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SqsAsyncClient sqsAsyncClient(SdkAsyncHttpClient sdkAsyncHttpClient,
+                                         ObjectProvider<AWSCredentialsProvider> awsCredentialsProvider,
+                                         ObjectProvider<RegionProvider> regionProvider,
+                                         SqsBinderConfigurationProperties binderConfigurationProperties) {
+        return new AsyncClientFactory(sdkAsyncHttpClient, awsCredentialsProvider.getIfAvailable(), regionProvider.getIfAvailable(),
+                                      binderConfigurationProperties)
+                .build(SqsAsyncClient.builder(), "sqs");
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadCompressors payloadCompressors(ObjectProvider<PayloadCompressor> payloadCompressors) {
+        return new PayloadCompressors(payloadCompressors.orderedStream().collect(Collectors.toList()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty("spring.cloud.stream.sqs.binder.claim-check.bucket")
+    public PayloadStore payloadStore(ObjectProvider<AmazonS3> amazonS3,
+                                     ObjectProvider<AWSCredentialsProvider> awsCredentialsProvider,
+                                     ObjectProvider<RegionProvider> regionProvider,
+                                     SqsBinderConfigurationProperties binderConfigurationProperties) {
+        AmazonS3 s3 = amazonS3.getIfAvailable(() -> {
+            AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard();
+            awsCredentialsProvider.ifAvailable(builder::setCredentials);
+            regionProvider.ifAvailable(provider -> builder.setRegion(provider.getRegion().getName()));
+            return builder.build();
+        });
+        return new S3PayloadStore(s3,
+                                  binderConfigurationProperties.getClaimCheck().getBucket(),
+                                  binderConfigurationProperties.getClaimCheck().getKeyPrefix());
+    }
+
+    @Bean
+    public SqsAsyncStreamProvisioner provisioningProvider(SqsAsyncClient sqsAsyncClient,
+                                                          SnsAsyncClient snsAsyncClient,
+                                                          SqsBinderConfigurationProperties binderConfigurationProperties) {
+        SqsAsyncStreamProvisioner provisioner = new SqsAsyncStreamProvisioner(sqsAsyncClient, snsAsyncClient);
+        provisioner.setProvisioningMode(binderConfigurationProperties.getProvisioningMode());
+        return provisioner;
+    }
+
+    @Bean
+    public SqsAsyncMessageChannelBinder sqsAsyncMessageChannelBinder(SqsAsyncClient sqsAsyncClient,
+                                                                     SnsAsyncClient snsAsyncClient,
+                                                                     SqsAsyncStreamProvisioner provisioningProvider,
+                                                                     SqsExtendedBindingProperties sqsExtendedBindingProperties,
+                                                                     PayloadCompressors payloadCompressors,
+                                                                     ObjectProvider<PayloadStore> payloadStore,
+                                                                     SqsBinderConfigurationProperties binderConfigurationProperties) {
+        SqsAsyncMessageChannelBinder binder = new SqsAsyncMessageChannelBinder(sqsAsyncClient,
+                                                                               snsAsyncClient,
+                                                                               provisioningProvider,
+                                                                               sqsExtendedBindingProperties);
+        binder.setPayloadCompressors(payloadCompressors);
+        binder.setPayloadStore(payloadStore.getIfAvailable());
+        binder.setVirtualThreads(binderConfigurationProperties.isVirtualThreads());
+        return binder;
+    }
+}
@@ -0,0 +1,141 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.stream.binder.sqs.InFlightLimiter;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderHeaders;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsProducerDestination;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncPublishingMessageHandlerTest {
+
+    private SnsAsyncClient sns;
+    private SqsAsyncClient sqs;
+    private QueueChannel failureChannel;
+    private QueueChannel successChannel;
+
+    @Before
+    public void setup() {
+        this.sns = mock(SnsAsyncClient.class);
+        this.sqs = mock(SqsAsyncClient.class);
+        this.failureChannel = new QueueChannel();
+        this.successChannel = new QueueChannel();
+    }
+
+    @Test
+    public void publishesToTopic() {
+        when(sns.publish(any(PublishRequest.class))).thenReturn(CompletableFuture.completedFuture(PublishResponse.builder().messageId("id").build()));
+        AsyncPublishingMessageHandler handler = handler(new SqsProducerDestination("topic", "topic-arn"));
+
+        handler.handleMessage(MessageBuilder.withPayload("a").setHeader("header", "value").build());
+
+        ArgumentCaptor<PublishRequest> request = ArgumentCaptor.forClass(PublishRequest.class);
+        verify(sns).publish(request.capture());
+        assertThat(request.getValue().topicArn()).isEqualTo("topic-arn");
+        assertThat(request.getValue().message()).isEqualTo("a");
+        assertThat(request.getValue().messageAttributes().get("header").stringValue()).isEqualTo("value");
+        assertThat(request.getValue().messageAttributes()).doesNotContainKey(SqsBinderHeaders.RAW_MESSAGE);
+        verify(sqs, never()).sendMessage(any(SendMessageRequest.class));
+        assertThat(successChannel.receive(0).getHeaders()).containsEntry(AwsHeaders.MESSAGE_ID, "id");
+    }
+
+    @Test
+    public void sendsToQueue() {
+        when(sqs.sendMessage(any(SendMessageRequest.class))).thenReturn(CompletableFuture.completedFuture(SendMessageResponse.builder().messageId("id").build()));
+        AsyncPublishingMessageHandler handler = handler(new SqsProducerDestination("queue", null, "queue-url"));
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        ArgumentCaptor<SendMessageRequest> request = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqs).sendMessage(request.capture());
+        assertThat(request.getValue().queueUrl()).isEqualTo("queue-url");
+        assertThat(request.getValue().messageBody()).isEqualTo("a");
+        assertThat(request.getValue().messageAttributes().get(SqsBinderHeaders.RAW_MESSAGE).stringValue()).isEqualTo("true");
+        verify(sns, never()).publish(any(PublishRequest.class));
+        assertThat(successChannel.receive(0).getHeaders()).containsEntry(AwsHeaders.MESSAGE_ID, "id");
+    }
+
+    @Test
+    public void releasesInFlightPermitOnceSent() {
+        CompletableFuture<PublishResponse> response = new CompletableFuture<>();
+        when(sns.publish(any(PublishRequest.class))).thenReturn(response);
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(1, false);
+        AsyncPublishingMessageHandler handler = handler(new SqsProducerDestination("topic", "topic-arn"));
+        handler.setInFlightLimiter(inFlightLimiter);
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        assertThatThrownBy(() -> handler.handleMessage(MessageBuilder.withPayload("b").build()))
+                .isInstanceOf(MessageDeliveryException.class);
+
+        response.complete(PublishResponse.builder().messageId("id").build());
+        handler.handleMessage(MessageBuilder.withPayload("c").build());
+        verify(sns, times(2)).publish(any(PublishRequest.class));
+    }
+
+    @Test
+    public void reportsFailuresToFailureChannelAndReleasesInFlightPermit() {
+        CompletableFuture<PublishResponse> response = new CompletableFuture<>();
+        response.completeExceptionally(new IllegalStateException("throttled"));
+        when(sns.publish(any(PublishRequest.class))).thenReturn(response);
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(1, false);
+        AsyncPublishingMessageHandler handler = handler(new SqsProducerDestination("topic", "topic-arn"));
+        handler.setInFlightLimiter(inFlightLimiter);
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        Message<?> error = failureChannel.receive(0);
+        assertThat(error.getPayload()).isInstanceOf(MessageDeliveryException.class);
+        assertThat(((MessageDeliveryException) error.getPayload()).getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(successChannel.receive(0)).isNull();
+        handler.handleMessage(MessageBuilder.withPayload("b").build());
+        verify(sns, times(2)).publish(any(PublishRequest.class));
+    }
+
+    @Test
+    public void throwsFailuresToSendingThreadInSyncMode() {
+        CompletableFuture<PublishResponse> response = new CompletableFuture<>();
+        response.completeExceptionally(new IllegalStateException("throttled"));
+        when(sns.publish(any(PublishRequest.class))).thenReturn(response);
+        AsyncPublishingMessageHandler handler = handler(new SqsProducerDestination("topic", "topic-arn"));
+        handler.setAsync(false);
+
+        assertThatThrownBy(() -> handler.handleMessage(MessageBuilder.withPayload("a").build()))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(failureChannel.receive(0)).isNull();
+    }
+
+    private AsyncPublishingMessageHandler handler(SqsProducerDestination destination) {
+        AsyncPublishingMessageHandler handler = new AsyncPublishingMessageHandler(sns, sqs, destination);
+        handler.setAsync(true);
+        handler.setFailureChannel(failureChannel);
+        handler.setSuccessChannel(successChannel);
+        handler.setBeanFactory(new DefaultListableBeanFactory());
+        return handler;
+    }
+}
@@ -0,0 +1,137 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.stream.binder.sqs.SnsAwareMessageBuilderFactory;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderHeaders;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SqsAsyncInboundChannelAdapterTest {
+
+    private SqsAsyncClient sqs;
+    private QueueChannel outputChannel;
+    private SqsAsyncInboundChannelAdapter adapter;
+
+    @Before
+    public void setup() {
+        this.sqs = mock(SqsAsyncClient.class);
+        when(sqs.getQueueUrl(any(GetQueueUrlRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetQueueUrlResponse.builder().queueUrl("queue-url").build()));
+        when(sqs.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetQueueAttributesResponse.builder().build()));
+        when(sqs.deleteMessage(any(DeleteMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteMessageResponse.builder().build()));
+
+        this.outputChannel = new QueueChannel();
+        this.adapter = new SqsAsyncInboundChannelAdapter(sqs, "queue");
+        this.adapter.setOutputChannel(outputChannel);
+        this.adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true, null, null));
+        this.adapter.setBeanFactory(new DefaultListableBeanFactory());
+    }
+
+    @After
+    public void tearDown() {
+        this.adapter.stop();
+    }
+
+    @Test
+    public void deliversMessagesWithAttributesAndDeletesThem() {
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(ReceiveMessageResponse.builder()
+                                                                                    .messages(sqsMessage("1", "a"), sqsMessage("2", "b"))
+                                                                                    .build()))
+                .thenReturn(new CompletableFuture<>());
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> first = outputChannel.receive(5000);
+        Message<?> second = outputChannel.receive(5000);
+
+        assertThat(first.getHeaders()).containsEntry(AwsHeaders.QUEUE, "queue")
+                                      .containsEntry("attribute", "value");
+        assertThat(new Object[] {first.getPayload(), second.getPayload()}).containsExactlyInAnyOrder("a", "b");
+        verify(sqs, timeout(5000).times(2)).deleteMessage(any(DeleteMessageRequest.class));
+    }
+
+    @Test
+    public void receivesNoMoreMessagesThanFreeHandlers() {
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new CompletableFuture<>());
+        adapter.setConcurrency(3);
+        adapter.setHandlers(1);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        ArgumentCaptor<ReceiveMessageRequest> request = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(sqs, timeout(5000).times(1)).receiveMessage(request.capture());
+        assertThat(request.getValue().queueUrl()).isEqualTo("queue-url");
+        assertThat(request.getValue().maxNumberOfMessages()).isEqualTo(1);
+    }
+
+    @Test
+    public void deletesStoredPayloadOnlyOnceMessageIsDeleted() throws Exception {
+        PayloadStore payloadStore = mock(PayloadStore.class);
+        when(payloadStore.retrieve("pointer")).thenReturn(new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8)));
+        CompletableFuture<DeleteMessageResponse> deleted = new CompletableFuture<>();
+        when(sqs.deleteMessage(any(DeleteMessageRequest.class))).thenReturn(deleted);
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(ReceiveMessageResponse.builder()
+                                                                                    .messages(sqsMessage("1", "pointer").toBuilder()
+                                                                                                                        .messageAttributes(Collections.singletonMap(SqsBinderHeaders.CLAIM_CHECK,
+                                                                                                                                MessageAttributeValue.builder().dataType("String").stringValue("pointer").build()))
+                                                                                                                        .build())
+                                                                                    .build()))
+                .thenReturn(new CompletableFuture<>());
+        adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true, null, payloadStore));
+        adapter.setPayloadStore(payloadStore);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        assertThat(outputChannel.receive(5000).getPayload()).isEqualTo("a".getBytes(StandardCharsets.UTF_8));
+        verify(sqs, timeout(5000)).deleteMessage(any(DeleteMessageRequest.class));
+        verify(payloadStore, never()).delete(anyString());
+
+        deleted.complete(DeleteMessageResponse.builder().build());
+        verify(payloadStore, timeout(5000)).delete("pointer");
+    }
+
+    private static software.amazon.awssdk.services.sqs.model.Message sqsMessage(String id, String body) {
+        return software.amazon.awssdk.services.sqs.model.Message.builder()
+                                                                .messageId(id)
+                                                                .receiptHandle("receipt-" + id)
+                                                                .body(body)
+                                                                .messageAttributes(Collections.singletonMap("attribute",
+                                                                        MessageAttributeValue.builder().dataType("String").stringValue("value").build()))
+                                                                .build();
+    }
+}
@@ -0,0 +1,256 @@
+package org.springframework.cloud.stream.binder.sqs.sdk2;
+
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.CreateTopicRequest;
+import software.amazon.awssdk.services.sns.model.CreateTopicResponse;
+import software.amazon.awssdk.services.sns.model.GetSubscriptionAttributesRequest;
+import software.amazon.awssdk.services.sns.model.GetSubscriptionAttributesResponse;
+import software.amazon.awssdk.services.sns.model.ListSubscriptionsByTopicRequest;
+import software.amazon.awssdk.services.sns.model.ListSubscriptionsByTopicResponse;
+import software.amazon.awssdk.services.sns.model.ListTopicsRequest;
+import software.amazon.awssdk.services.sns.model.ListTopicsResponse;
+import software.amazon.awssdk.services.sns.model.SetSubscriptionAttributesRequest;
+import software.amazon.awssdk.services.sns.model.SetSubscriptionAttributesResponse;
+import software.amazon.awssdk.services.sns.model.SubscribeRequest;
+import software.amazon.awssdk.services.sns.model.SubscribeResponse;
+import software.amazon.awssdk.services.sns.model.Subscription;
+import software.amazon.awssdk.services.sns.model.Topic;
+import software.amazon.awssdk.services.sns.paginators.ListSubscriptionsByTopicPublisher;
+import software.amazon.awssdk.services.sns.paginators.ListTopicsPublisher;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.CreateQueueResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
+import software.amazon.awssdk.services.sqs.model.SetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.SetQueueAttributesResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting;
+import org.springframework.cloud.stream.binder.sqs.properties.ProvisioningMode;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsProducerDestination;
+import org.springframework.cloud.stream.provisioning.ProvisioningException;
+import org.springframework.expression.common.LiteralExpression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SqsAsyncStreamProvisionerTest {
+
+    private SqsAsyncClient sqs;
+    private SnsAsyncClient sns;
+    private SqsAsyncStreamProvisioner provisioner;
+
+    @Before
+    public void setup() {
+        this.sqs = mock(SqsAsyncClient.class);
+        this.sns = mock(SnsAsyncClient.class);
+        when(sqs.createQueue(any(CreateQueueRequest.class))).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                CreateQueueResponse.builder().queueUrl("url-" + invocation.<CreateQueueRequest>getArgument(0).queueName()).build()));
+        when(sqs.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                GetQueueAttributesResponse.builder().attributes(Collections.singletonMap(QueueAttributeName.QUEUE_ARN, "queue-arn")).build()));
+        when(sqs.setQueueAttributes(any(SetQueueAttributesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(SetQueueAttributesResponse.builder().build()));
+        when(sns.createTopic(any(CreateTopicRequest.class))).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                CreateTopicResponse.builder().topicArn("arn:aws:sns:eu-west-1:1:" + invocation.<CreateTopicRequest>getArgument(0).name()).build()));
+        when(sns.subscribe(any(SubscribeRequest.class))).thenReturn(CompletableFuture.completedFuture(SubscribeResponse.builder().build()));
+        when(sns.listTopicsPaginator()).thenAnswer(invocation -> new ListTopicsPublisher(sns, ListTopicsRequest.builder().build()));
+        when(sns.listSubscriptionsByTopicPaginator(any(ListSubscriptionsByTopicRequest.class)))
+                .thenAnswer(invocation -> new ListSubscriptionsByTopicPublisher(sns, invocation.getArgument(0)));
+
+        this.provisioner = new SqsAsyncStreamProvisioner(sqs, sns);
+    }
+
+    @Test
+    public void createsFifoQueueAndTopicAndSubscribesQueue() {
+        ExtendedConsumerProperties<SqsConsumerProperties> properties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        properties.getExtension().setQueue(new SqsConsumerProperties.QueueProperties());
+        properties.getExtension().getQueue().setFifoQueue(true);
+
+        assertThat(provisioner.provisionConsumerDestination("topic", "group", properties).getName()).isEqualTo("group.fifo");
+
+        ArgumentCaptor<CreateQueueRequest> queue = ArgumentCaptor.forClass(CreateQueueRequest.class);
+        verify(sqs).createQueue(queue.capture());
+        assertThat(queue.getValue().queueName()).isEqualTo("group.fifo");
+        assertThat(queue.getValue().attributesAsStrings()).containsEntry("FifoQueue", "true");
+        ArgumentCaptor<CreateTopicRequest> topic = ArgumentCaptor.forClass(CreateTopicRequest.class);
+        verify(sns).createTopic(topic.capture());
+        assertThat(topic.getValue().name()).isEqualTo("topic.fifo");
+        assertThat(topic.getValue().attributes()).containsEntry("FifoTopic", "true");
+        ArgumentCaptor<SubscribeRequest> subscription = ArgumentCaptor.forClass(SubscribeRequest.class);
+        verify(sns).subscribe(subscription.capture());
+        assertThat(subscription.getValue().topicArn()).isEqualTo("arn:aws:sns:eu-west-1:1:topic.fifo");
+        assertThat(subscription.getValue().endpoint()).isEqualTo("queue-arn");
+        ArgumentCaptor<SetQueueAttributesRequest> policy = ArgumentCaptor.forClass(SetQueueAttributesRequest.class);
+        verify(sqs).setQueueAttributes(policy.capture());
+        assertThat(policy.getValue().attributes().get(QueueAttributeName.POLICY)).contains("arn:aws:sns:eu-west-1:1:topic.fifo");
+    }
+
+    @Test
+    public void allowsTopicInPolicyAllowingOtherTopicWithSameArnPrefix() {
+        queuePolicy("arn:aws:sns:eu-west-1:1:topic-dlq");
+
+        provisioner.provisionConsumerDestination("topic", "group", new ExtendedConsumerProperties<>(new SqsConsumerProperties()));
+
+        ArgumentCaptor<SetQueueAttributesRequest> policy = ArgumentCaptor.forClass(SetQueueAttributesRequest.class);
+        verify(sqs).setQueueAttributes(policy.capture());
+        assertThat(policy.getValue().attributes().get(QueueAttributeName.POLICY))
+                .contains("\"arn:aws:sns:eu-west-1:1:topic-dlq\"", "\"arn:aws:sns:eu-west-1:1:topic\"");
+    }
+
+    @Test
+    public void keepsPolicyAlreadyAllowingTopic() {
+        queuePolicy("arn:aws:sns:eu-west-1:1:topic");
+
+        provisioner.provisionConsumerDestination("topic", "group", new ExtendedConsumerProperties<>(new SqsConsumerProperties()));
+
+        verify(sqs, never()).setQueueAttributes(any(SetQueueAttributesRequest.class));
+    }
+
+    @Test
+    public void subscribesPartitionQueueWithFilterPolicy() {
+        ExtendedConsumerProperties<SqsConsumerProperties> properties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        properties.setPartitioned(true);
+        properties.setInstanceIndex(1);
+
+        assertThat(provisioner.provisionConsumerDestination("topic", "group", properties).getName()).isEqualTo("group-1");
+
+        ArgumentCaptor<SubscribeRequest> subscription = ArgumentCaptor.forClass(SubscribeRequest.class);
+        verify(sns).subscribe(subscription.capture());
+        assertThat(subscription.getValue().attributes().get("FilterPolicy")).contains("[1]");
+    }
+
+    @Test
+    public void createsTopicPerPartitionWithTopicRouting() {
+        ExtendedProducerProperties<SqsProducerProperties> properties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        properties.setPartitionCount(2);
+        properties.setPartitionKeyExpression(new LiteralExpression("key"));
+        properties.getExtension().setPartitionRouting(PartitionRouting.TOPIC);
+
+        SqsProducerDestination destination = (SqsProducerDestination) provisioner.provisionProducerDestination("topic", properties);
+
+        assertThat(destination.getPartitions()).extracting("topicArn")
+                                               .containsExactly("arn:aws:sns:eu-west-1:1:topic-0", "arn:aws:sns:eu-west-1:1:topic-1");
+    }
+
+    @Test
+    public void createsTopicOnceForSeveralBindings() {
+        ExtendedProducerProperties<SqsProducerProperties> properties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+
+        provisioner.provisionProducerDestination("topic", properties);
+        provisioner.provisionProducerDestination("topic", properties);
+
+        verify(sns, times(1)).createTopic(any(CreateTopicRequest.class));
+    }
+
+    @Test
+    public void reusesExistingTopicAndSubscriptionWhenProvisioningIfMissing() {
+        when(sns.listTopics(any(ListTopicsRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                ListTopicsResponse.builder().topics(Topic.builder().topicArn("arn:aws:sns:eu-west-1:1:topic").build()).build()));
+        when(sns.listSubscriptionsByTopic(any(ListSubscriptionsByTopicRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                ListSubscriptionsByTopicResponse.builder().subscriptions(Subscription.builder().subscriptionArn("subscription-arn").endpoint("queue-arn").build()).build()));
+        when(sns.getSubscriptionAttributes(any(GetSubscriptionAttributesRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                GetSubscriptionAttributesResponse.builder().build()));
+        when(sqs.getQueueUrl(any(GetQueueUrlRequest.class))).thenReturn(failed(QueueDoesNotExistException.builder().build()));
+        provisioner.setProvisioningMode(ProvisioningMode.IF_MISSING);
+
+        provisioner.provisionConsumerDestination("topic", "group", new ExtendedConsumerProperties<>(new SqsConsumerProperties()));
+
+        verify(sns, never()).createTopic(any(CreateTopicRequest.class));
+        verify(sns, never()).subscribe(any(SubscribeRequest.class));
+        verify(sqs).createQueue(any(CreateQueueRequest.class));
+    }
+
+    @Test
+    public void setsMissingAttributesOfExistingSubscriptionWhenProvisioningIfMissing() {
+        existingSubscription(Collections.singletonMap("RawMessageDelivery", "false"));
+        when(sns.setSubscriptionAttributes(any(SetSubscriptionAttributesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(SetSubscriptionAttributesResponse.builder().build()));
+        provisioner.setProvisioningMode(ProvisioningMode.IF_MISSING);
+        ExtendedConsumerProperties<SqsConsumerProperties> properties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        properties.getExtension().setRawMessageDelivery(true);
+
+        provisioner.provisionConsumerDestination("topic", "group", properties);
+
+        ArgumentCaptor<SetSubscriptionAttributesRequest> request = ArgumentCaptor.forClass(SetSubscriptionAttributesRequest.class);
+        verify(sns).setSubscriptionAttributes(request.capture());
+        assertThat(request.getValue().subscriptionArn()).isEqualTo("subscription-arn");
+        assertThat(request.getValue().attributeName()).isEqualTo("RawMessageDelivery");
+        assertThat(request.getValue().attributeValue()).isEqualTo("true");
+        verify(sns, never()).subscribe(any(SubscribeRequest.class));
+    }
+
+    @Test
+    public void failsWhenSubscriptionAttributesDifferWhenProvisioningVerifyOnly() {
+        existingSubscription(Collections.singletonMap("RawMessageDelivery", "false"));
+        provisioner.setProvisioningMode(ProvisioningMode.VERIFY_ONLY);
+        ExtendedConsumerProperties<SqsConsumerProperties> properties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        properties.getExtension().setRawMessageDelivery(true);
+
+        assertThatThrownBy(() -> provisioner.provisionConsumerDestination("topic", "group", properties))
+                .isInstanceOf(ProvisioningException.class)
+                .hasMessageContaining("RawMessageDelivery");
+        verify(sns, never()).setSubscriptionAttributes(any(SetSubscriptionAttributesRequest.class));
+    }
+
+    @Test
+    public void failsWhenTopicIsMissingWhenProvisioningVerifyOnly() {
+        when(sns.listTopics(any(ListTopicsRequest.class))).thenReturn(CompletableFuture.completedFuture(ListTopicsResponse.builder().build()));
+        provisioner.setProvisioningMode(ProvisioningMode.VERIFY_ONLY);
+
+        assertThatThrownBy(() -> provisioner.provisionProducerDestination("topic", new ExtendedProducerProperties<>(new SqsProducerProperties())))
+                .isInstanceOf(ProvisioningException.class)
+                .hasMessageContaining("topic");
+        verify(sns, never()).createTopic(any(CreateTopicRequest.class));
+    }
+
+    private void queuePolicy(String sourceArn) {
+        Map<QueueAttributeName, String> attributes = new HashMap<>();
+        attributes.put(QueueAttributeName.QUEUE_ARN, "queue-arn");
+        attributes.put(QueueAttributeName.POLICY, "{\"Version\": \"2012-10-17\", \"Statement\": [{\"Effect\": \"Allow\", "
+                                                  + "\"Action\": \"SQS:SendMessage\", \"Resource\": \"queue-arn\", "
+                                                  + "\"Condition\": {\"ArnEquals\": {\"aws:SourceArn\": \"" + sourceArn + "\"}}}]}");
+        when(sqs.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                GetQueueAttributesResponse.builder().attributes(attributes).build()));
+    }
+
+    private void existingSubscription(Map<String, String> attributes) {
+        when(sns.listTopics(any(ListTopicsRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                ListTopicsResponse.builder().topics(Topic.builder().topicArn("arn:aws:sns:eu-west-1:1:topic").build()).build()));
+        when(sns.listSubscriptionsByTopic(any(ListSubscriptionsByTopicRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                ListSubscriptionsByTopicResponse.builder()
+                                                .subscriptions(Subscription.builder().subscriptionArn("subscription-arn").endpoint("queue-arn").build())
+                                                .build()));
+        when(sns.getSubscriptionAttributes(any(GetSubscriptionAttributesRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                GetSubscriptionAttributesResponse.builder().attributes(attributes).build()));
+        when(sqs.getQueueUrl(any(GetQueueUrlRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                GetQueueUrlResponse.builder().queueUrl("url-group").build()));
+    }
+
+    private static <T> CompletableFuture<T> failed(Exception exception) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+}
@@ -0,0 +1,23 @@
+package org.springframework.cloud.stream.binder.sqs.test;
+
+import com.amazonaws.AmazonServiceException;
+
+/**
+ * Fills in the details AWS clients set on service exceptions, so that callers inspecting error codes
+ * and fault types behave as they would against AWS.
+ *
+ * @author Maciej Walkowiak
+ */
+final class AwsErrors {
+
+    private AwsErrors() {
+    }
+
+    static <E extends AmazonServiceException> E senderFault(E exception, String serviceName, String errorCode) {
+        exception.setServiceName(serviceName);
+        exception.setErrorCode(errorCode);
+        exception.setErrorType(AmazonServiceException.ErrorType.Client);
+        exception.setStatusCode(400);
+        return exception;
+    }
+}
@@ -0,0 +1,126 @@
+package org.springframework.cloud.stream.binder.sqs.test;
+
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * SNS subscription filter policy applied to message attributes. Supports exact string and numeric matching,
+ * {@code prefix}, {@code anything-but}, {@code exists} and {@code numeric} range conditions.
+ *
+ * @author Maciej Walkowiak
+ */
+class FilterPolicy {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final JsonNode policy;
+
+    private FilterPolicy(JsonNode policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the policy is not a JSON object
+     */
+    static FilterPolicy parse(String policy) {
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(policy);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Filter policy must be a JSON object: " + policy);
+            }
+            return new FilterPolicy(node);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid filter policy: " + policy, e);
+        }
+    }
+
+    boolean matches(Map<String, MessageAttributeValue> attributes) {
+        Iterator<Map.Entry<String, JsonNode>> fields = this.policy.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!matchesAny(field.getValue(), attributes.get(field.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAny(JsonNode conditions, MessageAttributeValue attribute) {
+        if (!conditions.isArray()) {
+            return matches(conditions, attribute);
+        }
+        for (JsonNode condition : conditions) {
+            if (matches(condition, attribute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(JsonNode condition, MessageAttributeValue attribute) {
+        if (condition.isObject() && condition.has("exists")) {
+            return condition.get("exists").asBoolean() == (attribute != null);
+        }
+        if (attribute == null || attribute.getStringValue() == null) {
+            return false;
+        }
+        String value = attribute.getStringValue();
+        if (condition.isTextual()) {
+            return condition.asText().equals(value);
+        }
+        if (condition.isNumber()) {
+            return isNumber(attribute) && condition.decimalValue().compareTo(new BigDecimal(value)) == 0;
+        }
+        if (condition.has("prefix")) {
+            return value.startsWith(condition.get("prefix").asText());
+        }
+        if (condition.has("anything-but")) {
+            return !matchesAny(condition.get("anything-but"), attribute);
+        }
+        if (condition.has("numeric")) {
+            return isNumber(attribute) && matchesRange(condition.get("numeric"), new BigDecimal(value));
+        }
+        return false;
+    }
+
+    private static boolean matchesRange(JsonNode range, BigDecimal value) {
+        for (int i = 0; i + 1 < range.size(); i += 2) {
+            int comparison = value.compareTo(range.get(i + 1).decimalValue());
+            String operator = range.get(i).asText();
+            boolean matches;
+            switch (operator) {
+                case "=":
+                    matches = comparison == 0;
+                    break;
+                case "<":
+                    matches = comparison < 0;
+                    break;
+                case "<=":
+                    matches = comparison <= 0;
+                    break;
+                case ">":
+                    matches = comparison > 0;
+                    break;
+                case ">=":
+                    matches = comparison >= 0;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported numeric operator: " + operator);
+            }
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumber(MessageAttributeValue attribute) {
+        return attribute.getDataType().startsWith("Number");
+    }
+}
@@ -0,0 +1,473 @@
+package org.springframework.cloud.stream.binder.sqs.test;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.MessageNotInflightException;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.ReceiptHandleIsInvalidException;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.Md5Utils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A single in-memory queue. Messages are kept in send order together with the time they become visible,
+ * which covers delivery delays, visibility timeouts and long polling. FIFO queues deduplicate messages for
+ * five minutes and do not return messages of a message group while an earlier message of the group is in flight.
+ * Messages received more often than the {@code maxReceiveCount} of the redrive policy are moved to
+ * the dead-letter queue.
+ *
+ * Message retention is not enforced.
+ *
+ * @author Maciej Walkowiak
+ */
+class InMemoryQueue {
+
+    static final String FIFO_SUFFIX = ".fifo";
+
+    private static final String SERVICE_NAME = "AmazonSQS";
+    private static final String ALL = "All";
+    private static final long DEDUPLICATION_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Map<String, String> DEFAULT_ATTRIBUTES = new HashMap<>();
+
+    static {
+        DEFAULT_ATTRIBUTES.put(QueueAttributeName.VisibilityTimeout.toString(), "30");
+        DEFAULT_ATTRIBUTES.put(QueueAttributeName.MaximumMessageSize.toString(), "262144");
+        DEFAULT_ATTRIBUTES.put(QueueAttributeName.MessageRetentionPeriod.toString(), "345600");
+        DEFAULT_ATTRIBUTES.put(QueueAttributeName.DelaySeconds.toString(), "0");
+        DEFAULT_ATTRIBUTES.put(QueueAttributeName.ReceiveMessageWaitTimeSeconds.toString(), "0");
+    }
+
+    private final String name;
+    private final String url;
+    private final String arn;
+    private final boolean fifo;
+    private final long createdTimestamp = System.currentTimeMillis();
+
+    private final Map<String, String> attributes = new HashMap<>(DEFAULT_ATTRIBUTES);
+    private final Map<String, StoredMessage> messages = new LinkedHashMap<>();
+    private final Map<String, StoredMessage> inFlight = new HashMap<>();
+    private final Map<String, Deduplication> deduplications = new LinkedHashMap<>();
+    private long lastModifiedTimestamp = this.createdTimestamp;
+    private long sequenceNumber;
+
+    private String deadLetterTargetArn;
+    private int maxReceiveCount;
+
+    InMemoryQueue(String name, String url, String arn, Map<String, String> attributes) {
+        this.name = name;
+        this.url = url;
+        this.arn = arn;
+        this.fifo = Boolean.parseBoolean(attributes.get(QueueAttributeName.FifoQueue.toString()));
+        if (this.fifo != name.endsWith(FIFO_SUFFIX)) {
+            throw invalidParameterValue("The name of a FIFO queue can only include alphanumeric characters, hyphens, "
+                                        + "or underscores, must end with .fifo suffix");
+        }
+        setAttributes(attributes);
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    String getUrl() {
+        return this.url;
+    }
+
+    String getArn() {
+        return this.arn;
+    }
+
+    boolean isFifo() {
+        return this.fifo;
+    }
+
+    /**
+     * @return whether the queue has the given attributes, so that creating it again with them succeeds
+     */
+    synchronized boolean hasAttributes(Map<String, String> requestedAttributes) {
+        for (Map.Entry<String, String> attribute : requestedAttributes.entrySet()) {
+            String value = this.attributes.get(attribute.getKey());
+            if (value == null && !QueueAttributeName.FifoQueue.toString().equals(attribute.getKey())
+                || value != null && !value.equals(attribute.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized void setAttributes(Map<String, String> newAttributes) {
+        this.attributes.putAll(newAttributes);
+        this.lastModifiedTimestamp = System.currentTimeMillis();
+        String redrivePolicy = newAttributes.get(QueueAttributeName.RedrivePolicy.toString());
+        if (redrivePolicy != null) {
+            try {
+                JsonNode policy = OBJECT_MAPPER.readTree(redrivePolicy);
+                this.deadLetterTargetArn = policy.path("deadLetterTargetArn").asText(null);
+                this.maxReceiveCount = policy.path("maxReceiveCount").asInt();
+            } catch (IOException e) {
+                throw invalidParameterValue("Invalid value for the parameter RedrivePolicy");
+            }
+        }
+        notifyAll();
+    }
+
+    synchronized Map<String, String> getAttributes(Collection<String> attributeNames) {
+        Map<String, String> allAttributes = new HashMap<>(this.attributes);
+        allAttributes.put(QueueAttributeName.QueueArn.toString(), this.arn);
+        allAttributes.put(QueueAttributeName.CreatedTimestamp.toString(), String.valueOf(this.createdTimestamp / 1000));
+        allAttributes.put(QueueAttributeName.LastModifiedTimestamp.toString(), String.valueOf(this.lastModifiedTimestamp / 1000));
+        long now = System.currentTimeMillis();
+        int visible = 0;
+        int notVisible = 0;
+        int delayed = 0;
+        for (StoredMessage message : this.messages.values()) {
+            if (message.visibleAt <= now) {
+                visible++;
+            } else if (message.receiveCount > 0) {
+                notVisible++;
+            } else {
+                delayed++;
+            }
+        }
+        allAttributes.put(QueueAttributeName.ApproximateNumberOfMessages.toString(), String.valueOf(visible));
+        allAttributes.put(QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString(), String.valueOf(notVisible));
+        allAttributes.put(QueueAttributeName.ApproximateNumberOfMessagesDelayed.toString(), String.valueOf(delayed));
+        if (attributeNames.contains(ALL)) {
+            return allAttributes;
+        }
+        Map<String, String> requested = new HashMap<>();
+        for (String attributeName : attributeNames) {
+            if (allAttributes.containsKey(attributeName)) {
+                requested.put(attributeName, allAttributes.get(attributeName));
+            }
+        }
+        return requested;
+    }
+
+    SendMessageResult send(String body, Map<String, MessageAttributeValue> messageAttributes, Integer delaySeconds,
+                           String messageGroupId, String messageDeduplicationId) {
+        if (body == null || body.isEmpty()) {
+            throw invalidParameterValue("The request must contain the parameter MessageBody.");
+        }
+        synchronized (this) {
+            int maximumMessageSize = Integer.parseInt(this.attributes.get(QueueAttributeName.MaximumMessageSize.toString()));
+            if (size(body, messageAttributes) > maximumMessageSize) {
+                throw invalidParameterValue("One or more parameters are invalid. Reason: Message must be shorter than "
+                                            + maximumMessageSize + " bytes.");
+            }
+            long now = System.currentTimeMillis();
+            StoredMessage message = new StoredMessage(UUID.randomUUID().toString(), body, messageAttributes, now);
+            if (this.fifo) {
+                if (messageGroupId == null) {
+                    throw invalidParameterValue("The request must contain the parameter MessageGroupId.");
+                }
+                if (messageDeduplicationId == null) {
+                    if (!Boolean.parseBoolean(this.attributes.get(QueueAttributeName.ContentBasedDeduplication.toString()))) {
+                        throw invalidParameterValue("The queue should either have ContentBasedDeduplication enabled "
+                                                    + "or MessageDeduplicationId provided explicitly");
+                    }
+                    messageDeduplicationId = sha256(body);
+                }
+                expireDeduplications(now);
+                Deduplication duplicate = this.deduplications.get(messageDeduplicationId);
+                if (duplicate != null) {
+                    return duplicate.result;
+                }
+                message.messageGroupId = messageGroupId;
+                message.messageDeduplicationId = messageDeduplicationId;
+                message.sequenceNumber = String.format("%020d", ++this.sequenceNumber);
+            }
+            int delay = delaySeconds != null && !this.fifo
+                        ? delaySeconds
+                        : Integer.parseInt(this.attributes.get(QueueAttributeName.DelaySeconds.toString()));
+            message.visibleAt = now + TimeUnit.SECONDS.toMillis(delay);
+            this.messages.put(message.messageId, message);
+
+            SendMessageResult result = new SendMessageResult().withMessageId(message.messageId)
+                                                              .withMD5OfMessageBody(message.md5OfBody)
+                                                              .withSequenceNumber(message.sequenceNumber);
+            if (this.fifo) {
+                this.deduplications.put(messageDeduplicationId, new Deduplication(result, now + DEDUPLICATION_INTERVAL));
+            }
+            notifyAll();
+            return result;
+        }
+    }
+
+    /**
+     * Receives visible messages, waiting up to {@code waitTimeSeconds} for at least one to become available.
+     *
+     * @param queuesByArn resolves the dead-letter queue of the redrive policy
+     */
+    List<Message> receive(int maxNumberOfMessages, Integer visibilityTimeout, Integer waitTimeSeconds,
+                          Collection<String> attributeNames, Collection<String> messageAttributeNames,
+                          Function<String, InMemoryQueue> queuesByArn) {
+        long deadline;
+        synchronized (this) {
+            int wait = waitTimeSeconds != null
+                       ? waitTimeSeconds
+                       : Integer.parseInt(this.attributes.get(QueueAttributeName.ReceiveMessageWaitTimeSeconds.toString()));
+            deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(wait);
+        }
+        while (true) {
+            List<Message> received = new ArrayList<>(maxNumberOfMessages);
+            List<StoredMessage> deadLetters = new ArrayList<>();
+            InMemoryQueue deadLetterQueue;
+            synchronized (this) {
+                deadLetterQueue = this.deadLetterTargetArn != null ? queuesByArn.apply(this.deadLetterTargetArn) : null;
+                int visibility = visibilityTimeout != null
+                                 ? visibilityTimeout
+                                 : Integer.parseInt(this.attributes.get(QueueAttributeName.VisibilityTimeout.toString()));
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    take(maxNumberOfMessages, visibility, now, deadLetterQueue != null ? this.maxReceiveCount : 0,
+                         attributeNames, messageAttributeNames, received, deadLetters);
+                    if (!received.isEmpty() || !deadLetters.isEmpty() || now >= deadline) {
+                        break;
+                    }
+                    try {
+                        wait(Math.max(1, Math.min(deadline, nextVisibleAt(now)) - now));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new AbortedException(e);
+                    }
+                }
+            }
+            for (StoredMessage deadLetter : deadLetters) {
+                deadLetterQueue.moveIn(deadLetter);
+            }
+            if (!received.isEmpty() || System.currentTimeMillis() >= deadline) {
+                return received;
+            }
+        }
+    }
+
+    private void take(int maxNumberOfMessages, int visibilityTimeout, long now, int maxReceiveCount,
+                      Collection<String> attributeNames, Collection<String> messageAttributeNames,
+                      List<Message> received, List<StoredMessage> deadLetters) {
+        Set<String> blockedGroups = this.fifo ? new HashSet<>() : Collections.emptySet();
+        Iterator<StoredMessage> iterator = this.messages.values().iterator();
+        while (iterator.hasNext() && received.size() < maxNumberOfMessages) {
+            StoredMessage message = iterator.next();
+            if (message.visibleAt > now) {
+                if (this.fifo) {
+                    blockedGroups.add(message.messageGroupId);
+                }
+                continue;
+            }
+            if (this.fifo && blockedGroups.contains(message.messageGroupId)) {
+                continue;
+            }
+            if (message.receiptHandle != null) {
+                this.inFlight.remove(message.receiptHandle);
+                message.receiptHandle = null;
+            }
+            if (maxReceiveCount > 0 && message.receiveCount >= maxReceiveCount) {
+                iterator.remove();
+                deadLetters.add(message);
+                continue;
+            }
+            message.receiveCount++;
+            if (message.firstReceiveTimestamp == 0) {
+                message.firstReceiveTimestamp = now;
+            }
+            message.receiptHandle = UUID.randomUUID().toString();
+            message.visibleAt = now + TimeUnit.SECONDS.toMillis(visibilityTimeout);
+            this.inFlight.put(message.receiptHandle, message);
+            received.add(message.toMessage(attributeNames, messageAttributeNames));
+        }
+    }
+
+    private long nextVisibleAt(long now) {
+        long next = Long.MAX_VALUE;
+        for (StoredMessage message : this.messages.values()) {
+            if (message.visibleAt > now) {
+                next = Math.min(next, message.visibleAt);
+            }
+        }
+        return next;
+    }
+
+    private synchronized void moveIn(StoredMessage message) {
+        message.receiveCount = 0;
+        message.firstReceiveTimestamp = 0;
+        message.visibleAt = System.currentTimeMillis();
+        this.messages.put(message.messageId, message);
+        notifyAll();
+    }
+
+    /**
+     * Deletes the message received with the receipt handle. Receipt handles of messages already deleted
+     * or received again are ignored, as they are by SQS.
+     */
+    synchronized void delete(String receiptHandle) {
+        if (receiptHandle == null || receiptHandle.isEmpty()) {
+            throw AwsErrors.senderFault(new ReceiptHandleIsInvalidException("The input receipt handle is invalid."),
+                                        SERVICE_NAME, "ReceiptHandleIsInvalid");
+        }
+        StoredMessage message = this.inFlight.remove(receiptHandle);
+        if (message != null) {
+            this.messages.remove(message.messageId);
+            if (this.fifo) {
+                notifyAll();
+            }
+        }
+    }
+
+    synchronized void changeVisibility(String receiptHandle, int visibilityTimeout) {
+        StoredMessage message = this.inFlight.get(receiptHandle);
+        if (message == null) {
+            throw AwsErrors.senderFault(new ReceiptHandleIsInvalidException("The input receipt handle \"" + receiptHandle
+                                                                            + "\" is not a valid receipt handle."),
+                                        SERVICE_NAME, "ReceiptHandleIsInvalid");
+        }
+        long now = System.currentTimeMillis();
+        if (message.visibleAt <= now) {
+            throw AwsErrors.senderFault(new MessageNotInflightException("Message does not exist or is not available for visibility timeout change."),
+                                        SERVICE_NAME, "AWS.SimpleQueueService.MessageNotInflight");
+        }
+        message.visibleAt = now + TimeUnit.SECONDS.toMillis(visibilityTimeout);
+        if (visibilityTimeout == 0) {
+            notifyAll();
+        }
+    }
+
+    synchronized void purge() {
+        this.messages.clear();
+        this.inFlight.clear();
+    }
+
+    private void expireDeduplications(long now) {
+        Iterator<Deduplication> iterator = this.deduplications.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt <= now) {
+            iterator.remove();
+        }
+    }
+
+    private static int size(String body, Map<String, MessageAttributeValue> messageAttributes) {
+        int size = body.getBytes(StandardCharsets.UTF_8).length;
+        for (Map.Entry<String, MessageAttributeValue> attribute : messageAttributes.entrySet()) {
+            size += attribute.getKey().length() + attribute.getValue().getDataType().length();
+            if (attribute.getValue().getStringValue() != null) {
+                size += attribute.getValue().getStringValue().getBytes(StandardCharsets.UTF_8).length;
+            }
+            if (attribute.getValue().getBinaryValue() != null) {
+                size += attribute.getValue().getBinaryValue().remaining();
+            }
+        }
+        return size;
+    }
+
+    private static String sha256(String body) {
+        try {
+            return BinaryUtils.toHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static AmazonSQSException invalidParameterValue(String message) {
+        return AwsErrors.senderFault(new AmazonSQSException(message), SERVICE_NAME, "InvalidParameterValue");
+    }
+
+    private static class StoredMessage {
+
+        private final String messageId;
+        private final String body;
+        private final String md5OfBody;
+        private final Map<String, MessageAttributeValue> messageAttributes;
+        private final long sentTimestamp;
+
+        private String messageGroupId;
+        private String messageDeduplicationId;
+        private String sequenceNumber;
+
+        private long visibleAt;
+        private int receiveCount;
+        private long firstReceiveTimestamp;
+        private String receiptHandle;
+
+        StoredMessage(String messageId, String body, Map<String, MessageAttributeValue> messageAttributes, long sentTimestamp) {
+            this.messageId = messageId;
+            this.body = body;
+            this.md5OfBody = BinaryUtils.toHex(Md5Utils.computeMD5Hash(body.getBytes(StandardCharsets.UTF_8)));
+            this.messageAttributes = new HashMap<>(messageAttributes);
+            this.sentTimestamp = sentTimestamp;
+        }
+
+        Message toMessage(Collection<String> attributeNames, Collection<String> messageAttributeNames) {
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put(MessageSystemAttributeName.SenderId.toString(), "000000000000");
+            attributes.put(MessageSystemAttributeName.SentTimestamp.toString(), String.valueOf(this.sentTimestamp));
+            attributes.put(MessageSystemAttributeName.ApproximateReceiveCount.toString(), String.valueOf(this.receiveCount));
+            attributes.put(MessageSystemAttributeName.ApproximateFirstReceiveTimestamp.toString(), String.valueOf(this.firstReceiveTimestamp));
+            if (this.messageGroupId != null) {
+                attributes.put(MessageSystemAttributeName.MessageGroupId.toString(), this.messageGroupId);
+                attributes.put(MessageSystemAttributeName.MessageDeduplicationId.toString(), this.messageDeduplicationId);
+                attributes.put(MessageSystemAttributeName.SequenceNumber.toString(), this.sequenceNumber);
+            }
+            if (!attributeNames.contains(ALL)) {
+                attributes.keySet().retainAll(attributeNames);
+            }
+
+            Map<String, MessageAttributeValue> selectedMessageAttributes = new HashMap<>();
+            for (Map.Entry<String, MessageAttributeValue> attribute : this.messageAttributes.entrySet()) {
+                if (isSelected(attribute.getKey(), messageAttributeNames)) {
+                    selectedMessageAttributes.put(attribute.getKey(), attribute.getValue());
+                }
+            }
+            return new Message().withMessageId(this.messageId)
+                                .withReceiptHandle(this.receiptHandle)
+                                .withBody(this.body)
+                                .withMD5OfBody(this.md5OfBody)
+                                .withAttributes(attributes)
+                                .withMessageAttributes(selectedMessageAttributes);
+        }
+
+        private static boolean isSelected(String attributeName, Collection<String> messageAttributeNames) {
+            for (String selection : messageAttributeNames) {
+                if (ALL.equals(selection) || ".*".equals(selection) || selection.equals(attributeName)
+                    || selection.endsWith(".*") && attributeName.startsWith(selection.substring(0, selection.length() - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Deduplication {
+
+        private final SendMessageResult result;
+        private final long expiresAt;
+
+        Deduplication(SendMessageResult result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
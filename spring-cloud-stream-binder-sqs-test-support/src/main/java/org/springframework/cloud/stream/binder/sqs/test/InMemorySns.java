@@ -0,0 +1,521 @@
+package org.springframework.cloud.stream.binder.sqs.test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AbstractAmazonSNSAsync;
+import com.amazonaws.services.sns.model.BatchEntryIdsNotDistinctException;
+import com.amazonaws.services.sns.model.BatchResultErrorEntry;
+import com.amazonaws.services.sns.model.CreateTopicRequest;
+import com.amazonaws.services.sns.model.CreateTopicResult;
+import com.amazonaws.services.sns.model.DeleteTopicRequest;
+import com.amazonaws.services.sns.model.DeleteTopicResult;
+import com.amazonaws.services.sns.model.EmptyBatchRequestException;
+import com.amazonaws.services.sns.model.GetSubscriptionAttributesRequest;
+import com.amazonaws.services.sns.model.GetSubscriptionAttributesResult;
+import com.amazonaws.services.sns.model.GetTopicAttributesRequest;
+import com.amazonaws.services.sns.model.GetTopicAttributesResult;
+import com.amazonaws.services.sns.model.InvalidParameterException;
+import com.amazonaws.services.sns.model.ListSubscriptionsByTopicRequest;
+import com.amazonaws.services.sns.model.ListSubscriptionsByTopicResult;
+import com.amazonaws.services.sns.model.ListTopicsRequest;
+import com.amazonaws.services.sns.model.ListTopicsResult;
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.NotFoundException;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
+import com.amazonaws.services.sns.model.PublishBatchResult;
+import com.amazonaws.services.sns.model.PublishBatchResultEntry;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import com.amazonaws.services.sns.model.SetSubscriptionAttributesRequest;
+import com.amazonaws.services.sns.model.SetSubscriptionAttributesResult;
+import com.amazonaws.services.sns.model.SubscribeRequest;
+import com.amazonaws.services.sns.model.SubscribeResult;
+import com.amazonaws.services.sns.model.Subscription;
+import com.amazonaws.services.sns.model.Topic;
+import com.amazonaws.services.sns.model.TooManyEntriesInBatchRequestException;
+import com.amazonaws.services.sns.model.UnsubscribeRequest;
+import com.amazonaws.services.sns.model.UnsubscribeResult;
+import com.amazonaws.util.Base64;
+import com.amazonaws.util.BinaryUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In-process implementation of {@link com.amazonaws.services.sns.AmazonSNSAsync} delivering published messages
+ * synchronously to queues of an {@link InMemorySqs}, for tests and benchmarks that should not depend on Docker or AWS.
+ *
+ * Supports creating, listing and deleting topics, SQS subscriptions with raw message delivery and filter policies,
+ * {@code Publish} and {@code PublishBatch}, and FIFO topics. Messages are delivered in the SNS notification
+ * envelope unless raw message delivery is enabled. Asynchronous operations run on a cached thread pool;
+ * other operations throw {@link UnsupportedOperationException}.
+ *
+ * @author Maciej Walkowiak
+ */
+public class InMemorySns extends AbstractAmazonSNSAsync {
+
+    private static final String SERVICE_NAME = "AmazonSNS";
+    private static final String ARN_PREFIX = "arn:aws:sns:" + InMemorySqs.REGION + ":" + InMemorySqs.ACCOUNT_ID + ":";
+    private static final String SQS_PROTOCOL = "sqs";
+    private static final String RAW_MESSAGE_DELIVERY = "RawMessageDelivery";
+    private static final String FILTER_POLICY = "FilterPolicy";
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemorySqs sqs;
+    private final Map<String, InMemoryTopic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param sqs SQS holding the queues subscribed to topics
+     */
+    public InMemorySns(InMemorySqs sqs) {
+        this.sqs = sqs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "in-memory-sns-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Deletes all topics and their subscriptions.
+     */
+    public void reset() {
+        this.topics.clear();
+    }
+
+    @Override
+    public CreateTopicResult createTopic(CreateTopicRequest request) {
+        boolean fifo = Boolean.parseBoolean(request.getAttributes().get("FifoTopic"));
+        if (fifo != request.getName().endsWith(InMemoryQueue.FIFO_SUFFIX)) {
+            throw invalidParameter("Invalid parameter: Fifo Topic names must end with .fifo and must be made up of only uppercase "
+                                   + "and lowercase ASCII letters, numbers, underscores, and hyphens");
+        }
+        InMemoryTopic topic = this.topics.computeIfAbsent(ARN_PREFIX + request.getName(),
+                                                          arn -> new InMemoryTopic(arn, fifo, request.getAttributes()));
+        return new CreateTopicResult().withTopicArn(topic.arn);
+    }
+
+    @Override
+    public ListTopicsResult listTopics(ListTopicsRequest request) {
+        List<Topic> topicList = new ArrayList<>();
+        for (String arn : this.topics.keySet()) {
+            topicList.add(new Topic().withTopicArn(arn));
+        }
+        return new ListTopicsResult().withTopics(topicList);
+    }
+
+    @Override
+    public GetTopicAttributesResult getTopicAttributes(GetTopicAttributesRequest request) {
+        InMemoryTopic topic = topic(request.getTopicArn());
+        Map<String, String> attributes = new HashMap<>(topic.attributes);
+        attributes.put("TopicArn", topic.arn);
+        attributes.put("Owner", InMemorySqs.ACCOUNT_ID);
+        attributes.put("SubscriptionsConfirmed", String.valueOf(topic.subscriptions.size()));
+        attributes.put("SubscriptionsPending", "0");
+        attributes.put("SubscriptionsDeleted", "0");
+        return new GetTopicAttributesResult().withAttributes(attributes);
+    }
+
+    @Override
+    public DeleteTopicResult deleteTopic(DeleteTopicRequest request) {
+        this.topics.remove(request.getTopicArn());
+        return new DeleteTopicResult();
+    }
+
+    @Override
+    public SubscribeResult subscribe(SubscribeRequest request) {
+        if (!SQS_PROTOCOL.equals(request.getProtocol())) {
+            throw invalidParameter("Invalid parameter: Protocol " + request.getProtocol() + " is not supported");
+        }
+        InMemoryTopic topic = topic(request.getTopicArn());
+        synchronized (topic) {
+            for (InMemorySubscription subscription : topic.subscriptions) {
+                if (subscription.endpoint.equals(request.getEndpoint())) {
+                    return new SubscribeResult().withSubscriptionArn(subscription.arn);
+                }
+            }
+            InMemorySubscription subscription = new InMemorySubscription(topic.arn + ":" + UUID.randomUUID(), topic.arn, request.getEndpoint());
+            subscription.setAttributes(request.getAttributes());
+            topic.subscriptions.add(subscription);
+            return new SubscribeResult().withSubscriptionArn(subscription.arn);
+        }
+    }
+
+    @Override
+    public UnsubscribeResult unsubscribe(UnsubscribeRequest request) {
+        InMemorySubscription subscription = subscription(request.getSubscriptionArn());
+        topic(subscription.topicArn).subscriptions.remove(subscription);
+        return new UnsubscribeResult();
+    }
+
+    @Override
+    public ListSubscriptionsByTopicResult listSubscriptionsByTopic(ListSubscriptionsByTopicRequest request) {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (InMemorySubscription subscription : topic(request.getTopicArn()).subscriptions) {
+            subscriptions.add(new Subscription().withSubscriptionArn(subscription.arn)
+                                                .withTopicArn(subscription.topicArn)
+                                                .withProtocol(SQS_PROTOCOL)
+                                                .withEndpoint(subscription.endpoint)
+                                                .withOwner(InMemorySqs.ACCOUNT_ID));
+        }
+        return new ListSubscriptionsByTopicResult().withSubscriptions(subscriptions);
+    }
+
+    @Override
+    public GetSubscriptionAttributesResult getSubscriptionAttributes(GetSubscriptionAttributesRequest request) {
+        InMemorySubscription subscription = subscription(request.getSubscriptionArn());
+        Map<String, String> attributes = new HashMap<>(subscription.attributes);
+        attributes.putIfAbsent(RAW_MESSAGE_DELIVERY, "false");
+        attributes.put("SubscriptionArn", subscription.arn);
+        attributes.put("TopicArn", subscription.topicArn);
+        attributes.put("Protocol", SQS_PROTOCOL);
+        attributes.put("Endpoint", subscription.endpoint);
+        attributes.put("Owner", InMemorySqs.ACCOUNT_ID);
+        attributes.put("PendingConfirmation", "false");
+        attributes.put("ConfirmationWasAuthenticated", "true");
+        return new GetSubscriptionAttributesResult().withAttributes(attributes);
+    }
+
+    @Override
+    public SetSubscriptionAttributesResult setSubscriptionAttributes(SetSubscriptionAttributesRequest request) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(request.getAttributeName(), request.getAttributeValue());
+        subscription(request.getSubscriptionArn()).setAttributes(attributes);
+        return new SetSubscriptionAttributesResult();
+    }
+
+    @Override
+    public PublishResult publish(PublishRequest request) {
+        String topicArn = request.getTopicArn() != null ? request.getTopicArn() : request.getTargetArn();
+        return topic(topicArn).publish(request.getMessage(),
+                                       request.getMessageAttributes(),
+                                       request.getMessageGroupId(),
+                                       request.getMessageDeduplicationId());
+    }
+
+    @Override
+    public PublishBatchResult publishBatch(PublishBatchRequest request) {
+        InMemoryTopic topic = topic(request.getTopicArn());
+        List<PublishBatchRequestEntry> entries = request.getPublishBatchRequestEntries();
+        if (entries.isEmpty()) {
+            throw AwsErrors.senderFault(new EmptyBatchRequestException("The batch request doesn't contain any entries"),
+                                        SERVICE_NAME, "EmptyBatchRequest");
+        }
+        if (entries.size() > MAX_BATCH_SIZE) {
+            throw AwsErrors.senderFault(new TooManyEntriesInBatchRequestException("The batch request contains more entries than permissible"),
+                                        SERVICE_NAME, "TooManyEntriesInBatchRequest");
+        }
+        Set<String> ids = new HashSet<>();
+        for (PublishBatchRequestEntry entry : entries) {
+            if (!ids.add(entry.getId())) {
+                throw AwsErrors.senderFault(new BatchEntryIdsNotDistinctException("Two or more batch entries in the request have the same Id"),
+                                            SERVICE_NAME, "BatchEntryIdsNotDistinct");
+            }
+        }
+
+        PublishBatchResult result = new PublishBatchResult();
+        for (PublishBatchRequestEntry entry : entries) {
+            try {
+                PublishResult published = topic.publish(entry.getMessage(),
+                                                        entry.getMessageAttributes(),
+                                                        entry.getMessageGroupId(),
+                                                        entry.getMessageDeduplicationId());
+                result.withSuccessful(new PublishBatchResultEntry().withId(entry.getId())
+                                                                   .withMessageId(published.getMessageId())
+                                                                   .withSequenceNumber(published.getSequenceNumber()));
+            } catch (AmazonServiceException e) {
+                result.withFailed(new BatchResultErrorEntry().withId(entry.getId())
+                                                             .withCode(e.getErrorCode())
+                                                             .withMessage(e.getErrorMessage())
+                                                             .withSenderFault(e.getErrorType() == AmazonServiceException.ErrorType.Client));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Future<CreateTopicResult> createTopicAsync(CreateTopicRequest request,
+                                                      AsyncHandler<CreateTopicRequest, CreateTopicResult> asyncHandler) {
+        return execute(request, asyncHandler, this::createTopic);
+    }
+
+    @Override
+    public Future<ListTopicsResult> listTopicsAsync(ListTopicsRequest request,
+                                                    AsyncHandler<ListTopicsRequest, ListTopicsResult> asyncHandler) {
+        return execute(request, asyncHandler, this::listTopics);
+    }
+
+    @Override
+    public Future<GetTopicAttributesResult> getTopicAttributesAsync(GetTopicAttributesRequest request,
+                                                                    AsyncHandler<GetTopicAttributesRequest, GetTopicAttributesResult> asyncHandler) {
+        return execute(request, asyncHandler, this::getTopicAttributes);
+    }
+
+    @Override
+    public Future<DeleteTopicResult> deleteTopicAsync(DeleteTopicRequest request,
+                                                      AsyncHandler<DeleteTopicRequest, DeleteTopicResult> asyncHandler) {
+        return execute(request, asyncHandler, this::deleteTopic);
+    }
+
+    @Override
+    public Future<SubscribeResult> subscribeAsync(SubscribeRequest request,
+                                                  AsyncHandler<SubscribeRequest, SubscribeResult> asyncHandler) {
+        return execute(request, asyncHandler, this::subscribe);
+    }
+
+    @Override
+    public Future<UnsubscribeResult> unsubscribeAsync(UnsubscribeRequest request,
+                                                      AsyncHandler<UnsubscribeRequest, UnsubscribeResult> asyncHandler) {
+        return execute(request, asyncHandler, this::unsubscribe);
+    }
+
+    @Override
+    public Future<ListSubscriptionsByTopicResult> listSubscriptionsByTopicAsync(ListSubscriptionsByTopicRequest request,
+                                                                                AsyncHandler<ListSubscriptionsByTopicRequest, ListSubscriptionsByTopicResult> asyncHandler) {
+        return execute(request, asyncHandler, this::listSubscriptionsByTopic);
+    }
+
+    @Override
+    public Future<GetSubscriptionAttributesResult> getSubscriptionAttributesAsync(GetSubscriptionAttributesRequest request,
+                                                                                  AsyncHandler<GetSubscriptionAttributesRequest, GetSubscriptionAttributesResult> asyncHandler) {
+        return execute(request, asyncHandler, this::getSubscriptionAttributes);
+    }
+
+    @Override
+    public Future<SetSubscriptionAttributesResult> setSubscriptionAttributesAsync(SetSubscriptionAttributesRequest request,
+                                                                                  AsyncHandler<SetSubscriptionAttributesRequest, SetSubscriptionAttributesResult> asyncHandler) {
+        return execute(request, asyncHandler, this::setSubscriptionAttributes);
+    }
+
+    @Override
+    public Future<PublishResult> publishAsync(PublishRequest request,
+                                              AsyncHandler<PublishRequest, PublishResult> asyncHandler) {
+        return execute(request, asyncHandler, this::publish);
+    }
+
+    @Override
+    public Future<PublishBatchResult> publishBatchAsync(PublishBatchRequest request,
+                                                        AsyncHandler<PublishBatchRequest, PublishBatchResult> asyncHandler) {
+        return execute(request, asyncHandler, this::publishBatch);
+    }
+
+    @Override
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private InMemoryTopic topic(String topicArn) {
+        InMemoryTopic topic = topicArn != null ? this.topics.get(topicArn) : null;
+        if (topic == null) {
+            throw AwsErrors.senderFault(new NotFoundException("Topic does not exist"), SERVICE_NAME, "NotFound");
+        }
+        return topic;
+    }
+
+    private InMemorySubscription subscription(String subscriptionArn) {
+        for (InMemoryTopic topic : this.topics.values()) {
+            for (InMemorySubscription subscription : topic.subscriptions) {
+                if (subscription.arn.equals(subscriptionArn)) {
+                    return subscription;
+                }
+            }
+        }
+        throw AwsErrors.senderFault(new NotFoundException("Subscription does not exist"), SERVICE_NAME, "NotFound");
+    }
+
+    private String envelope(String topicArn, String messageId, String message, Map<String, MessageAttributeValue> messageAttributes) {
+        ObjectNode envelope = this.objectMapper.createObjectNode();
+        envelope.put("Type", "Notification");
+        envelope.put("MessageId", messageId);
+        envelope.put("TopicArn", topicArn);
+        envelope.put("Message", message);
+        SimpleDateFormat timestamp = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        timestamp.setTimeZone(TimeZone.getTimeZone("UTC"));
+        envelope.put("Timestamp", timestamp.format(new Date()));
+        envelope.put("SignatureVersion", "1");
+        envelope.put("Signature", "");
+        if (!messageAttributes.isEmpty()) {
+            ObjectNode attributes = envelope.putObject("MessageAttributes");
+            for (Map.Entry<String, MessageAttributeValue> attribute : messageAttributes.entrySet()) {
+                ByteBuffer binaryValue = attribute.getValue().getBinaryValue();
+                attributes.putObject(attribute.getKey())
+                          .put("Type", attribute.getValue().getDataType())
+                          .put("Value", binaryValue != null ? Base64.encodeAsString(bytes(binaryValue)) : attribute.getValue().getStringValue());
+            }
+        }
+        try {
+            return this.objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, com.amazonaws.services.sqs.model.MessageAttributeValue> toSqsAttributes(Map<String, MessageAttributeValue> messageAttributes) {
+        Map<String, com.amazonaws.services.sqs.model.MessageAttributeValue> sqsAttributes = new HashMap<>();
+        for (Map.Entry<String, MessageAttributeValue> attribute : messageAttributes.entrySet()) {
+            sqsAttributes.put(attribute.getKey(),
+                              new com.amazonaws.services.sqs.model.MessageAttributeValue().withDataType(attribute.getValue().getDataType())
+                                                                                          .withStringValue(attribute.getValue().getStringValue())
+                                                                                          .withBinaryValue(attribute.getValue().getBinaryValue()));
+        }
+        return sqsAttributes;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static String sha256(String message) {
+        try {
+            return BinaryUtils.toHex(MessageDigest.getInstance("SHA-256").digest(message.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InvalidParameterException invalidParameter(String message) {
+        return AwsErrors.senderFault(new InvalidParameterException(message), SERVICE_NAME, "InvalidParameter");
+    }
+
+    private <Q extends AmazonWebServiceRequest, R> Future<R> execute(Q request, AsyncHandler<Q, R> asyncHandler,
+                                                                     Function<Q, R> operation) {
+        return this.executor.submit(() -> {
+            R result;
+            try {
+                result = operation.apply(request);
+            } catch (RuntimeException e) {
+                if (asyncHandler != null) {
+                    asyncHandler.onError(e);
+                }
+                throw e;
+            }
+            if (asyncHandler != null) {
+                asyncHandler.onSuccess(request, result);
+            }
+            return result;
+        });
+    }
+
+    private class InMemoryTopic {
+
+        private final String arn;
+        private final boolean fifo;
+        private final Map<String, String> attributes;
+        private final List<InMemorySubscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final AtomicInteger sequenceNumber = new AtomicInteger();
+
+        InMemoryTopic(String arn, boolean fifo, Map<String, String> attributes) {
+            this.arn = arn;
+            this.fifo = fifo;
+            this.attributes = new HashMap<>(attributes);
+        }
+
+        PublishResult publish(String message, Map<String, MessageAttributeValue> messageAttributes,
+                              String messageGroupId, String messageDeduplicationId) {
+            if (message == null || message.isEmpty()) {
+                throw invalidParameter("Invalid parameter: Empty message");
+            }
+            if (this.fifo) {
+                if (messageGroupId == null) {
+                    throw invalidParameter("Invalid parameter: The MessageGroupId parameter is required for FIFO topics");
+                }
+                if (messageDeduplicationId == null) {
+                    if (!Boolean.parseBoolean(this.attributes.get("ContentBasedDeduplication"))) {
+                        throw invalidParameter("Invalid parameter: The topic should either have ContentBasedDeduplication enabled "
+                                               + "or MessageDeduplicationId provided explicitly");
+                    }
+                    messageDeduplicationId = sha256(message);
+                }
+            }
+            String messageId = UUID.randomUUID().toString();
+            String envelope = null;
+            for (InMemorySubscription subscription : this.subscriptions) {
+                if (!subscription.accepts(messageAttributes)) {
+                    continue;
+                }
+                InMemoryQueue queue = sqs.queueByArn(subscription.endpoint);
+                if (queue == null) {
+                    continue;
+                }
+                if (subscription.isRawMessageDelivery()) {
+                    queue.send(message, toSqsAttributes(messageAttributes), null, messageGroupId, messageDeduplicationId);
+                } else {
+                    if (envelope == null) {
+                        envelope = envelope(this.arn, messageId, message, messageAttributes);
+                    }
+                    queue.send(envelope, new HashMap<>(), null, messageGroupId, messageDeduplicationId);
+                }
+            }
+            PublishResult result = new PublishResult().withMessageId(messageId);
+            if (this.fifo) {
+                result.setSequenceNumber(String.format("%020d", this.sequenceNumber.incrementAndGet()));
+            }
+            return result;
+        }
+    }
+
+    private static class InMemorySubscription {
+
+        private final String arn;
+        private final String topicArn;
+        private final String endpoint;
+        private final Map<String, String> attributes = new ConcurrentHashMap<>();
+        private volatile FilterPolicy filterPolicy;
+
+        InMemorySubscription(String arn, String topicArn, String endpoint) {
+            this.arn = arn;
+            this.topicArn = topicArn;
+            this.endpoint = endpoint;
+        }
+
+        void setAttributes(Map<String, String> newAttributes) {
+            String policy = newAttributes.get(FILTER_POLICY);
+            if (policy != null) {
+                try {
+                    this.filterPolicy = FilterPolicy.parse(policy);
+                } catch (IllegalArgumentException e) {
+                    throw invalidParameter("Invalid parameter: FilterPolicy: " + e.getMessage());
+                }
+            }
+            this.attributes.putAll(newAttributes);
+        }
+
+        boolean isRawMessageDelivery() {
+            return Boolean.parseBoolean(this.attributes.get(RAW_MESSAGE_DELIVERY));
+        }
+
+        boolean accepts(Map<String, MessageAttributeValue> messageAttributes) {
+            FilterPolicy policy = this.filterPolicy;
+            return policy == null || policy.matches(messageAttributes);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package org.springframework.cloud.stream.binder.sqs.test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.BatchEntryIdsNotDistinctException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityResult;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.amazonaws.services.sqs.model.DeleteQueueRequest;
+import com.amazonaws.services.sqs.model.DeleteQueueResult;
+import com.amazonaws.services.sqs.model.EmptyBatchRequestException;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.ListQueuesRequest;
+import com.amazonaws.services.sqs.model.ListQueuesResult;
+import com.amazonaws.services.sqs.model.PurgeQueueRequest;
+import com.amazonaws.services.sqs.model.PurgeQueueResult;
+import com.amazonaws.services.sqs.model.QueueDoesNotExistException;
+import com.amazonaws.services.sqs.model.QueueNameExistsException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.services.sqs.model.SetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.SetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.TooManyEntriesInBatchRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In-process implementation of {@link com.amazonaws.services.sqs.AmazonSQSAsync} keeping queues in memory,
+ * for tests and benchmarks that should not depend on Docker or AWS.
+ *
+ * Supports creating, listing, purging and deleting queues, queue attributes including redrive policies,
+ * sending, receiving with long polling, deleting and changing the visibility of messages, the batch variants
+ * of these operations, and FIFO queues. Asynchronous operations run on a cached thread pool; other operations
+ * throw {@link UnsupportedOperationException}.
+ *
+ * @author Maciej Walkowiak
+ */
+public class InMemorySqs extends AbstractAmazonSQSAsync {
+
+    static final String ACCOUNT_ID = "000000000000";
+    static final String REGION = "us-east-1";
+
+    private static final String SERVICE_NAME = "AmazonSQS";
+    private static final String URL_PREFIX = "http://localhost/" + ACCOUNT_ID + "/";
+    private static final String ARN_PREFIX = "arn:aws:sqs:" + REGION + ":" + ACCOUNT_ID + ":";
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private final Map<String, InMemoryQueue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public InMemorySqs() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "in-memory-sqs-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Deletes all queues.
+     */
+    public void reset() {
+        this.queues.clear();
+    }
+
+    @Override
+    public CreateQueueResult createQueue(CreateQueueRequest request) {
+        Map<String, String> attributes = request.getAttributes();
+        InMemoryQueue queue = this.queues.computeIfAbsent(request.getQueueName(),
+                                                          name -> new InMemoryQueue(name, URL_PREFIX + name, ARN_PREFIX + name, attributes));
+        if (!queue.hasAttributes(attributes)) {
+            throw AwsErrors.senderFault(new QueueNameExistsException("A queue already exists with the same name and a different value for attribute(s)"),
+                                        SERVICE_NAME, "QueueAlreadyExists");
+        }
+        return new CreateQueueResult().withQueueUrl(queue.getUrl());
+    }
+
+    @Override
+    public GetQueueUrlResult getQueueUrl(GetQueueUrlRequest request) {
+        return new GetQueueUrlResult().withQueueUrl(queue(request.getQueueName()).getUrl());
+    }
+
+    @Override
+    public ListQueuesResult listQueues(ListQueuesRequest request) {
+        List<String> queueUrls = new ArrayList<>();
+        for (InMemoryQueue queue : this.queues.values()) {
+            if (request.getQueueNamePrefix() == null || queue.getName().startsWith(request.getQueueNamePrefix())) {
+                queueUrls.add(queue.getUrl());
+            }
+        }
+        Collections.sort(queueUrls);
+        return new ListQueuesResult().withQueueUrls(queueUrls);
+    }
+
+    @Override
+    public DeleteQueueResult deleteQueue(DeleteQueueRequest request) {
+        this.queues.remove(queue(request.getQueueUrl()).getName());
+        return new DeleteQueueResult();
+    }
+
+    @Override
+    public PurgeQueueResult purgeQueue(PurgeQueueRequest request) {
+        queue(request.getQueueUrl()).purge();
+        return new PurgeQueueResult();
+    }
+
+    @Override
+    public GetQueueAttributesResult getQueueAttributes(GetQueueAttributesRequest request) {
+        return new GetQueueAttributesResult().withAttributes(queue(request.getQueueUrl()).getAttributes(request.getAttributeNames()));
+    }
+
+    @Override
+    public SetQueueAttributesResult setQueueAttributes(SetQueueAttributesRequest request) {
+        queue(request.getQueueUrl()).setAttributes(request.getAttributes());
+        return new SetQueueAttributesResult();
+    }
+
+    @Override
+    public SendMessageResult sendMessage(SendMessageRequest request) {
+        return queue(request.getQueueUrl()).send(request.getMessageBody(),
+                                                 request.getMessageAttributes(),
+                                                 request.getDelaySeconds(),
+                                                 request.getMessageGroupId(),
+                                                 request.getMessageDeduplicationId());
+    }
+
+    @Override
+    public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest request) {
+        InMemoryQueue queue = queue(request.getQueueUrl());
+        validateBatch(request.getEntries(), SendMessageBatchRequestEntry::getId);
+        SendMessageBatchResult result = new SendMessageBatchResult();
+        for (SendMessageBatchRequestEntry entry : request.getEntries()) {
+            try {
+                SendMessageResult sent = queue.send(entry.getMessageBody(),
+                                                    entry.getMessageAttributes(),
+                                                    entry.getDelaySeconds(),
+                                                    entry.getMessageGroupId(),
+                                                    entry.getMessageDeduplicationId());
+                result.withSuccessful(new SendMessageBatchResultEntry().withId(entry.getId())
+                                                                       .withMessageId(sent.getMessageId())
+                                                                       .withMD5OfMessageBody(sent.getMD5OfMessageBody())
+                                                                       .withSequenceNumber(sent.getSequenceNumber()));
+            } catch (AmazonServiceException e) {
+                result.withFailed(failedEntry(entry.getId(), e));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ReceiveMessageResult receiveMessage(ReceiveMessageRequest request) {
+        int maxNumberOfMessages = request.getMaxNumberOfMessages() != null ? request.getMaxNumberOfMessages() : 1;
+        if (maxNumberOfMessages < 1 || maxNumberOfMessages > MAX_BATCH_SIZE) {
+            throw InMemoryQueue.invalidParameterValue("Value " + maxNumberOfMessages + " for parameter MaxNumberOfMessages is invalid. "
+                                                      + "Reason: Must be between 1 and 10, if provided.");
+        }
+        return new ReceiveMessageResult().withMessages(queue(request.getQueueUrl()).receive(maxNumberOfMessages,
+                                                                                            request.getVisibilityTimeout(),
+                                                                                            request.getWaitTimeSeconds(),
+                                                                                            request.getAttributeNames(),
+                                                                                            request.getMessageAttributeNames(),
+                                                                                            this::queueByArn));
+    }
+
+    @Override
+    public DeleteMessageResult deleteMessage(DeleteMessageRequest request) {
+        queue(request.getQueueUrl()).delete(request.getReceiptHandle());
+        return new DeleteMessageResult();
+    }
+
+    @Override
+    public DeleteMessageBatchResult deleteMessageBatch(DeleteMessageBatchRequest request) {
+        InMemoryQueue queue = queue(request.getQueueUrl());
+        validateBatch(request.getEntries(), DeleteMessageBatchRequestEntry::getId);
+        DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+        for (DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+            try {
+                queue.delete(entry.getReceiptHandle());
+                result.withSuccessful(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+            } catch (AmazonServiceException e) {
+                result.withFailed(failedEntry(entry.getId(), e));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ChangeMessageVisibilityResult changeMessageVisibility(ChangeMessageVisibilityRequest request) {
+        queue(request.getQueueUrl()).changeVisibility(request.getReceiptHandle(), request.getVisibilityTimeout());
+        return new ChangeMessageVisibilityResult();
+    }
+
+    @Override
+    public ChangeMessageVisibilityBatchResult changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest request) {
+        InMemoryQueue queue = queue(request.getQueueUrl());
+        validateBatch(request.getEntries(), ChangeMessageVisibilityBatchRequestEntry::getId);
+        ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+        for (ChangeMessageVisibilityBatchRequestEntry entry : request.getEntries()) {
+            try {
+                queue.changeVisibility(entry.getReceiptHandle(), entry.getVisibilityTimeout());
+                result.withSuccessful(new ChangeMessageVisibilityBatchResultEntry().withId(entry.getId()));
+            } catch (AmazonServiceException e) {
+                result.withFailed(failedEntry(entry.getId(), e));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Future<CreateQueueResult> createQueueAsync(CreateQueueRequest request,
+                                                      AsyncHandler<CreateQueueRequest, CreateQueueResult> asyncHandler) {
+        return execute(request, asyncHandler, this::createQueue);
+    }
+
+    @Override
+    public Future<GetQueueUrlResult> getQueueUrlAsync(GetQueueUrlRequest request,
+                                                      AsyncHandler<GetQueueUrlRequest, GetQueueUrlResult> asyncHandler) {
+        return execute(request, asyncHandler, this::getQueueUrl);
+    }
+
+    @Override
+    public Future<ListQueuesResult> listQueuesAsync(ListQueuesRequest request,
+                                                    AsyncHandler<ListQueuesRequest, ListQueuesResult> asyncHandler) {
+        return execute(request, asyncHandler, this::listQueues);
+    }
+
+    @Override
+    public Future<DeleteQueueResult> deleteQueueAsync(DeleteQueueRequest request,
+                                                      AsyncHandler<DeleteQueueRequest, DeleteQueueResult> asyncHandler) {
+        return execute(request, asyncHandler, this::deleteQueue);
+    }
+
+    @Override
+    public Future<PurgeQueueResult> purgeQueueAsync(PurgeQueueRequest request,
+                                                    AsyncHandler<PurgeQueueRequest, PurgeQueueResult> asyncHandler) {
+        return execute(request, asyncHandler, this::purgeQueue);
+    }
+
+    @Override
+    public Future<GetQueueAttributesResult> getQueueAttributesAsync(GetQueueAttributesRequest request,
+                                                                    AsyncHandler<GetQueueAttributesRequest, GetQueueAttributesResult> asyncHandler) {
+        return execute(request, asyncHandler, this::getQueueAttributes);
+    }
+
+    @Override
+    public Future<SetQueueAttributesResult> setQueueAttributesAsync(SetQueueAttributesRequest request,
+                                                                    AsyncHandler<SetQueueAttributesRequest, SetQueueAttributesResult> asyncHandler) {
+        return execute(request, asyncHandler, this::setQueueAttributes);
+    }
+
+    @Override
+    public Future<SendMessageResult> sendMessageAsync(SendMessageRequest request,
+                                                      AsyncHandler<SendMessageRequest, SendMessageResult> asyncHandler) {
+        return execute(request, asyncHandler, this::sendMessage);
+    }
+
+    @Override
+    public Future<SendMessageBatchResult> sendMessageBatchAsync(SendMessageBatchRequest request,
+                                                                AsyncHandler<SendMessageBatchRequest, SendMessageBatchResult> asyncHandler) {
+        return execute(request, asyncHandler, this::sendMessageBatch);
+    }
+
+    @Override
+    public Future<ReceiveMessageResult> receiveMessageAsync(ReceiveMessageRequest request,
+                                                            AsyncHandler<ReceiveMessageRequest, ReceiveMessageResult> asyncHandler) {
+        return execute(request, asyncHandler, this::receiveMessage);
+    }
+
+    @Override
+    public Future<DeleteMessageResult> deleteMessageAsync(DeleteMessageRequest request,
+                                                          AsyncHandler<DeleteMessageRequest, DeleteMessageResult> asyncHandler) {
+        return execute(request, asyncHandler, this::deleteMessage);
+    }
+
+    @Override
+    public Future<DeleteMessageBatchResult> deleteMessageBatchAsync(DeleteMessageBatchRequest request,
+                                                                    AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> asyncHandler) {
+        return execute(request, asyncHandler, this::deleteMessageBatch);
+    }
+
+    @Override
+    public Future<ChangeMessageVisibilityResult> changeMessageVisibilityAsync(ChangeMessageVisibilityRequest request,
+                                                                              AsyncHandler<ChangeMessageVisibilityRequest, ChangeMessageVisibilityResult> asyncHandler) {
+        return execute(request, asyncHandler, this::changeMessageVisibility);
+    }
+
+    @Override
+    public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(ChangeMessageVisibilityBatchRequest request,
+                                                                                        AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler) {
+        return execute(request, asyncHandler, this::changeMessageVisibilityBatch);
+    }
+
+    @Override
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * @return the queue with the given ARN, or {@code null} when it does not exist
+     */
+    InMemoryQueue queueByArn(String arn) {
+        return arn.startsWith(ARN_PREFIX) ? this.queues.get(arn.substring(ARN_PREFIX.length())) : null;
+    }
+
+    /**
+     * @param queueNameOrUrl name of the queue or its URL
+     */
+    private InMemoryQueue queue(String queueNameOrUrl) {
+        InMemoryQueue queue = this.queues.get(queueNameOrUrl.substring(queueNameOrUrl.lastIndexOf('/') + 1));
+        if (queue == null) {
+            throw AwsErrors.senderFault(new QueueDoesNotExistException("The specified queue does not exist for this wsdl version."),
+                                        SERVICE_NAME, "AWS.SimpleQueueService.NonExistentQueue");
+        }
+        return queue;
+    }
+
+    private static <E> void validateBatch(List<E> entries, Function<E, String> id) {
+        if (entries.isEmpty()) {
+            throw AwsErrors.senderFault(new EmptyBatchRequestException("There should be at least one entry in the request."),
+                                        SERVICE_NAME, "AWS.SimpleQueueService.EmptyBatchRequest");
+        }
+        if (entries.size() > MAX_BATCH_SIZE) {
+            throw AwsErrors.senderFault(new TooManyEntriesInBatchRequestException("Maximum number of entries per request are 10. "
+                                                                                  + "You have sent " + entries.size() + "."),
+                                        SERVICE_NAME, "AWS.SimpleQueueService.TooManyEntriesInBatchRequest");
+        }
+        Set<String> ids = new HashSet<>();
+        for (E entry : entries) {
+            if (!ids.add(id.apply(entry))) {
+                throw AwsErrors.senderFault(new BatchEntryIdsNotDistinctException("Id " + id.apply(entry) + " repeated."),
+                                            SERVICE_NAME, "AWS.SimpleQueueService.BatchEntryIdsNotDistinct");
+            }
+        }
+    }
+
+    private static BatchResultErrorEntry failedEntry(String id, AmazonServiceException exception) {
+        return new BatchResultErrorEntry().withId(id)
+                                          .withCode(exception.getErrorCode())
+                                          .withMessage(exception.getErrorMessage())
+                                          .withSenderFault(exception.getErrorType() == AmazonServiceException.ErrorType.Client);
+    }
+
+    private <Q extends AmazonWebServiceRequest, R> Future<R> execute(Q request, AsyncHandler<Q, R> asyncHandler,
+                                                                     Function<Q, R> operation) {
+        return this.executor.submit(() -> {
+            R result;
+            try {
+                result = operation.apply(request);
+            } catch (RuntimeException e) {
+                if (asyncHandler != null) {
+                    asyncHandler.onError(e);
+                }
+                throw e;
+            }
+            if (asyncHandler != null) {
+                asyncHandler.onSuccess(request, result);
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package org.springframework.cloud.stream.binder.sqs.test;
+
+import com.amazonaws.services.sns.model.CreateTopicRequest;
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.ReceiptHandleIsInvalidException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InMemoryAwsTest {
+
+    private final InMemorySqs sqs = new InMemorySqs();
+    private final InMemorySns sns = new InMemorySns(sqs);
+
+    @After
+    public void tearDown() {
+        sns.shutdown();
+        sqs.shutdown();
+    }
+
+    @Test
+    public void receivedMessageIsInvisibleUntilVisibilityTimeoutIsReset() {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        sqs.sendMessage(queueUrl, "hello");
+
+        List<Message> messages = sqs.receiveMessage(new ReceiveMessageRequest(queueUrl).withVisibilityTimeout(30)).getMessages();
+
+        assertThat(messages).extracting(Message::getBody).containsExactly("hello");
+        assertThat(sqs.receiveMessage(queueUrl).getMessages()).isEmpty();
+
+        sqs.changeMessageVisibility(queueUrl, messages.get(0).getReceiptHandle(), 0);
+        Message redelivered = sqs.receiveMessage(queueUrl).getMessages().get(0);
+        sqs.deleteMessage(queueUrl, redelivered.getReceiptHandle());
+
+        assertThat(sqs.receiveMessage(queueUrl).getMessages()).isEmpty();
+        assertThatThrownBy(() -> sqs.changeMessageVisibility(queueUrl, "unknown", 0))
+                .isInstanceOf(ReceiptHandleIsInvalidException.class);
+    }
+
+    @Test
+    public void blocksMessageGroupWhileItsMessageIsInFlight() {
+        String queueUrl = sqs.createQueue(new CreateQueueRequest("queue.fifo").addAttributesEntry(QueueAttributeName.FifoQueue.toString(), "true")
+                                                                            .addAttributesEntry(QueueAttributeName.ContentBasedDeduplication.toString(), "true"))
+                             .getQueueUrl();
+        sqs.sendMessage(new SendMessageRequest(queueUrl, "a1").withMessageGroupId("a"));
+        sqs.sendMessage(new SendMessageRequest(queueUrl, "a1").withMessageGroupId("a"));
+        sqs.sendMessage(new SendMessageRequest(queueUrl, "a2").withMessageGroupId("a"));
+        sqs.sendMessage(new SendMessageRequest(queueUrl, "b1").withMessageGroupId("b"));
+
+        List<Message> first = sqs.receiveMessage(new ReceiveMessageRequest(queueUrl).withMaxNumberOfMessages(1)).getMessages();
+        List<Message> second = sqs.receiveMessage(new ReceiveMessageRequest(queueUrl).withMaxNumberOfMessages(10)).getMessages();
+
+        assertThat(first).extracting(Message::getBody).containsExactly("a1");
+        assertThat(second).extracting(Message::getBody).containsExactly("b1");
+
+        sqs.deleteMessage(queueUrl, first.get(0).getReceiptHandle());
+
+        assertThat(sqs.receiveMessage(queueUrl).getMessages()).extracting(Message::getBody).containsExactly("a2");
+    }
+
+    @Test
+    public void deliversPublishedMessagesToSubscriptionsMatchingFilterPolicy() {
+        String topicArn = sns.createTopic(new CreateTopicRequest("topic")).getTopicArn();
+        String rawQueueUrl = sqs.createQueue("raw").getQueueUrl();
+        String filteredQueueUrl = sqs.createQueue("filtered").getQueueUrl();
+        String rawSubscriptionArn = sns.subscribe(topicArn, "sqs", queueArn(rawQueueUrl)).getSubscriptionArn();
+        String filteredSubscriptionArn = sns.subscribe(topicArn, "sqs", queueArn(filteredQueueUrl)).getSubscriptionArn();
+        sns.setSubscriptionAttributes(rawSubscriptionArn, "RawMessageDelivery", "true");
+        sns.setSubscriptionAttributes(filteredSubscriptionArn, "FilterPolicy", "{\"type\": [{\"prefix\": \"order\"}]}");
+
+        sns.publish(new PublishRequest(topicArn, "created").addMessageAttributesEntry("type", stringAttribute("order-created")));
+        sns.publish(new PublishRequest(topicArn, "paid").addMessageAttributesEntry("type", stringAttribute("payment")));
+
+        List<Message> raw = sqs.receiveMessage(new ReceiveMessageRequest(rawQueueUrl).withMaxNumberOfMessages(10)
+                                                                                     .withMessageAttributeNames("All")).getMessages();
+        List<Message> filtered = sqs.receiveMessage(new ReceiveMessageRequest(filteredQueueUrl).withMaxNumberOfMessages(10)).getMessages();
+
+        assertThat(raw).extracting(Message::getBody).containsExactly("created", "paid");
+        assertThat(raw.get(0).getMessageAttributes().get("type").getStringValue()).isEqualTo("order-created");
+        assertThat(filtered).hasSize(1);
+        assertThat(filtered.get(0).getBody()).contains("\"Type\":\"Notification\"", "\"Message\":\"created\"");
+    }
+
+    private String queueArn(String queueUrl) {
+        return sqs.getQueueAttributes(queueUrl, Collections.singletonList("QueueArn")).getAttributes().get("QueueArn");
+    }
+
+    private static MessageAttributeValue stringAttribute(String value) {
+        return new MessageAttributeValue().withDataType("String").withStringValue(value);
+    }
+}
@@ -0,0 +1,166 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Base class for producer handlers collecting outbound messages into batch requests.
+ *
+ * A batch is sent when it holds {@code batchSize} messages, when adding another message would exceed
+ * {@code maxBatchBytes}, or when the first message in the batch has waited for {@code lingerTime} milliseconds.
+ * Remaining messages are sent when the handler is stopped.
+ *
+ * @param <E> the type of batch request entry
+ * @author Maciej Walkowiak
+ */
+abstract class AbstractBatchingMessageHandler<E> extends AbstractPublishingMessageHandler {
+
+    /**
+     * Maximum number of entries SNS and SQS accept in a single batch request.
+     */
+    static final int MAX_BATCH_SIZE = 10;
+
+    /**
+     * Maximum total payload size SNS and SQS accept in a single batch request.
+     */
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final Object monitor = new Object();
+    private List<PendingMessage<E>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    private int batchBytes;
+    private ScheduledFuture<?> lingerFlush;
+
+    private int batchSize = MAX_BATCH_SIZE;
+    private int maxBatchBytes = MAX_BATCH_BYTES;
+    private long lingerTime;
+    private boolean async;
+
+    void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0 && batchSize <= MAX_BATCH_SIZE, "'batchSize' must be between 1 and " + MAX_BATCH_SIZE);
+        this.batchSize = batchSize;
+    }
+
+    void setMaxBatchBytes(int maxBatchBytes) {
+        Assert.isTrue(maxBatchBytes > 0 && maxBatchBytes <= MAX_BATCH_BYTES, "'maxBatchBytes' must be between 1 and " + MAX_BATCH_BYTES);
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    void setLingerTime(long lingerTime) {
+        this.lingerTime = lingerTime;
+    }
+
+    /**
+     * Whether batches are sent with the asynchronous client, so that neither the sending thread
+     * nor the linger timer waits for AWS to respond.
+     */
+    void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    protected boolean isAsync() {
+        return this.async;
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) throws Exception {
+        // converted first, so that a message failing to convert does not hold an in-flight permit
+        PendingMessage<E> pendingMessage = toPendingMessage(message);
+        acquire(message);
+
+        List<PendingMessage<E>> overflow = null;
+        List<PendingMessage<E>> full = null;
+        synchronized (this.monitor) {
+            if (!this.batch.isEmpty() && this.batchBytes + pendingMessage.size > this.maxBatchBytes) {
+                overflow = drain();
+            }
+            this.batch.add(pendingMessage);
+            this.batchBytes += pendingMessage.size;
+            if (this.batch.size() >= this.batchSize || this.lingerTime <= 0) {
+                full = drain();
+            } else if (this.batch.size() == 1) {
+                this.lingerFlush = getTaskScheduler().schedule(this::flush, new Date(System.currentTimeMillis() + this.lingerTime));
+            }
+        }
+        if (overflow != null) {
+            send(overflow);
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    /**
+     * Sends all messages collected so far.
+     */
+    void flush() {
+        List<PendingMessage<E>> messages;
+        synchronized (this.monitor) {
+            messages = drain();
+        }
+        send(messages);
+    }
+
+    private List<PendingMessage<E>> drain() {
+        List<PendingMessage<E>> drained = this.batch;
+        this.batch = new ArrayList<>(this.batchSize);
+        this.batchBytes = 0;
+        if (this.lingerFlush != null) {
+            this.lingerFlush.cancel(false);
+            this.lingerFlush = null;
+        }
+        return drained;
+    }
+
+    private void send(List<PendingMessage<E>> messages) {
+        if (!messages.isEmpty()) {
+            batchSent(messages.size());
+            sendBatch(messages);
+        }
+    }
+
+    /**
+     * Converts the message into a batch request entry.
+     */
+    protected abstract PendingMessage<E> toPendingMessage(Message<?> message);
+
+    /**
+     * Sends the batch. Entry ids are the positions of the messages in the list. Implementations report the outcome
+     * of every message with {@link #completed} or {@link #failed}.
+     */
+    protected abstract void sendBatch(List<PendingMessage<E>> messages);
+
+    protected void batchFailed(List<PendingMessage<E>> messages, String destination, Exception exception) {
+        for (PendingMessage<E> pendingMessage : messages) {
+            failed(new MessageDeliveryException(pendingMessage.message, "Failed to send batch to " + destination, exception));
+        }
+    }
+
+    protected void entryFailed(PendingMessage<E> pendingMessage, String destination, String code, String errorMessage) {
+        failed(new MessageDeliveryException(pendingMessage.message, "Failed to send message to " + destination
+                                                                    + ": [" + code + "] " + errorMessage));
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        flush();
+    }
+
+    protected static class PendingMessage<E> {
+        final Message<?> message;
+        final E entry;
+        final int size;
+
+        PendingMessage(Message<?> message, E entry, int size) {
+            this.message = message;
+            this.entry = entry;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.context.Lifecycle;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.ErrorMessage;
+
+/**
+ * Base class for the binder's producer handlers. Routes per-message outcomes to the failure and success channels
+ * and optionally limits the number of in-flight messages. Resolves FIFO message group and deduplication ids
+ * from expressions, or from the {@link SqsBinderHeaders#MESSAGE_GROUP_ID} and
+ * {@link SqsBinderHeaders#MESSAGE_DEDUPLICATION_ID} headers. Headers are sent as message attributes,
+ * see {@link MessageAttributesMapper}.
+ *
+ * @author Maciej Walkowiak
+ */
+public abstract class AbstractPublishingMessageHandler extends AbstractMessageHandler implements Lifecycle {
+
+    protected final MessageAttributesMapper attributesMapper = new MessageAttributesMapper();
+
+    private MessageChannel failureChannel;
+    private MessageChannel successChannel;
+    private InFlightLimiter inFlightLimiter;
+    private Expression messageGroupIdExpression;
+    private Expression messageDeduplicationIdExpression;
+    private ProducerMetrics metrics;
+    private volatile EvaluationContext evaluationContext;
+
+    private volatile boolean running;
+
+    public void setFailureChannel(MessageChannel failureChannel) {
+        this.failureChannel = failureChannel;
+    }
+
+    /**
+     * Channel receiving every successfully published message with the {@link AwsHeaders#MESSAGE_ID} header set.
+     */
+    public void setSuccessChannel(MessageChannel successChannel) {
+        this.successChannel = successChannel;
+    }
+
+    public void setInFlightLimiter(InFlightLimiter inFlightLimiter) {
+        this.inFlightLimiter = inFlightLimiter;
+    }
+
+    InFlightLimiter getInFlightLimiter() {
+        return this.inFlightLimiter;
+    }
+
+    void setMetrics(ProducerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Patterns of the headers sent as message attributes, see {@link HeaderFilter}.
+     */
+    public void setHeaderPatterns(String... headerPatterns) {
+        this.attributesMapper.setHeaderFilter(new HeaderFilter(headerPatterns));
+    }
+
+    /**
+     * Whether the time of publishing is sent in the {@link SqsBinderHeaders#PRODUCER_TIMESTAMP} attribute.
+     */
+    public void setProducerTimestamp(boolean producerTimestamp) {
+        this.attributesMapper.setProducerTimestamp(producerTimestamp);
+    }
+
+    public void setMessageGroupIdExpression(Expression messageGroupIdExpression) {
+        this.messageGroupIdExpression = messageGroupIdExpression;
+    }
+
+    public void setMessageDeduplicationIdExpression(Expression messageDeduplicationIdExpression) {
+        this.messageDeduplicationIdExpression = messageDeduplicationIdExpression;
+    }
+
+    protected String messageGroupId(Message<?> message) {
+        return resolve(message, this.messageGroupIdExpression, SqsBinderHeaders.MESSAGE_GROUP_ID);
+    }
+
+    protected String messageDeduplicationId(Message<?> message) {
+        return resolve(message, this.messageDeduplicationIdExpression, SqsBinderHeaders.MESSAGE_DEDUPLICATION_ID);
+    }
+
+    private String resolve(Message<?> message, Expression expression, String header) {
+        if (expression == null) {
+            Object value = message.getHeaders().get(header);
+            return value != null ? value.toString() : null;
+        }
+        if (this.evaluationContext == null) {
+            this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(getBeanFactory());
+        }
+        return expression.getValue(this.evaluationContext, message, String.class);
+    }
+
+    protected void acquire(Message<?> message) {
+        if (this.inFlightLimiter != null) {
+            this.inFlightLimiter.acquire(message);
+        }
+    }
+
+    /**
+     * Records the latency of a publish request.
+     *
+     * @param start {@link System#nanoTime()} when the request was sent
+     */
+    protected void published(long start, boolean success) {
+        if (this.metrics != null) {
+            this.metrics.published(start, success);
+        }
+    }
+
+    protected void batchSent(int size) {
+        if (this.metrics != null) {
+            this.metrics.batch(size);
+        }
+    }
+
+    protected void completed(Message<?> message, String messageId) {
+        release();
+        if (this.metrics != null) {
+            this.metrics.completed();
+        }
+        if (this.successChannel != null) {
+            this.successChannel.send(MessageBuilder.fromMessage(message)
+                                                   .setHeader(AwsHeaders.MESSAGE_ID, messageId)
+                                                   .build());
+        }
+    }
+
+    protected void failed(MessageDeliveryException exception) {
+        release();
+        if (this.metrics != null) {
+            this.metrics.failed();
+        }
+        if (this.failureChannel != null) {
+            this.failureChannel.send(new ErrorMessage(exception));
+        } else {
+            this.logger.error("Failed to publish message and no failure channel is configured", exception);
+        }
+    }
+
+    /**
+     * Records the failure of a message sent synchronously, which is thrown to the sending thread
+     * instead of being reported to the failure channel.
+     *
+     * @return the exception to throw
+     */
+    protected MessageDeliveryException failedSynchronously(MessageDeliveryException exception) {
+        if (this.metrics != null) {
+            this.metrics.failed();
+        }
+        return exception;
+    }
+
+    private void release() {
+        if (this.inFlightLimiter != null) {
+            this.inFlightLimiter.release();
+        }
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+/**
+ * Decides how many receive loops a consumer runs, based on the approximate number of messages in the queue
+ * and exponentially weighted moving averages of receive and handler latency.
+ *
+ * The number of pollers is chosen so the backlog can be received within one evaluation interval, but never more
+ * than the handler pool can keep up with. Growth doubles the number of pollers at most, so bursts drain quickly;
+ * an empty queue removes one poller per interval, down to the minimum.
+ *
+ * @author Maciej Walkowiak
+ */
+class AdaptiveConcurrency {
+
+    private static final double ALPHA = 0.2;
+
+    private final int minPollers;
+    private final int maxPollers;
+    private final int handlerPoolSize;
+    private final int maxNumberOfMessages;
+    private final long interval;
+
+    private final Ewma receiveLatency = new Ewma();
+    private final Ewma handlerLatency = new Ewma();
+
+    /**
+     * @param interval time in milliseconds between evaluations
+     */
+    AdaptiveConcurrency(int minPollers, int maxPollers, int handlerPoolSize, int maxNumberOfMessages, long interval) {
+        this.minPollers = Math.max(1, Math.min(minPollers, maxPollers));
+        this.maxPollers = maxPollers;
+        this.handlerPoolSize = handlerPoolSize;
+        this.maxNumberOfMessages = maxNumberOfMessages;
+        this.interval = interval;
+    }
+
+    int getMinPollers() {
+        return this.minPollers;
+    }
+
+    void recordReceiveLatency(long millis) {
+        this.receiveLatency.record(millis);
+    }
+
+    void recordHandlerLatency(long millis) {
+        this.handlerLatency.record(millis);
+    }
+
+    int pollers(long backlog, int current) {
+        int desired = 0;
+        if (backlog > 0) {
+            double perPoller = this.maxNumberOfMessages * (this.interval / Math.max(1, this.receiveLatency.get()));
+            desired = (int) Math.ceil(backlog / perPoller);
+            if (this.handlerLatency.get() > 0) {
+                double handlerCapacity = this.handlerPoolSize * (this.interval / this.handlerLatency.get());
+                desired = Math.min(desired, (int) Math.ceil(handlerCapacity / perPoller));
+            }
+        }
+        if (desired > current) {
+            desired = Math.min(desired, Math.max(1, current) * 2);
+        } else if (desired < current) {
+            desired = current - 1;
+        }
+        return Math.max(this.minPollers, Math.min(this.maxPollers, desired));
+    }
+
+    private static class Ewma {
+
+        private double value;
+
+        synchronized void record(long sample) {
+            this.value = this.value == 0 ? sample : ALPHA * sample + (1 - ALPHA) * this.value;
+        }
+
+        synchronized double get() {
+            return this.value;
+        }
+    }
+}
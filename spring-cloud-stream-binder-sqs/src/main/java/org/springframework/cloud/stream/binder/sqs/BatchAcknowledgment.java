@@ -0,0 +1,52 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import java.util.BitSet;
+
+/**
+ * Result of handling a batch of messages, available in the {@link SqsBinderHeaders#BATCH_ACKNOWLEDGMENT} header
+ * of batches delivered by consumer bindings in batch mode. Messages marked as failed are treated like messages
+ * whose handler threw an exception; all others are treated as handled successfully once the handler returns.
+ *
+ * @author Maciej Walkowiak
+ */
+public class BatchAcknowledgment {
+
+    private final int size;
+    private final BitSet failed;
+
+    BatchAcknowledgment(int size) {
+        this.size = size;
+        this.failed = new BitSet(size);
+    }
+
+    /**
+     * Marks the message at the given position of the batch payload as failed.
+     */
+    public void markFailed(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", batch size: " + this.size);
+        }
+        synchronized (this.failed) {
+            this.failed.set(index);
+        }
+    }
+
+    /**
+     * Marks every message of the batch as failed.
+     */
+    public void markAllFailed() {
+        synchronized (this.failed) {
+            this.failed.set(0, this.size);
+        }
+    }
+
+    public boolean isFailed(int index) {
+        synchronized (this.failed) {
+            return this.failed.get(index);
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+}
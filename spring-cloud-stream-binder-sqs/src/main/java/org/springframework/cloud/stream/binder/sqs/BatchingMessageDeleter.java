@@ -0,0 +1,236 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Deletes messages with {@code DeleteMessageBatch} requests. Receipt handles are collected until a batch of 10
+ * is complete or the flush interval elapses. Entries failing with a retryable error, and whole requests failing,
+ * are retried up to {@value #MAX_ATTEMPTS} times.
+ *
+ * {@link #stop(long)} flushes pending deletions and waits for outstanding requests, so messages handled before
+ * a graceful shutdown are not redelivered.
+ *
+ * @author Maciej Walkowiak
+ */
+class BatchingMessageDeleter {
+
+    private static final Log logger = LogFactory.getLog(BatchingMessageDeleter.class);
+
+    private static final int MAX_BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY = 100;
+
+    private final AmazonSQSAsync amazonSqs;
+    private final String queueUrl;
+    private final TaskScheduler taskScheduler;
+    private final long flushInterval;
+
+    private final Object monitor = new Object();
+    private List<PendingDeletion> pending = new ArrayList<>();
+    private int inFlight;
+    private ScheduledFuture<?> flushTask;
+    private ConsumerMetrics metrics;
+
+    BatchingMessageDeleter(AmazonSQSAsync amazonSqs, String queueUrl, TaskScheduler taskScheduler, long flushInterval) {
+        this.amazonSqs = amazonSqs;
+        this.queueUrl = queueUrl;
+        this.taskScheduler = taskScheduler;
+        this.flushInterval = flushInterval;
+    }
+
+    void setMetrics(ConsumerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    void start() {
+        this.flushTask = this.taskScheduler.scheduleWithFixedDelay(this::flush, this.flushInterval);
+    }
+
+    /**
+     * Flushes pending deletions and waits up to {@code timeout} milliseconds for outstanding requests to complete.
+     *
+     * @return whether all requests completed
+     */
+    boolean stop(long timeout) {
+        if (this.flushTask != null) {
+            this.flushTask.cancel(false);
+            this.flushTask = null;
+        }
+        flush();
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (this.monitor) {
+            long remaining;
+            while (this.inFlight > 0 && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    this.monitor.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return this.inFlight == 0;
+        }
+    }
+
+    /**
+     * @return future completed once the message is deleted
+     */
+    CompletableFuture<Void> delete(String receiptHandle) {
+        PendingDeletion deletion = new PendingDeletion(receiptHandle);
+        List<PendingDeletion> batch = null;
+        synchronized (this.monitor) {
+            this.pending.add(deletion);
+            if (this.pending.size() >= MAX_BATCH_SIZE) {
+                batch = drain();
+                this.inFlight++;
+            }
+        }
+        if (batch != null) {
+            send(batch, 1);
+        }
+        return deletion.future;
+    }
+
+    void flush() {
+        List<PendingDeletion> deletions;
+        synchronized (this.monitor) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+            deletions = drain();
+            this.inFlight += (deletions.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        }
+        for (int i = 0; i < deletions.size(); i += MAX_BATCH_SIZE) {
+            send(deletions.subList(i, Math.min(i + MAX_BATCH_SIZE, deletions.size())), 1);
+        }
+    }
+
+    private List<PendingDeletion> drain() {
+        List<PendingDeletion> deletions = this.pending;
+        this.pending = new ArrayList<>();
+        return deletions;
+    }
+
+    /**
+     * Sends a batch already counted as in flight.
+     */
+    private void send(List<PendingDeletion> batch, int attempt) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(new DeleteMessageBatchRequestEntry(String.valueOf(i), batch.get(i).receiptHandle));
+        }
+        long start = System.nanoTime();
+        try {
+            this.amazonSqs.deleteMessageBatchAsync(new DeleteMessageBatchRequest(this.queueUrl, entries), new DeletionHandler(batch, attempt, start));
+        } catch (RuntimeException e) {
+            deleted(start, false);
+            for (PendingDeletion deletion : batch) {
+                failed(deletion, e);
+            }
+            completed();
+        }
+    }
+
+    private void retry(List<PendingDeletion> batch, int attempt) {
+        synchronized (this.monitor) {
+            this.inFlight++;
+        }
+        this.taskScheduler.schedule(() -> send(batch, attempt + 1),
+                                    new Date(System.currentTimeMillis() + RETRY_DELAY * attempt));
+    }
+
+    private void deleted(long start, boolean success) {
+        if (this.metrics != null) {
+            this.metrics.deleted(start, success);
+        }
+    }
+
+    private void failed(PendingDeletion deletion, Exception exception) {
+        logger.warn("Failed to delete message from queue " + this.queueUrl, exception);
+        deletion.future.completeExceptionally(exception);
+    }
+
+    private void completed() {
+        synchronized (this.monitor) {
+            this.inFlight--;
+            this.monitor.notifyAll();
+        }
+    }
+
+    private class DeletionHandler implements AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> {
+
+        private final List<PendingDeletion> batch;
+        private final int attempt;
+        private final long start;
+
+        DeletionHandler(List<PendingDeletion> batch, int attempt, long start) {
+            this.batch = batch;
+            this.attempt = attempt;
+            this.start = start;
+        }
+
+        @Override
+        public void onSuccess(DeleteMessageBatchRequest request, DeleteMessageBatchResult result) {
+            deleted(this.start, true);
+            for (DeleteMessageBatchResultEntry entry : result.getSuccessful()) {
+                this.batch.get(Integer.parseInt(entry.getId())).future.complete(null);
+            }
+            List<PendingDeletion> retries = new ArrayList<>();
+            for (BatchResultErrorEntry entry : result.getFailed()) {
+                PendingDeletion deletion = this.batch.get(Integer.parseInt(entry.getId()));
+                if (entry.isSenderFault() || this.attempt >= MAX_ATTEMPTS) {
+                    AmazonSQSException exception = new AmazonSQSException(entry.getMessage());
+                    exception.setErrorCode(entry.getCode());
+                    failed(deletion, exception);
+                } else {
+                    retries.add(deletion);
+                }
+            }
+            if (!retries.isEmpty()) {
+                retry(retries, this.attempt);
+            }
+            completed();
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            deleted(this.start, false);
+            if (this.attempt < MAX_ATTEMPTS) {
+                retry(this.batch, this.attempt);
+            } else {
+                for (PendingDeletion deletion : this.batch) {
+                    failed(deletion, exception);
+                }
+            }
+            completed();
+        }
+    }
+
+    private static class PendingDeletion {
+
+        private final String receiptHandle;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingDeletion(String receiptHandle) {
+            this.receiptHandle = receiptHandle;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.TimingInfo;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the connection pool counters the client records with each request and exposes them as gauges,
+ * see {@link SqsBinderMetrics}. Counters are those of the last request sent, so they are only updated while
+ * the client is in use.
+ *
+ * @author Maciej Walkowiak
+ */
+class ConnectionPoolMetrics extends RequestMetricCollector {
+
+    private final AtomicLong leased;
+    private final AtomicLong pending;
+
+    ConnectionPoolMetrics(SqsBinderMetrics metrics, Tags tags, int maxConnections) {
+        this.leased = metrics.gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_LEASED, "Connections of the client's pool in use", tags,
+                                    AtomicLong::new, AtomicLong::get);
+        this.pending = metrics.gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_PENDING, "Requests waiting for a connection of the client's pool", tags,
+                                     AtomicLong::new, AtomicLong::get);
+        metrics.gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_MAX, "Maximum number of connections of the client's pool", tags,
+                      AtomicInteger::new, AtomicInteger::get)
+               .set(maxConnections);
+    }
+
+    @Override
+    public void collectMetrics(Request<?> request, Response<?> response) {
+        TimingInfo timingInfo = request.getAWSRequestMetrics().getTimingInfo();
+        Number leased = timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolLeasedCount.name());
+        Number pending = timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolPendingCount.name());
+        if (leased != null) {
+            this.leased.set(leased.longValue());
+        }
+        if (pending != null) {
+            this.pending.set(pending.longValue());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of a consumer binding, see {@link SqsBinderMetrics}.
+ *
+ * @author Maciej Walkowiak
+ */
+class ConsumerMetrics {
+
+    private final Timer endToEnd;
+    private final Timer receiveSuccess;
+    private final Timer receiveFailure;
+    private final DistributionSummary receiveMessages;
+    private final Counter receiveEmpty;
+    private final Timer handleSuccess;
+    private final Timer handleFailure;
+    private final Timer deleteSuccess;
+    private final Timer deleteFailure;
+    private final Counter visibilityExtensionsSuccess;
+    private final Counter visibilityExtensionsFailure;
+    private final AtomicInteger inFlight;
+
+    ConsumerMetrics(SqsBinderMetrics metrics, Tags tags) {
+        Tags success = tags.and(SqsBinderMetrics.RESULT, SqsBinderMetrics.SUCCESS);
+        Tags failure = tags.and(SqsBinderMetrics.RESULT, SqsBinderMetrics.FAILURE);
+        this.endToEnd = metrics.histogram(SqsBinderMetrics.CONSUMER_END_TO_END, "Time from publishing to receiving messages", tags);
+        this.receiveSuccess = metrics.timer(SqsBinderMetrics.CONSUMER_RECEIVE, "Latency of receive requests", success);
+        this.receiveFailure = metrics.timer(SqsBinderMetrics.CONSUMER_RECEIVE, "Latency of receive requests", failure);
+        this.receiveMessages = metrics.summary(SqsBinderMetrics.CONSUMER_RECEIVE_MESSAGES, "Number of messages per receive", tags);
+        this.receiveEmpty = Counter.builder(SqsBinderMetrics.CONSUMER_RECEIVE_EMPTY)
+                                   .tags(tags)
+                                   .description("Number of receives returning no messages")
+                                   .register(metrics.getMeterRegistry());
+        this.handleSuccess = metrics.timer(SqsBinderMetrics.CONSUMER_HANDLE, "Time spent handling messages", success);
+        this.handleFailure = metrics.timer(SqsBinderMetrics.CONSUMER_HANDLE, "Time spent handling messages", failure);
+        this.deleteSuccess = metrics.timer(SqsBinderMetrics.CONSUMER_DELETE, "Latency of delete requests", success);
+        this.deleteFailure = metrics.timer(SqsBinderMetrics.CONSUMER_DELETE, "Latency of delete requests", failure);
+        this.visibilityExtensionsSuccess = Counter.builder(SqsBinderMetrics.CONSUMER_VISIBILITY_EXTENSIONS)
+                                                  .tags(success)
+                                                  .description("Number of messages whose visibility timeout was extended")
+                                                  .register(metrics.getMeterRegistry());
+        this.visibilityExtensionsFailure = Counter.builder(SqsBinderMetrics.CONSUMER_VISIBILITY_EXTENSIONS)
+                                                  .tags(failure)
+                                                  .description("Number of messages whose visibility timeout was extended")
+                                                  .register(metrics.getMeterRegistry());
+        this.inFlight = metrics.gauge(SqsBinderMetrics.CONSUMER_IN_FLIGHT, "Messages received and not completed yet", tags,
+                                      AtomicInteger::new, AtomicInteger::get);
+    }
+
+    /**
+     * @param start {@link System#nanoTime()} when the request was sent
+     */
+    void received(long start, int messages) {
+        this.receiveSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        this.receiveMessages.record(messages);
+        if (messages == 0) {
+            this.receiveEmpty.increment();
+        }
+        this.inFlight.addAndGet(messages);
+    }
+
+    /**
+     * @param producerTimestamp epoch milliseconds when the message was published; the latency includes the clock
+     * difference between the producer and the consumer
+     */
+    void endToEnd(long producerTimestamp) {
+        this.endToEnd.record(Math.max(0, System.currentTimeMillis() - producerTimestamp), TimeUnit.MILLISECONDS);
+    }
+
+    void receiveFailed(long start) {
+        this.receiveFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    void handled(long start, boolean success) {
+        (success ? this.handleSuccess : this.handleFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Called for every received message once it has been handled or released.
+     */
+    void completed(int messages) {
+        this.inFlight.addAndGet(-messages);
+    }
+
+    void deleted(long start, boolean success) {
+        (success ? this.deleteSuccess : this.deleteFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    void visibilityExtended(int succeeded, int failed) {
+        this.visibilityExtensionsSuccess.increment(succeeded);
+        this.visibilityExtensionsFailure.increment(failed);
+    }
+}
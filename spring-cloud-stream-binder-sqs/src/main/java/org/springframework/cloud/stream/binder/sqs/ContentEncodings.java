@@ -0,0 +1,60 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Content encodings applied to binary payloads so that they can be sent as SNS and SQS message bodies.
+ * The applied encodings are listed, in order, in the {@link SqsBinderHeaders#CONTENT_ENCODING} header.
+ *
+ * @author Maciej Walkowiak
+ */
+final class ContentEncodings {
+
+    static final String BASE64 = "base64";
+
+    /**
+     * Text payloads encoded to UTF-8 bytes, so that consumers restore them as {@code String} once decompressed
+     * or retrieved from the payload store.
+     */
+    static final String UTF_8 = "utf-8";
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    /**
+     * Largest encoding buffer kept per thread, the size limit of SNS and SQS messages. Larger payloads, which
+     * cannot be sent anyway, are encoded to a buffer of their own, so that every thread retains at most this much.
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Per-thread buffer the Base64 encoder writes to, reused across messages.
+     */
+    private static final ThreadLocal<byte[]> ENCODING_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private ContentEncodings() {
+    }
+
+    static String encodeBase64(byte[] bytes) {
+        int encodedLength = 4 * ((bytes.length + 2) / 3);
+        if (encodedLength > MAX_RETAINED_BUFFER_SIZE) {
+            return ENCODER.encodeToString(bytes);
+        }
+        byte[] buffer = ENCODING_BUFFER.get();
+        if (buffer.length < encodedLength) {
+            buffer = new byte[Math.min(Math.max(encodedLength, buffer.length * 2), MAX_RETAINED_BUFFER_SIZE)];
+            ENCODING_BUFFER.set(buffer);
+        }
+        int length = ENCODER.encode(bytes, buffer);
+        return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    static byte[] decodeBase64(String value) {
+        return DECODER.decode(value);
+    }
+
+    static String decodeUtf8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.cloud.stream.binder.BinderHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.PatternMatchUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Selects the message headers mapped to and from message attributes by name, with the simple patterns of
+ * {@link PatternMatchUtils#simpleMatch}. Patterns starting with {@code !} exclude headers; the first pattern
+ * matching a header decides. Headers of the binder are always mapped.
+ *
+ * Headers are ranked for the 10 attributes SNS and SQS accept: headers of the binder first, then
+ * {@code contentType}, then the other headers in the order of the patterns they match.
+ *
+ * @author Maciej Walkowiak
+ */
+public class HeaderFilter {
+
+    static final int EXCLUDED = -1;
+
+    private static final String[] ALL = {"*"};
+
+    private final String[] patterns;
+
+    HeaderFilter() {
+        this(ALL);
+    }
+
+    public HeaderFilter(String... patterns) {
+        this.patterns = patterns != null ? patterns : ALL;
+    }
+
+    boolean matches(String header) {
+        return rank(header) != EXCLUDED;
+    }
+
+    /**
+     * @return rank of the header, lower ranks first, or {@link #EXCLUDED}
+     */
+    int rank(String header) {
+        if (header.startsWith(SqsBinderHeaders.PREFIX) || BinderHeaders.PARTITION_HEADER.equals(header)) {
+            return 0;
+        }
+        for (int i = 0; i < this.patterns.length; i++) {
+            String pattern = this.patterns[i];
+            boolean negated = pattern.startsWith("!");
+            if (PatternMatchUtils.simpleMatch(negated ? pattern.substring(1) : pattern, header)) {
+                if (negated) {
+                    return EXCLUDED;
+                }
+                return MessageHeaders.CONTENT_TYPE.equals(header) ? 1 : i + 2;
+            }
+        }
+        return EXCLUDED;
+    }
+
+    /**
+     * @return the attributes whose names match
+     */
+    public <V> Map<String, V> filter(Map<String, V> attributes) {
+        Map<String, V> filtered = new LinkedHashMap<>(attributes.size() * 2);
+        for (Map.Entry<String, V> attribute : attributes.entrySet()) {
+            if (matches(attribute.getKey())) {
+                filtered.put(attribute.getKey(), attribute.getValue());
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Whether all headers are mapped.
+     */
+    public boolean isMatchingAll() {
+        return this.patterns.length == 1 && "*".equals(this.patterns[0]);
+    }
+}
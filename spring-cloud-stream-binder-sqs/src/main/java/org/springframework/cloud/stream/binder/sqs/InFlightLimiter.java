@@ -0,0 +1,50 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of messages handed over to AWS clients that have not completed yet.
+ *
+ * When no permit is available the caller either blocks until one of the in-flight messages completes
+ * or gets a {@link MessageDeliveryException} immediately.
+ *
+ * @author Maciej Walkowiak
+ */
+public class InFlightLimiter {
+
+    private final int maxInFlight;
+    private final boolean blockWhenFull;
+    private final Semaphore permits;
+
+    public InFlightLimiter(int maxInFlight, boolean blockWhenFull) {
+        Assert.isTrue(maxInFlight > 0, "'maxInFlight' must be greater than 0");
+        this.maxInFlight = maxInFlight;
+        this.blockWhenFull = blockWhenFull;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    public void acquire(Message<?> message) {
+        if (this.blockWhenFull) {
+            try {
+                this.permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessageDeliveryException(message, "Interrupted while waiting for an in-flight permit", e);
+            }
+        } else if (!this.permits.tryAcquire()) {
+            throw new MessageDeliveryException(message, "Maximum number of in-flight messages (" + this.maxInFlight + ") reached");
+        }
+    }
+
+    public void release() {
+        this.permits.release();
+    }
+
+    int getInFlight() {
+        return this.maxInFlight - this.permits.availablePermits();
+    }
+}
@@ -0,0 +1,248 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.MimeType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps Spring message headers to SNS and SQS message attributes for the binder's own producer handlers,
+ * following the same rules as the header mapper used by {@code SnsMessageHandler}. Only headers accepted by
+ * the {@link HeaderFilter} are mapped, and at most {@value #MAX_ATTRIBUTES} of them, the limit of SNS and SQS,
+ * picked by their rank; the publishing time is added as {@link SqsBinderHeaders#PRODUCER_TIMESTAMP} unless disabled,
+ * and {@link SqsBinderHeaders#RAW_MESSAGE} to messages sent directly to a queue.
+ * Attributes of other client models, like those of the AWS SDK v2, are created with an {@link AttributeValueFactory}.
+ *
+ * @author Maciej Walkowiak
+ */
+public class MessageAttributesMapper {
+
+    static final int MAX_ATTRIBUTES = 10;
+
+    private static final Log logger = LogFactory.getLog(MessageAttributesMapper.class);
+
+    private static final String STRING = "String";
+    private static final String NUMBER = "Number";
+    private static final String BINARY = "Binary";
+
+    private HeaderFilter headerFilter = new HeaderFilter();
+    private boolean producerTimestamp;
+    private boolean rawMessage;
+    private volatile boolean limitReported;
+
+    public void setHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+    }
+
+    public void setProducerTimestamp(boolean producerTimestamp) {
+        this.producerTimestamp = producerTimestamp;
+    }
+
+    /**
+     * Whether messages are sent directly to a queue, so that consumers do not try to unwrap an SNS envelope.
+     */
+    public void setRawMessage(boolean rawMessage) {
+        this.rawMessage = rawMessage;
+    }
+
+    Map<String, com.amazonaws.services.sns.model.MessageAttributeValue> toSnsAttributes(MessageHeaders headers) {
+        return toAttributes(headers, (dataType, stringValue, binaryValue) ->
+                new com.amazonaws.services.sns.model.MessageAttributeValue().withDataType(dataType)
+                                                                            .withStringValue(stringValue)
+                                                                            .withBinaryValue(binaryValue));
+    }
+
+    Map<String, com.amazonaws.services.sqs.model.MessageAttributeValue> toSqsAttributes(MessageHeaders headers) {
+        return toAttributes(headers, (dataType, stringValue, binaryValue) ->
+                new com.amazonaws.services.sqs.model.MessageAttributeValue().withDataType(dataType)
+                                                                            .withStringValue(stringValue)
+                                                                            .withBinaryValue(binaryValue));
+    }
+
+    /**
+     * @return message attributes of the selected headers, created with the given factory
+     */
+    public <T> Map<String, T> toAttributes(MessageHeaders headers, AttributeValueFactory<T> attributeValueFactory) {
+        List<Attribute> selected = select(headers);
+        Map<String, T> attributes = new HashMap<>(selected.size() * 2);
+        for (Attribute header : selected) {
+            if (BINARY.equals(header.dataType)) {
+                attributes.put(header.name, attributeValueFactory.create(header.dataType, null, binaryValue(header.value)));
+            } else {
+                attributes.put(header.name, attributeValueFactory.create(header.dataType, header.value.toString(), null));
+            }
+        }
+        return attributes;
+    }
+
+    private List<Attribute> select(MessageHeaders headers) {
+        List<Attribute> attributes = new ArrayList<>(Math.min(headers.size() + 2, MAX_ATTRIBUTES + 2));
+        if (this.rawMessage) {
+            attributes.add(new Attribute(SqsBinderHeaders.RAW_MESSAGE, STRING, Boolean.TRUE, 0));
+        }
+        if (this.producerTimestamp) {
+            Long timestamp = System.currentTimeMillis();
+            attributes.add(new Attribute(SqsBinderHeaders.PRODUCER_TIMESTAMP, dataType(timestamp), timestamp, 0));
+        }
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            // set by the binder only, never copied from the headers of a received message
+            if (SqsBinderHeaders.PRODUCER_TIMESTAMP.equals(header.getKey()) || SqsBinderHeaders.RAW_MESSAGE.equals(header.getKey())) {
+                continue;
+            }
+            int rank = this.headerFilter.rank(header.getKey());
+            String dataType = rank != HeaderFilter.EXCLUDED ? dataType(header.getKey(), header.getValue()) : null;
+            if (dataType != null) {
+                attributes.add(new Attribute(header.getKey(), dataType, header.getValue(), rank));
+            }
+        }
+        if (attributes.size() <= MAX_ATTRIBUTES) {
+            return attributes;
+        }
+        attributes.sort(Comparator.comparingInt(attribute -> attribute.rank));
+        List<Attribute> dropped = attributes.subList(MAX_ATTRIBUTES, attributes.size());
+        if (!this.limitReported) {
+            this.limitReported = true;
+            logger.warn("Message headers " + names(dropped) + " are not sent, SNS and SQS accept at most " + MAX_ATTRIBUTES
+                        + " message attributes. Exclude headers with the headerPatterns producer property.");
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Message headers " + names(dropped) + " are not sent, over the limit of message attributes");
+        }
+        return attributes.subList(0, MAX_ATTRIBUTES);
+    }
+
+    private static List<String> names(List<Attribute> attributes) {
+        List<String> names = new ArrayList<>(attributes.size());
+        for (Attribute attribute : attributes) {
+            names.add(attribute.name);
+        }
+        return names;
+    }
+
+    public String toBody(Message<?> message) {
+        Object payload = message.getPayload();
+        if (payload instanceof byte[]) {
+            return new String((byte[]) payload, StandardCharsets.UTF_8);
+        }
+        return payload.toString();
+    }
+
+    private String dataType(String name, Object value) {
+        if (MessageHeaders.ID.equals(name) || MessageHeaders.TIMESTAMP.equals(name) || value == null
+            || SqsBinderHeaders.MESSAGE_GROUP_ID.equals(name) || SqsBinderHeaders.MESSAGE_DEDUPLICATION_ID.equals(name)) {
+            return null;
+        }
+        if (value instanceof String || value instanceof MimeType) {
+            return STRING;
+        }
+        if (value instanceof Number) {
+            return dataType((Number) value);
+        }
+        if (value instanceof byte[] || value instanceof ByteBuffer) {
+            return BINARY;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Message header '" + name + "' of type " + value.getClass().getName()
+                         + " cannot be mapped to a message attribute");
+        }
+        return null;
+    }
+
+    /**
+     * Number attributes carry the class of the value, like {@code SqsHeaderMapper} does, which
+     * {@code QueueMessageUtils} requires to map them back to headers.
+     */
+    private static String dataType(Number value) {
+        return NUMBER + "." + value.getClass().getName();
+    }
+
+    private ByteBuffer binaryValue(Object value) {
+        return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : (ByteBuffer) value;
+    }
+
+    /**
+     * Approximate size in bytes an SNS or SQS message contributes to the request size limits.
+     *
+     * @param attributes SNS or SQS message attribute values
+     */
+    static int sizeOf(String body, Map<String, ?> attributes) {
+        int size = utf8Length(body);
+        for (Map.Entry<String, ?> attribute : attributes.entrySet()) {
+            Object value = attribute.getValue();
+            if (value instanceof com.amazonaws.services.sns.model.MessageAttributeValue) {
+                com.amazonaws.services.sns.model.MessageAttributeValue snsValue = (com.amazonaws.services.sns.model.MessageAttributeValue) value;
+                size += attributeSize(attribute.getKey(), snsValue.getDataType(), snsValue.getStringValue(), snsValue.getBinaryValue());
+            } else {
+                com.amazonaws.services.sqs.model.MessageAttributeValue sqsValue = (com.amazonaws.services.sqs.model.MessageAttributeValue) value;
+                size += attributeSize(attribute.getKey(), sqsValue.getDataType(), sqsValue.getStringValue(), sqsValue.getBinaryValue());
+            }
+        }
+        return size;
+    }
+
+    private static int attributeSize(String name, String dataType, String stringValue, ByteBuffer binaryValue) {
+        int size = utf8Length(name) + utf8Length(dataType);
+        if (stringValue != null) {
+            size += utf8Length(stringValue);
+        }
+        if (binaryValue != null) {
+            size += binaryValue.remaining();
+        }
+        return size;
+    }
+
+    static int utf8Length(CharSequence sequence) {
+        int length = 0;
+        for (int i = 0; i < sequence.length(); i++) {
+            char ch = sequence.charAt(i);
+            if (ch < 0x80) {
+                length++;
+            } else if (ch < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(ch)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Creates the message attribute values of a client model.
+     */
+    @FunctionalInterface
+    public interface AttributeValueFactory<T> {
+
+        /**
+         * @param stringValue value of {@code String} and {@code Number} attributes, otherwise {@code null}
+         * @param binaryValue value of {@code Binary} attributes, otherwise {@code null}
+         */
+        T create(String dataType, String stringValue, ByteBuffer binaryValue);
+    }
+
+    private static final class Attribute {
+
+        private final String name;
+        private final String dataType;
+        private final Object value;
+        private final int rank;
+
+        private Attribute(String name, String dataType, Object value, int rank) {
+            this.name = name;
+            this.dataType = dataType;
+            this.value = value;
+            this.rank = rank;
+        }
+    }
+}
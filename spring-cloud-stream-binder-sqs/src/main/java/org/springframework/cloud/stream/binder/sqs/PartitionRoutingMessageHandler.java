@@ -0,0 +1,74 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cloud.stream.binder.BinderHeaders;
+import org.springframework.context.Lifecycle;
+import org.springframework.integration.MessageDispatchingException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+
+import java.util.List;
+
+/**
+ * Producer handler delegating each message to the handler of its partition, as set by the binder
+ * in the {@link BinderHeaders#PARTITION_HEADER} header.
+ *
+ * @author Maciej Walkowiak
+ */
+public class PartitionRoutingMessageHandler implements MessageHandler, Lifecycle, InitializingBean {
+
+    private final List<MessageHandler> partitionHandlers;
+
+    private volatile boolean running;
+
+    /**
+     * @param partitionHandlers handlers of each partition, indexed by partition
+     */
+    public PartitionRoutingMessageHandler(List<MessageHandler> partitionHandlers) {
+        this.partitionHandlers = partitionHandlers;
+    }
+
+    @Override
+    public void handleMessage(Message<?> message) throws MessagingException {
+        Integer partition = message.getHeaders().get(BinderHeaders.PARTITION_HEADER, Integer.class);
+        if (partition == null || partition < 0 || partition >= this.partitionHandlers.size()) {
+            throw new MessageDispatchingException(message, "No handler for partition " + partition);
+        }
+        this.partitionHandlers.get(partition).handleMessage(message);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        for (MessageHandler handler : this.partitionHandlers) {
+            if (handler instanceof InitializingBean) {
+                ((InitializingBean) handler).afterPropertiesSet();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        for (MessageHandler handler : this.partitionHandlers) {
+            if (handler instanceof Lifecycle) {
+                ((Lifecycle) handler).start();
+            }
+        }
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        for (MessageHandler handler : this.partitionHandlers) {
+            if (handler instanceof Lifecycle) {
+                ((Lifecycle) handler).stop();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+}
@@ -0,0 +1,58 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of a producer destination, see {@link SqsBinderMetrics}.
+ *
+ * @author Maciej Walkowiak
+ */
+class ProducerMetrics {
+
+    private final Timer publishSuccess;
+    private final Timer publishFailure;
+    private final DistributionSummary batchSize;
+    private final Counter messagesSuccess;
+    private final Counter messagesFailure;
+
+    ProducerMetrics(SqsBinderMetrics metrics, Tags tags) {
+        String publishDescription = "Latency of publish requests";
+        this.publishSuccess = metrics.timer(SqsBinderMetrics.PRODUCER_PUBLISH, publishDescription,
+                                            tags.and(SqsBinderMetrics.RESULT, SqsBinderMetrics.SUCCESS));
+        this.publishFailure = metrics.timer(SqsBinderMetrics.PRODUCER_PUBLISH, publishDescription,
+                                            tags.and(SqsBinderMetrics.RESULT, SqsBinderMetrics.FAILURE));
+        this.batchSize = metrics.summary(SqsBinderMetrics.PRODUCER_BATCH_SIZE, "Number of messages per batch request", tags);
+        this.messagesSuccess = Counter.builder(SqsBinderMetrics.PRODUCER_MESSAGES)
+                                      .tags(tags.and(SqsBinderMetrics.RESULT, SqsBinderMetrics.SUCCESS))
+                                      .description("Number of messages published")
+                                      .register(metrics.getMeterRegistry());
+        this.messagesFailure = Counter.builder(SqsBinderMetrics.PRODUCER_MESSAGES)
+                                      .tags(tags.and(SqsBinderMetrics.RESULT, SqsBinderMetrics.FAILURE))
+                                      .description("Number of messages published")
+                                      .register(metrics.getMeterRegistry());
+    }
+
+    /**
+     * @param start {@link System#nanoTime()} when the request was sent
+     */
+    void published(long start, boolean success) {
+        (success ? this.publishSuccess : this.publishFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    void batch(int size) {
+        this.batchSize.record(size);
+    }
+
+    void completed() {
+        this.messagesSuccess.increment();
+    }
+
+    void failed() {
+        this.messagesFailure.increment();
+    }
+}
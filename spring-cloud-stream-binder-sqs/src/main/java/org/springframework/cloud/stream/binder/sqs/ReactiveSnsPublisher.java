@@ -0,0 +1,110 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+
+/**
+ * Publishes messages to an SNS topic with the asynchronous client, without blocking the subscribing thread.
+ * Payloads are sent as they are, {@code byte[]} as UTF-8 text; headers are mapped to message attributes like
+ * those of producer bindings, see {@link MessageAttributesMapper}. Messages for FIFO topics take their message
+ * group and deduplication ids from the {@link SqsBinderHeaders#MESSAGE_GROUP_ID} and
+ * {@link SqsBinderHeaders#MESSAGE_DEDUPLICATION_ID} headers.
+ *
+ * @author Maciej Walkowiak
+ */
+public class ReactiveSnsPublisher {
+
+    private final AmazonSNSAsync amazonSNSAsync;
+    private final String topicArn;
+    private final MessageAttributesMapper attributesMapper = new MessageAttributesMapper();
+
+    private int maxInFlight = 100;
+
+    public ReactiveSnsPublisher(AmazonSNSAsync amazonSNSAsync, String topicArn) {
+        this.amazonSNSAsync = amazonSNSAsync;
+        this.topicArn = topicArn;
+        this.attributesMapper.setProducerTimestamp(true);
+    }
+
+    /**
+     * Maximum number of publishes in flight of {@link #publish(Publisher)}.
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Patterns of the headers sent as message attributes, see the {@code headerPatterns} producer property.
+     */
+    public void setHeaderPatterns(String... headerPatterns) {
+        this.attributesMapper.setHeaderFilter(new HeaderFilter(headerPatterns));
+    }
+
+    /**
+     * Whether the time of publishing is sent in the {@link SqsBinderHeaders#PRODUCER_TIMESTAMP} attribute.
+     */
+    public void setProducerTimestamp(boolean producerTimestamp) {
+        this.attributesMapper.setProducerTimestamp(producerTimestamp);
+    }
+
+    /**
+     * @return the published messages with the {@link AwsHeaders#MESSAGE_ID} header set, in order of completion
+     */
+    public Flux<Message<?>> publish(Publisher<? extends Message<?>> messages) {
+        return Flux.<Message<?>>from(messages)
+                   .flatMap(message -> publish(message).map(messageId -> withMessageId(message, messageId)), this.maxInFlight);
+    }
+
+    /**
+     * @return the SNS message id, once published; the message is published on subscription
+     */
+    public Mono<String> publish(Message<?> message) {
+        return Mono.create(sink -> {
+            try {
+                PublishRequest request = new PublishRequest().withTopicArn(this.topicArn)
+                                                             .withMessage(this.attributesMapper.toBody(message))
+                                                             .withMessageAttributes(this.attributesMapper.toSnsAttributes(message.getHeaders()))
+                                                             .withMessageGroupId(header(message, SqsBinderHeaders.MESSAGE_GROUP_ID))
+                                                             .withMessageDeduplicationId(header(message, SqsBinderHeaders.MESSAGE_DEDUPLICATION_ID));
+                this.amazonSNSAsync.publishAsync(request, new AsyncHandler<PublishRequest, PublishResult>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        sink.error(deliveryException(message, exception));
+                    }
+
+                    @Override
+                    public void onSuccess(PublishRequest request, PublishResult result) {
+                        sink.success(result.getMessageId());
+                    }
+                });
+            } catch (RuntimeException e) {
+                sink.error(deliveryException(message, e));
+            }
+        });
+    }
+
+    private MessageDeliveryException deliveryException(Message<?> message, Exception cause) {
+        return new MessageDeliveryException(message, "Failed to publish message to " + this.topicArn, cause);
+    }
+
+    private static String header(Message<?> message, String name) {
+        Object value = message.getHeaders().get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Message<?> withMessageId(Message<?> message, String messageId) {
+        return MessageBuilder.fromMessage(message)
+                             .setHeader(AwsHeaders.MESSAGE_ID, messageId)
+                             .build();
+    }
+}
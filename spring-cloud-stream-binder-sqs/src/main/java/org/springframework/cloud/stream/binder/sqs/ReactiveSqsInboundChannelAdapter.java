@@ -0,0 +1,169 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.cloud.aws.messaging.listener.Acknowledgment;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.endpoint.MessageProducerSupport;
+import org.springframework.messaging.Message;
+
+/**
+ * Consumes messages from an SQS queue with a {@link ReactiveSqsReceiver}, without poller threads: messages are
+ * requested as they are handled, so a receive is only sent once earlier messages have been handed over to the
+ * output channel, and up to {@code concurrency * maxNumberOfMessages} messages are requested ahead.
+ *
+ * Messages are handed over one after another on a single thread of the adapter, rather than on the threads of
+ * the client's executor, which would otherwise be held by handlers and stall receives and deletes.
+ *
+ * Messages are deleted according to the {@link SqsMessageDeletionPolicy}, like with {@link SqsInboundChannelAdapter}.
+ *
+ * @author Maciej Walkowiak
+ */
+class ReactiveSqsInboundChannelAdapter extends MessageProducerSupport {
+
+    private static final int MAX_NUMBER_OF_MESSAGES = 10;
+
+    private final AmazonSQSAsync amazonSqs;
+    private final String queue;
+
+    private int concurrency = 1;
+    private Integer maxNumberOfMessages;
+    private Integer visibilityTimeout;
+    private Integer waitTimeOut;
+    private SqsMessageDeletionPolicy messageDeletionPolicy = SqsMessageDeletionPolicy.NO_REDRIVE;
+    private HeaderFilter headerFilter;
+    private QueueBacklogMonitor backlogMonitor;
+
+    private volatile boolean redrivePolicy;
+    private volatile MessageSubscriber subscriber;
+    private volatile Scheduler scheduler;
+
+    ReactiveSqsInboundChannelAdapter(AmazonSQSAsync amazonSqs, String queue) {
+        this.amazonSqs = amazonSqs;
+        this.queue = queue;
+    }
+
+    void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    void setMaxNumberOfMessages(Integer maxNumberOfMessages) {
+        this.maxNumberOfMessages = maxNumberOfMessages;
+    }
+
+    void setVisibilityTimeout(Integer visibilityTimeout) {
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    void setWaitTimeOut(Integer waitTimeOut) {
+        this.waitTimeOut = waitTimeOut;
+    }
+
+    void setMessageDeletionPolicy(SqsMessageDeletionPolicy messageDeletionPolicy) {
+        this.messageDeletionPolicy = messageDeletionPolicy;
+    }
+
+    void setHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+    }
+
+    void setBacklogMonitor(QueueBacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    @Override
+    public String getComponentType() {
+        return "sqs:reactive-inbound-channel-adapter";
+    }
+
+    @Override
+    protected void doStart() {
+        if (this.messageDeletionPolicy == SqsMessageDeletionPolicy.NO_REDRIVE) {
+            String queueUrl = this.amazonSqs.getQueueUrl(this.queue).getQueueUrl();
+            this.redrivePolicy = this.amazonSqs.getQueueAttributes(new GetQueueAttributesRequest(queueUrl)
+                                                                           .withAttributeNames(QueueAttributeName.RedrivePolicy))
+                                               .getAttributes()
+                                               .containsKey(QueueAttributeName.RedrivePolicy.toString());
+        }
+        ReactiveSqsReceiver receiver = new ReactiveSqsReceiver(this.amazonSqs, this.queue);
+        receiver.setConcurrency(this.concurrency);
+        receiver.setMaxNumberOfMessages(maxNumberOfMessages());
+        receiver.setVisibilityTimeout(this.visibilityTimeout);
+        if (this.waitTimeOut != null) {
+            receiver.setWaitTimeOut(this.waitTimeOut);
+        }
+        receiver.setHeaderFilter(this.headerFilter);
+        receiver.setBacklogMonitor(this.backlogMonitor);
+        receiver.setMessageBuilderFactory(getMessageBuilderFactory());
+        this.scheduler = Schedulers.newSingle("sqs-" + this.queue);
+        this.subscriber = new MessageSubscriber();
+        receiver.receive()
+                .publishOn(this.scheduler, this.concurrency * maxNumberOfMessages())
+                .subscribe(this.subscriber);
+    }
+
+    @Override
+    protected void doStop() {
+        MessageSubscriber subscriber = this.subscriber;
+        if (subscriber != null) {
+            subscriber.dispose();
+            this.subscriber = null;
+        }
+        Scheduler scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.dispose();
+            this.scheduler = null;
+        }
+    }
+
+    private int maxNumberOfMessages() {
+        return this.maxNumberOfMessages != null ? Math.min(this.maxNumberOfMessages, MAX_NUMBER_OF_MESSAGES) : MAX_NUMBER_OF_MESSAGES;
+    }
+
+    private boolean shouldDelete(boolean success) {
+        switch (this.messageDeletionPolicy) {
+            case ALWAYS:
+                return true;
+            case ON_SUCCESS:
+                return success;
+            case NO_REDRIVE:
+                return success || !this.redrivePolicy;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Requests all messages; the number of messages requested from the receiver is bounded by the prefetch
+     * of {@code publishOn}, which requests more as messages are handled.
+     */
+    private final class MessageSubscriber extends BaseSubscriber<Message<?>> {
+
+        @Override
+        protected void hookOnNext(Message<?> message) {
+            boolean success = false;
+            try {
+                sendMessage(message);
+                success = true;
+            } catch (RuntimeException e) {
+                logger.error("Failed to handle message from queue " + queue, e);
+            }
+            Object acknowledgment = message.getHeaders().get(AwsHeaders.ACKNOWLEDGMENT);
+            if (shouldDelete(success) && acknowledgment instanceof Acknowledgment) {
+                ((Acknowledgment) acknowledgment).acknowledge();
+            }
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            logger.error("Stopped receiving messages from queue " + queue, throwable);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.cloud.aws.messaging.core.QueueMessageUtils;
+import org.springframework.cloud.aws.messaging.listener.QueueMessageAcknowledgment;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.support.MessageBuilderFactory;
+import org.springframework.messaging.Message;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives messages from an SQS queue as a {@link Flux}, driven by downstream demand: {@code ReceiveMessage}
+ * requests are sent with the asynchronous client only while messages are requested, each for at most as many
+ * messages as are requested and not covered by receives in flight, with up to {@code concurrency} receives in flight.
+ * No thread is held while waiting for messages; messages are emitted on the threads of the client's executor,
+ * so slow subscribers should publish on a scheduler of their own.
+ *
+ * Messages are converted like those of consumer bindings and carry an {@link AwsHeaders#ACKNOWLEDGMENT} header
+ * deleting them from the queue; messages not acknowledged become visible again after their visibility timeout.
+ * Failed receives are retried after a back-off.
+ *
+ * The {@code SentTimestamp} of the oldest message of each receive is reported to the {@link QueueBacklogMonitor},
+ * when set, to approximate the age of the oldest message of the queue.
+ *
+ * @author Maciej Walkowiak
+ */
+public class ReactiveSqsReceiver {
+
+    private static final Log logger = LogFactory.getLog(ReactiveSqsReceiver.class);
+
+    private static final int MAX_NUMBER_OF_MESSAGES = 10;
+    private static final int DEFAULT_WAIT_TIME_OUT = 20;
+    private static final long BACK_OFF_TIME = 10000;
+
+    private final AmazonSQSAsync amazonSqs;
+    private final String queue;
+
+    private int concurrency = 1;
+    private int maxNumberOfMessages = MAX_NUMBER_OF_MESSAGES;
+    private Integer visibilityTimeout;
+    private int waitTimeOut = DEFAULT_WAIT_TIME_OUT;
+    private MessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory();
+    private HeaderFilter headerFilter;
+    private QueueBacklogMonitor backlogMonitor;
+
+    public ReactiveSqsReceiver(AmazonSQSAsync amazonSqs, String queue) {
+        this.amazonSqs = amazonSqs;
+        this.queue = queue;
+    }
+
+    /**
+     * Maximum number of receives in flight.
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Maximum number of messages of a single receive. SQS returns at most 10.
+     */
+    public void setMaxNumberOfMessages(int maxNumberOfMessages) {
+        this.maxNumberOfMessages = Math.min(maxNumberOfMessages, MAX_NUMBER_OF_MESSAGES);
+    }
+
+    public void setVisibilityTimeout(Integer visibilityTimeout) {
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    /**
+     * Long polling wait time in seconds, {@code 20} by default.
+     */
+    public void setWaitTimeOut(int waitTimeOut) {
+        this.waitTimeOut = waitTimeOut;
+    }
+
+    /**
+     * Factory converting received messages, by default unwrapping SNS notifications.
+     */
+    public void setMessageBuilderFactory(MessageBuilderFactory messageBuilderFactory) {
+        this.messageBuilderFactory = messageBuilderFactory;
+    }
+
+    /**
+     * Filter of the message attributes mapped to headers, {@code null} to map all of them.
+     */
+    void setHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+    }
+
+    void setBacklogMonitor(QueueBacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    /**
+     * @return messages of the queue, received once subscribed, for as long as the subscription lasts
+     */
+    public Flux<Message<?>> receive() {
+        return queueUrl().flatMapMany(queueUrl -> Flux.<Message<?>>create(sink -> new Poller(queueUrl, sink).poll()));
+    }
+
+    private Mono<String> queueUrl() {
+        return Mono.create(sink -> this.amazonSqs.getQueueUrlAsync(new GetQueueUrlRequest(this.queue),
+                                                                   new AsyncHandler<GetQueueUrlRequest, GetQueueUrlResult>() {
+                                                                       @Override
+                                                                       public void onError(Exception exception) {
+                                                                           sink.error(exception);
+                                                                       }
+
+                                                                       @Override
+                                                                       public void onSuccess(GetQueueUrlRequest request, GetQueueUrlResult result) {
+                                                                           sink.success(result.getQueueUrl());
+                                                                       }
+                                                                   }));
+    }
+
+    /**
+     * Sends receives for the demand of a single subscriber.
+     */
+    private final class Poller {
+
+        private final String queueUrl;
+        private final FluxSink<Message<?>> sink;
+
+        private int inFlight;
+        private long pending;
+        private volatile boolean cancelled;
+
+        private Poller(String queueUrl, FluxSink<Message<?>> sink) {
+            this.queueUrl = queueUrl;
+            this.sink = sink;
+            sink.onRequest(demand -> poll());
+            sink.onDispose(() -> this.cancelled = true);
+        }
+
+        private synchronized void poll() {
+            while (!this.cancelled && this.inFlight < concurrency) {
+                long uncovered = this.sink.requestedFromDownstream() - this.pending;
+                if (uncovered <= 0) {
+                    return;
+                }
+                int max = (int) Math.min(maxNumberOfMessages, uncovered);
+                this.inFlight++;
+                this.pending += max;
+                receive(max);
+            }
+        }
+
+        private void receive(int max) {
+            ReceiveMessageRequest request = new ReceiveMessageRequest(this.queueUrl)
+                    .withAttributeNames(QueueAttributeName.All)
+                    .withMessageAttributeNames("All")
+                    .withMaxNumberOfMessages(max)
+                    .withWaitTimeSeconds(waitTimeOut);
+            if (visibilityTimeout != null) {
+                request.setVisibilityTimeout(visibilityTimeout);
+            }
+            try {
+                amazonSqs.receiveMessageAsync(request, new AsyncHandler<ReceiveMessageRequest, ReceiveMessageResult>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        failed(max, exception);
+                    }
+
+                    @Override
+                    public void onSuccess(ReceiveMessageRequest request, ReceiveMessageResult result) {
+                        if (backlogMonitor != null && !result.getMessages().isEmpty()) {
+                            backlogMonitor.recordReceived(queue, result.getMessages());
+                        }
+                        for (com.amazonaws.services.sqs.model.Message sqsMessage : result.getMessages()) {
+                            emit(sqsMessage);
+                        }
+                        completed(max);
+                    }
+                });
+            } catch (RuntimeException e) {
+                failed(max, e);
+            }
+        }
+
+        /**
+         * Keeps the receive counted as in flight during the back-off, so that it is not retried right away.
+         */
+        private void failed(int max, Exception exception) {
+            logger.warn("Failed to receive messages from queue " + queue + ", retrying in " + BACK_OFF_TIME + " ms", exception);
+            Schedulers.parallel().schedule(() -> completed(max), BACK_OFF_TIME, TimeUnit.MILLISECONDS);
+        }
+
+        private void completed(int max) {
+            synchronized (this) {
+                this.inFlight--;
+                this.pending -= max;
+            }
+            poll();
+        }
+
+        private void emit(com.amazonaws.services.sqs.model.Message sqsMessage) {
+            Message<?> message;
+            try {
+                Map<String, Object> headers = new HashMap<>();
+                headers.put(AwsHeaders.QUEUE, queue);
+                headers.put(AwsHeaders.ACKNOWLEDGMENT, new QueueMessageAcknowledgment(amazonSqs, this.queueUrl,
+                                                                                      sqsMessage.getReceiptHandle()));
+                com.amazonaws.services.sqs.model.Message source = sqsMessage;
+                if (headerFilter != null && !sqsMessage.getMessageAttributes().isEmpty()) {
+                    source = sqsMessage.clone().withMessageAttributes(headerFilter.filter(sqsMessage.getMessageAttributes()));
+                }
+                message = messageBuilderFactory.fromMessage(QueueMessageUtils.createMessage(source, headers))
+                                               .build();
+            } catch (RuntimeException e) {
+                logger.error("Failed to convert message " + sqsMessage.getMessageId() + " from queue " + queue, e);
+                return;
+            }
+            this.sink.next(message);
+        }
+    }
+}
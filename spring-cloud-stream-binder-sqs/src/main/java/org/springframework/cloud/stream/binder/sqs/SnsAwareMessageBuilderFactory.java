@@ -1,42 +1,183 @@
 package org.springframework.cloud.stream.binder.sqs;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Unwraps message payload from SNS envelope.
+ * Unwraps message payload from SNS envelope. Messages sent directly to the queue, and all messages of bindings
+ * using raw message delivery, are not unwrapped.
+ *
+ * SNS message attributes become message headers, unless the SQS message already carries a header with the same name
+ * or the {@link HeaderFilter}, when set, does not match them.
+ * Payloads with a {@link SqsBinderHeaders#CONTENT_ENCODING} header are decoded back to {@code byte[]}
+ * and decompressed, unless decompression is disabled, and to {@code String} when they were sent as text.
+ * Payloads of messages with a {@link SqsBinderHeaders#CLAIM_CHECK} header are read from the {@link PayloadStore}
+ * before being decoded, or, when streaming stored payloads, delivered as a {@link org.springframework.core.io.Resource}
+ * retrieved and decompressed only once its stream is read.
  *
  * TODO: not sure if that's the right place to do this conversion.
  *
  * @author Maciej Walkowiak
  */
-class SnsAwareMessageBuilderFactory extends DefaultMessageBuilderFactory {
+public class SnsAwareMessageBuilderFactory extends DefaultMessageBuilderFactory {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SnsEnvelopeDecoder envelopeDecoder = new SnsEnvelopeDecoder();
+    private final boolean rawMessageDelivery;
+    private final PayloadCompressors compressors;
+    private final PayloadStore payloadStore;
+    private HeaderFilter headerFilter;
+    private boolean streamStoredPayloads;
+
+    SnsAwareMessageBuilderFactory() {
+        this(false);
+    }
+
+    SnsAwareMessageBuilderFactory(boolean rawMessageDelivery) {
+        this(rawMessageDelivery, new PayloadCompressors());
+    }
+
+    /**
+     * @param compressors compressors used to decompress payloads, or {@code null} to deliver compressed payloads as is
+     */
+    SnsAwareMessageBuilderFactory(boolean rawMessageDelivery, PayloadCompressors compressors) {
+        this(rawMessageDelivery, compressors, null);
+    }
+
+    /**
+     * @param compressors compressors used to decompress payloads, or {@code null} to deliver compressed payloads as is
+     * @param payloadStore store claim-checked payloads are retrieved from, or {@code null} if claim check is not used
+     */
+    public SnsAwareMessageBuilderFactory(boolean rawMessageDelivery, PayloadCompressors compressors, PayloadStore payloadStore) {
+        this.rawMessageDelivery = rawMessageDelivery;
+        this.compressors = compressors;
+        this.payloadStore = payloadStore;
+    }
+
+    public void setHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+    }
+
+    /**
+     * Whether claim-checked payloads are delivered as a {@link StoredPayloadResource} instead of being read
+     * into a {@code byte[]} when the message is received.
+     */
+    public void setStreamStoredPayloads(boolean streamStoredPayloads) {
+        this.streamStoredPayloads = streamStoredPayloads;
+    }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> MessageBuilder<T> fromMessage(Message<T> message) {
+        MessageBuilder<?> builder;
+        if (this.rawMessageDelivery || Boolean.parseBoolean(String.valueOf(message.getHeaders().get(SqsBinderHeaders.RAW_MESSAGE)))) {
+            builder = super.fromMessage(message);
+        } else {
+            try {
+                SnsEnvelopeDecoder.SnsNotification notification = envelopeDecoder.decode((String) message.getPayload());
+                Map<String, Object> attributes = notification.getAttributes();
+                if (this.headerFilter != null && !attributes.isEmpty()) {
+                    attributes = this.headerFilter.filter(attributes);
+                }
+                builder = MessageBuilder.withPayload(notification.getMessage())
+                                        .copyHeaders(message.getHeaders())
+                                        .copyHeadersIfAbsent(attributes);
+            } catch (IOException e) {
+                throw new MessagingException(message, e);
+            }
+        }
+
+        Object payload = builder.getPayload();
+        Object claimCheck = builder.getHeaders().get(SqsBinderHeaders.CLAIM_CHECK);
+        Object contentEncoding = builder.getHeaders().get(SqsBinderHeaders.CONTENT_ENCODING);
+        if (claimCheck != null && this.streamStoredPayloads) {
+            payload = storedPayload(message, claimCheck.toString(), contentEncoding);
+        } else if (claimCheck != null) {
+            payload = retrieve(message, claimCheck.toString());
+        }
+        if (contentEncoding != null && !(payload instanceof StoredPayloadResource)) {
+            payload = decodeContent(message, payload, contentEncoding.toString());
+        }
+        if (payload != builder.getPayload()) {
+            return (MessageBuilder<T>) MessageBuilder.withPayload(payload)
+                                                     .copyHeaders(builder.getHeaders());
+        }
+        return (MessageBuilder<T>) builder;
+    }
 
+    private StoredPayloadResource storedPayload(Message<?> message, String pointer, Object contentEncoding) {
+        assertPayloadStore(message, pointer);
+        List<PayloadCompressor> decompressors = new ArrayList<>();
+        if (contentEncoding != null && this.compressors != null) {
+            String[] encodings = StringUtils.commaDelimitedListToStringArray(contentEncoding.toString());
+            for (int i = encodings.length - 1; i >= 0; i--) {
+                String encoding = encodings[i].trim();
+                if (!ContentEncodings.UTF_8.equals(encoding)) {
+                    decompressors.add(compressor(message, encoding));
+                }
+            }
+        }
+        return new StoredPayloadResource(this.payloadStore, pointer, decompressors);
+    }
+
+    private byte[] retrieve(Message<?> message, String pointer) {
+        assertPayloadStore(message, pointer);
+        try (InputStream inputStream = this.payloadStore.retrieve(pointer)) {
+            return StreamUtils.copyToByteArray(inputStream);
+        } catch (IOException e) {
+            throw new MessagingException(message, "Failed to retrieve payload: " + pointer, e);
+        }
+    }
+
+    private Object decodeContent(Message<?> message, Object payload, String contentEncoding) {
+        String[] encodings = StringUtils.commaDelimitedListToStringArray(contentEncoding);
+        Object decoded = payload;
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            String encoding = encodings[i].trim();
+            if (ContentEncodings.BASE64.equals(encoding)) {
+                decoded = ContentEncodings.decodeBase64((String) decoded);
+            } else if (ContentEncodings.UTF_8.equals(encoding)) {
+                decoded = ContentEncodings.decodeUtf8((byte[]) decoded);
+            } else if (this.compressors == null) {
+                return decoded;
+            } else {
+                decoded = decompress(message, (byte[]) decoded, encoding);
+            }
+        }
+        return decoded;
+    }
+
+    private byte[] decompress(Message<?> message, byte[] payload, String encoding) {
         try {
-            JsonNode jsonNode = objectMapper.readValue((String) message.getPayload(), JsonNode.class);
-            return (MessageBuilder<T>) MessageBuilder.withPayload(unescapeJson(jsonNode.get("Message").toString()))
-                                                     .copyHeaders(message.getHeaders());
+            return compressor(message, encoding).decompress(payload);
         } catch (IOException e) {
-            throw new MessagingException(message, e);
+            throw new MessagingException(message, "Failed to decompress payload with " + encoding, e);
         }
     }
 
-    private String unescapeJson(String jsonString) {
-        return jsonString.replace("\"{", "{")
-                         .replace("}\"", "}")
-                         .replace("\\\"", "\"");
+    private PayloadCompressor compressor(Message<?> message, String encoding) {
+        PayloadCompressor compressor = this.compressors.getCompressor(encoding);
+        if (compressor == null) {
+            throw new MessagingException(message, "Unsupported content encoding: " + encoding);
+        }
+        return compressor;
+    }
+
+    private void assertPayloadStore(Message<?> message, String pointer) {
+        if (this.payloadStore == null) {
+            throw new MessagingException(message, "No PayloadStore configured to retrieve payload: " + pointer);
+        }
     }
 }
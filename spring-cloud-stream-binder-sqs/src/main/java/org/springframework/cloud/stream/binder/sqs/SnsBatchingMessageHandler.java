@@ -0,0 +1,98 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.BatchResultErrorEntry;
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
+import com.amazonaws.services.sns.model.PublishBatchResult;
+import com.amazonaws.services.sns.model.PublishBatchResultEntry;
+
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link org.springframework.messaging.MessageHandler} collecting outbound messages into SNS
+ * {@code PublishBatch} requests. Messages rejected by SNS are sent to the failure channel as error messages.
+ *
+ * @author Maciej Walkowiak
+ */
+class SnsBatchingMessageHandler extends AbstractBatchingMessageHandler<PublishBatchRequestEntry> {
+
+    private final AmazonSNSAsync amazonSNSAsync;
+    private final String topicArn;
+
+    SnsBatchingMessageHandler(AmazonSNSAsync amazonSNSAsync, String topicArn) {
+        this.amazonSNSAsync = amazonSNSAsync;
+        this.topicArn = topicArn;
+    }
+
+    @Override
+    protected PendingMessage<PublishBatchRequestEntry> toPendingMessage(Message<?> message) {
+        String body = this.attributesMapper.toBody(message);
+        Map<String, MessageAttributeValue> attributes = this.attributesMapper.toSnsAttributes(message.getHeaders());
+        return new PendingMessage<>(message,
+                                    new PublishBatchRequestEntry().withMessage(body)
+                                                                  .withMessageAttributes(attributes)
+                                                                  .withMessageGroupId(messageGroupId(message))
+                                                                  .withMessageDeduplicationId(messageDeduplicationId(message)),
+                                    MessageAttributesMapper.sizeOf(body, attributes));
+    }
+
+    @Override
+    protected void sendBatch(List<PendingMessage<PublishBatchRequestEntry>> messages) {
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(messages.get(i).entry.withId(String.valueOf(i)));
+        }
+
+        PublishBatchRequest request = new PublishBatchRequest().withTopicArn(this.topicArn)
+                                                               .withPublishBatchRequestEntries(entries);
+        long start = System.nanoTime();
+        if (isAsync()) {
+            try {
+                this.amazonSNSAsync.publishBatchAsync(request, new AsyncHandler<PublishBatchRequest, PublishBatchResult>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        published(start, false);
+                        batchFailed(messages, topicArn, exception);
+                    }
+
+                    @Override
+                    public void onSuccess(PublishBatchRequest request, PublishBatchResult result) {
+                        published(start, true);
+                        batchCompleted(messages, result);
+                    }
+                });
+            } catch (RuntimeException e) {
+                published(start, false);
+                batchFailed(messages, this.topicArn, e);
+            }
+            return;
+        }
+
+        PublishBatchResult result;
+        try {
+            result = this.amazonSNSAsync.publishBatch(request);
+        } catch (Exception e) {
+            published(start, false);
+            batchFailed(messages, this.topicArn, e);
+            return;
+        }
+        published(start, true);
+        batchCompleted(messages, result);
+    }
+
+    private void batchCompleted(List<PendingMessage<PublishBatchRequestEntry>> messages, PublishBatchResult result) {
+        for (PublishBatchResultEntry successful : result.getSuccessful()) {
+            completed(messages.get(Integer.parseInt(successful.getId())).message, successful.getMessageId());
+        }
+        for (BatchResultErrorEntry failed : result.getFailed()) {
+            entryFailed(messages.get(Integer.parseInt(failed.getId())), this.topicArn, failed.getCode(), failed.getMessage());
+        }
+    }
+}
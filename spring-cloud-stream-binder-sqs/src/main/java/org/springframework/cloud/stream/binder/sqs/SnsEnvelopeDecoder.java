@@ -0,0 +1,144 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.springframework.util.NumberUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes the SNS notification envelope SNS wraps around messages delivered to SQS queues.
+ *
+ * The envelope is read with a streaming {@link JsonParser}: only the {@code Message} field and the
+ * {@code MessageAttributes} are materialized, all other fields are skipped without building a tree.
+ *
+ * @author Maciej Walkowiak
+ */
+class SnsEnvelopeDecoder {
+
+    private static final String MESSAGE = "Message";
+    private static final String MESSAGE_ATTRIBUTES = "MessageAttributes";
+    private static final String NUMBER = "Number";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    SnsNotification decode(String envelope) throws IOException {
+        try (JsonParser parser = this.jsonFactory.createParser(envelope)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "SNS envelope must be a JSON object");
+            }
+            String message = null;
+            Map<String, Object> attributes = Collections.emptyMap();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (MESSAGE.equals(fieldName) && value == JsonToken.VALUE_STRING) {
+                    message = parser.getText();
+                } else if (MESSAGE_ATTRIBUTES.equals(fieldName) && value == JsonToken.START_OBJECT) {
+                    attributes = readAttributes(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (message == null) {
+                throw new JsonParseException(parser, "SNS envelope does not contain the '" + MESSAGE + "' field");
+            }
+            return new SnsNotification(message, attributes);
+        }
+    }
+
+    private Map<String, Object> readAttributes(JsonParser parser) throws IOException {
+        Map<String, Object> attributes = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String type = null;
+            String value = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("Type".equals(fieldName)) {
+                    type = parser.getText();
+                } else if ("Value".equals(fieldName)) {
+                    value = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (type != null && value != null) {
+                attributes.put(name, toHeaderValue(type, value));
+            }
+        }
+        return attributes;
+    }
+
+    private Object toHeaderValue(String type, String value) {
+        if (type.startsWith(NUMBER)) {
+            Class<? extends Number> numberClass = numberClass(type);
+            if (numberClass != null) {
+                return NumberUtils.parseNumber(value, numberClass);
+            }
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                return new BigDecimal(value);
+            }
+        }
+        if (type.startsWith("Binary")) {
+            return Base64.getDecoder().decode(value);
+        }
+        return value;
+    }
+
+    /**
+     * Resolves the class of {@code Number} attributes sent by the binder, like {@code Number.java.lang.Integer},
+     * among the standard number types, as {@code QueueMessageUtils} does for raw messages.
+     *
+     * @return the class of the number, {@code null} when the type carries no known class
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Number> numberClass(String type) {
+        if (type.length() <= NUMBER.length() + 1 || type.charAt(NUMBER.length()) != '.') {
+            return null;
+        }
+        String className = type.substring(NUMBER.length() + 1);
+        for (Class<?> numberClass : NumberUtils.STANDARD_NUMBER_TYPES) {
+            if (numberClass.getName().equals(className)) {
+                return (Class<? extends Number>) numberClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Message and message attributes unwrapped from an SNS envelope.
+     */
+    static class SnsNotification {
+        private final String message;
+        private final Map<String, Object> attributes;
+
+        SnsNotification(String message, Map<String, Object> attributes) {
+            this.message = message;
+            this.attributes = attributes;
+        }
+
+        String getMessage() {
+            return message;
+        }
+
+        Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+}
@@ -1,17 +1,113 @@
 package org.springframework.cloud.stream.binder.sqs;
 
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
+ * Converts serialized payloads to message bodies SNS and SQS accept: UTF-8 text, or Base64 for binary
+ * and compressed payloads. Compressed and stored payloads sent as text carry the {@link ContentEncodings#UTF_8}
+ * encoding, so that consumers restore them as text. With claim check enabled, payloads above the threshold are
+ * written to the {@link PayloadStore} and the message body carries only the pointer.
+ *
  * @author Maciej Walkowiak
  */
-class SnsPayloadConvertingChannelInterceptor implements ChannelInterceptor {
+public class SnsPayloadConvertingChannelInterceptor implements ChannelInterceptor {
+
+    private final SqsProducerProperties producerProperties;
+    private final PayloadCompressor compressor;
+    private final PayloadStore payloadStore;
+
+    SnsPayloadConvertingChannelInterceptor(SqsProducerProperties producerProperties) {
+        this(producerProperties, new PayloadCompressors());
+    }
+
+    SnsPayloadConvertingChannelInterceptor(SqsProducerProperties producerProperties, PayloadCompressors compressors) {
+        this(producerProperties, compressors, null);
+    }
+
+    public SnsPayloadConvertingChannelInterceptor(SqsProducerProperties producerProperties, PayloadCompressors compressors,
+                                                  PayloadStore payloadStore) {
+        this.producerProperties = producerProperties;
+        Assert.isTrue(!producerProperties.isClaimCheck() || payloadStore != null,
+                      "Claim check requires a PayloadStore to be configured");
+        this.payloadStore = payloadStore;
+        if (producerProperties.getCompression() != null) {
+            this.compressor = compressors.getCompressor(producerProperties.getCompression());
+            Assert.notNull(this.compressor, "No payload compressor registered for: " + producerProperties.getCompression());
+        } else {
+            this.compressor = null;
+        }
+    }
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        return MessageBuilder.createMessage(new String((byte[]) message.getPayload()), message.getHeaders());
+        if (!(message.getPayload() instanceof byte[])) {
+            return message;
+        }
+        byte[] payload = (byte[]) message.getPayload();
+        // text payloads are marked, so that consumers restore them as String like those sent uncompressed
+        String contentEncoding = this.producerProperties.isBinary() ? null : ContentEncodings.UTF_8;
+        boolean compressed = false;
+        if (this.compressor != null && payload.length >= this.producerProperties.getCompressionThreshold()) {
+            payload = compress(message, payload);
+            contentEncoding = append(contentEncoding, this.compressor.getName());
+            compressed = true;
+        }
+        if (this.producerProperties.isClaimCheck() && payload.length > this.producerProperties.getClaimCheckThreshold()) {
+            return claimCheck(message, payload, contentEncoding);
+        }
+        if (compressed) {
+            return encoded(message, payload, append(contentEncoding, ContentEncodings.BASE64));
+        }
+        if (this.producerProperties.isBinary()) {
+            return encoded(message, payload, ContentEncodings.BASE64);
+        }
+        return MessageBuilder.createMessage(new String(payload, StandardCharsets.UTF_8), message.getHeaders());
+    }
+
+    private static String append(String contentEncoding, String encoding) {
+        return contentEncoding != null ? contentEncoding + "," + encoding : encoding;
+    }
+
+    private byte[] compress(Message<?> message, byte[] payload) {
+        try {
+            return this.compressor.compress(payload);
+        } catch (IOException e) {
+            throw new MessagingException(message, "Failed to compress payload with " + this.compressor.getName(), e);
+        }
+    }
+
+    private Message<?> claimCheck(Message<?> message, byte[] payload, String contentEncoding) {
+        String pointer;
+        try {
+            pointer = this.payloadStore.store(payload);
+        } catch (IOException e) {
+            throw new MessagingException(message, "Failed to store payload", e);
+        }
+        MessageBuilder<String> builder = MessageBuilder.withPayload(pointer)
+                                                       .copyHeaders(message.getHeaders())
+                                                       .setHeader(SqsBinderHeaders.CLAIM_CHECK, pointer);
+        if (contentEncoding != null) {
+            builder.setHeader(SqsBinderHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        return builder.build();
+    }
+
+    private Message<?> encoded(Message<?> message, byte[] payload, String contentEncoding) {
+        return MessageBuilder.withPayload(ContentEncodings.encodeBase64(payload))
+                             .copyHeaders(message.getHeaders())
+                             .setHeader(SqsBinderHeaders.CONTENT_ENCODING, contentEncoding)
+                             .build();
     }
 }
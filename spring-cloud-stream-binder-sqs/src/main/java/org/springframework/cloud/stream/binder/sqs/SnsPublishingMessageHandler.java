@@ -0,0 +1,78 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+
+/**
+ * {@link org.springframework.messaging.MessageHandler} publishing each message with its own {@code Publish} request,
+ * with FIFO message group and deduplication ids when they resolve.
+ *
+ * In async mode, the sending thread returns as soon as the request is handed over to the client with
+ * {@code publishAsync}. The outcome of every publish is reported to the success or failure channel. Otherwise
+ * failures are thrown to the sending thread, so that the retries and dead-lettering of the binding apply.
+ *
+ * @author Maciej Walkowiak
+ */
+class SnsPublishingMessageHandler extends AbstractPublishingMessageHandler {
+
+    private final AmazonSNSAsync amazonSNSAsync;
+    private final String topicArn;
+
+    private boolean async = true;
+
+    SnsPublishingMessageHandler(AmazonSNSAsync amazonSNSAsync, String topicArn) {
+        this.amazonSNSAsync = amazonSNSAsync;
+        this.topicArn = topicArn;
+    }
+
+    void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) throws Exception {
+        PublishRequest request = new PublishRequest().withTopicArn(this.topicArn)
+                                                     .withMessage(this.attributesMapper.toBody(message))
+                                                     .withMessageAttributes(this.attributesMapper.toSnsAttributes(message.getHeaders()))
+                                                     .withMessageGroupId(messageGroupId(message))
+                                                     .withMessageDeduplicationId(messageDeduplicationId(message));
+        if (!this.async) {
+            long start = System.nanoTime();
+            PublishResult result;
+            try {
+                result = this.amazonSNSAsync.publish(request);
+            } catch (RuntimeException e) {
+                published(start, false);
+                throw failedSynchronously(new MessageDeliveryException(message, "Failed to publish message to " + this.topicArn, e));
+            }
+            published(start, true);
+            completed(message, result.getMessageId());
+            return;
+        }
+        acquire(message);
+        long start = System.nanoTime();
+        try {
+            this.amazonSNSAsync.publishAsync(request, new AsyncHandler<PublishRequest, PublishResult>() {
+                @Override
+                public void onError(Exception exception) {
+                    published(start, false);
+                    failed(new MessageDeliveryException(message, "Failed to publish message to " + topicArn, exception));
+                }
+
+                @Override
+                public void onSuccess(PublishRequest request, PublishResult result) {
+                    published(start, true);
+                    completed(message, result.getMessageId());
+                }
+            });
+        } catch (RuntimeException e) {
+            published(start, false);
+            failed(new MessageDeliveryException(message, "Failed to publish message to " + topicArn, e));
+        }
+    }
+}
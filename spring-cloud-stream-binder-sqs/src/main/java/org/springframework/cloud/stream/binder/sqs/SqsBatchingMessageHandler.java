@@ -0,0 +1,100 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link org.springframework.messaging.MessageHandler} sending outbound messages directly to an SQS queue with
+ * {@code SendMessageBatch} requests, bypassing SNS. Every message carries the {@link SqsBinderHeaders#RAW_MESSAGE}
+ * attribute so that consumers do not try to unwrap an SNS envelope.
+ *
+ * @author Maciej Walkowiak
+ */
+class SqsBatchingMessageHandler extends AbstractBatchingMessageHandler<SendMessageBatchRequestEntry> {
+
+    private final AmazonSQSAsync amazonSQSAsync;
+    private final String queueUrl;
+
+    SqsBatchingMessageHandler(AmazonSQSAsync amazonSQSAsync, String queueUrl) {
+        this.amazonSQSAsync = amazonSQSAsync;
+        this.queueUrl = queueUrl;
+        this.attributesMapper.setRawMessage(true);
+    }
+
+    @Override
+    protected PendingMessage<SendMessageBatchRequestEntry> toPendingMessage(Message<?> message) {
+        String body = this.attributesMapper.toBody(message);
+        Map<String, MessageAttributeValue> attributes = this.attributesMapper.toSqsAttributes(message.getHeaders());
+        return new PendingMessage<>(message,
+                                    new SendMessageBatchRequestEntry().withMessageBody(body)
+                                                                      .withMessageAttributes(attributes)
+                                                                      .withMessageGroupId(messageGroupId(message))
+                                                                      .withMessageDeduplicationId(messageDeduplicationId(message)),
+                                    MessageAttributesMapper.sizeOf(body, attributes));
+    }
+
+    @Override
+    protected void sendBatch(List<PendingMessage<SendMessageBatchRequestEntry>> messages) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(messages.get(i).entry.withId(String.valueOf(i)));
+        }
+
+        SendMessageBatchRequest request = new SendMessageBatchRequest().withQueueUrl(this.queueUrl)
+                                                                       .withEntries(entries);
+        long start = System.nanoTime();
+        if (isAsync()) {
+            try {
+                this.amazonSQSAsync.sendMessageBatchAsync(request, new AsyncHandler<SendMessageBatchRequest, SendMessageBatchResult>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        published(start, false);
+                        batchFailed(messages, queueUrl, exception);
+                    }
+
+                    @Override
+                    public void onSuccess(SendMessageBatchRequest request, SendMessageBatchResult result) {
+                        published(start, true);
+                        batchCompleted(messages, result);
+                    }
+                });
+            } catch (RuntimeException e) {
+                published(start, false);
+                batchFailed(messages, this.queueUrl, e);
+            }
+            return;
+        }
+
+        SendMessageBatchResult result;
+        try {
+            result = this.amazonSQSAsync.sendMessageBatch(request);
+        } catch (Exception e) {
+            published(start, false);
+            batchFailed(messages, this.queueUrl, e);
+            return;
+        }
+        published(start, true);
+        batchCompleted(messages, result);
+    }
+
+    private void batchCompleted(List<PendingMessage<SendMessageBatchRequestEntry>> messages, SendMessageBatchResult result) {
+        for (SendMessageBatchResultEntry successful : result.getSuccessful()) {
+            completed(messages.get(Integer.parseInt(successful.getId())).message, successful.getMessageId());
+        }
+        for (BatchResultErrorEntry failed : result.getFailed()) {
+            entryFailed(messages.get(Integer.parseInt(failed.getId())), this.queueUrl, failed.getCode(), failed.getMessage());
+        }
+    }
+}
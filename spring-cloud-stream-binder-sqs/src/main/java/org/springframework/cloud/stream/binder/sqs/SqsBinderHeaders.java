@@ -0,0 +1,58 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+/**
+ * Message headers and message attributes used by the SQS binder.
+ *
+ * @author Maciej Walkowiak
+ */
+public final class SqsBinderHeaders {
+
+    static final String PREFIX = "scst_sqs";
+
+    /**
+     * Set to {@code true} on messages sent directly to an SQS queue, which therefore are not wrapped
+     * in an SNS notification envelope.
+     */
+    public static final String RAW_MESSAGE = PREFIX + "RawMessage";
+
+    /**
+     * Comma separated list of encodings applied to the payload, in the order they were applied.
+     */
+    public static final String CONTENT_ENCODING = PREFIX + "ContentEncoding";
+
+    /**
+     * Pointer to a payload kept in a {@link org.springframework.cloud.stream.binder.sqs.payload.PayloadStore}
+     * instead of being sent in the message body.
+     */
+    public static final String CLAIM_CHECK = PREFIX + "ClaimCheck";
+
+    /**
+     * Message group id of messages sent to FIFO topics and queues, unless resolved with an expression.
+     */
+    public static final String MESSAGE_GROUP_ID = PREFIX + "MessageGroupId";
+
+    /**
+     * Message deduplication id of messages sent to FIFO topics and queues, unless resolved with an expression.
+     */
+    public static final String MESSAGE_DEDUPLICATION_ID = PREFIX + "MessageDeduplicationId";
+
+    /**
+     * Epoch milliseconds when a message was published, sent unless disabled with the {@code producerTimestamp}
+     * producer property. Consumers record the end-to-end latency from it.
+     */
+    public static final String PRODUCER_TIMESTAMP = PREFIX + "ProducerTimestamp";
+
+    /**
+     * {@link BatchAcknowledgment} of a batch delivered by a consumer binding in batch mode.
+     */
+    public static final String BATCH_ACKNOWLEDGMENT = PREFIX + "BatchAcknowledgment";
+
+    /**
+     * List of the headers of each message of a batch delivered by a consumer binding in batch mode,
+     * in the order of the batch payload.
+     */
+    public static final String BATCH_HEADERS = PREFIX + "BatchHeaders";
+
+    private SqsBinderHeaders() {
+    }
+}
@@ -0,0 +1,218 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.metrics.RequestMetricCollector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklog;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registers per-binding Micrometer meters of the binder. Producer meters are tagged with {@code destination},
+ * the name of the topic or queue messages are sent to; consumer meters with the {@code queue} and {@code group}
+ * of the binding. Timers and message counters carry a {@code result} tag of {@code success} or {@code failure},
+ * so that error rates are the {@code failure} counts.
+ *
+ * <ul>
+ * <li>{@value #PRODUCER_PUBLISH}: latency of {@code Publish}, {@code PublishBatch} and {@code SendMessageBatch} requests</li>
+ * <li>{@value #PRODUCER_BATCH_SIZE}: number of messages per batch request</li>
+ * <li>{@value #PRODUCER_MESSAGES}: number of messages published</li>
+ * <li>{@value #PRODUCER_IN_FLIGHT}: messages handed over to the client and not completed yet, in async mode</li>
+ * <li>{@value #CONSUMER_END_TO_END}: time from publishing to receiving messages, for messages carrying the
+ * {@link SqsBinderHeaders#PRODUCER_TIMESTAMP} attribute; always published with a percentile histogram</li>
+ * <li>{@value #CONSUMER_RECEIVE}: latency of {@code ReceiveMessage} requests, including long polling</li>
+ * <li>{@value #CONSUMER_RECEIVE_MESSAGES}: number of messages per receive</li>
+ * <li>{@value #CONSUMER_RECEIVE_EMPTY}: number of receives returning no messages</li>
+ * <li>{@value #CONSUMER_HANDLE}: time the binding's handler takes for a message or a batch</li>
+ * <li>{@value #CONSUMER_DELETE}: latency of {@code DeleteMessage} and {@code DeleteMessageBatch} requests</li>
+ * <li>{@value #CONSUMER_VISIBILITY_EXTENSIONS}: number of messages whose visibility timeout was extended</li>
+ * <li>{@value #CONSUMER_IN_FLIGHT}: messages received and not completed yet</li>
+ * <li>{@value #CONSUMER_BACKLOG_VISIBLE}, {@value #CONSUMER_BACKLOG_NOT_VISIBLE} and {@value #CONSUMER_BACKLOG_DELAYED}:
+ * approximate numbers of visible, not visible and delayed messages of the queue, as last sampled by the
+ * {@link QueueBacklogMonitor}</li>
+ * <li>{@value #CONSUMER_BACKLOG_AGE}: approximate age of the oldest message of the queue</li>
+ * <li>{@value #CLIENT_CONNECTIONS_LEASED}, {@value #CLIENT_CONNECTIONS_PENDING} and {@value #CLIENT_CONNECTIONS_MAX}:
+ * connections in use, requests waiting for a connection and pool size of the SQS and SNS clients built by the binder,
+ * tagged with {@code client}; the pool is saturated when requests are pending</li>
+ * </ul>
+ *
+ * Timers and distribution summaries publish percentile histograms and client-side percentiles only when configured.
+ *
+ * @author Maciej Walkowiak
+ */
+public class SqsBinderMetrics {
+
+    public static final String PRODUCER_PUBLISH = "sqs.binder.producer.publish";
+    public static final String PRODUCER_BATCH_SIZE = "sqs.binder.producer.batch.size";
+    public static final String PRODUCER_MESSAGES = "sqs.binder.producer.messages";
+    public static final String PRODUCER_IN_FLIGHT = "sqs.binder.producer.in.flight";
+    public static final String CONSUMER_END_TO_END = "sqs.binder.consumer.end.to.end";
+    public static final String CONSUMER_RECEIVE = "sqs.binder.consumer.receive";
+    public static final String CONSUMER_RECEIVE_MESSAGES = "sqs.binder.consumer.receive.messages";
+    public static final String CONSUMER_RECEIVE_EMPTY = "sqs.binder.consumer.receive.empty";
+    public static final String CONSUMER_HANDLE = "sqs.binder.consumer.handle";
+    public static final String CONSUMER_DELETE = "sqs.binder.consumer.delete";
+    public static final String CONSUMER_VISIBILITY_EXTENSIONS = "sqs.binder.consumer.visibility.extensions";
+    public static final String CONSUMER_IN_FLIGHT = "sqs.binder.consumer.in.flight";
+    public static final String CONSUMER_BACKLOG_VISIBLE = "sqs.binder.consumer.backlog.visible";
+    public static final String CONSUMER_BACKLOG_NOT_VISIBLE = "sqs.binder.consumer.backlog.not.visible";
+    public static final String CONSUMER_BACKLOG_DELAYED = "sqs.binder.consumer.backlog.delayed";
+    public static final String CONSUMER_BACKLOG_AGE = "sqs.binder.consumer.backlog.age";
+    public static final String CLIENT_CONNECTIONS_LEASED = "sqs.binder.client.connections.leased";
+    public static final String CLIENT_CONNECTIONS_PENDING = "sqs.binder.client.connections.pending";
+    public static final String CLIENT_CONNECTIONS_MAX = "sqs.binder.client.connections.max";
+
+    static final String RESULT = "result";
+    static final String SUCCESS = "success";
+    static final String FAILURE = "failure";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * State read by each gauge, by name and tags of the gauge.
+     */
+    private final ConcurrentMap<List<Object>, Object> gaugeStates = new ConcurrentHashMap<>();
+
+    private boolean percentileHistogram;
+
+    private double[] percentiles;
+
+    public SqsBinderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Whether timers and distribution summaries publish percentile histograms, for percentiles aggregated by
+     * the monitoring system.
+     */
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    /**
+     * Percentiles computed in the application, for example {@code 0.5, 0.99}.
+     */
+    public void setPercentiles(double... percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    ProducerMetrics producer(String destination) {
+        return new ProducerMetrics(this, Tags.of("destination", destination));
+    }
+
+    ConsumerMetrics consumer(String queue, String group) {
+        return new ConsumerMetrics(this, Tags.of("queue", queue, "group", group != null ? group : ""));
+    }
+
+    void producerInFlight(String destination, InFlightLimiter inFlightLimiter) {
+        AtomicReference<InFlightLimiter> limiter = gauge(PRODUCER_IN_FLIGHT, "Messages handed over to the client and not completed yet",
+                                                         Tags.of("destination", destination), AtomicReference::new,
+                                                         reference -> reference.get() != null ? reference.get().getInFlight() : 0);
+        limiter.set(inFlightLimiter);
+    }
+
+    /**
+     * Registers gauges reading the last backlog sample of the queue; they report {@code NaN} until it is sampled.
+     */
+    void queueBacklog(String queue, String group, QueueBacklogMonitor monitor) {
+        Tags tags = Tags.of("queue", queue, "group", group != null ? group : "");
+        backlogGauge(CONSUMER_BACKLOG_VISIBLE, "Approximate number of messages available for retrieval",
+                     tags, queue, monitor, QueueBacklog::getVisibleMessages);
+        backlogGauge(CONSUMER_BACKLOG_NOT_VISIBLE, "Approximate number of messages received and not deleted",
+                     tags, queue, monitor, QueueBacklog::getNotVisibleMessages);
+        backlogGauge(CONSUMER_BACKLOG_DELAYED, "Approximate number of delayed messages",
+                     tags, queue, monitor, QueueBacklog::getDelayedMessages);
+        TimeGauge.builder(CONSUMER_BACKLOG_AGE, monitor, TimeUnit.MILLISECONDS,
+                          m -> backlogValue(m.getBacklog(queue), QueueBacklog::getAgeOfOldestMessage))
+                 .tags(tags)
+                 .description("Approximate age of the oldest message of the queue")
+                 .register(this.meterRegistry);
+    }
+
+    /**
+     * @param client name of the client, {@code sqs} or {@code sns}
+     * @return a collector to set on the client, updating gauges of its connection pool
+     */
+    public RequestMetricCollector connectionPool(String client, int maxConnections) {
+        return new ConnectionPoolMetrics(this, Tags.of("client", client), maxConnections);
+    }
+
+    private void backlogGauge(String name, String description, Tags tags, String queue, QueueBacklogMonitor monitor,
+                              ToLongFunction<QueueBacklog> value) {
+        Gauge.builder(name, monitor, m -> backlogValue(m.getBacklog(queue), value))
+             .tags(tags)
+             .description(description)
+             .register(this.meterRegistry);
+    }
+
+    private static double backlogValue(QueueBacklog backlog, ToLongFunction<QueueBacklog> value) {
+        return backlog != null ? value.applyAsLong(backlog) : Double.NaN;
+    }
+
+    /**
+     * Registers a gauge once per name and tags, reading a state shared by all bindings registering it. Micrometer
+     * keeps the first gauge registered with an id and holds its state weakly, so a binding bound again, for example
+     * after it was stopped, updates the state of the registered gauge instead of one that would never be read.
+     *
+     * @return the state of the gauge, created by {@code state} when the gauge is registered
+     */
+    @SuppressWarnings("unchecked")
+    <T> T gauge(String name, String description, Tags tags, Supplier<T> state, ToDoubleFunction<T> value) {
+        return (T) this.gaugeStates.computeIfAbsent(Arrays.asList(name, tags), key -> {
+            T gaugeState = state.get();
+            Gauge.builder(name, gaugeState, value)
+                 .tags(tags)
+                 .description(description)
+                 .register(this.meterRegistry);
+            return gaugeState;
+        });
+    }
+
+    MeterRegistry getMeterRegistry() {
+        return this.meterRegistry;
+    }
+
+    Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                    .tags(tags)
+                    .description(description)
+                    .publishPercentileHistogram(this.percentileHistogram)
+                    .publishPercentiles(this.percentiles)
+                    .register(this.meterRegistry);
+    }
+
+    /**
+     * A timer publishing a percentile histogram regardless of the {@code percentileHistogram} setting.
+     */
+    Timer histogram(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                    .tags(tags)
+                    .description(description)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(this.percentiles)
+                    .register(this.meterRegistry);
+    }
+
+    DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                                  .tags(tags)
+                                  .description(description)
+                                  .publishPercentileHistogram(this.percentileHistogram)
+                                  .publishPercentiles(this.percentiles)
+                                  .register(this.meterRegistry);
+    }
+}
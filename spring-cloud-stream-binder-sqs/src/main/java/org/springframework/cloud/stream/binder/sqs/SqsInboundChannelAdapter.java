@@ -0,0 +1,842 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+
+import org.springframework.cloud.aws.messaging.core.QueueMessageUtils;
+import org.springframework.cloud.aws.messaging.listener.Acknowledgment;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.endpoint.MessageProducerSupport;
+import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumes messages from an SQS queue with a configurable number of concurrent long-poll receive loops.
+ * Received messages are handed over to a separate pool of handler threads; a poller waits for a free handler
+ * before dispatching, so messages never wait in a local queue while their visibility timeout runs out.
+ *
+ * On stop, pollers finish their current receive and messages that have not been dispatched yet are made visible
+ * again right away. Messages being handled are given {@code queueStopTimeout} milliseconds to complete.
+ *
+ * In adaptive mode the number of receive loops varies between {@code minConcurrency} and {@code concurrency},
+ * see {@link AdaptiveConcurrency}.
+ *
+ * Messages are deleted according to the {@link SqsMessageDeletionPolicy}, with the same semantics as
+ * {@code SqsMessageDrivenChannelAdapter}, either one by one or in batches with a {@link BatchingMessageDeleter}.
+ * In batch mode, the messages of a receive, optionally aggregated with those of further receives up to
+ * {@code batchMaxSize} messages or {@code batchTimeout} milliseconds, are delivered as a single message
+ * with a {@link List} payload. Each message of the batch is acknowledged according to the
+ * {@link BatchAcknowledgment} the handler fills in.
+ *
+ * Messages from FIFO queues are handled in parallel across message groups; messages of one message group are
+ * handled one after another, in order. When a message of a group fails, the rest of that group's messages
+ * from the same receive are made visible again instead of being handled out of order.
+ *
+ * With the visibility heartbeat enabled, the visibility timeout of messages is extended for as long as they are
+ * being handled, see {@link VisibilityHeartbeat}.
+ *
+ * The {@code SentTimestamp} of the oldest message of each receive is reported to the {@link QueueBacklogMonitor},
+ * when set, to approximate the age of the oldest message of the queue.
+ *
+ * With virtual threads, receive loops and handlers run on virtual threads started for each of them instead of
+ * pooled threads; the number of messages handled at once is still limited to the number of handlers.
+ *
+ * @author Maciej Walkowiak
+ */
+class SqsInboundChannelAdapter extends MessageProducerSupport {
+
+    private static final int MAX_NUMBER_OF_MESSAGES = 10;
+    private static final long DEFAULT_QUEUE_STOP_TIMEOUT = 20000;
+    private static final long BACK_OFF_TIME = 10000;
+    private static final long PERMIT_WAIT_TIME = 100;
+    private static final String MESSAGE_GROUP_ID = "MessageGroupId";
+
+    private final AmazonSQSAsync amazonSqs;
+    private final String queue;
+
+    private int concurrency = 1;
+    private int handlerPoolSize;
+    private Integer maxNumberOfMessages;
+    private Integer visibilityTimeout;
+    private Integer waitTimeOut;
+    private long queueStopTimeout = DEFAULT_QUEUE_STOP_TIMEOUT;
+    private SqsMessageDeletionPolicy messageDeletionPolicy = SqsMessageDeletionPolicy.NO_REDRIVE;
+    private PayloadStore payloadStore;
+    private boolean adaptive;
+    private int minConcurrency = 1;
+    private long adaptiveInterval = 5000;
+    private boolean deleteBatching;
+    private long deleteBatchFlushInterval = 100;
+    private boolean visibilityHeartbeat;
+    private boolean fifo;
+    private boolean batchMode;
+    private int batchMaxSize = MAX_NUMBER_OF_MESSAGES;
+    private long batchTimeout;
+    private ConsumerMetrics metrics;
+    private QueueBacklogMonitor backlogMonitor;
+    private HeaderFilter headerFilter;
+    private boolean virtualThreads;
+
+    private final AtomicInteger activePollers = new AtomicInteger();
+    private volatile int targetPollers;
+    private volatile AdaptiveConcurrency adaptiveConcurrency;
+    private volatile BatchingMessageDeleter messageDeleter;
+    private volatile VisibilityHeartbeat heartbeat;
+    private ScheduledFuture<?> adaptiveTask;
+
+    private volatile String queueUrl;
+    private volatile boolean redrivePolicy;
+    private volatile CountDownLatch stopSignal;
+    private ExecutorService pollerExecutor;
+    private ExecutorService handlerExecutor;
+    private Semaphore handlerPermits;
+
+    SqsInboundChannelAdapter(AmazonSQSAsync amazonSqs, String queue) {
+        this.amazonSqs = amazonSqs;
+        this.queue = queue;
+    }
+
+    /**
+     * Number of concurrent receive loops, or the maximum number of them in adaptive mode.
+     */
+    void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Number of threads handling received messages, or of messages handled at once with virtual threads.
+     * Defaults to enough handlers to handle the result of every receive loop at once.
+     */
+    void setHandlerPoolSize(int handlerPoolSize) {
+        this.handlerPoolSize = handlerPoolSize;
+    }
+
+    void setMaxNumberOfMessages(Integer maxNumberOfMessages) {
+        this.maxNumberOfMessages = maxNumberOfMessages;
+    }
+
+    void setVisibilityTimeout(Integer visibilityTimeout) {
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    void setWaitTimeOut(Integer waitTimeOut) {
+        this.waitTimeOut = waitTimeOut;
+    }
+
+    void setQueueStopTimeout(long queueStopTimeout) {
+        this.queueStopTimeout = queueStopTimeout > 0 ? queueStopTimeout : DEFAULT_QUEUE_STOP_TIMEOUT;
+    }
+
+    void setMessageDeletionPolicy(SqsMessageDeletionPolicy messageDeletionPolicy) {
+        this.messageDeletionPolicy = messageDeletionPolicy;
+    }
+
+    /**
+     * Store claim-checked payloads are deleted from once their message has been deleted from the queue,
+     * or acknowledged with the {@link SqsMessageDeletionPolicy#NEVER} policy.
+     */
+    void setPayloadStore(PayloadStore payloadStore) {
+        this.payloadStore = payloadStore;
+    }
+
+    /**
+     * Whether the number of receive loops is adjusted to the queue depth and handler latency.
+     */
+    void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    void setMinConcurrency(int minConcurrency) {
+        this.minConcurrency = minConcurrency;
+    }
+
+    /**
+     * Time in milliseconds between adjustments of the number of receive loops in adaptive mode.
+     */
+    void setAdaptiveInterval(long adaptiveInterval) {
+        this.adaptiveInterval = adaptiveInterval;
+    }
+
+    /**
+     * Whether messages are deleted with {@code DeleteMessageBatch} requests.
+     */
+    void setDeleteBatching(boolean deleteBatching) {
+        this.deleteBatching = deleteBatching;
+    }
+
+    /**
+     * Maximum time in milliseconds a deletion waits for its batch to fill up.
+     */
+    void setDeleteBatchFlushInterval(long deleteBatchFlushInterval) {
+        this.deleteBatchFlushInterval = deleteBatchFlushInterval;
+    }
+
+    /**
+     * Whether the visibility timeout of messages is extended while they are being handled.
+     */
+    void setVisibilityHeartbeat(boolean visibilityHeartbeat) {
+        this.visibilityHeartbeat = visibilityHeartbeat;
+    }
+
+    /**
+     * Whether the queue is a FIFO queue, whose messages are handled in order within each message group.
+     */
+    void setFifo(boolean fifo) {
+        this.fifo = fifo;
+    }
+
+    /**
+     * Whether received messages are delivered in batches.
+     */
+    void setBatchMode(boolean batchMode) {
+        this.batchMode = batchMode;
+    }
+
+    /**
+     * Maximum number of messages aggregated into a batch.
+     */
+    void setBatchMaxSize(int batchMaxSize) {
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    /**
+     * Maximum time in milliseconds spent receiving further messages to fill a batch up to {@code batchMaxSize}.
+     * When {@code 0}, the result of each receive is delivered as a batch.
+     */
+    void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    int getActivePollers() {
+        return this.activePollers.get();
+    }
+
+    void setMetrics(ConsumerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    void setBacklogMonitor(QueueBacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    /**
+     * Filter of the message attributes mapped to headers, {@code null} to map all of them.
+     */
+    void setHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+    }
+
+    /**
+     * Whether receive loops and handlers run on virtual threads, which requires Java 21 or later.
+     */
+    void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public String getComponentType() {
+        return "sqs:inbound-channel-adapter";
+    }
+
+    @Override
+    protected void doStart() {
+        this.queueUrl = this.amazonSqs.getQueueUrl(this.queue).getQueueUrl();
+        if (this.messageDeletionPolicy == SqsMessageDeletionPolicy.NO_REDRIVE) {
+            this.redrivePolicy = this.amazonSqs.getQueueAttributes(new GetQueueAttributesRequest(this.queueUrl)
+                                                                           .withAttributeNames(QueueAttributeName.RedrivePolicy))
+                                               .getAttributes()
+                                               .containsKey(QueueAttributeName.RedrivePolicy.toString());
+        }
+        if (this.deleteBatching) {
+            this.messageDeleter = new BatchingMessageDeleter(this.amazonSqs, this.queueUrl, getTaskScheduler(),
+                                                             this.deleteBatchFlushInterval);
+            this.messageDeleter.setMetrics(this.metrics);
+            this.messageDeleter.start();
+        }
+        if (this.visibilityHeartbeat) {
+            this.heartbeat = new VisibilityHeartbeat(this.amazonSqs, this.queueUrl, getTaskScheduler(), queueVisibilityTimeout());
+            this.heartbeat.setMetrics(this.metrics);
+            this.heartbeat.start();
+        }
+        int handlers = this.handlerPoolSize > 0 ? this.handlerPoolSize : this.concurrency * maxNumberOfMessages();
+        this.handlerPermits = new Semaphore(handlers);
+        if (this.virtualThreads) {
+            this.handlerExecutor = VirtualThreads.newExecutor(this.queue + "-handler-");
+            this.pollerExecutor = VirtualThreads.newExecutor(this.queue + "-poller-");
+        } else {
+            this.handlerExecutor = Executors.newFixedThreadPool(handlers, new CustomizableThreadFactory(this.queue + "-handler-"));
+            this.pollerExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory(this.queue + "-poller-"));
+        }
+        this.stopSignal = new CountDownLatch(1);
+        if (this.adaptive) {
+            this.adaptiveConcurrency = new AdaptiveConcurrency(this.minConcurrency, this.concurrency, handlers,
+                                                               maxNumberOfMessages(), this.adaptiveInterval);
+            this.targetPollers = this.adaptiveConcurrency.getMinPollers();
+            this.adaptiveTask = getTaskScheduler().scheduleWithFixedDelay(this::adjustPollers, this.adaptiveInterval);
+        } else {
+            this.targetPollers = this.concurrency;
+        }
+        startPollers();
+    }
+
+    private void startPollers() {
+        CountDownLatch stopSignal = this.stopSignal;
+        int active;
+        while ((active = this.activePollers.get()) < this.targetPollers) {
+            if (this.activePollers.compareAndSet(active, active + 1)) {
+                this.pollerExecutor.execute(() -> poll(stopSignal));
+            }
+        }
+    }
+
+    private void adjustPollers() {
+        long backlog;
+        try {
+            backlog = Long.parseLong(this.amazonSqs.getQueueAttributes(new GetQueueAttributesRequest(this.queueUrl)
+                                                                               .withAttributeNames(QueueAttributeName.ApproximateNumberOfMessages))
+                                                   .getAttributes()
+                                                   .get(QueueAttributeName.ApproximateNumberOfMessages.toString()));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read the number of messages in queue " + this.queue, e);
+            return;
+        }
+        int current = this.targetPollers;
+        int target = this.adaptiveConcurrency.pollers(backlog, current);
+        if (target != current) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Changing number of pollers of queue " + this.queue + " from " + current + " to " + target
+                             + ", approximate number of messages: " + backlog);
+            }
+            this.targetPollers = target;
+            startPollers();
+        }
+    }
+
+    /**
+     * Called by a poller before each receive; pollers above the target number exit.
+     */
+    private boolean retire() {
+        int active;
+        while ((active = this.activePollers.get()) > this.targetPollers) {
+            if (this.activePollers.compareAndSet(active, active - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doStop() {
+        if (this.adaptiveTask != null) {
+            this.adaptiveTask.cancel(false);
+            this.adaptiveTask = null;
+        }
+        this.stopSignal.countDown();
+        long deadline = System.currentTimeMillis() + this.queueStopTimeout;
+        this.pollerExecutor.shutdown();
+        awaitTermination(this.pollerExecutor, deadline);
+        this.handlerExecutor.shutdown();
+        if (!awaitTermination(this.handlerExecutor, deadline)) {
+            logger.warn("Messages from queue " + this.queue + " still being handled after " + this.queueStopTimeout + " ms");
+        }
+        if (this.messageDeleter != null
+            && !this.messageDeleter.stop(Math.max(0, deadline - System.currentTimeMillis()))) {
+            logger.warn("Deletion of messages from queue " + this.queue + " not completed after " + this.queueStopTimeout + " ms");
+        }
+        if (this.heartbeat != null) {
+            this.heartbeat.stop();
+        }
+    }
+
+    private int queueVisibilityTimeout() {
+        if (this.visibilityTimeout != null) {
+            return this.visibilityTimeout;
+        }
+        return Integer.parseInt(this.amazonSqs.getQueueAttributes(new GetQueueAttributesRequest(this.queueUrl)
+                                                                          .withAttributeNames(QueueAttributeName.VisibilityTimeout))
+                                              .getAttributes()
+                                              .get(QueueAttributeName.VisibilityTimeout.toString()));
+    }
+
+    private boolean awaitTermination(ExecutorService executor, long deadline) {
+        try {
+            return executor.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void poll(CountDownLatch stopSignal) {
+        boolean retired = false;
+        try {
+            while (stopSignal.getCount() > 0 && !(retired = retire())) {
+                List<com.amazonaws.services.sqs.model.Message> messages;
+                try {
+                    messages = receive(maxNumberOfMessages(), this.waitTimeOut);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to receive messages from queue " + this.queue, e);
+                    backOff(stopSignal);
+                    continue;
+                }
+                if (this.batchMode) {
+                    dispatchBatch(aggregate(messages, stopSignal), stopSignal);
+                } else if (this.fifo) {
+                    dispatchGroups(messages, stopSignal);
+                } else {
+                    dispatch(messages, stopSignal);
+                }
+            }
+        } finally {
+            if (!retired) {
+                this.activePollers.decrementAndGet();
+            }
+        }
+    }
+
+    private List<com.amazonaws.services.sqs.model.Message> receive(int maxNumberOfMessages, Integer waitTimeOut) {
+        long start = System.nanoTime();
+        List<com.amazonaws.services.sqs.model.Message> messages;
+        try {
+            messages = this.amazonSqs.receiveMessage(receiveMessageRequest(maxNumberOfMessages, waitTimeOut))
+                                     .getMessages();
+        } catch (RuntimeException e) {
+            if (this.metrics != null) {
+                this.metrics.receiveFailed(start);
+            }
+            throw e;
+        }
+        if (this.metrics != null) {
+            this.metrics.received(start, messages.size());
+        }
+        if (this.adaptiveConcurrency != null && !messages.isEmpty()) {
+            this.adaptiveConcurrency.recordReceiveLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        if (this.heartbeat != null) {
+            for (com.amazonaws.services.sqs.model.Message message : messages) {
+                this.heartbeat.track(message.getReceiptHandle());
+            }
+        }
+        if (this.backlogMonitor != null && !messages.isEmpty()) {
+            this.backlogMonitor.recordReceived(this.queue, messages);
+        }
+        return messages;
+    }
+
+    /**
+     * Keeps receiving messages until the batch is full or the batch timeout elapses.
+     */
+    private List<com.amazonaws.services.sqs.model.Message> aggregate(List<com.amazonaws.services.sqs.model.Message> received,
+                                                                     CountDownLatch stopSignal) {
+        if (received.isEmpty() || this.batchTimeout <= 0) {
+            return received;
+        }
+        List<com.amazonaws.services.sqs.model.Message> batch = new ArrayList<>(received);
+        long deadline = System.currentTimeMillis() + this.batchTimeout;
+        long remaining;
+        while (batch.size() < this.batchMaxSize && stopSignal.getCount() > 0
+               && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            int waitTimeOut = (int) TimeUnit.MILLISECONDS.toSeconds(remaining);
+            if (this.waitTimeOut != null) {
+                waitTimeOut = Math.min(waitTimeOut, this.waitTimeOut);
+            }
+            try {
+                batch.addAll(receive(Math.min(maxNumberOfMessages(), this.batchMaxSize - batch.size()), waitTimeOut));
+            } catch (RuntimeException e) {
+                logger.error("Failed to receive messages from queue " + this.queue, e);
+                break;
+            }
+        }
+        return batch;
+    }
+
+    private ReceiveMessageRequest receiveMessageRequest(int maxNumberOfMessages, Integer waitTimeOut) {
+        ReceiveMessageRequest request = new ReceiveMessageRequest(this.queueUrl)
+                .withAttributeNames(QueueAttributeName.All)
+                .withMessageAttributeNames("All")
+                .withMaxNumberOfMessages(maxNumberOfMessages);
+        if (this.visibilityTimeout != null) {
+            request.setVisibilityTimeout(this.visibilityTimeout);
+        }
+        if (waitTimeOut != null) {
+            request.setWaitTimeSeconds(waitTimeOut);
+        }
+        return request;
+    }
+
+    private int maxNumberOfMessages() {
+        return this.maxNumberOfMessages != null ? this.maxNumberOfMessages : MAX_NUMBER_OF_MESSAGES;
+    }
+
+    private void dispatch(List<com.amazonaws.services.sqs.model.Message> messages, CountDownLatch stopSignal) {
+        for (int i = 0; i < messages.size(); i++) {
+            com.amazonaws.services.sqs.model.Message message = messages.get(i);
+            if (!acquireHandler(stopSignal)) {
+                release(messages.subList(i, messages.size()));
+                return;
+            }
+            try {
+                this.handlerExecutor.execute(() -> {
+                    try {
+                        handle(message);
+                    } finally {
+                        this.handlerPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                this.handlerPermits.release();
+                release(messages.subList(i, messages.size()));
+                return;
+            }
+        }
+    }
+
+    private void dispatchGroups(List<com.amazonaws.services.sqs.model.Message> messages, CountDownLatch stopSignal) {
+        Map<String, List<com.amazonaws.services.sqs.model.Message>> groups = new LinkedHashMap<>();
+        for (com.amazonaws.services.sqs.model.Message message : messages) {
+            groups.computeIfAbsent(message.getAttributes().get(MESSAGE_GROUP_ID), groupId -> new ArrayList<>()).add(message);
+        }
+        List<List<com.amazonaws.services.sqs.model.Message>> pending = new ArrayList<>(groups.values());
+        for (int i = 0; i < pending.size(); i++) {
+            List<com.amazonaws.services.sqs.model.Message> group = pending.get(i);
+            if (!acquireHandler(stopSignal)) {
+                releaseGroups(pending.subList(i, pending.size()));
+                return;
+            }
+            try {
+                this.handlerExecutor.execute(() -> {
+                    try {
+                        handleGroup(group);
+                    } finally {
+                        this.handlerPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                this.handlerPermits.release();
+                releaseGroups(pending.subList(i, pending.size()));
+                return;
+            }
+        }
+    }
+
+    private void releaseGroups(List<List<com.amazonaws.services.sqs.model.Message>> groups) {
+        List<com.amazonaws.services.sqs.model.Message> messages = new ArrayList<>();
+        for (List<com.amazonaws.services.sqs.model.Message> group : groups) {
+            messages.addAll(group);
+        }
+        release(messages);
+    }
+
+    private void dispatchBatch(List<com.amazonaws.services.sqs.model.Message> messages, CountDownLatch stopSignal) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (!acquireHandler(stopSignal)) {
+            release(messages);
+            return;
+        }
+        try {
+            this.handlerExecutor.execute(() -> {
+                try {
+                    handleBatch(messages);
+                } finally {
+                    this.handlerPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.handlerPermits.release();
+            release(messages);
+        }
+    }
+
+    private boolean acquireHandler(CountDownLatch stopSignal) {
+        try {
+            while (!this.handlerPermits.tryAcquire(PERMIT_WAIT_TIME, TimeUnit.MILLISECONDS)) {
+                if (stopSignal.getCount() == 0) {
+                    return false;
+                }
+            }
+            if (stopSignal.getCount() == 0) {
+                this.handlerPermits.release();
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void handleGroup(List<com.amazonaws.services.sqs.model.Message> group) {
+        for (int i = 0; i < group.size(); i++) {
+            if (!handle(group.get(i))) {
+                if (i + 1 < group.size()) {
+                    release(group.subList(i + 1, group.size()));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether the message was handled successfully
+     */
+    private boolean handle(com.amazonaws.services.sqs.model.Message sqsMessage) {
+        boolean success = false;
+        Message<?> message = null;
+        try {
+            message = toMessage(sqsMessage);
+            long start = System.nanoTime();
+            try {
+                sendMessage(message);
+                success = true;
+            } finally {
+                handled(start, success);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle message " + sqsMessage.getMessageId() + " from queue " + this.queue, e);
+        } finally {
+            completed(sqsMessage, message, success);
+        }
+        return success;
+    }
+
+    private void handleBatch(List<com.amazonaws.services.sqs.model.Message> sqsMessages) {
+        List<com.amazonaws.services.sqs.model.Message> converted = new ArrayList<>(sqsMessages.size());
+        List<Message<?>> messages = new ArrayList<>(sqsMessages.size());
+        for (com.amazonaws.services.sqs.model.Message sqsMessage : sqsMessages) {
+            try {
+                messages.add(toMessage(sqsMessage));
+                converted.add(sqsMessage);
+            } catch (RuntimeException e) {
+                logger.error("Failed to convert message " + sqsMessage.getMessageId() + " from queue " + this.queue, e);
+                completed(sqsMessage, null, false);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<Object> payloads = new ArrayList<>(messages.size());
+        List<Map<String, Object>> headers = new ArrayList<>(messages.size());
+        for (Message<?> message : messages) {
+            payloads.add(message.getPayload());
+            headers.add(message.getHeaders());
+        }
+        BatchAcknowledgment acknowledgment = new BatchAcknowledgment(messages.size());
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            sendMessage(getMessageBuilderFactory().withPayload(payloads)
+                                                  .setHeader(AwsHeaders.QUEUE, this.queue)
+                                                  .setHeader(SqsBinderHeaders.BATCH_HEADERS, headers)
+                                                  .setHeader(SqsBinderHeaders.BATCH_ACKNOWLEDGMENT, acknowledgment)
+                                                  .build());
+            success = true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle batch of " + messages.size() + " messages from queue " + this.queue, e);
+            acknowledgment.markAllFailed();
+        } finally {
+            handled(start, success);
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            completed(converted.get(i), messages.get(i), !acknowledgment.isFailed(i));
+        }
+    }
+
+    /**
+     * Records the time the handler took for a message or a batch.
+     *
+     * @param start {@link System#nanoTime()} when the message was sent to the output channel
+     */
+    private void handled(long start, boolean success) {
+        if (this.adaptiveConcurrency != null && success) {
+            this.adaptiveConcurrency.recordHandlerLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        if (this.metrics != null) {
+            this.metrics.handled(start, success);
+        }
+    }
+
+    private Message<?> toMessage(com.amazonaws.services.sqs.model.Message sqsMessage) {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(AwsHeaders.QUEUE, this.queue);
+        com.amazonaws.services.sqs.model.Message source = sqsMessage;
+        if (this.headerFilter != null && !sqsMessage.getMessageAttributes().isEmpty()) {
+            source = sqsMessage.clone().withMessageAttributes(this.headerFilter.filter(sqsMessage.getMessageAttributes()));
+        }
+        AbstractIntegrationMessageBuilder<?> builder = getMessageBuilderFactory().fromMessage(QueueMessageUtils.createMessage(source, headers));
+        if (this.messageDeletionPolicy == SqsMessageDeletionPolicy.NEVER) {
+            builder.setHeader(AwsHeaders.ACKNOWLEDGMENT, acknowledgment(sqsMessage.getReceiptHandle(),
+                                                                        builder.getHeaders().get(SqsBinderHeaders.CLAIM_CHECK)));
+        }
+        Message<?> message = builder.build();
+        if (this.metrics != null) {
+            Object producerTimestamp = message.getHeaders().get(SqsBinderHeaders.PRODUCER_TIMESTAMP);
+            if (producerTimestamp instanceof Number) {
+                this.metrics.endToEnd(((Number) producerTimestamp).longValue());
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Stops extending the visibility of a handled message and deletes it according to the deletion policy.
+     *
+     * @param message the converted message, or {@code null} if conversion failed
+     */
+    private void completed(com.amazonaws.services.sqs.model.Message sqsMessage, Message<?> message, boolean success) {
+        if (this.heartbeat != null) {
+            this.heartbeat.untrack(sqsMessage.getReceiptHandle());
+        }
+        if (this.metrics != null) {
+            this.metrics.completed(1);
+        }
+        if (shouldDelete(success)) {
+            CompletableFuture<Void> deleted = deleteMessage(sqsMessage.getReceiptHandle());
+            if (message != null) {
+                deleteStoredPayload(deleted, message.getHeaders().get(SqsBinderHeaders.CLAIM_CHECK));
+            }
+        }
+    }
+
+    private boolean shouldDelete(boolean success) {
+        switch (this.messageDeletionPolicy) {
+            case ALWAYS:
+                return true;
+            case ON_SUCCESS:
+                return success;
+            case NO_REDRIVE:
+                return success || !this.redrivePolicy;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Deletes the stored payload of a message once the message itself has been deleted, so that a message
+     * redelivered after a failed deletion can still retrieve its payload.
+     *
+     * @param pointer pointer to the stored payload, or {@code null} if the payload was not claim-checked
+     * @return future completed once the message and its stored payload are deleted
+     */
+    private CompletableFuture<Void> deleteStoredPayload(CompletableFuture<Void> messageDeleted, Object pointer) {
+        if (this.payloadStore == null || pointer == null) {
+            return messageDeleted;
+        }
+        return messageDeleted.thenRun(() -> {
+            try {
+                this.payloadStore.delete(pointer.toString());
+            } catch (IOException e) {
+                logger.warn("Failed to delete stored payload: " + pointer, e);
+            }
+        });
+    }
+
+    private Acknowledgment acknowledgment(String receiptHandle, Object pointer) {
+        return () -> deleteStoredPayload(deleteMessage(receiptHandle), pointer);
+    }
+
+    /**
+     * @return future completed once the message is deleted
+     */
+    private CompletableFuture<Void> deleteMessage(String receiptHandle) {
+        if (this.messageDeleter != null) {
+            return this.messageDeleter.delete(receiptHandle);
+        }
+        CompletableFuture<Void> deleted = new CompletableFuture<>();
+        long start = System.nanoTime();
+        this.amazonSqs.deleteMessageAsync(new DeleteMessageRequest(this.queueUrl, receiptHandle),
+                                          new LoggingAsyncHandler<DeleteMessageRequest, DeleteMessageResult>("Failed to delete message from queue " + this.queue) {
+                                              @Override
+                                              public void onError(Exception exception) {
+                                                  super.onError(exception);
+                                                  if (metrics != null) {
+                                                      metrics.deleted(start, false);
+                                                  }
+                                                  deleted.completeExceptionally(exception);
+                                              }
+
+                                              @Override
+                                              public void onSuccess(DeleteMessageRequest request, DeleteMessageResult result) {
+                                                  if (metrics != null) {
+                                                      metrics.deleted(start, true);
+                                                  }
+                                                  deleted.complete(null);
+                                              }
+                                          });
+        return deleted;
+    }
+
+    /**
+     * Makes messages received but not dispatched before stop visible to other consumers right away.
+     */
+    private void release(List<com.amazonaws.services.sqs.model.Message> messages) {
+        if (this.metrics != null) {
+            this.metrics.completed(messages.size());
+        }
+        List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            if (this.heartbeat != null) {
+                this.heartbeat.untrack(messages.get(i).getReceiptHandle());
+            }
+            entries.add(new ChangeMessageVisibilityBatchRequestEntry(String.valueOf(i), messages.get(i).getReceiptHandle())
+                                .withVisibilityTimeout(0));
+        }
+        this.amazonSqs.changeMessageVisibilityBatchAsync(new ChangeMessageVisibilityBatchRequest(this.queueUrl, entries),
+                                                         new LoggingAsyncHandler<>("Failed to release messages of queue " + this.queue));
+    }
+
+    private void backOff(CountDownLatch stopSignal) {
+        try {
+            stopSignal.await(BACK_OFF_TIME, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class LoggingAsyncHandler<R extends AmazonWebServiceRequest, T> implements AsyncHandler<R, T> {
+
+        private final String errorMessage;
+
+        LoggingAsyncHandler(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            logger.warn(this.errorMessage, exception);
+        }
+
+        @Override
+        public void onSuccess(R request, T result) {
+        }
+    }
+}
@@ -8,6 +8,9 @@ import org.springframework.cloud.stream.binder.BinderSpecificPropertiesProvider;
 import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
 import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
 import org.springframework.cloud.stream.binder.ExtendedPropertiesBinder;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
 import org.springframework.cloud.stream.binder.sqs.provisioning.SqsStreamProvisioner;
 import org.springframework.cloud.stream.provisioning.ConsumerDestination;
 import org.springframework.cloud.stream.provisioning.ProducerDestination;
@@ -15,13 +18,16 @@ import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerPropert
 import org.springframework.cloud.stream.binder.sqs.properties.SqsExtendedBindingProperties;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
 import org.springframework.cloud.stream.binder.sqs.provisioning.SqsProducerDestination;
-import org.springframework.integration.aws.inbound.SqsMessageDrivenChannelAdapter;
-import org.springframework.integration.aws.outbound.SnsMessageHandler;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.channel.AbstractMessageChannel;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The Spring Cloud Stream Binder implementation for AWS SQS.
  *
@@ -32,11 +38,23 @@ public class SqsMessageChannelBinder extends
                                              ExtendedProducerProperties<SqsProducerProperties>, SqsStreamProvisioner>
         implements ExtendedPropertiesBinder<MessageChannel, SqsConsumerProperties, SqsProducerProperties> {
 
+    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+
     private final AmazonSQSAsync amazonSQSAsync;
     private final AmazonSNSAsync amazonSNSAsync;
 
     private SqsExtendedBindingProperties extendedBindingProperties;
 
+    private PayloadCompressors payloadCompressors = new PayloadCompressors();
+
+    private PayloadStore payloadStore;
+
+    private SqsBinderMetrics metrics;
+
+    private QueueBacklogMonitor backlogMonitor;
+
+    private boolean virtualThreads;
+
     public SqsMessageChannelBinder(AmazonSQSAsync amazonSQSAsync, AmazonSNSAsync amazonSNSAsync, SqsStreamProvisioner provisioningProvider) {
         this(amazonSQSAsync, amazonSNSAsync, provisioningProvider, new SqsExtendedBindingProperties());
     }
@@ -53,30 +71,175 @@ public class SqsMessageChannelBinder extends
     protected MessageHandler createProducerMessageHandler(ProducerDestination destination, ExtendedProducerProperties<SqsProducerProperties> producerProperties,
                                                           MessageChannel errorChannel) throws Exception {
         SqsProducerDestination sqsProducerDestination = (SqsProducerDestination) destination;
-        SnsMessageHandler snsMessageHandler = new SnsMessageHandler(amazonSNSAsync);
-        snsMessageHandler.setTopicArn(sqsProducerDestination.getTopicArn());
-        snsMessageHandler.setFailureChannel(errorChannel);
-        snsMessageHandler.setBeanFactory(getBeanFactory());
-        return snsMessageHandler;
+        SqsProducerProperties extension = producerProperties.getExtension();
+        InFlightLimiter inFlightLimiter = extension.isAsync() ? new InFlightLimiter(extension.getMaxInFlight(),
+                                                                                   extension.isBlockWhenInFlightLimitReached()) : null;
+        if (inFlightLimiter != null && this.metrics != null) {
+            this.metrics.producerInFlight(destination.getName(), inFlightLimiter);
+        }
+        if (!sqsProducerDestination.getPartitions().isEmpty()) {
+            List<MessageHandler> partitionHandlers = new ArrayList<>(sqsProducerDestination.getPartitions().size());
+            for (SqsProducerDestination partition : sqsProducerDestination.getPartitions()) {
+                partitionHandlers.add(createMessageHandler(partition, extension, inFlightLimiter, errorChannel));
+            }
+            return new PartitionRoutingMessageHandler(partitionHandlers);
+        }
+        return createMessageHandler(sqsProducerDestination, extension, inFlightLimiter, errorChannel);
+    }
+
+    private MessageHandler createMessageHandler(SqsProducerDestination sqsProducerDestination, SqsProducerProperties extension,
+                                                InFlightLimiter inFlightLimiter, MessageChannel errorChannel) {
+        if (sqsProducerDestination.getQueueUrl() != null && !extension.isBatchingEnabled()) {
+            SqsSendingMessageHandler sendingMessageHandler = new SqsSendingMessageHandler(amazonSQSAsync, sqsProducerDestination.getQueueUrl());
+            sendingMessageHandler.setAsync(extension.isAsync() || !extension.isFifo());
+            return configurePublishingMessageHandler(sendingMessageHandler, sqsProducerDestination, extension, inFlightLimiter, errorChannel);
+        }
+        if (sqsProducerDestination.getQueueUrl() != null) {
+            SqsBatchingMessageHandler batchingMessageHandler = new SqsBatchingMessageHandler(amazonSQSAsync,
+                                                                                             sqsProducerDestination.getQueueUrl());
+            batchingMessageHandler.setBatchSize(extension.getBatchSize());
+            batchingMessageHandler.setLingerTime(extension.getBatchLingerTime());
+            batchingMessageHandler.setMaxBatchBytes(extension.getBatchMaxBytes());
+            batchingMessageHandler.setAsync(extension.isAsync());
+            return configurePublishingMessageHandler(batchingMessageHandler, sqsProducerDestination, extension, inFlightLimiter, errorChannel);
+        }
+        if (extension.isBatchingEnabled()) {
+            SnsBatchingMessageHandler batchingMessageHandler = new SnsBatchingMessageHandler(amazonSNSAsync,
+                                                                                             sqsProducerDestination.getTopicArn());
+            batchingMessageHandler.setBatchSize(extension.getBatchSize());
+            batchingMessageHandler.setLingerTime(extension.getBatchLingerTime());
+            batchingMessageHandler.setMaxBatchBytes(extension.getBatchMaxBytes());
+            batchingMessageHandler.setAsync(extension.isAsync());
+            return configurePublishingMessageHandler(batchingMessageHandler, sqsProducerDestination, extension, inFlightLimiter, errorChannel);
+        }
+        // without the async property messages are published like SnsMessageHandler does: asynchronously without
+        // an in-flight limit, or synchronously to FIFO topics to keep their order
+        SnsPublishingMessageHandler publishingMessageHandler = new SnsPublishingMessageHandler(amazonSNSAsync,
+                                                                                               sqsProducerDestination.getTopicArn());
+        publishingMessageHandler.setAsync(extension.isAsync() || !extension.isFifo());
+        return configurePublishingMessageHandler(publishingMessageHandler, sqsProducerDestination, extension, inFlightLimiter, errorChannel);
+    }
+
+    private MessageHandler configurePublishingMessageHandler(AbstractPublishingMessageHandler messageHandler,
+                                                             SqsProducerDestination sqsProducerDestination,
+                                                             SqsProducerProperties extension,
+                                                             InFlightLimiter inFlightLimiter,
+                                                             MessageChannel errorChannel) {
+        if (extension.isAsync()) {
+            messageHandler.setInFlightLimiter(inFlightLimiter);
+            if (extension.getSuccessChannel() != null) {
+                messageHandler.setSuccessChannel(getBeanFactory().getBean(extension.getSuccessChannel(), MessageChannel.class));
+            }
+        }
+        if (extension.getMessageGroupIdExpression() != null) {
+            messageHandler.setMessageGroupIdExpression(EXPRESSION_PARSER.parseExpression(extension.getMessageGroupIdExpression()));
+        }
+        if (extension.getMessageDeduplicationIdExpression() != null) {
+            messageHandler.setMessageDeduplicationIdExpression(EXPRESSION_PARSER.parseExpression(extension.getMessageDeduplicationIdExpression()));
+        }
+        if (this.metrics != null) {
+            messageHandler.setMetrics(this.metrics.producer(sqsProducerDestination.getName()));
+        }
+        messageHandler.setHeaderPatterns(extension.getHeaderPatterns());
+        messageHandler.setProducerTimestamp(extension.isProducerTimestamp());
+        messageHandler.setFailureChannel(errorChannel);
+        messageHandler.setBeanFactory(getBeanFactory());
+        return messageHandler;
     }
 
     @Override
     protected MessageProducer createConsumerEndpoint(ConsumerDestination destination, String group, ExtendedConsumerProperties<SqsConsumerProperties> properties) throws Exception {
-        SqsMessageDrivenChannelAdapter adapter = new SqsMessageDrivenChannelAdapter(this.amazonSQSAsync, destination.getName());
-        adapter.setVisibilityTimeout(properties.getExtension().getVisibilityTimeout());
-        adapter.setMaxNumberOfMessages(properties.getExtension().getMaxNumberOfMessages());
-        adapter.setWaitTimeOut(properties.getExtension().getWaitTimeOut());
-        if (properties.getExtension().getMessageDeletionPolicy() != null) {
-            adapter.setMessageDeletionPolicy(properties.getExtension().getMessageDeletionPolicy());
-        }
-        adapter.setQueueStopTimeout(properties.getExtension().getQueueStopTimeout());
-        adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory());
+        SqsConsumerProperties extension = properties.getExtension();
+        if (extension.isReactive()) {
+            return createReactiveConsumerEndpoint(destination, group, properties);
+        }
+        SqsInboundChannelAdapter adapter = new SqsInboundChannelAdapter(this.amazonSQSAsync, destination.getName());
+        adapter.setConcurrency(properties.getConcurrency());
+        if (extension.getHandlerPoolSize() != null) {
+            adapter.setHandlerPoolSize(extension.getHandlerPoolSize());
+        }
+        adapter.setAdaptive(extension.isAdaptiveConcurrency());
+        adapter.setMinConcurrency(extension.getMinConcurrency());
+        adapter.setAdaptiveInterval(extension.getAdaptiveConcurrencyInterval());
+        adapter.setVisibilityTimeout(extension.getVisibilityTimeout());
+        adapter.setVisibilityHeartbeat(extension.isVisibilityHeartbeat());
+        adapter.setMaxNumberOfMessages(extension.getMaxNumberOfMessages());
+        adapter.setWaitTimeOut(extension.getWaitTimeOut());
+        if (extension.getMessageDeletionPolicy() != null) {
+            adapter.setMessageDeletionPolicy(extension.getMessageDeletionPolicy());
+        }
+        adapter.setFifo(extension.getQueue() != null && extension.getQueue().isFifoQueue());
+        adapter.setBatchMode(extension.isBatchMode());
+        adapter.setBatchMaxSize(extension.getBatchMaxSize());
+        adapter.setBatchTimeout(extension.getBatchTimeout());
+        adapter.setDeleteBatching(extension.isDeleteBatchingEnabled());
+        adapter.setDeleteBatchFlushInterval(extension.getDeleteBatchFlushInterval());
+        adapter.setQueueStopTimeout(extension.getQueueStopTimeout());
+        adapter.setVirtualThreads(this.virtualThreads);
+        if (extension.isDeleteStoredPayloads()) {
+            adapter.setPayloadStore(payloadStore);
+        }
+        if (this.metrics != null) {
+            adapter.setMetrics(this.metrics.consumer(destination.getName(), group));
+        }
+        if (this.backlogMonitor != null) {
+            adapter.setBacklogMonitor(this.backlogMonitor);
+            if (this.metrics != null) {
+                this.metrics.queueBacklog(destination.getName(), group, this.backlogMonitor);
+            }
+        }
+        SnsAwareMessageBuilderFactory messageBuilderFactory = messageBuilderFactory(extension);
+        HeaderFilter headerFilter = new HeaderFilter(extension.getHeaderPatterns());
+        if (!headerFilter.isMatchingAll()) {
+            adapter.setHeaderFilter(headerFilter);
+            messageBuilderFactory.setHeaderFilter(headerFilter);
+        }
+        adapter.setMessageBuilderFactory(messageBuilderFactory);
+        adapter.setBeanFactory(getBeanFactory());
+        return adapter;
+    }
+
+    private MessageProducer createReactiveConsumerEndpoint(ConsumerDestination destination, String group,
+                                                           ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        SqsConsumerProperties extension = properties.getExtension();
+        ReactiveSqsInboundChannelAdapter adapter = new ReactiveSqsInboundChannelAdapter(this.amazonSQSAsync, destination.getName());
+        adapter.setConcurrency(properties.getConcurrency());
+        adapter.setMaxNumberOfMessages(extension.getMaxNumberOfMessages());
+        adapter.setVisibilityTimeout(extension.getVisibilityTimeout());
+        adapter.setWaitTimeOut(extension.getWaitTimeOut());
+        if (extension.getMessageDeletionPolicy() != null) {
+            adapter.setMessageDeletionPolicy(extension.getMessageDeletionPolicy());
+        }
+        if (this.backlogMonitor != null) {
+            adapter.setBacklogMonitor(this.backlogMonitor);
+            if (this.metrics != null) {
+                this.metrics.queueBacklog(destination.getName(), group, this.backlogMonitor);
+            }
+        }
+        SnsAwareMessageBuilderFactory messageBuilderFactory = messageBuilderFactory(extension);
+        HeaderFilter headerFilter = new HeaderFilter(extension.getHeaderPatterns());
+        if (!headerFilter.isMatchingAll()) {
+            adapter.setHeaderFilter(headerFilter);
+            messageBuilderFactory.setHeaderFilter(headerFilter);
+        }
+        adapter.setMessageBuilderFactory(messageBuilderFactory);
+        adapter.setBeanFactory(getBeanFactory());
         return adapter;
     }
 
+    private SnsAwareMessageBuilderFactory messageBuilderFactory(SqsConsumerProperties extension) {
+        SnsAwareMessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory(extension.isRawMessageDelivery(),
+                                                                                                extension.isDecompression() ? payloadCompressors : null,
+                                                                                                payloadStore);
+        messageBuilderFactory.setStreamStoredPayloads(extension.isStreamStoredPayloads());
+        return messageBuilderFactory;
+    }
+
     @Override
     protected void postProcessOutputChannel(MessageChannel outputChannel, ExtendedProducerProperties<SqsProducerProperties> producerProperties) {
-        ((AbstractMessageChannel) outputChannel).addInterceptor(new SnsPayloadConvertingChannelInterceptor());
+        ((AbstractMessageChannel) outputChannel).addInterceptor(new SnsPayloadConvertingChannelInterceptor(producerProperties.getExtension(),
+                                                                                                           payloadCompressors,
+                                                                                                           payloadStore));
     }
 
     @Override
@@ -102,4 +265,30 @@ public class SqsMessageChannelBinder extends
     public void setExtendedBindingProperties(SqsExtendedBindingProperties extendedBindingProperties) {
         this.extendedBindingProperties = extendedBindingProperties;
     }
+
+    public void setPayloadCompressors(PayloadCompressors payloadCompressors) {
+        this.payloadCompressors = payloadCompressors;
+    }
+
+    public void setPayloadStore(PayloadStore payloadStore) {
+        this.payloadStore = payloadStore;
+    }
+
+    public void setMetrics(SqsBinderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setBacklogMonitor(QueueBacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    /**
+     * Whether consumer receive loops and handlers run on virtual threads; ignored with a warning before Java 21.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads && VirtualThreads.isSupported();
+        if (virtualThreads && !this.virtualThreads) {
+            logger.warn("Virtual threads require Java 21 or later, consumers use platform threads");
+        }
+    }
 }
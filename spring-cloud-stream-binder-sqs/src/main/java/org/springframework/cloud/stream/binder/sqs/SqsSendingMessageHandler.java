@@ -0,0 +1,77 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+
+/**
+ * {@link org.springframework.messaging.MessageHandler} sending each outbound message directly to an SQS queue with
+ * its own {@code SendMessage} request, used instead of {@link SqsBatchingMessageHandler} when batching is disabled.
+ * Like the latter, every message carries the {@link SqsBinderHeaders#RAW_MESSAGE} attribute, and outcomes are
+ * reported like {@link SnsPublishingMessageHandler} does.
+ *
+ * @author Maciej Walkowiak
+ */
+class SqsSendingMessageHandler extends AbstractPublishingMessageHandler {
+
+    private final AmazonSQSAsync amazonSQSAsync;
+    private final String queueUrl;
+
+    private boolean async = true;
+
+    SqsSendingMessageHandler(AmazonSQSAsync amazonSQSAsync, String queueUrl) {
+        this.amazonSQSAsync = amazonSQSAsync;
+        this.queueUrl = queueUrl;
+        this.attributesMapper.setRawMessage(true);
+    }
+
+    void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) throws Exception {
+        SendMessageRequest request = new SendMessageRequest().withQueueUrl(this.queueUrl)
+                                                             .withMessageBody(this.attributesMapper.toBody(message))
+                                                             .withMessageAttributes(this.attributesMapper.toSqsAttributes(message.getHeaders()))
+                                                             .withMessageGroupId(messageGroupId(message))
+                                                             .withMessageDeduplicationId(messageDeduplicationId(message));
+        if (!this.async) {
+            long start = System.nanoTime();
+            SendMessageResult result;
+            try {
+                result = this.amazonSQSAsync.sendMessage(request);
+            } catch (RuntimeException e) {
+                published(start, false);
+                throw failedSynchronously(new MessageDeliveryException(message, "Failed to send message to " + this.queueUrl, e));
+            }
+            published(start, true);
+            completed(message, result.getMessageId());
+            return;
+        }
+        acquire(message);
+        long start = System.nanoTime();
+        try {
+            this.amazonSQSAsync.sendMessageAsync(request, new AsyncHandler<SendMessageRequest, SendMessageResult>() {
+                @Override
+                public void onError(Exception exception) {
+                    published(start, false);
+                    failed(new MessageDeliveryException(message, "Failed to send message to " + queueUrl, exception));
+                }
+
+                @Override
+                public void onSuccess(SendMessageRequest request, SendMessageResult result) {
+                    published(start, true);
+                    completed(message, result.getMessageId());
+                }
+            });
+        } catch (RuntimeException e) {
+            published(start, false);
+            failed(new MessageDeliveryException(message, "Failed to send message to " + queueUrl, e));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Payload of a claim-checked message, retrieved from the {@link PayloadStore} only when its stream is opened.
+ * Each call to {@link #getInputStream()} retrieves the payload again and decompresses it while it is being read.
+ *
+ * @author Maciej Walkowiak
+ */
+class StoredPayloadResource extends AbstractResource {
+
+    private final PayloadStore payloadStore;
+    private final String pointer;
+    private final List<PayloadCompressor> compressors;
+
+    /**
+     * @param compressors compressors the payload is decompressed with, in order
+     */
+    StoredPayloadResource(PayloadStore payloadStore, String pointer, List<PayloadCompressor> compressors) {
+        this.payloadStore = payloadStore;
+        this.pointer = pointer;
+        this.compressors = compressors;
+    }
+
+    String getPointer() {
+        return this.pointer;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        InputStream inputStream = this.payloadStore.retrieve(this.pointer);
+        try {
+            for (PayloadCompressor compressor : this.compressors) {
+                inputStream = compressor.decompress(inputStream);
+            }
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+        return inputStream;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Stored payload [" + this.pointer + "]";
+    }
+}
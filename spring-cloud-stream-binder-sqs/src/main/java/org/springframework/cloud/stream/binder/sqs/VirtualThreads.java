@@ -0,0 +1,57 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors running each task on a new virtual thread, on Java 21 or later. The binder is compiled
+ * for Java 8, so the virtual thread API is called reflectively.
+ *
+ * Such executors are unbounded: the number of tasks running at once has to be limited by their callers,
+ * like the handler permits of consumers or the in-flight limit of asynchronous producers.
+ *
+ * @author Maciej Walkowiak
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = ReflectionUtils.findMethod(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = ReflectionUtils.findMethod(Executors.class, "newThreadPerTaskExecutor",
+                                                                                          ThreadFactory.class);
+    private static final Class<?> BUILDER = builderClass();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return whether virtual threads are supported by the running JVM
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null && BUILDER != null;
+    }
+
+    /**
+     * @param prefix prefix of the names of the threads, followed by a sequence number
+     * @return an executor starting a virtual thread for each task
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        Assert.state(isSupported(), "Virtual threads require Java 21 or later");
+        Object builder = ReflectionUtils.invokeMethod(OF_VIRTUAL, null);
+        builder = ReflectionUtils.invokeMethod(ReflectionUtils.findMethod(BUILDER, "name", String.class, long.class), builder, prefix, 0L);
+        ThreadFactory threadFactory = (ThreadFactory) ReflectionUtils.invokeMethod(ReflectionUtils.findMethod(BUILDER, "factory"), builder);
+        return (ExecutorService) ReflectionUtils.invokeMethod(NEW_THREAD_PER_TASK_EXECUTOR, null, threadFactory);
+    }
+
+    private static Class<?> builderClass() {
+        try {
+            return ClassUtils.forName("java.lang.Thread$Builder", VirtualThreads.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+}
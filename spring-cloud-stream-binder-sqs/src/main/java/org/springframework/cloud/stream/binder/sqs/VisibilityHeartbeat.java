@@ -0,0 +1,160 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Extends the visibility timeout of messages while they are being handled. Tracked messages whose visibility
+ * timeout expires within the next two heartbeats are extended by the visibility timeout again, with
+ * {@code ChangeMessageVisibilityBatch} requests of up to 10 messages. Heartbeats run every third
+ * of the visibility timeout.
+ *
+ * @author Maciej Walkowiak
+ */
+class VisibilityHeartbeat {
+
+    private static final Log logger = LogFactory.getLog(VisibilityHeartbeat.class);
+
+    private static final int MAX_BATCH_SIZE = 10;
+    private static final long MIN_INTERVAL = 1000;
+
+    private final AmazonSQSAsync amazonSqs;
+    private final String queueUrl;
+    private final TaskScheduler taskScheduler;
+    private final int visibilityTimeout;
+    private final long interval;
+
+    /**
+     * Time in milliseconds the visibility timeout of each tracked message expires at, by receipt handle.
+     */
+    private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> heartbeatTask;
+    private ConsumerMetrics metrics;
+
+    /**
+     * @param visibilityTimeout visibility timeout of the queue in seconds
+     */
+    VisibilityHeartbeat(AmazonSQSAsync amazonSqs, String queueUrl, TaskScheduler taskScheduler, int visibilityTimeout) {
+        this.amazonSqs = amazonSqs;
+        this.queueUrl = queueUrl;
+        this.taskScheduler = taskScheduler;
+        this.visibilityTimeout = visibilityTimeout;
+        this.interval = Math.max(MIN_INTERVAL, visibilityTimeout * 1000L / 3);
+    }
+
+    void setMetrics(ConsumerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    void start() {
+        this.heartbeatTask = this.taskScheduler.scheduleWithFixedDelay(this::extend, this.interval);
+    }
+
+    void stop() {
+        if (this.heartbeatTask != null) {
+            this.heartbeatTask.cancel(false);
+            this.heartbeatTask = null;
+        }
+        this.expirations.clear();
+    }
+
+    /**
+     * Starts extending the visibility timeout of a message received just now.
+     */
+    void track(String receiptHandle) {
+        this.expirations.put(receiptHandle, System.currentTimeMillis() + this.visibilityTimeout * 1000L);
+    }
+
+    /**
+     * Stops extending the visibility timeout of a message, once it has been handled or released.
+     */
+    void untrack(String receiptHandle) {
+        this.expirations.remove(receiptHandle);
+    }
+
+    int getTracked() {
+        return this.expirations.size();
+    }
+
+    void extend() {
+        long threshold = System.currentTimeMillis() + 2 * this.interval;
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, Long> expiration : this.expirations.entrySet()) {
+            if (expiration.getValue() <= threshold) {
+                due.add(expiration.getKey());
+            }
+        }
+        for (int i = 0; i < due.size(); i += MAX_BATCH_SIZE) {
+            extend(due.subList(i, Math.min(i + MAX_BATCH_SIZE, due.size())));
+        }
+    }
+
+    private void extend(List<String> receiptHandles) {
+        List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(receiptHandles.size());
+        for (int i = 0; i < receiptHandles.size(); i++) {
+            entries.add(new ChangeMessageVisibilityBatchRequestEntry(String.valueOf(i), receiptHandles.get(i))
+                                .withVisibilityTimeout(this.visibilityTimeout));
+        }
+        long sentAt = System.currentTimeMillis();
+        try {
+            this.amazonSqs.changeMessageVisibilityBatchAsync(new ChangeMessageVisibilityBatchRequest(this.queueUrl, entries),
+                                                             new ExtensionHandler(receiptHandles, sentAt));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to extend visibility timeout of messages from queue " + this.queueUrl, e);
+        }
+    }
+
+    private class ExtensionHandler implements AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> {
+
+        private final List<String> receiptHandles;
+        private final long sentAt;
+
+        ExtensionHandler(List<String> receiptHandles, long sentAt) {
+            this.receiptHandles = receiptHandles;
+            this.sentAt = sentAt;
+        }
+
+        @Override
+        public void onSuccess(ChangeMessageVisibilityBatchRequest request, ChangeMessageVisibilityBatchResult result) {
+            if (metrics != null) {
+                metrics.visibilityExtended(result.getSuccessful().size(), result.getFailed().size());
+            }
+            long expiration = this.sentAt + visibilityTimeout * 1000L;
+            for (ChangeMessageVisibilityBatchResultEntry entry : result.getSuccessful()) {
+                expirations.computeIfPresent(this.receiptHandles.get(Integer.parseInt(entry.getId())), (receiptHandle, previous) -> expiration);
+            }
+            for (BatchResultErrorEntry entry : result.getFailed()) {
+                if (entry.isSenderFault()) {
+                    untrack(this.receiptHandles.get(Integer.parseInt(entry.getId())));
+                }
+                logger.warn("Failed to extend visibility timeout of message from queue " + queueUrl + ": "
+                            + entry.getCode() + " " + entry.getMessage());
+            }
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            if (metrics != null) {
+                metrics.visibilityExtended(0, this.receiptHandles.size());
+            }
+            logger.warn("Failed to extend visibility timeout of messages from queue " + queueUrl, exception);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.springframework.cloud.stream.binder.sqs.backlog;
+
+/**
+ * The backlog of a consumer queue as of the last sample taken by {@link QueueBacklogMonitor}. Message counts
+ * are the approximate numbers reported by SQS. When a sample fails, the counts of the previous one are kept
+ * and {@link #getFailure()} describes the error.
+ *
+ * @author Maciej Walkowiak
+ */
+public class QueueBacklog {
+
+    private final String queue;
+    private final String group;
+    private final long visibleMessages;
+    private final long notVisibleMessages;
+    private final long delayedMessages;
+    private final long ageOfOldestMessage;
+    private final long sampledAt;
+    private final String failure;
+
+    QueueBacklog(String queue, String group, long visibleMessages, long notVisibleMessages, long delayedMessages,
+                 long ageOfOldestMessage, long sampledAt, String failure) {
+        this.queue = queue;
+        this.group = group;
+        this.visibleMessages = visibleMessages;
+        this.notVisibleMessages = notVisibleMessages;
+        this.delayedMessages = delayedMessages;
+        this.ageOfOldestMessage = ageOfOldestMessage;
+        this.sampledAt = sampledAt;
+        this.failure = failure;
+    }
+
+    QueueBacklog failed(long sampledAt, String failure) {
+        return new QueueBacklog(this.queue, this.group, this.visibleMessages, this.notVisibleMessages, this.delayedMessages,
+                                this.ageOfOldestMessage, sampledAt, failure);
+    }
+
+    public String getQueue() {
+        return queue;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * Messages available for retrieval, {@code ApproximateNumberOfMessages}.
+     */
+    public long getVisibleMessages() {
+        return visibleMessages;
+    }
+
+    /**
+     * Messages received and neither deleted nor visible again yet, {@code ApproximateNumberOfMessagesNotVisible}.
+     */
+    public long getNotVisibleMessages() {
+        return notVisibleMessages;
+    }
+
+    /**
+     * Messages not available yet because of a delay, {@code ApproximateNumberOfMessagesDelayed}.
+     */
+    public long getDelayedMessages() {
+        return delayedMessages;
+    }
+
+    /**
+     * Approximate age in milliseconds of the oldest message waiting in the queue, see {@link QueueBacklogMonitor}.
+     */
+    public long getAgeOfOldestMessage() {
+        return ageOfOldestMessage;
+    }
+
+    /**
+     * Epoch milliseconds of the sample.
+     */
+    public long getSampledAt() {
+        return sampledAt;
+    }
+
+    /**
+     * Error of the last sample, {@code null} when it succeeded.
+     */
+    public String getFailure() {
+        return failure;
+    }
+}
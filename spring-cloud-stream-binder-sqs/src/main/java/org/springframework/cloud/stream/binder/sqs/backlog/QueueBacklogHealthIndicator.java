@@ -0,0 +1,79 @@
+package org.springframework.cloud.stream.binder.sqs.backlog;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the backlog of consumer queues from the samples cached by {@link QueueBacklogMonitor}, without calling AWS.
+ * The health is {@code DOWN} when a queue has more visible messages than {@code maxVisibleMessages} or its oldest
+ * message is older than {@code maxAgeOfOldestMessage}, and {@code UNKNOWN} when a queue has not been sampled yet
+ * or its last sample failed. Thresholds that are not set are not checked.
+ *
+ * @author Maciej Walkowiak
+ */
+public class QueueBacklogHealthIndicator extends AbstractHealthIndicator {
+
+    private final QueueBacklogMonitor monitor;
+
+    private Long maxVisibleMessages;
+
+    private Long maxAgeOfOldestMessage;
+
+    public QueueBacklogHealthIndicator(QueueBacklogMonitor monitor) {
+        super("Failed to read the backlog of SQS queues");
+        this.monitor = monitor;
+    }
+
+    /**
+     * Maximum number of visible messages of a queue.
+     */
+    public void setMaxVisibleMessages(Long maxVisibleMessages) {
+        this.maxVisibleMessages = maxVisibleMessages;
+    }
+
+    /**
+     * Maximum age in milliseconds of the oldest message of a queue.
+     */
+    public void setMaxAgeOfOldestMessage(Long maxAgeOfOldestMessage) {
+        this.maxAgeOfOldestMessage = maxAgeOfOldestMessage;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Status status = Status.UP;
+        for (String queue : this.monitor.getQueues()) {
+            QueueBacklog backlog = this.monitor.getBacklog(queue);
+            if (backlog == null) {
+                builder.withDetail(queue, "not sampled yet");
+                status = status == Status.UP ? Status.UNKNOWN : status;
+                continue;
+            }
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("group", backlog.getGroup());
+            details.put("visibleMessages", backlog.getVisibleMessages());
+            details.put("notVisibleMessages", backlog.getNotVisibleMessages());
+            details.put("delayedMessages", backlog.getDelayedMessages());
+            details.put("ageOfOldestMessage", backlog.getAgeOfOldestMessage());
+            details.put("sampledAt", backlog.getSampledAt());
+            if (backlog.getFailure() != null) {
+                details.put("error", backlog.getFailure());
+                status = status == Status.UP ? Status.UNKNOWN : status;
+            }
+            if (isLagging(backlog)) {
+                details.put("lagging", true);
+                status = Status.DOWN;
+            }
+            builder.withDetail(queue, details);
+        }
+        builder.status(status);
+    }
+
+    private boolean isLagging(QueueBacklog backlog) {
+        return (this.maxVisibleMessages != null && backlog.getVisibleMessages() > this.maxVisibleMessages)
+                || (this.maxAgeOfOldestMessage != null && backlog.getAgeOfOldestMessage() > this.maxAgeOfOldestMessage);
+    }
+}
@@ -0,0 +1,219 @@
+package org.springframework.cloud.stream.binder.sqs.backlog;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the backlog of consumer queues in the background, every {@code sampleInterval} milliseconds, with
+ * a single {@code GetQueueAttributes} request per queue reading the number of visible, not visible and delayed
+ * messages. Samples are cached, so that gauges and health checks never call AWS.
+ *
+ * SQS does not report the age of the oldest message of a queue, so it is derived from the {@code SentTimestamp}
+ * of received messages: the age of a sample is the age, when received, of the oldest message received since the
+ * previous sample. When nothing was received while messages are waiting, the age of the previous sample keeps
+ * growing; when the queue is empty, it is {@code 0}.
+ *
+ * @author Maciej Walkowiak
+ */
+public class QueueBacklogMonitor implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(QueueBacklogMonitor.class);
+
+    private final AmazonSQSAsync amazonSQSAsync;
+    private final long sampleInterval;
+
+    private final Map<String, QueueSampler> samplers = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService executor;
+
+    public QueueBacklogMonitor(AmazonSQSAsync amazonSQSAsync, long sampleInterval) {
+        this.amazonSQSAsync = amazonSQSAsync;
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Starts sampling the given queue. Queues registered more than once are sampled once.
+     */
+    public void register(String queue, String group, String queueUrl) {
+        QueueSampler sampler = new QueueSampler(queue, group, queueUrl);
+        ScheduledExecutorService executor = this.executor;
+        if (this.samplers.putIfAbsent(queue, sampler) == null && executor != null) {
+            executor.execute(sampler::sample);
+        }
+    }
+
+    /**
+     * Records the {@code SentTimestamp} of the oldest message of a receive from the given queue.
+     */
+    public void recordReceived(String queue, long sentTimestamp) {
+        QueueSampler sampler = this.samplers.get(queue);
+        if (sampler != null) {
+            long age = Math.max(0, System.currentTimeMillis() - sentTimestamp);
+            sampler.receivedAge.accumulateAndGet(age, Math::max);
+        }
+    }
+
+    /**
+     * Records the oldest {@code SentTimestamp} of the given messages received from the given queue.
+     */
+    public void recordReceived(String queue, List<Message> messages) {
+        long oldest = Long.MAX_VALUE;
+        for (Message message : messages) {
+            String sentTimestamp = message.getAttributes().get(MessageSystemAttributeName.SentTimestamp.toString());
+            if (sentTimestamp != null) {
+                oldest = Math.min(oldest, Long.parseLong(sentTimestamp));
+            }
+        }
+        if (oldest != Long.MAX_VALUE) {
+            recordReceived(queue, oldest);
+        }
+    }
+
+    public Set<String> getQueues() {
+        return Collections.unmodifiableSet(this.samplers.keySet());
+    }
+
+    /**
+     * @return the last sample of the given queue, {@code null} when the queue has not been sampled yet
+     */
+    public QueueBacklog getBacklog(String queue) {
+        QueueSampler sampler = this.samplers.get(queue);
+        return sampler != null ? sampler.backlog : null;
+    }
+
+    /**
+     * Requests a sample of each registered queue. Samples are updated once the responses arrive.
+     */
+    public void sample() {
+        for (QueueSampler sampler : this.samplers.values()) {
+            sampler.sample();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (this.executor == null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sqs-backlog-");
+            threadFactory.setDaemon(true);
+            this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            this.executor.scheduleWithFixedDelay(this::sample, 0, this.sampleInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private static long count(Map<String, String> attributes, QueueAttributeName name) {
+        String value = attributes.get(name.toString());
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    private final class QueueSampler implements AsyncHandler<GetQueueAttributesRequest, GetQueueAttributesResult> {
+
+        private final String queue;
+        private final String group;
+        private final String queueUrl;
+        private final AtomicLong receivedAge = new AtomicLong(-1);
+
+        private volatile QueueBacklog backlog;
+
+        private QueueSampler(String queue, String group, String queueUrl) {
+            this.queue = queue;
+            this.group = group;
+            this.queueUrl = queueUrl;
+        }
+
+        private void sample() {
+            try {
+                amazonSQSAsync.getQueueAttributesAsync(new GetQueueAttributesRequest(this.queueUrl)
+                                                               .withAttributeNames(QueueAttributeName.ApproximateNumberOfMessages,
+                                                                                   QueueAttributeName.ApproximateNumberOfMessagesNotVisible,
+                                                                                   QueueAttributeName.ApproximateNumberOfMessagesDelayed),
+                                                       this);
+            } catch (RuntimeException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public synchronized void onSuccess(GetQueueAttributesRequest request, GetQueueAttributesResult result) {
+            long now = System.currentTimeMillis();
+            long visible = count(result.getAttributes(), QueueAttributeName.ApproximateNumberOfMessages);
+            long receivedAge = this.receivedAge.getAndSet(-1);
+            QueueBacklog previous = this.backlog;
+            long age;
+            if (visible == 0) {
+                age = 0;
+            } else if (receivedAge >= 0) {
+                age = receivedAge;
+            } else if (previous != null && previous.getVisibleMessages() > 0) {
+                age = previous.getAgeOfOldestMessage() + now - previous.getSampledAt();
+            } else {
+                age = 0;
+            }
+            this.backlog = new QueueBacklog(this.queue,
+                                            this.group,
+                                            visible,
+                                            count(result.getAttributes(), QueueAttributeName.ApproximateNumberOfMessagesNotVisible),
+                                            count(result.getAttributes(), QueueAttributeName.ApproximateNumberOfMessagesDelayed),
+                                            age,
+                                            now,
+                                            null);
+        }
+
+        @Override
+        public synchronized void onError(Exception exception) {
+            logger.warn("Failed to sample the backlog of queue " + this.queue, exception);
+            long now = System.currentTimeMillis();
+            QueueBacklog previous = this.backlog;
+            this.backlog = previous != null ? previous.failed(now, exception.getMessage())
+                                            : new QueueBacklog(this.queue, this.group, 0, 0, 0, 0, now, exception.getMessage());
+        }
+    }
+}
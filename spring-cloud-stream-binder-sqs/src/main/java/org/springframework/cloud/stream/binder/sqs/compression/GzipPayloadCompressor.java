@@ -0,0 +1,32 @@
+package org.springframework.cloud.stream.binder.sqs.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link PayloadCompressor} using gzip from the JDK.
+ *
+ * @author Maciej Walkowiak
+ */
+public class GzipPayloadCompressor extends StreamingPayloadCompressor {
+
+    public static final String NAME = "gzip";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected OutputStream compressingStream(OutputStream outputStream) throws IOException {
+        return new GZIPOutputStream(outputStream);
+    }
+
+    @Override
+    protected InputStream decompressingStream(InputStream inputStream) throws IOException {
+        return new GZIPInputStream(inputStream);
+    }
+}
@@ -0,0 +1,33 @@
+package org.springframework.cloud.stream.binder.sqs.compression;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link PayloadCompressor} using the LZ4 frame format. Requires {@code org.lz4:lz4-java} on the classpath.
+ *
+ * @author Maciej Walkowiak
+ */
+public class Lz4PayloadCompressor extends StreamingPayloadCompressor {
+
+    public static final String NAME = "lz4";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected OutputStream compressingStream(OutputStream outputStream) throws IOException {
+        return new LZ4FrameOutputStream(outputStream);
+    }
+
+    @Override
+    protected InputStream decompressingStream(InputStream inputStream) throws IOException {
+        return new LZ4FrameInputStream(inputStream);
+    }
+}
@@ -0,0 +1,34 @@
+package org.springframework.cloud.stream.binder.sqs.compression;
+
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Compresses and decompresses message payloads. Compressors are looked up by {@link #getName() name}, which is
+ * sent with every compressed message so that consumers can pick the matching compressor.
+ *
+ * @author Maciej Walkowiak
+ */
+public interface PayloadCompressor {
+
+    /**
+     * @return the name of the compression algorithm, for example {@code gzip}
+     */
+    String getName();
+
+    byte[] compress(byte[] payload) throws IOException;
+
+    byte[] decompress(byte[] payload) throws IOException;
+
+    /**
+     * @return stream of the decompressed payload, closing {@code payload} when closed
+     */
+    default InputStream decompress(InputStream payload) throws IOException {
+        try (InputStream inputStream = payload) {
+            return new ByteArrayInputStream(decompress(StreamUtils.copyToByteArray(inputStream)));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.springframework.cloud.stream.binder.sqs.compression;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registry of {@link PayloadCompressor}s by name. Gzip is always available, LZ4 and Zstandard when their libraries
+ * are on the classpath. Additional compressors replace the built-in ones with the same name.
+ *
+ * @author Maciej Walkowiak
+ */
+public class PayloadCompressors {
+
+    private static final boolean LZ4_PRESENT = ClassUtils.isPresent("net.jpountz.lz4.LZ4FrameOutputStream",
+                                                                    PayloadCompressors.class.getClassLoader());
+
+    private static final boolean ZSTD_PRESENT = ClassUtils.isPresent("com.github.luben.zstd.ZstdOutputStream",
+                                                                     PayloadCompressors.class.getClassLoader());
+
+    private final Map<String, PayloadCompressor> compressors = new LinkedHashMap<>();
+
+    public PayloadCompressors() {
+        this(Collections.emptyList());
+    }
+
+    public PayloadCompressors(Collection<? extends PayloadCompressor> additionalCompressors) {
+        register(new GzipPayloadCompressor());
+        if (LZ4_PRESENT) {
+            register(new Lz4PayloadCompressor());
+        }
+        if (ZSTD_PRESENT) {
+            register(new ZstdPayloadCompressor());
+        }
+        additionalCompressors.forEach(this::register);
+    }
+
+    private void register(PayloadCompressor compressor) {
+        this.compressors.put(compressor.getName(), compressor);
+    }
+
+    /**
+     * @return the compressor registered with the given name, or {@code null} if there is none
+     */
+    public PayloadCompressor getCompressor(String name) {
+        return this.compressors.get(name);
+    }
+}
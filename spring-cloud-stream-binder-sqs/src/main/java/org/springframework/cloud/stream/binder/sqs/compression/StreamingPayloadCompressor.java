@@ -0,0 +1,42 @@
+package org.springframework.cloud.stream.binder.sqs.compression;
+
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Base class for {@link PayloadCompressor}s built on compressing stream implementations.
+ *
+ * @author Maciej Walkowiak
+ */
+abstract class StreamingPayloadCompressor implements PayloadCompressor {
+
+    @Override
+    public byte[] compress(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, payload.length / 4));
+        try (OutputStream outputStream = compressingStream(compressed)) {
+            outputStream.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] payload) throws IOException {
+        try (InputStream inputStream = decompressingStream(new ByteArrayInputStream(payload))) {
+            return StreamUtils.copyToByteArray(inputStream);
+        }
+    }
+
+    @Override
+    public InputStream decompress(InputStream payload) throws IOException {
+        return decompressingStream(payload);
+    }
+
+    protected abstract OutputStream compressingStream(OutputStream outputStream) throws IOException;
+
+    protected abstract InputStream decompressingStream(InputStream inputStream) throws IOException;
+}
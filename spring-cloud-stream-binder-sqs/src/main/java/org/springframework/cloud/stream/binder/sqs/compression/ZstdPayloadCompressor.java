@@ -0,0 +1,33 @@
+package org.springframework.cloud.stream.binder.sqs.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link PayloadCompressor} using Zstandard. Requires {@code com.github.luben:zstd-jni} on the classpath.
+ *
+ * @author Maciej Walkowiak
+ */
+public class ZstdPayloadCompressor extends StreamingPayloadCompressor {
+
+    public static final String NAME = "zstd";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected OutputStream compressingStream(OutputStream outputStream) throws IOException {
+        return new ZstdOutputStream(outputStream);
+    }
+
+    @Override
+    protected InputStream decompressingStream(InputStream inputStream) throws IOException {
+        return new ZstdInputStream(inputStream);
+    }
+}
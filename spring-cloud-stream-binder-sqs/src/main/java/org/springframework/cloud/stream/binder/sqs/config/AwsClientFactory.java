@@ -0,0 +1,80 @@
+package org.springframework.cloud.stream.binder.sqs.config;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.client.builder.AwsAsyncClientBuilder;
+
+import org.springframework.cloud.aws.core.region.RegionProvider;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderMetrics;
+import org.springframework.cloud.stream.binder.sqs.VirtualThreads;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsBinderConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the asynchronous SQS and SNS clients of the binder with the connection pool, timeouts and executor
+ * of the {@link SqsBinderConfigurationProperties.ClientProperties}, and gauges of the connection pool when
+ * metrics are enabled.
+ *
+ * @author Maciej Walkowiak
+ */
+class AwsClientFactory {
+
+    private final AWSCredentialsProvider awsCredentialsProvider;
+    private final RegionProvider regionProvider;
+    private final SqsBinderConfigurationProperties binderConfigurationProperties;
+    private final SqsBinderMetrics metrics;
+
+    AwsClientFactory(AWSCredentialsProvider awsCredentialsProvider, RegionProvider regionProvider,
+                     SqsBinderConfigurationProperties binderConfigurationProperties, SqsBinderMetrics metrics) {
+        this.awsCredentialsProvider = awsCredentialsProvider;
+        this.regionProvider = regionProvider;
+        this.binderConfigurationProperties = binderConfigurationProperties;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param client name of the client, used for the names of its threads and the tag of its metrics
+     */
+    <T> T build(AwsAsyncClientBuilder<?, T> builder, String client) {
+        ClientConfiguration clientConfiguration = clientConfiguration();
+        builder.setCredentials(this.awsCredentialsProvider);
+        builder.setRegion(this.regionProvider.getRegion().getName());
+        builder.setClientConfiguration(clientConfiguration);
+        SqsBinderConfigurationProperties.ClientProperties properties = this.binderConfigurationProperties.getClient();
+        if (this.binderConfigurationProperties.isVirtualThreads() && VirtualThreads.isSupported()) {
+            builder.setExecutorFactory(() -> VirtualThreads.newExecutor(client + "-client-"));
+        } else if (properties.getAsyncExecutorThreads() != null) {
+            builder.setExecutorFactory(() -> Executors.newFixedThreadPool(properties.getAsyncExecutorThreads(),
+                                                                          new CustomizableThreadFactory(client + "-client-")));
+        }
+        if (this.metrics != null) {
+            builder.setMetricsCollector(this.metrics.connectionPool(client, clientConfiguration.getMaxConnections()));
+        }
+        return builder.build();
+    }
+
+    private ClientConfiguration clientConfiguration() {
+        SqsBinderConfigurationProperties.ClientProperties properties = this.binderConfigurationProperties.getClient();
+        ClientConfiguration clientConfiguration = new ClientConfiguration();
+        if (properties.getMaxConnections() != null) {
+            clientConfiguration.setMaxConnections(properties.getMaxConnections());
+        }
+        if (properties.getConnectionTimeout() != null) {
+            clientConfiguration.setConnectionTimeout(properties.getConnectionTimeout());
+        }
+        if (properties.getConnectionTtl() != null) {
+            clientConfiguration.setConnectionTTL(properties.getConnectionTtl());
+        }
+        if (properties.getSocketTimeout() != null) {
+            clientConfiguration.setSocketTimeout(properties.getSocketTimeout());
+        }
+        if (properties.getRequestTimeout() != null) {
+            clientConfiguration.setRequestTimeout(properties.getRequestTimeout());
+        }
+        clientConfiguration.setUseTcpKeepAlive(properties.isTcpKeepAlive());
+        clientConfiguration.setUseGzip(properties.isGzip());
+        return clientConfiguration;
+    }
+}
@@ -0,0 +1,96 @@
+package org.springframework.cloud.stream.binder.sqs.config;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsExtendedBindingProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.provisioning.SqsStreamProvisioner;
+import org.springframework.cloud.stream.binding.Bindable;
+import org.springframework.cloud.stream.config.BinderProperties;
+import org.springframework.cloud.stream.config.BindingServiceProperties;
+
+/**
+ * Prepares the destinations of all bindings of the application on the binder once the binder is created, which
+ * happens when the first binding is bound. Spring Cloud Stream binds one binding after another, so the destinations
+ * of the following bindings are then already provisioned in parallel instead of one by one.
+ *
+ * Bindings are read from the {@link Bindable} beans and {@link BindingServiceProperties} of the application
+ * context of the binder or its parent. Failures are only logged here; they are reported when the binding
+ * provisions its destination.
+ *
+ * @author Maciej Walkowiak
+ */
+class BindingDestinationsPreparer implements SmartInitializingSingleton {
+
+    private static final String BINDER_TYPE = "sqs";
+
+    private static final Log logger = LogFactory.getLog(BindingDestinationsPreparer.class);
+
+    private final SqsStreamProvisioner provisioner;
+    private final BindingServiceProperties bindingServiceProperties;
+    private final SqsExtendedBindingProperties extendedBindingProperties;
+    private final ObjectProvider<Bindable> bindables;
+
+    BindingDestinationsPreparer(SqsStreamProvisioner provisioner, BindingServiceProperties bindingServiceProperties,
+                                SqsExtendedBindingProperties extendedBindingProperties, ObjectProvider<Bindable> bindables) {
+        this.provisioner = provisioner;
+        this.bindingServiceProperties = bindingServiceProperties;
+        this.extendedBindingProperties = extendedBindingProperties;
+        this.bindables = bindables;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.bindables.stream().forEach(bindable -> {
+            bindable.getInputs().stream().filter(this::isBoundToBinder).forEach(this::prepareConsumerDestination);
+            bindable.getOutputs().stream().filter(this::isBoundToBinder).forEach(this::prepareProducerDestination);
+        });
+    }
+
+    private void prepareConsumerDestination(String binding) {
+        String group = this.bindingServiceProperties.getGroup(binding);
+        if (group == null) {
+            return;
+        }
+        ExtendedConsumerProperties<SqsConsumerProperties> properties = new ExtendedConsumerProperties<>(this.extendedBindingProperties.getExtendedConsumerProperties(binding));
+        try {
+            BeanUtils.copyProperties(this.bindingServiceProperties.getConsumerProperties(binding), properties);
+            this.provisioner.prepareConsumerDestination(this.bindingServiceProperties.getBindingDestination(binding), group, properties);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to prepare the destination of binding " + binding, e);
+        }
+    }
+
+    private void prepareProducerDestination(String binding) {
+        ExtendedProducerProperties<SqsProducerProperties> properties = new ExtendedProducerProperties<>(this.extendedBindingProperties.getExtendedProducerProperties(binding));
+        try {
+            BeanUtils.copyProperties(this.bindingServiceProperties.getProducerProperties(binding), properties);
+            this.provisioner.prepareProducerDestination(this.bindingServiceProperties.getBindingDestination(binding), properties);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to prepare the destination of binding " + binding, e);
+        }
+    }
+
+    /**
+     * Bindings without a binder use the default binder, or the only binder on the classpath when there is no default.
+     */
+    private boolean isBoundToBinder(String binding) {
+        String binder = this.bindingServiceProperties.getBinder(binding);
+        if (binder == null) {
+            binder = this.bindingServiceProperties.getDefaultBinder();
+        }
+        if (binder == null) {
+            return true;
+        }
+        BinderProperties binderProperties = this.bindingServiceProperties.getBinders().get(binder);
+        String type = binderProperties != null && binderProperties.getType() != null ? binderProperties.getType() : binder;
+        return BINDER_TYPE.equals(type);
+    }
+}
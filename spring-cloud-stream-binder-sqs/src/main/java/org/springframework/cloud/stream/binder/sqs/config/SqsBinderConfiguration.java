@@ -17,21 +17,48 @@
 package org.springframework.cloud.stream.binder.sqs.config;
 
 import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.sns.AmazonSNSAsync;
 import com.amazonaws.services.sns.AmazonSNSAsyncClientBuilder;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.aws.core.region.RegionProvider;
 import org.springframework.cloud.stream.binder.Binder;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderMetrics;
 import org.springframework.cloud.stream.binder.sqs.SqsMessageChannelBinder;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogHealthIndicator;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.cloud.stream.binder.sqs.payload.S3PayloadStore;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsExtendedBindingProperties;
 import org.springframework.cloud.stream.binder.sqs.provisioning.SqsStreamProvisioner;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsBinderConfigurationProperties;
+import org.springframework.cloud.stream.binding.Bindable;
+import org.springframework.cloud.stream.config.BindingServiceProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * The auto-configuration for AWS components and Spring Cloud Stream SQS Binder.
  *
@@ -43,31 +70,181 @@ import org.springframework.context.annotation.Configuration;
                                 SqsExtendedBindingProperties.class})
 public class SqsBinderConfiguration {
 
+    private static final Log logger = LogFactory.getLog(SqsBinderConfiguration.class);
+
+    /**
+     * Clients built by this configuration, as opposed to clients defined by the application or Spring Cloud AWS,
+     * which the client properties of the binder do not apply to.
+     */
+    private final Set<Object> binderClients = Collections.newSetFromMap(new IdentityHashMap<>());
+
     @Bean
     @ConditionalOnMissingBean(AmazonSNSAsync.class)
     public AmazonSNSAsync amazonSNS(AWSCredentialsProvider awsCredentialsProvider,
-                                    RegionProvider regionProvider) {
-        AmazonSNSAsyncClientBuilder builder = AmazonSNSAsyncClientBuilder.standard();
-        builder.setCredentials(awsCredentialsProvider);
-        builder.setRegion(regionProvider.getRegion().getName());
-        return builder.build();
+                                    RegionProvider regionProvider,
+                                    SqsBinderConfigurationProperties binderConfigurationProperties,
+                                    ObjectProvider<SqsBinderMetrics> metrics) {
+        return binderClient(new AwsClientFactory(awsCredentialsProvider, regionProvider, binderConfigurationProperties, metrics.getIfAvailable())
+                                    .build(AmazonSNSAsyncClientBuilder.standard(), "sns"));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AmazonSQSAsync.class)
+    public AmazonSQSAsync amazonSQS(AWSCredentialsProvider awsCredentialsProvider,
+                                    RegionProvider regionProvider,
+                                    SqsBinderConfigurationProperties binderConfigurationProperties,
+                                    ObjectProvider<SqsBinderMetrics> metrics) {
+        return binderClient(new AwsClientFactory(awsCredentialsProvider, regionProvider, binderConfigurationProperties, metrics.getIfAvailable())
+                                    .build(AmazonSQSAsyncClientBuilder.standard(), "sqs"));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadCompressors payloadCompressors(ObjectProvider<PayloadCompressor> payloadCompressors) {
+        return new PayloadCompressors(payloadCompressors.orderedStream().collect(Collectors.toList()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty("spring.cloud.stream.sqs.binder.claim-check.bucket")
+    public PayloadStore payloadStore(ObjectProvider<AmazonS3> amazonS3,
+                                     AWSCredentialsProvider awsCredentialsProvider,
+                                     RegionProvider regionProvider,
+                                     SqsBinderConfigurationProperties binderConfigurationProperties) {
+        AmazonS3 s3 = amazonS3.getIfAvailable(() -> AmazonS3ClientBuilder.standard()
+                                                                         .withCredentials(awsCredentialsProvider)
+                                                                         .withRegion(regionProvider.getRegion().getName())
+                                                                         .build());
+        return new S3PayloadStore(s3,
+                                  binderConfigurationProperties.getClaimCheck().getBucket(),
+                                  binderConfigurationProperties.getClaimCheck().getKeyPrefix());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "spring.cloud.stream.sqs.binder.backlog.enabled", matchIfMissing = true)
+    public QueueBacklogMonitor queueBacklogMonitor(AmazonSQSAsync amazonSQSAsync,
+                                                   SqsBinderConfigurationProperties binderConfigurationProperties) {
+        return new QueueBacklogMonitor(amazonSQSAsync, binderConfigurationProperties.getBacklog().getSampleInterval());
     }
 
     @Bean
     public SqsStreamProvisioner provisioningProvider(AmazonSQSAsync amazonSQSAsync,
-                                                     AmazonSNSAsync amazonSNSAsync) {
-        return new SqsStreamProvisioner(amazonSQSAsync, amazonSNSAsync);
+                                                     AmazonSNSAsync amazonSNSAsync,
+                                                     SqsBinderConfigurationProperties binderConfigurationProperties,
+                                                     ObjectProvider<QueueBacklogMonitor> backlogMonitor) {
+        SqsStreamProvisioner provisioner = new SqsStreamProvisioner(amazonSQSAsync, amazonSNSAsync);
+        provisioner.setProvisioningMode(binderConfigurationProperties.getProvisioningMode());
+        provisioner.setBacklogMonitor(backlogMonitor.getIfAvailable());
+        return provisioner;
+    }
+
+    @Bean
+    @ConditionalOnBean(BindingServiceProperties.class)
+    @ConditionalOnProperty(name = "spring.cloud.stream.sqs.binder.prepare-destinations", matchIfMissing = true)
+    public BindingDestinationsPreparer bindingDestinationsPreparer(SqsStreamProvisioner provisioningProvider,
+                                                                   BindingServiceProperties bindingServiceProperties,
+                                                                   SqsExtendedBindingProperties sqsExtendedBindingProperties,
+                                                                   ObjectProvider<Bindable> bindables) {
+        return new BindingDestinationsPreparer(provisioningProvider, bindingServiceProperties, sqsExtendedBindingProperties, bindables);
     }
 
     @Bean
     public SqsMessageChannelBinder sqsMessageChannelBinder(AmazonSQSAsync amazonSQSAsync,
                                                            AmazonSNSAsync amazonSNSAsync,
                                                            SqsStreamProvisioner provisioningProvider,
-                                                           SqsExtendedBindingProperties sqsExtendedBindingProperties) {
-        return new SqsMessageChannelBinder(amazonSQSAsync,
-                                           amazonSNSAsync,
-                                           provisioningProvider,
-                                           sqsExtendedBindingProperties);
+                                                           SqsExtendedBindingProperties sqsExtendedBindingProperties,
+                                                           PayloadCompressors payloadCompressors,
+                                                           ObjectProvider<PayloadStore> payloadStore,
+                                                           ObjectProvider<SqsBinderMetrics> metrics,
+                                                           ObjectProvider<QueueBacklogMonitor> backlogMonitor,
+                                                           SqsBinderConfigurationProperties binderConfigurationProperties) {
+        SqsMessageChannelBinder binder = new SqsMessageChannelBinder(amazonSQSAsync,
+                                                                     amazonSNSAsync,
+                                                                     provisioningProvider,
+                                                                     sqsExtendedBindingProperties);
+        binder.setPayloadCompressors(payloadCompressors);
+        binder.setPayloadStore(payloadStore.getIfAvailable());
+        binder.setMetrics(metrics.getIfAvailable());
+        binder.setBacklogMonitor(backlogMonitor.getIfAvailable());
+        binder.setVirtualThreads(binderConfigurationProperties.isVirtualThreads());
+        warnIfNotBinderClient(amazonSQSAsync, "SQS", binderConfigurationProperties, metrics.getIfAvailable() != null);
+        warnIfNotBinderClient(amazonSNSAsync, "SNS", binderConfigurationProperties, metrics.getIfAvailable() != null);
+        return binder;
+    }
+
+    private <T> T binderClient(T client) {
+        this.binderClients.add(client);
+        return client;
+    }
+
+    /**
+     * Clients cannot be reconfigured once built, so binder settings that only apply to the clients it builds itself
+     * are reported as ignored for clients defined elsewhere.
+     */
+    private void warnIfNotBinderClient(Object client, String name, SqsBinderConfigurationProperties binderConfigurationProperties,
+                                       boolean metrics) {
+        if (this.binderClients.contains(client)) {
+            return;
+        }
+        List<String> ignored = new ArrayList<>();
+        if (binderConfigurationProperties.isVirtualThreads()) {
+            ignored.add("virtual threads");
+        }
+        if (isConfigured(binderConfigurationProperties.getClient())) {
+            ignored.add("the spring.cloud.stream.sqs.binder.client properties");
+        }
+        if (metrics) {
+            ignored.add("connection pool metrics");
+        }
+        if (!ignored.isEmpty()) {
+            logger.warn("The " + name + " client is not built by the binder, so " + String.join(", ", ignored)
+                        + " do not apply to it; configure the client accordingly, or remove it to let the binder build it");
+        }
     }
-}
 
+    private static boolean isConfigured(SqsBinderConfigurationProperties.ClientProperties properties) {
+        return properties.getMaxConnections() != null || properties.getConnectionTimeout() != null || properties.getConnectionTtl() != null
+               || properties.getSocketTimeout() != null || properties.getRequestTimeout() != null
+               || properties.getAsyncExecutorThreads() != null || properties.isTcpKeepAlive() || properties.isGzip();
+    }
+
+    /**
+     * Metrics of bindings, when Micrometer is on the classpath and a {@link MeterRegistry} is defined.
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(name = "spring.cloud.stream.sqs.binder.metrics.enabled", matchIfMissing = true)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SqsBinderMetrics sqsBinderMetrics(MeterRegistry meterRegistry,
+                                                 SqsBinderConfigurationProperties binderConfigurationProperties) {
+            SqsBinderMetrics metrics = new SqsBinderMetrics(meterRegistry);
+            metrics.setPercentileHistogram(binderConfigurationProperties.getMetrics().isPercentileHistogram());
+            metrics.setPercentiles(binderConfigurationProperties.getMetrics().getPercentiles());
+            return metrics;
+        }
+    }
+
+    /**
+     * Health of consumer queues based on their backlog, when Spring Boot Actuator is on the classpath.
+     */
+    @Configuration
+    @ConditionalOnClass(HealthIndicator.class)
+    @ConditionalOnProperty(name = "spring.cloud.stream.sqs.binder.backlog.enabled", matchIfMissing = true)
+    static class BacklogHealthConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public QueueBacklogHealthIndicator queueBacklogHealthIndicator(QueueBacklogMonitor backlogMonitor,
+                                                                       SqsBinderConfigurationProperties binderConfigurationProperties) {
+            QueueBacklogHealthIndicator healthIndicator = new QueueBacklogHealthIndicator(backlogMonitor);
+            healthIndicator.setMaxVisibleMessages(binderConfigurationProperties.getBacklog().getMaxVisibleMessages());
+            healthIndicator.setMaxAgeOfOldestMessage(binderConfigurationProperties.getBacklog().getMaxAgeOfOldestMessage());
+            return healthIndicator;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * The SQS binder: consumer and producer bindings, message conversion and the headers of the binder.
+ *
+ * {@link org.springframework.cloud.stream.binder.sqs.AbstractPublishingMessageHandler},
+ * {@link org.springframework.cloud.stream.binder.sqs.HeaderFilter},
+ * {@link org.springframework.cloud.stream.binder.sqs.InFlightLimiter},
+ * {@link org.springframework.cloud.stream.binder.sqs.MessageAttributesMapper},
+ * {@link org.springframework.cloud.stream.binder.sqs.PartitionRoutingMessageHandler},
+ * {@link org.springframework.cloud.stream.binder.sqs.SnsAwareMessageBuilderFactory} and
+ * {@link org.springframework.cloud.stream.binder.sqs.SnsPayloadConvertingChannelInterceptor} are internal to
+ * the binder: they are public only so that the {@code sqs-sdk2} binder can share them, and may change without notice.
+ */
+package org.springframework.cloud.stream.binder.sqs;
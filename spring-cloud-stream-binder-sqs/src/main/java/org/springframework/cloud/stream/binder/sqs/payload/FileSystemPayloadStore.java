@@ -0,0 +1,40 @@
+package org.springframework.cloud.stream.binder.sqs.payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+/**
+ * {@link PayloadStore} keeping payloads as files in a local directory. Meant for tests and local development,
+ * where producers and consumers share the file system. Pointers are {@code file:} URIs.
+ *
+ * @author Maciej Walkowiak
+ */
+public class FileSystemPayloadStore implements PayloadStore {
+
+    private final Path directory;
+
+    public FileSystemPayloadStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public String store(byte[] payload) throws IOException {
+        Path file = Files.write(this.directory.resolve(UUID.randomUUID().toString()), payload);
+        return file.toUri().toString();
+    }
+
+    @Override
+    public InputStream retrieve(String pointer) throws IOException {
+        return Files.newInputStream(Paths.get(URI.create(pointer)));
+    }
+
+    @Override
+    public void delete(String pointer) throws IOException {
+        Files.deleteIfExists(Paths.get(URI.create(pointer)));
+    }
+}
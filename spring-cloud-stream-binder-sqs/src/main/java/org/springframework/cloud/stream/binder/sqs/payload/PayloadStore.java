@@ -0,0 +1,22 @@
+package org.springframework.cloud.stream.binder.sqs.payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stores payloads too large to be sent through SNS and SQS. Only the pointer returned from {@link #store} is sent;
+ * consumers use it to retrieve the payload.
+ *
+ * @author Maciej Walkowiak
+ */
+public interface PayloadStore {
+
+    /**
+     * @return pointer to the stored payload
+     */
+    String store(byte[] payload) throws IOException;
+
+    InputStream retrieve(String pointer) throws IOException;
+
+    void delete(String pointer) throws IOException;
+}
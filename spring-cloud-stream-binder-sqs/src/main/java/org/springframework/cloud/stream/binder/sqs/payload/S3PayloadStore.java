@@ -0,0 +1,52 @@
+package org.springframework.cloud.stream.binder.sqs.payload;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * {@link PayloadStore} keeping payloads as objects in an S3 bucket. Pointers are {@code s3://bucket/key} URIs.
+ *
+ * @author Maciej Walkowiak
+ */
+public class S3PayloadStore implements PayloadStore {
+
+    private final AmazonS3 amazonS3;
+    private final String bucket;
+    private final String keyPrefix;
+
+    public S3PayloadStore(AmazonS3 amazonS3, String bucket) {
+        this(amazonS3, bucket, "");
+    }
+
+    public S3PayloadStore(AmazonS3 amazonS3, String bucket, String keyPrefix) {
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix != null ? keyPrefix : "";
+    }
+
+    @Override
+    public String store(byte[] payload) {
+        String key = this.keyPrefix + UUID.randomUUID().toString();
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(payload.length);
+        this.amazonS3.putObject(this.bucket, key, new ByteArrayInputStream(payload), metadata);
+        return "s3://" + this.bucket + "/" + key;
+    }
+
+    @Override
+    public InputStream retrieve(String pointer) {
+        AmazonS3URI uri = new AmazonS3URI(pointer);
+        return this.amazonS3.getObject(uri.getBucket(), uri.getKey()).getObjectContent();
+    }
+
+    @Override
+    public void delete(String pointer) {
+        AmazonS3URI uri = new AmazonS3URI(pointer);
+        this.amazonS3.deleteObject(uri.getBucket(), uri.getKey());
+    }
+}
@@ -0,0 +1,28 @@
+package org.springframework.cloud.stream.binder.sqs.properties;
+
+/**
+ * How partitioned messages reach the queue of their partition.
+ *
+ * @author Maciej Walkowiak
+ */
+public enum PartitionRouting {
+
+    /**
+     * Messages of all partitions are published to a single topic. The subscription of each partition's queue
+     * has a filter policy on the partition message attribute, so SNS evaluates every message against
+     * every subscription.
+     */
+    FILTER_POLICY,
+
+    /**
+     * Messages are published to a topic per partition, named {@code <destination>-<partition>}, to which only
+     * the queues of that partition are subscribed.
+     */
+    TOPIC,
+
+    /**
+     * Messages are sent directly to the queue of their partition, named {@code <group>-<partition>},
+     * without SNS. Requires exactly one required group on the producer binding.
+     */
+    QUEUE
+}
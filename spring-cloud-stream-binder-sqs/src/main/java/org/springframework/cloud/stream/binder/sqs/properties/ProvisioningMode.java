@@ -0,0 +1,27 @@
+package org.springframework.cloud.stream.binder.sqs.properties;
+
+/**
+ * How the binder provisions topics, queues and subscriptions of its bindings.
+ *
+ * @author Maciej Walkowiak
+ */
+public enum ProvisioningMode {
+
+    /**
+     * Topics, consumer queues and subscriptions are created on every startup. Creating an existing topic or queue
+     * with the same attributes succeeds without changing it.
+     */
+    ALWAYS,
+
+    /**
+     * Existing topics, queues and subscriptions are looked up and only missing ones are created. Attributes of
+     * existing queues and subscriptions are not updated.
+     */
+    IF_MISSING,
+
+    /**
+     * Existing topics, queues and subscriptions are looked up and binding fails when any of them is missing.
+     * Nothing is created, so the binder does not need permissions to create resources.
+     */
+    VERIFY_ONLY
+}
@@ -9,4 +9,332 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "spring.cloud.stream.sqs.binder")
 public class SqsBinderConfigurationProperties {
+
+    /**
+     * Payload store used by bindings with claim check enabled.
+     */
+    private ClaimCheckProperties claimCheck = new ClaimCheckProperties();
+
+    /**
+     * How topics, queues and subscriptions of bindings are provisioned.
+     */
+    private ProvisioningMode provisioningMode = ProvisioningMode.ALWAYS;
+
+    /**
+     * Whether the destinations of all bindings are provisioned in parallel when the binder is created,
+     * instead of one by one as the bindings are bound.
+     */
+    private boolean prepareDestinations = true;
+
+    /**
+     * Micrometer metrics of bindings.
+     */
+    private MetricsProperties metrics = new MetricsProperties();
+
+    /**
+     * Sampling of the backlog of consumer queues, exposed as gauges and health.
+     */
+    private BacklogProperties backlog = new BacklogProperties();
+
+    /**
+     * HTTP connection pool and executor of the SQS and SNS clients built by the binder.
+     */
+    private ClientProperties client = new ClientProperties();
+
+    /**
+     * Whether consumer receive loops and handlers, and the requests of the SQS and SNS clients built by the binder,
+     * run on virtual threads. Requires Java 21 or later, otherwise platform threads are used.
+     */
+    private boolean virtualThreads;
+
+    public ClaimCheckProperties getClaimCheck() {
+        return claimCheck;
+    }
+
+    public void setClaimCheck(ClaimCheckProperties claimCheck) {
+        this.claimCheck = claimCheck;
+    }
+
+    public ProvisioningMode getProvisioningMode() {
+        return provisioningMode;
+    }
+
+    public void setProvisioningMode(ProvisioningMode provisioningMode) {
+        this.provisioningMode = provisioningMode;
+    }
+
+    public boolean isPrepareDestinations() {
+        return prepareDestinations;
+    }
+
+    public void setPrepareDestinations(boolean prepareDestinations) {
+        this.prepareDestinations = prepareDestinations;
+    }
+
+    public MetricsProperties getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsProperties metrics) {
+        this.metrics = metrics;
+    }
+
+    public BacklogProperties getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(BacklogProperties backlog) {
+        this.backlog = backlog;
+    }
+
+    public ClientProperties getClient() {
+        return client;
+    }
+
+    public void setClient(ClientProperties client) {
+        this.client = client;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public static class ClaimCheckProperties {
+
+        /**
+         * S3 bucket payloads are stored in. When set, an S3 payload store is created unless
+         * a {@link org.springframework.cloud.stream.binder.sqs.payload.PayloadStore} bean is defined.
+         */
+        private String bucket;
+
+        /**
+         * Prefix of S3 object keys payloads are stored under.
+         */
+        private String keyPrefix = "";
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+
+    public static class MetricsProperties {
+
+        /**
+         * Whether bindings record metrics when a Micrometer {@code MeterRegistry} is available.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether timers and distribution summaries publish percentile histograms.
+         */
+        private boolean percentileHistogram;
+
+        /**
+         * Percentiles computed in the application, for example {@code 0.5,0.99}.
+         */
+        private double[] percentiles;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+
+        public double[] getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(double[] percentiles) {
+            this.percentiles = percentiles;
+        }
+    }
+
+    public static class BacklogProperties {
+
+        /**
+         * Whether the backlog of consumer queues is sampled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval in milliseconds between samples of each consumer queue.
+         */
+        private long sampleInterval = 30000;
+
+        /**
+         * Number of visible messages of a consumer queue above which the health is reported as down.
+         */
+        private Long maxVisibleMessages;
+
+        /**
+         * Age in milliseconds of the oldest message of a consumer queue above which the health is reported as down.
+         */
+        private Long maxAgeOfOldestMessage;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSampleInterval() {
+            return sampleInterval;
+        }
+
+        public void setSampleInterval(long sampleInterval) {
+            this.sampleInterval = sampleInterval;
+        }
+
+        public Long getMaxVisibleMessages() {
+            return maxVisibleMessages;
+        }
+
+        public void setMaxVisibleMessages(Long maxVisibleMessages) {
+            this.maxVisibleMessages = maxVisibleMessages;
+        }
+
+        public Long getMaxAgeOfOldestMessage() {
+            return maxAgeOfOldestMessage;
+        }
+
+        public void setMaxAgeOfOldestMessage(Long maxAgeOfOldestMessage) {
+            this.maxAgeOfOldestMessage = maxAgeOfOldestMessage;
+        }
+    }
+
+    public static class ClientProperties {
+
+        /**
+         * Maximum number of open HTTP connections of each client, {@code 50} by default.
+         */
+        private Integer maxConnections;
+
+        /**
+         * Timeout in milliseconds of establishing a connection.
+         */
+        private Integer connectionTimeout;
+
+        /**
+         * Time in milliseconds after which pooled connections are closed, regardless of their use; no limit by default.
+         */
+        private Long connectionTtl;
+
+        /**
+         * Whether TCP keep-alive is enabled on connections.
+         */
+        private boolean tcpKeepAlive;
+
+        /**
+         * Timeout in milliseconds of reading from a connection. Must be longer than the long polling wait time.
+         */
+        private Integer socketTimeout;
+
+        /**
+         * Timeout in milliseconds of a request, not including retries.
+         */
+        private Integer requestTimeout;
+
+        /**
+         * Number of threads of the executor running requests of each client, by default {@code maxConnections}.
+         * Ignored with virtual threads.
+         */
+        private Integer asyncExecutorThreads;
+
+        /**
+         * Whether responses are requested gzip compressed.
+         */
+        private boolean gzip;
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Integer getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Integer connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Long getConnectionTtl() {
+            return connectionTtl;
+        }
+
+        public void setConnectionTtl(Long connectionTtl) {
+            this.connectionTtl = connectionTtl;
+        }
+
+        public boolean isTcpKeepAlive() {
+            return tcpKeepAlive;
+        }
+
+        public void setTcpKeepAlive(boolean tcpKeepAlive) {
+            this.tcpKeepAlive = tcpKeepAlive;
+        }
+
+        public Integer getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public void setSocketTimeout(Integer socketTimeout) {
+            this.socketTimeout = socketTimeout;
+        }
+
+        public Integer getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Integer requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public Integer getAsyncExecutorThreads() {
+            return asyncExecutorThreads;
+        }
+
+        public void setAsyncExecutorThreads(Integer asyncExecutorThreads) {
+            this.asyncExecutorThreads = asyncExecutorThreads;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        public void setGzip(boolean gzip) {
+            this.gzip = gzip;
+        }
+    }
 }
@@ -5,7 +5,9 @@ import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.amazonaws.services.sqs.model.QueueAttributeName.ContentBasedDeduplication;
 import static com.amazonaws.services.sqs.model.QueueAttributeName.DelaySeconds;
+import static com.amazonaws.services.sqs.model.QueueAttributeName.FifoQueue;
 import static com.amazonaws.services.sqs.model.QueueAttributeName.MaximumMessageSize;
 import static com.amazonaws.services.sqs.model.QueueAttributeName.MessageRetentionPeriod;
 import static com.amazonaws.services.sqs.model.QueueAttributeName.Policy;
@@ -39,11 +41,113 @@ public class SqsConsumerProperties {
      */
     private long queueStopTimeout;
 
+    /**
+     * Whether the visibility timeout of messages is extended with {@code ChangeMessageVisibilityBatch} requests
+     * for as long as they are being handled. Allows a short {@code visibilityTimeout}, so messages of a crashed
+     * consumer are redelivered quickly, without slow messages being handled twice.
+     */
+    private boolean visibilityHeartbeat;
+
+    /**
+     * Number of threads handling received messages. The number of concurrent receive loops is set with
+     * the binding's {@code concurrency}. Defaults to {@code concurrency * maxNumberOfMessages}.
+     */
+    private Integer handlerPoolSize;
+
+    /**
+     * Whether the number of receive loops is adjusted between {@code minConcurrency} and the binding's
+     * {@code concurrency}, based on the approximate number of messages in the queue and handler latency.
+     */
+    private boolean adaptiveConcurrency;
+
+    /**
+     * Minimum number of receive loops when {@code adaptiveConcurrency} is enabled.
+     */
+    private int minConcurrency = 1;
+
+    /**
+     * Time in milliseconds between adjustments of the number of receive loops when {@code adaptiveConcurrency}
+     * is enabled.
+     */
+    private long adaptiveConcurrencyInterval = 5000;
+
     /**
      * {@link SqsMessageDeletionPolicy} on a messages coming from the SQS queue.
      */
     private SqsMessageDeletionPolicy messageDeletionPolicy;
 
+    /**
+     * Whether handled messages are deleted with {@code DeleteMessageBatch} requests of up to 10 messages
+     * instead of one {@code DeleteMessage} request per message.
+     */
+    private boolean deleteBatchingEnabled;
+
+    /**
+     * Maximum time in milliseconds a handled message waits for its deletion batch to fill up.
+     */
+    private long deleteBatchFlushInterval = 100;
+
+    /**
+     * Whether received messages are delivered in batches, as a single message with a {@link java.util.List} payload.
+     * Headers of each message are available in the {@code scst_sqsBatchHeaders} header. Handlers report failed
+     * messages with the {@code scst_sqsBatchAcknowledgment} header.
+     */
+    private boolean batchMode;
+
+    /**
+     * Maximum number of messages in a batch in {@code batchMode}.
+     */
+    private int batchMaxSize = 10;
+
+    /**
+     * Maximum time in milliseconds spent receiving further messages to fill a batch up to {@code batchMaxSize}
+     * in {@code batchMode}. When {@code 0}, the result of each receive is delivered as a batch.
+     */
+    private long batchTimeout;
+
+    /**
+     * Whether messages are received on demand with the asynchronous client instead of by poller threads:
+     * a receive is sent only once earlier messages have been handed over to the binding. Batch mode, delete batching,
+     * the visibility heartbeat and adaptive concurrency do not apply.
+     */
+    private boolean reactive;
+
+    /**
+     * Whether the SNS subscription delivers raw messages instead of wrapping them in the SNS JSON envelope.
+     * Message attributes are delivered as SQS message attributes.
+     */
+    private boolean rawMessageDelivery;
+
+    /**
+     * Whether compressed payloads are decompressed. When false, compressed payloads are delivered as {@code byte[]}
+     * and the compression algorithm can be read from the content encoding header.
+     */
+    private boolean decompression = true;
+
+    /**
+     * Whether payloads retrieved from the payload store are deleted from it once the message has been handled
+     * successfully.
+     */
+    private boolean deleteStoredPayloads;
+
+    /**
+     * Whether payloads stored in the payload store are delivered as a {@link org.springframework.core.io.Resource},
+     * retrieved only when its stream is read, instead of being read into memory when the message is received.
+     */
+    private boolean streamStoredPayloads;
+
+    /**
+     * How messages of a partitioned binding reach the queue of this instance's partition. Has to match
+     * the routing of the producer binding.
+     */
+    private PartitionRouting partitionRouting = PartitionRouting.FILTER_POLICY;
+
+    /**
+     * Patterns of the message attributes mapped to message headers. Patterns starting with {@code !} exclude
+     * attributes; the first matching pattern decides. Attributes of the binder are always mapped.
+     */
+    private String[] headerPatterns = {"*"};
+
     /**
      * Properties set on a queue during creation.
      */
@@ -81,6 +185,46 @@ public class SqsConsumerProperties {
         this.queueStopTimeout = queueStopTimeout;
     }
 
+    public boolean isVisibilityHeartbeat() {
+        return visibilityHeartbeat;
+    }
+
+    public void setVisibilityHeartbeat(boolean visibilityHeartbeat) {
+        this.visibilityHeartbeat = visibilityHeartbeat;
+    }
+
+    public Integer getHandlerPoolSize() {
+        return handlerPoolSize;
+    }
+
+    public void setHandlerPoolSize(Integer handlerPoolSize) {
+        this.handlerPoolSize = handlerPoolSize;
+    }
+
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+
+    public void setMinConcurrency(int minConcurrency) {
+        this.minConcurrency = minConcurrency;
+    }
+
+    public long getAdaptiveConcurrencyInterval() {
+        return adaptiveConcurrencyInterval;
+    }
+
+    public void setAdaptiveConcurrencyInterval(long adaptiveConcurrencyInterval) {
+        this.adaptiveConcurrencyInterval = adaptiveConcurrencyInterval;
+    }
+
     public SqsMessageDeletionPolicy getMessageDeletionPolicy() {
         return messageDeletionPolicy;
     }
@@ -89,6 +233,102 @@ public class SqsConsumerProperties {
         this.messageDeletionPolicy = messageDeletionPolicy;
     }
 
+    public boolean isDeleteBatchingEnabled() {
+        return deleteBatchingEnabled;
+    }
+
+    public void setDeleteBatchingEnabled(boolean deleteBatchingEnabled) {
+        this.deleteBatchingEnabled = deleteBatchingEnabled;
+    }
+
+    public long getDeleteBatchFlushInterval() {
+        return deleteBatchFlushInterval;
+    }
+
+    public void setDeleteBatchFlushInterval(long deleteBatchFlushInterval) {
+        this.deleteBatchFlushInterval = deleteBatchFlushInterval;
+    }
+
+    public boolean isBatchMode() {
+        return batchMode;
+    }
+
+    public void setBatchMode(boolean batchMode) {
+        this.batchMode = batchMode;
+    }
+
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public void setBatchMaxSize(int batchMaxSize) {
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public boolean isReactive() {
+        return reactive;
+    }
+
+    public void setReactive(boolean reactive) {
+        this.reactive = reactive;
+    }
+
+    public boolean isRawMessageDelivery() {
+        return rawMessageDelivery;
+    }
+
+    public void setRawMessageDelivery(boolean rawMessageDelivery) {
+        this.rawMessageDelivery = rawMessageDelivery;
+    }
+
+    public boolean isDecompression() {
+        return decompression;
+    }
+
+    public void setDecompression(boolean decompression) {
+        this.decompression = decompression;
+    }
+
+    public boolean isDeleteStoredPayloads() {
+        return deleteStoredPayloads;
+    }
+
+    public void setDeleteStoredPayloads(boolean deleteStoredPayloads) {
+        this.deleteStoredPayloads = deleteStoredPayloads;
+    }
+
+    public boolean isStreamStoredPayloads() {
+        return streamStoredPayloads;
+    }
+
+    public void setStreamStoredPayloads(boolean streamStoredPayloads) {
+        this.streamStoredPayloads = streamStoredPayloads;
+    }
+
+    public PartitionRouting getPartitionRouting() {
+        return partitionRouting;
+    }
+
+    public void setPartitionRouting(PartitionRouting partitionRouting) {
+        this.partitionRouting = partitionRouting;
+    }
+
+    public String[] getHeaderPatterns() {
+        return headerPatterns;
+    }
+
+    public void setHeaderPatterns(String[] headerPatterns) {
+        this.headerPatterns = headerPatterns;
+    }
+
     public QueueProperties getQueue() {
         return queue;
     }
@@ -104,6 +344,8 @@ public class SqsConsumerProperties {
         private String policy;
         private Integer receiveMessageWaitTimeSeconds;
         private Integer visibilityTimeout;
+        private boolean fifoQueue;
+        private Boolean contentBasedDeduplication;
 
         public Map<String, String> toQueueAttributes() {
             Map<String, String> attributes = new HashMap<>();
@@ -138,6 +380,15 @@ public class SqsConsumerProperties {
                                String.valueOf(this.getVisibilityTimeout()));
             }
 
+            if (this.isFifoQueue()) {
+                attributes.put(FifoQueue.toString(), "true");
+            }
+
+            if (this.getContentBasedDeduplication() != null) {
+                attributes.put(ContentBasedDeduplication.toString(),
+                               String.valueOf(this.getContentBasedDeduplication()));
+            }
+
             return attributes;
         }
 
@@ -188,5 +439,21 @@ public class SqsConsumerProperties {
         public void setVisibilityTimeout(Integer visibilityTimeout) {
             this.visibilityTimeout = visibilityTimeout;
         }
+
+        public boolean isFifoQueue() {
+            return fifoQueue;
+        }
+
+        public void setFifoQueue(boolean fifoQueue) {
+            this.fifoQueue = fifoQueue;
+        }
+
+        public Boolean getContentBasedDeduplication() {
+            return contentBasedDeduplication;
+        }
+
+        public void setContentBasedDeduplication(Boolean contentBasedDeduplication) {
+            this.contentBasedDeduplication = contentBasedDeduplication;
+        }
     }
 }
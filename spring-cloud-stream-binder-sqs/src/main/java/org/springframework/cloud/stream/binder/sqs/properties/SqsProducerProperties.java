@@ -6,4 +6,308 @@ package org.springframework.cloud.stream.binder.sqs.properties;
  * @author Maciej Walkowiak
  */
 public class SqsProducerProperties {
+
+    /**
+     * Whether outbound messages are collected and published with SNS {@code PublishBatch} requests.
+     */
+    private boolean batchingEnabled;
+
+    /**
+     * Maximum number of messages in a single {@code PublishBatch} request. SNS accepts at most 10.
+     */
+    private int batchSize = 10;
+
+    /**
+     * Maximum time in milliseconds a message waits for the batch to fill up before the batch is published.
+     */
+    private long batchLingerTime = 10;
+
+    /**
+     * Maximum total size in bytes of messages and their attributes in a single {@code PublishBatch} request.
+     * SNS accepts at most 256 KB.
+     */
+    private int batchMaxBytes = 256 * 1024;
+
+    /**
+     * Whether messages are published asynchronously. The sending thread does not wait for SNS to respond;
+     * failures are reported to the binding's error channel.
+     */
+    private boolean async;
+
+    /**
+     * Maximum number of messages published asynchronously that have not completed yet.
+     */
+    private int maxInFlight = 100;
+
+    /**
+     * Whether the sending thread blocks when {@code maxInFlight} is reached. When false, sending fails immediately.
+     */
+    private boolean blockWhenInFlightLimitReached = true;
+
+    /**
+     * Name of a {@link org.springframework.messaging.MessageChannel} bean receiving successfully published messages
+     * in {@code async} mode.
+     */
+    private String successChannel;
+
+    /**
+     * Whether messages are sent directly to the queue of the single required group instead of being published
+     * to the SNS topic, with {@code SendMessageBatch} requests when batching is enabled, to which the batching
+     * properties apply, or otherwise with a {@code SendMessage} request each.
+     */
+    private boolean directToQueue;
+
+    /**
+     * Properties set on the queue with {@code directToQueue} when the producer binds before the consumer created it.
+     * They should match the queue properties of the consumer binding, so that the queue is the same whichever binds first.
+     */
+    private SqsConsumerProperties.QueueProperties queue = new SqsConsumerProperties.QueueProperties();
+
+    /**
+     * Whether payloads are treated as binary data and sent Base64 encoded. Consumers decode such payloads
+     * back to {@code byte[]}. When false, payloads are sent as UTF-8 text.
+     */
+    private boolean binary;
+
+    /**
+     * Name of the compression algorithm applied to payloads, for example {@code gzip}, {@code lz4} or {@code zstd}.
+     * Compressed payloads are sent Base64 encoded. No compression when not set.
+     */
+    private String compression;
+
+    /**
+     * Minimum payload size in bytes for compression to be applied.
+     */
+    private int compressionThreshold = 1024;
+
+    /**
+     * Whether payloads larger than {@code claimCheckThreshold} are written to the binder's
+     * {@link org.springframework.cloud.stream.binder.sqs.payload.PayloadStore} and only a pointer to them is sent.
+     */
+    private boolean claimCheck;
+
+    /**
+     * Size in bytes, after compression, above which payloads are written to the payload store.
+     * The default leaves room for Base64 encoding and message attributes within the 256 KB message size limit.
+     */
+    private int claimCheckThreshold = 180 * 1024;
+
+    /**
+     * Whether the SNS topic, or the queue with {@code directToQueue}, is a FIFO topic or queue. The {@code .fifo}
+     * suffix is added to the name when missing. Messages of one message group keep their order only when they are
+     * not published with {@code async}.
+     */
+    private boolean fifo;
+
+    /**
+     * Whether a FIFO topic or queue deduplicates messages based on a hash of their body.
+     */
+    private boolean contentBasedDeduplication;
+
+    /**
+     * SpEL expression evaluated against the outbound message, resolving the FIFO message group id.
+     * When not set, the {@code scst_sqsMessageGroupId} header is used.
+     */
+    private String messageGroupIdExpression;
+
+    /**
+     * SpEL expression evaluated against the outbound message, resolving the FIFO message deduplication id.
+     * When not set, the {@code scst_sqsMessageDeduplicationId} header is used.
+     */
+    private String messageDeduplicationIdExpression;
+
+    /**
+     * How messages of a partitioned binding reach the queue of their partition. Consumer bindings have to use
+     * the same routing.
+     */
+    private PartitionRouting partitionRouting = PartitionRouting.FILTER_POLICY;
+
+    /**
+     * Patterns of the message headers sent as message attributes. Patterns starting with {@code !} exclude headers;
+     * the first matching pattern decides. SNS and SQS accept at most 10 attributes per message, so when more headers
+     * match, those matching earlier patterns are kept. Headers of the binder are always sent.
+     */
+    private String[] headerPatterns = {"*"};
+
+    /**
+     * Whether the time of publishing is sent in the {@code scst_sqsProducerTimestamp} attribute,
+     * used by consumers to record end-to-end latency.
+     */
+    private boolean producerTimestamp = true;
+
+    public boolean isBatchingEnabled() {
+        return batchingEnabled;
+    }
+
+    public void setBatchingEnabled(boolean batchingEnabled) {
+        this.batchingEnabled = batchingEnabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchLingerTime() {
+        return batchLingerTime;
+    }
+
+    public void setBatchLingerTime(long batchLingerTime) {
+        this.batchLingerTime = batchLingerTime;
+    }
+
+    public int getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    public void setBatchMaxBytes(int batchMaxBytes) {
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public boolean isBlockWhenInFlightLimitReached() {
+        return blockWhenInFlightLimitReached;
+    }
+
+    public void setBlockWhenInFlightLimitReached(boolean blockWhenInFlightLimitReached) {
+        this.blockWhenInFlightLimitReached = blockWhenInFlightLimitReached;
+    }
+
+    public String getSuccessChannel() {
+        return successChannel;
+    }
+
+    public void setSuccessChannel(String successChannel) {
+        this.successChannel = successChannel;
+    }
+
+    public boolean isDirectToQueue() {
+        return directToQueue;
+    }
+
+    public void setDirectToQueue(boolean directToQueue) {
+        this.directToQueue = directToQueue;
+    }
+
+    public SqsConsumerProperties.QueueProperties getQueue() {
+        return queue;
+    }
+
+    public void setQueue(SqsConsumerProperties.QueueProperties queue) {
+        this.queue = queue;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public boolean isClaimCheck() {
+        return claimCheck;
+    }
+
+    public void setClaimCheck(boolean claimCheck) {
+        this.claimCheck = claimCheck;
+    }
+
+    public int getClaimCheckThreshold() {
+        return claimCheckThreshold;
+    }
+
+    public void setClaimCheckThreshold(int claimCheckThreshold) {
+        this.claimCheckThreshold = claimCheckThreshold;
+    }
+
+    public boolean isFifo() {
+        return fifo;
+    }
+
+    public void setFifo(boolean fifo) {
+        this.fifo = fifo;
+    }
+
+    public boolean isContentBasedDeduplication() {
+        return contentBasedDeduplication;
+    }
+
+    public void setContentBasedDeduplication(boolean contentBasedDeduplication) {
+        this.contentBasedDeduplication = contentBasedDeduplication;
+    }
+
+    public String getMessageGroupIdExpression() {
+        return messageGroupIdExpression;
+    }
+
+    public void setMessageGroupIdExpression(String messageGroupIdExpression) {
+        this.messageGroupIdExpression = messageGroupIdExpression;
+    }
+
+    public String getMessageDeduplicationIdExpression() {
+        return messageDeduplicationIdExpression;
+    }
+
+    public void setMessageDeduplicationIdExpression(String messageDeduplicationIdExpression) {
+        this.messageDeduplicationIdExpression = messageDeduplicationIdExpression;
+    }
+
+    public PartitionRouting getPartitionRouting() {
+        return partitionRouting;
+    }
+
+    public void setPartitionRouting(PartitionRouting partitionRouting) {
+        this.partitionRouting = partitionRouting;
+    }
+
+    public String[] getHeaderPatterns() {
+        return headerPatterns;
+    }
+
+    public void setHeaderPatterns(String[] headerPatterns) {
+        this.headerPatterns = headerPatterns;
+    }
+
+    public boolean isProducerTimestamp() {
+        return producerTimestamp;
+    }
+
+    public void setProducerTimestamp(boolean producerTimestamp) {
+        this.producerTimestamp = producerTimestamp;
+    }
 }
@@ -2,6 +2,9 @@ package org.springframework.cloud.stream.binder.sqs.provisioning;
 
 import org.springframework.cloud.stream.provisioning.ProducerDestination;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * SQS specific implementation of {@link ProducerDestination}.
  *
@@ -10,10 +13,28 @@ import org.springframework.cloud.stream.provisioning.ProducerDestination;
 public class SqsProducerDestination implements ProducerDestination {
     private final String name;
     private final String topicArn;
+    private final String queueUrl;
+    private final List<SqsProducerDestination> partitions;
 
     public SqsProducerDestination(String name, String topicArn) {
+        this(name, topicArn, null);
+    }
+
+    public SqsProducerDestination(String name, String topicArn, String queueUrl) {
         this.name = name;
         this.topicArn = topicArn;
+        this.queueUrl = queueUrl;
+        this.partitions = Collections.emptyList();
+    }
+
+    /**
+     * @param partitions destinations messages of each partition are sent to, indexed by partition
+     */
+    public SqsProducerDestination(String name, List<SqsProducerDestination> partitions) {
+        this.name = name;
+        this.topicArn = null;
+        this.queueUrl = null;
+        this.partitions = partitions;
     }
 
     @Override
@@ -23,10 +44,25 @@ public class SqsProducerDestination implements ProducerDestination {
 
     @Override
     public String getNameForPartition(int partition) {
-        return name;
+        return partitions.isEmpty() ? name : partitions.get(partition).getName();
     }
 
     public String getTopicArn() {
         return topicArn;
     }
+
+    /**
+     * @return URL of the queue messages are sent to directly, or {@code null} when messages are published to SNS.
+     */
+    public String getQueueUrl() {
+        return queueUrl;
+    }
+
+    /**
+     * @return destinations of each partition with {@link org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting#TOPIC}
+     * or {@link org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting#QUEUE} routing, otherwise empty
+     */
+    public List<SqsProducerDestination> getPartitions() {
+        return partitions;
+    }
 }
@@ -1,70 +1,500 @@
 package org.springframework.cloud.stream.binder.sqs.provisioning;
 
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
 import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.CreateTopicRequest;
 import com.amazonaws.services.sns.model.CreateTopicResult;
+import com.amazonaws.services.sns.model.ListSubscriptionsByTopicResult;
+import com.amazonaws.services.sns.model.ListTopicsRequest;
+import com.amazonaws.services.sns.model.ListTopicsResult;
+import com.amazonaws.services.sns.model.SetSubscriptionAttributesRequest;
+import com.amazonaws.services.sns.model.SetSubscriptionAttributesResult;
+import com.amazonaws.services.sns.model.Subscription;
+import com.amazonaws.services.sns.model.Topic;
 import com.amazonaws.services.sns.util.Topics;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
 import com.amazonaws.services.sqs.model.CreateQueueRequest;
 import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.QueueDoesNotExistException;
 
-import org.springframework.cloud.stream.binder.BinderHeaders;
 import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
 import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
 import org.springframework.cloud.stream.provisioning.ConsumerDestination;
 import org.springframework.cloud.stream.provisioning.ProducerDestination;
 import org.springframework.cloud.stream.provisioning.ProvisioningException;
 import org.springframework.cloud.stream.provisioning.ProvisioningProvider;
+import org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting;
+import org.springframework.cloud.stream.binder.sqs.properties.ProvisioningMode;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * The {@link ProvisioningProvider} implementation for Amazon SQS. Provisions both SNS topics and SQS queues.
  *
+ * Independent requests, such as creating the queue and the topic of a consumer or the topics of each partition,
+ * are sent in parallel with the asynchronous clients. Destinations of several bindings are provisioned in parallel
+ * when they are prepared before being bound, see {@link #prepareConsumerDestination} and
+ * {@link #prepareProducerDestination}. Topic ARNs, queue URLs and subscriptions are cached by name and attributes,
+ * so bindings sharing a destination or a group provision it once. With {@link ProvisioningMode#IF_MISSING} and
+ * {@link ProvisioningMode#VERIFY_ONLY}, existing topics are read with a single listing shared by all bindings
+ * until {@link #refreshExistingTopics()}.
+ *
+ * Partitioned bindings route messages with a filter policy on a shared topic, through a topic per partition
+ * or directly to a queue per partition, depending on {@link PartitionRouting}.
+ *
+ * FIFO topics and queues get the {@code .fifo} suffix required by SNS and SQS added to their names when missing.
+ *
+ * Consumer queues are registered with the {@link QueueBacklogMonitor}, when set, to sample their backlog.
+ *
  * @author Maciej Walkowiak
  */
 public class SqsStreamProvisioner implements
                                   ProvisioningProvider<ExtendedConsumerProperties<SqsConsumerProperties>, ExtendedProducerProperties<SqsProducerProperties>> {
 
+    private static final String FIFO_SUFFIX = ".fifo";
+
     private final AmazonSQSAsync amazonSQSAsync;
     private final AmazonSNSAsync amazonSNSAsync;
+    private final Executor executor;
+
+    private final Map<String, CompletableFuture<String>> topicArns = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> queueUrls = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> subscriptions = new ConcurrentHashMap<>();
+    private CompletableFuture<Map<String, String>> existingTopicArns;
+
+    private ProvisioningMode provisioningMode = ProvisioningMode.ALWAYS;
+
+    private QueueBacklogMonitor backlogMonitor;
 
     public SqsStreamProvisioner(AmazonSQSAsync amazonSQSAsync, AmazonSNSAsync amazonSNSAsync) {
         this.amazonSQSAsync = amazonSQSAsync;
         this.amazonSNSAsync = amazonSNSAsync;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sqs-provisioning-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    public void setProvisioningMode(ProvisioningMode provisioningMode) {
+        this.provisioningMode = provisioningMode;
+    }
+
+    public void setBacklogMonitor(QueueBacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    /**
+     * Drops the listing of existing topics, so that topics created since it was read are found by
+     * the next bindings provisioned with {@link ProvisioningMode#IF_MISSING} or {@link ProvisioningMode#VERIFY_ONLY}.
+     */
+    public synchronized void refreshExistingTopics() {
+        this.existingTopicArns = null;
     }
 
     @Override
     public ProducerDestination provisionProducerDestination(String name,
                                                             ExtendedProducerProperties<SqsProducerProperties> properties) throws ProvisioningException {
+        return join(producerDestination(name, properties));
+    }
+
+    /**
+     * Starts provisioning the destination of a producer binding without waiting for it to complete, so that
+     * the destinations of several bindings are provisioned in parallel. Failures are reported when the destination
+     * is provisioned by its binding.
+     */
+    public void prepareProducerDestination(String name, ExtendedProducerProperties<SqsProducerProperties> properties) {
+        producerDestination(name, properties);
+    }
+
+    private CompletableFuture<SqsProducerDestination> producerDestination(String name,
+                                                                          ExtendedProducerProperties<SqsProducerProperties> properties) {
+        SqsProducerProperties extension = properties.getExtension();
+        PartitionRouting partitionRouting = properties.isPartitioned() ? extension.getPartitionRouting() : PartitionRouting.FILTER_POLICY;
+        if (extension.isDirectToQueue() || partitionRouting == PartitionRouting.QUEUE) {
+            return directProducerDestination(name, properties);
+        }
+
+        if (partitionRouting == PartitionRouting.TOPIC) {
+            List<String> partitionNames = new ArrayList<>(properties.getPartitionCount());
+            List<CompletableFuture<String>> partitionTopicArns = new ArrayList<>(properties.getPartitionCount());
+            for (int partition = 0; partition < properties.getPartitionCount(); partition++) {
+                String partitionName = partitionName(name, partition);
+                partitionNames.add(partitionName);
+                partitionTopicArns.add(topicArn(createTopicRequest(partitionName, extension.isFifo(), extension.isContentBasedDeduplication())));
+            }
+            return partitions(name, partitionNames, partitionTopicArns, SqsProducerDestination::new);
+        }
+
+        return topicArn(createTopicRequest(name, extension.isFifo(), extension.isContentBasedDeduplication()))
+                .thenApply(topicArn -> new SqsProducerDestination(name, topicArn));
+    }
+
+    /**
+     * Provisions the queue of the single required group, or the queues of each of its partitions
+     * when the binding is partitioned, with the queue properties of the producer when they do not exist yet.
+     */
+    private CompletableFuture<SqsProducerDestination> directProducerDestination(String name,
+                                                                                ExtendedProducerProperties<SqsProducerProperties> properties) {
+        String[] requiredGroups = properties.getRequiredGroups();
+        if (requiredGroups == null || requiredGroups.length != 1) {
+            throw new ProvisioningException("Sending directly to a queue requires exactly one required group for destination: " + name);
+        }
+
+        SqsProducerProperties extension = properties.getExtension();
+        Map<String, String> queueAttributes = extension.getQueue() != null ? extension.getQueue().toQueueAttributes() : new HashMap<>();
+        boolean fifo = extension.isFifo() || queueAttributes.containsKey(QueueAttributeName.FifoQueue.toString());
+        if (fifo) {
+            queueAttributes.put(QueueAttributeName.FifoQueue.toString(), "true");
+        }
+        if (extension.isContentBasedDeduplication()) {
+            queueAttributes.put(QueueAttributeName.ContentBasedDeduplication.toString(), "true");
+        }
+
+        if (properties.isPartitioned()) {
+            List<String> queueNames = new ArrayList<>(properties.getPartitionCount());
+            List<CompletableFuture<String>> partitionQueueUrls = new ArrayList<>(properties.getPartitionCount());
+            for (int partition = 0; partition < properties.getPartitionCount(); partition++) {
+                String queueName = partitionName(requiredGroups[0], partition);
+                queueNames.add(queueName);
+                partitionQueueUrls.add(queueUrl(fifo ? fifoName(queueName) : queueName, queueAttributes, true));
+            }
+            return partitions(name, queueNames, partitionQueueUrls, (queueName, queueUrl) -> new SqsProducerDestination(queueName, null, queueUrl));
+        }
+
+        String queueName = fifo ? fifoName(requiredGroups[0]) : requiredGroups[0];
+        return queueUrl(queueName, queueAttributes, true).thenApply(queueUrl -> new SqsProducerDestination(name, null, queueUrl));
+    }
 
-        CreateTopicResult createTopicResult = amazonSNSAsync.createTopic(name);
-        return new SqsProducerDestination(name, createTopicResult.getTopicArn());
+    private static CompletableFuture<SqsProducerDestination> partitions(String name, List<String> partitionNames,
+                                                                        List<CompletableFuture<String>> partitionResources,
+                                                                        BiFunction<String, String, SqsProducerDestination> partitionDestination) {
+        return CompletableFuture.allOf(partitionResources.toArray(new CompletableFuture<?>[0])).thenApply(provisioned -> {
+            List<SqsProducerDestination> partitions = new ArrayList<>(partitionNames.size());
+            for (int partition = 0; partition < partitionNames.size(); partition++) {
+                partitions.add(partitionDestination.apply(partitionNames.get(partition), partitionResources.get(partition).join()));
+            }
+            return new SqsProducerDestination(name, partitions);
+        });
     }
 
     @Override
     public ConsumerDestination provisionConsumerDestination(String name, String group,
                                                             ExtendedConsumerProperties<SqsConsumerProperties> properties) throws ProvisioningException {
+        String queueName = consumerQueueName(group, properties);
+        String queueUrl = join(consumerQueueUrl(name, queueName, properties));
+        registerBacklog(queueName, group, queueUrl);
+        return new SqsConsumerDestination(queueName);
+    }
+
+    /**
+     * Starts provisioning the destination of a consumer binding without waiting for it to complete, so that
+     * the destinations of several bindings are provisioned in parallel. Failures are reported when the destination
+     * is provisioned by its binding.
+     */
+    public void prepareConsumerDestination(String name, String group, ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        consumerQueueUrl(name, consumerQueueName(group, properties), properties);
+    }
 
-        String queueName = properties.isPartitioned() ? group + "-" + properties.getInstanceIndex() : group;
+    private static String consumerQueueName(String group, ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        String queueName = properties.isPartitioned() ? partitionName(group, properties.getInstanceIndex()) : group;
+        return isFifo(properties) ? fifoName(queueName) : queueName;
+    }
 
-        CreateQueueRequest createQueueRequest = new CreateQueueRequest(queueName)
-                .withAttributes(properties.getExtension().getQueue() != null ? properties.getExtension().getQueue().toQueueAttributes() : Collections.emptyMap());
-        CreateQueueResult createQueueResult = amazonSQSAsync.createQueue(createQueueRequest);
+    private static boolean isFifo(ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        return properties.getExtension().getQueue() != null && properties.getExtension().getQueue().isFifoQueue();
+    }
 
-        CreateTopicResult createTopicResult = amazonSNSAsync.createTopic(name);
-        String subscriptionArn = Topics.subscribeQueue(amazonSNSAsync,
-                                                       amazonSQSAsync,
-                                                       createTopicResult.getTopicArn(),
-                                                       createQueueResult.getQueueUrl());
+    /**
+     * @return the URL of the queue once it is subscribed to the topic of the binding, if any
+     */
+    private CompletableFuture<String> consumerQueueUrl(String name, String queueName,
+                                                       ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        CompletableFuture<String> queueUrl = queueUrl(queueName,
+                                                      properties.getExtension().getQueue() != null ? properties.getExtension().getQueue().toQueueAttributes() : Collections.emptyMap(),
+                                                      false);
 
-        if (properties.isPartitioned()) {
-            amazonSNSAsync.setSubscriptionAttributes(subscriptionArn,
-                                                     "FilterPolicy",
-                                                     "{\"" + BinderHeaders.PARTITION_HEADER + "\": [" + properties.getInstanceIndex() + "]}");
+        PartitionRouting partitionRouting = properties.isPartitioned() ? properties.getExtension().getPartitionRouting() : PartitionRouting.FILTER_POLICY;
+        if (partitionRouting == PartitionRouting.QUEUE) {
+            return queueUrl;
         }
 
-        return new SqsConsumerDestination(queueName);
+        String topicName = partitionRouting == PartitionRouting.TOPIC ? partitionName(name, properties.getInstanceIndex()) : name;
+        CompletableFuture<String> topicArn = topicArn(createTopicRequest(topicName, isFifo(properties), false));
+        Map<String, String> subscriptionAttributes = SubscriptionAttributes.of(partitionRouting, properties);
+        return topicArn.thenCombine(queueUrl, (arn, url) -> subscription(arn, url, subscriptionAttributes).thenApply(subscriptionArn -> url))
+                       .thenCompose(Function.identity());
+    }
+
+    private void registerBacklog(String queueName, String group, String queueUrl) {
+        if (this.backlogMonitor != null) {
+            this.backlogMonitor.register(queueName, group, queueUrl);
+        }
+    }
+
+    /**
+     * Subscribes the queue to the topic once per set of subscription attributes. Subscribing and looking up
+     * existing subscriptions block, so they run on the executor of the provisioner.
+     *
+     * With {@link ProvisioningMode#IF_MISSING}, attributes missing from an existing subscription or set to another
+     * value are set; with {@link ProvisioningMode#VERIFY_ONLY} such a subscription fails the binding instead.
+     *
+     * @return the ARN of the subscription
+     */
+    private CompletableFuture<String> subscription(String topicArn, String queueUrl, Map<String, String> attributes) {
+        return cached(this.subscriptions, cacheKey(topicArn + " " + queueUrl, attributes),
+                      () -> CompletableFuture.supplyAsync(() -> subscribe(topicArn, queueUrl, attributes), this.executor)
+                                             .thenCompose(Function.identity()));
+    }
+
+    private CompletableFuture<String> subscribe(String topicArn, String queueUrl, Map<String, String> attributes) {
+        String subscriptionArn = this.provisioningMode != ProvisioningMode.ALWAYS ? subscriptionArn(topicArn, queueUrl) : null;
+        Map<String, String> missingAttributes = attributes;
+        if (subscriptionArn != null) {
+            missingAttributes = SubscriptionAttributes.missing(attributes, amazonSNSAsync.getSubscriptionAttributes(subscriptionArn).getAttributes());
+            if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY && !missingAttributes.isEmpty()) {
+                return failed(new ProvisioningException("Subscription of queue " + queueUrl + " to topic " + topicArn
+                                                        + " does not have the attributes " + missingAttributes));
+            }
+        } else if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY) {
+            return failed(new ProvisioningException("Queue " + queueUrl + " is not subscribed to topic " + topicArn));
+        } else {
+            subscriptionArn = Topics.subscribeQueue(amazonSNSAsync,
+                                                    amazonSQSAsync,
+                                                    topicArn,
+                                                    queueUrl);
+        }
+
+        List<CompletableFuture<SetSubscriptionAttributesResult>> subscriptionAttributes = new ArrayList<>(missingAttributes.size());
+        for (Map.Entry<String, String> attribute : missingAttributes.entrySet()) {
+            subscriptionAttributes.add(setSubscriptionAttribute(subscriptionArn, attribute.getKey(), attribute.getValue()));
+        }
+        String subscribed = subscriptionArn;
+        return CompletableFuture.allOf(subscriptionAttributes.toArray(new CompletableFuture<?>[0]))
+                                .thenApply(done -> subscribed);
+    }
+
+    /**
+     * @return the ARN of the subscription of the queue to the topic, {@code null} when the queue is not subscribed
+     */
+    private String subscriptionArn(String topicArn, String queueUrl) {
+        String queueArn = amazonSQSAsync.getQueueAttributes(queueUrl, Collections.singletonList(QueueAttributeName.QueueArn.toString()))
+                                        .getAttributes()
+                                        .get(QueueAttributeName.QueueArn.toString());
+        String nextToken = null;
+        do {
+            ListSubscriptionsByTopicResult result = amazonSNSAsync.listSubscriptionsByTopic(topicArn, nextToken);
+            for (Subscription subscription : result.getSubscriptions()) {
+                if (queueArn.equals(subscription.getEndpoint())) {
+                    return subscription.getSubscriptionArn();
+                }
+            }
+            nextToken = result.getNextToken();
+        } while (nextToken != null);
+        return null;
+    }
+
+    private CompletableFuture<SetSubscriptionAttributesResult> setSubscriptionAttribute(String subscriptionArn, String name, String value) {
+        AsyncResult<SetSubscriptionAttributesRequest, SetSubscriptionAttributesResult> result = new AsyncResult<>();
+        amazonSNSAsync.setSubscriptionAttributesAsync(new SetSubscriptionAttributesRequest(subscriptionArn, name, value), result);
+        return result;
+    }
+
+    private CompletableFuture<String> topicArn(CreateTopicRequest createTopicRequest) {
+        String topicName = createTopicRequest.getName();
+        return cached(this.topicArns, cacheKey(topicName, createTopicRequest.getAttributes()), () -> {
+            if (this.provisioningMode == ProvisioningMode.ALWAYS) {
+                return createTopic(createTopicRequest);
+            }
+            return existingTopicArns().thenCompose(existingTopicArns -> {
+                String existingTopicArn = existingTopicArns.get(topicName);
+                if (existingTopicArn != null) {
+                    return CompletableFuture.completedFuture(existingTopicArn);
+                }
+                if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY) {
+                    return failed(new ProvisioningException("Topic " + topicName + " does not exist"));
+                }
+                return createTopic(createTopicRequest);
+            });
+        });
+    }
+
+    private CompletableFuture<String> createTopic(CreateTopicRequest createTopicRequest) {
+        AsyncResult<CreateTopicRequest, CreateTopicResult> result = new AsyncResult<>();
+        amazonSNSAsync.createTopicAsync(createTopicRequest, result);
+        return result.thenApply(CreateTopicResult::getTopicArn);
+    }
+
+    /**
+     * @param lookUp whether an existing queue is looked up before it is created, regardless of the provisioning
+     *               mode, so that a queue created with other attributes, for example by its consumer, is used as is
+     */
+    private CompletableFuture<String> queueUrl(String queueName, Map<String, String> queueAttributes, boolean lookUp) {
+        return cached(this.queueUrls, cacheKey(queueName, queueAttributes), () -> {
+            if (!lookUp && this.provisioningMode == ProvisioningMode.ALWAYS) {
+                return createQueue(queueName, queueAttributes);
+            }
+            AsyncResult<GetQueueUrlRequest, GetQueueUrlResult> existingQueue = new AsyncResult<>();
+            amazonSQSAsync.getQueueUrlAsync(new GetQueueUrlRequest(queueName), existingQueue);
+
+            CompletableFuture<String> queueUrl = new CompletableFuture<>();
+            existingQueue.whenComplete((result, exception) -> {
+                if (exception == null) {
+                    queueUrl.complete(result.getQueueUrl());
+                } else if (!(exception instanceof QueueDoesNotExistException)) {
+                    queueUrl.completeExceptionally(exception);
+                } else if (this.provisioningMode == ProvisioningMode.VERIFY_ONLY) {
+                    queueUrl.completeExceptionally(new ProvisioningException("Queue " + queueName + " does not exist"));
+                } else {
+                    createQueue(queueName, queueAttributes).whenComplete((createdQueueUrl, createException) -> {
+                        if (createException == null) {
+                            queueUrl.complete(createdQueueUrl);
+                        } else {
+                            queueUrl.completeExceptionally(createException);
+                        }
+                    });
+                }
+            });
+            return queueUrl;
+        });
+    }
+
+    private CompletableFuture<String> createQueue(String queueName, Map<String, String> queueAttributes) {
+        AsyncResult<CreateQueueRequest, CreateQueueResult> result = new AsyncResult<>();
+        amazonSQSAsync.createQueueAsync(new CreateQueueRequest(queueName).withAttributes(queueAttributes), result);
+        return result.thenApply(CreateQueueResult::getQueueUrl);
+    }
+
+    /**
+     * @return ARNs of all topics existing when first called after creation or {@link #refreshExistingTopics()},
+     * by topic name
+     */
+    private synchronized CompletableFuture<Map<String, String>> existingTopicArns() {
+        CompletableFuture<Map<String, String>> topics = this.existingTopicArns;
+        if (topics == null) {
+            CompletableFuture<Map<String, String>> listing = listTopics(new HashMap<>(), null);
+            this.existingTopicArns = listing;
+            listing.whenComplete((result, exception) -> {
+                if (exception != null) {
+                    clearExistingTopics(listing);
+                }
+            });
+            topics = listing;
+        }
+        return topics;
+    }
+
+    private synchronized void clearExistingTopics(CompletableFuture<Map<String, String>> listing) {
+        if (this.existingTopicArns == listing) {
+            this.existingTopicArns = null;
+        }
+    }
+
+    private CompletableFuture<Map<String, String>> listTopics(Map<String, String> topics, String nextToken) {
+        AsyncResult<ListTopicsRequest, ListTopicsResult> result = new AsyncResult<>();
+        amazonSNSAsync.listTopicsAsync(new ListTopicsRequest(nextToken), result);
+        return result.thenCompose(page -> {
+            for (Topic topic : page.getTopics()) {
+                topics.put(topic.getTopicArn().substring(topic.getTopicArn().lastIndexOf(':') + 1), topic.getTopicArn());
+            }
+            return page.getNextToken() != null ? listTopics(topics, page.getNextToken()) : CompletableFuture.completedFuture(topics);
+        });
+    }
+
+    /**
+     * Provisions a resource once per cache key. Failed provisioning is removed from the cache, so it is retried
+     * by the next binding.
+     */
+    private static CompletableFuture<String> cached(Map<String, CompletableFuture<String>> cache, String key,
+                                                    Supplier<CompletableFuture<String>> provisioning) {
+        CompletableFuture<String> future = cache.computeIfAbsent(key, provisioned -> provisioning.get());
+        future.whenComplete((result, exception) -> {
+            if (exception != null) {
+                cache.remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Resources are cached by name and the attributes they are provisioned with, so that a binding requesting
+     * other attributes than a previous one provisions the resource again and gets the error of AWS about
+     * the conflict, instead of silently sharing a resource configured differently.
+     */
+    private static String cacheKey(String name, Map<String, String> attributes) {
+        return attributes.isEmpty() ? name : name + new TreeMap<>(attributes);
+    }
+
+    private static <T> CompletableFuture<T> failed(Exception exception) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ProvisioningException) {
+                throw (ProvisioningException) e.getCause();
+            }
+            throw new ProvisioningException("Provisioning failed", e.getCause());
+        }
+    }
+
+    private CreateTopicRequest createTopicRequest(String name, boolean fifo, boolean contentBasedDeduplication) {
+        if (!fifo) {
+            return new CreateTopicRequest(name);
+        }
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("FifoTopic", "true");
+        if (contentBasedDeduplication) {
+            attributes.put("ContentBasedDeduplication", "true");
+        }
+        return new CreateTopicRequest(fifoName(name)).withAttributes(attributes);
+    }
+
+    private static String partitionName(String name, int partition) {
+        return name + "-" + partition;
+    }
+
+    private static String fifoName(String name) {
+        return name.endsWith(FIFO_SUFFIX) ? name : name + FIFO_SUFFIX;
+    }
+
+    /**
+     * Completes with the result of an asynchronous AWS request.
+     */
+    private static class AsyncResult<REQUEST extends AmazonWebServiceRequest, RESULT> extends CompletableFuture<RESULT>
+            implements AsyncHandler<REQUEST, RESULT> {
+
+        @Override
+        public void onError(Exception exception) {
+            completeExceptionally(exception);
+        }
+
+        @Override
+        public void onSuccess(REQUEST request, RESULT result) {
+            complete(result);
+        }
     }
 }
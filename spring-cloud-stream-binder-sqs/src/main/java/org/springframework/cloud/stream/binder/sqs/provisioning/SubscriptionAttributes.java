@@ -0,0 +1,53 @@
+package org.springframework.cloud.stream.binder.sqs.provisioning;
+
+import org.springframework.cloud.stream.binder.BinderHeaders;
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Attributes of the subscription of a consumer queue to its topic: {@code RawMessageDelivery} and the
+ * {@code FilterPolicy} selecting the partition of the consumer.
+ *
+ * @author Maciej Walkowiak
+ */
+public final class SubscriptionAttributes {
+
+    private SubscriptionAttributes() {
+    }
+
+    public static Map<String, String> of(PartitionRouting partitionRouting, ExtendedConsumerProperties<SqsConsumerProperties> properties) {
+        Map<String, String> attributes = new HashMap<>();
+        if (properties.getExtension().isRawMessageDelivery()) {
+            attributes.put("RawMessageDelivery", "true");
+        }
+        if (partitionRouting == PartitionRouting.FILTER_POLICY && properties.isPartitioned()) {
+            attributes.put("FilterPolicy", "{\"" + BinderHeaders.PARTITION_HEADER + "\": [" + properties.getInstanceIndex() + "]}");
+        }
+        return attributes;
+    }
+
+    /**
+     * Compares attributes ignoring whitespace, as SNS may return a filter policy formatted differently.
+     *
+     * @return the attributes absent from the existing attributes of a subscription or set to another value
+     */
+    public static Map<String, String> missing(Map<String, String> attributes, Map<String, String> existingAttributes) {
+        Map<String, String> missingAttributes = new TreeMap<>();
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            String existingValue = existingAttributes.get(attribute.getKey());
+            if (existingValue == null || !withoutWhitespace(existingValue).equals(withoutWhitespace(attribute.getValue()))) {
+                missingAttributes.put(attribute.getKey(), attribute.getValue());
+            }
+        }
+        return missingAttributes;
+    }
+
+    private static String withoutWhitespace(String value) {
+        return value.replaceAll("\\s", "");
+    }
+}
@@ -0,0 +1,33 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyTest {
+
+    private final AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency(1, 16, 160, 10, 1000);
+
+    @Test
+    public void doublesPollersWhileBacklogCannotBeReceivedWithinInterval() {
+        adaptiveConcurrency.recordReceiveLatency(100);
+
+        assertThat(adaptiveConcurrency.pollers(10_000, 1)).isEqualTo(2);
+        assertThat(adaptiveConcurrency.pollers(10_000, 2)).isEqualTo(4);
+        assertThat(adaptiveConcurrency.pollers(10_000, 16)).isEqualTo(16);
+    }
+
+    @Test
+    public void removesOnePollerPerIntervalWhenQueueIsEmpty() {
+        assertThat(adaptiveConcurrency.pollers(0, 8)).isEqualTo(7);
+        assertThat(adaptiveConcurrency.pollers(0, 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotAddPollersHandlersCannotKeepUpWith() {
+        adaptiveConcurrency.recordReceiveLatency(100);
+        adaptiveConcurrency.recordHandlerLatency(5000);
+
+        assertThat(adaptiveConcurrency.pollers(10_000, 4)).isEqualTo(3);
+    }
+}
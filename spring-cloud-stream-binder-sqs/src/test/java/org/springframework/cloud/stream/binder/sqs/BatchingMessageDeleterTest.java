@@ -0,0 +1,97 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BatchingMessageDeleterTest {
+
+    private AmazonSQSAsync sqs;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private BatchingMessageDeleter deleter;
+    private final List<String> failOnce = new ArrayList<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        this.sqs = mock(AmazonSQSAsync.class);
+        doAnswer(invocation -> {
+            DeleteMessageBatchRequest request = invocation.getArgument(0);
+            AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> handler = invocation.getArgument(1);
+            DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+            for (DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+                if (failOnce.remove(entry.getReceiptHandle())) {
+                    result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withSenderFault(false));
+                } else {
+                    result.withSuccessful(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+                }
+            }
+            handler.onSuccess(request, result);
+            return null;
+        }).when(sqs).deleteMessageBatchAsync(any(DeleteMessageBatchRequest.class), any(AsyncHandler.class));
+
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.initialize();
+        this.deleter = new BatchingMessageDeleter(sqs, "queue-url", taskScheduler, 60_000);
+        this.deleter.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.taskScheduler.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deletesWhenBatchIsFull() {
+        for (int i = 0; i < 9; i++) {
+            deleter.delete("receipt-" + i);
+        }
+        verify(sqs, never()).deleteMessageBatchAsync(any(DeleteMessageBatchRequest.class), any(AsyncHandler.class));
+
+        CompletableFuture<Void> last = deleter.delete("receipt-9");
+
+        ArgumentCaptor<DeleteMessageBatchRequest> request = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqs).deleteMessageBatchAsync(request.capture(), any(AsyncHandler.class));
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue-url");
+        assertThat(request.getValue().getEntries()).hasSize(10);
+        assertThat(last).isCompleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void retriesFailedEntriesAndFlushesOnStop() throws Exception {
+        failOnce.add("receipt-1");
+        CompletableFuture<Void> first = deleter.delete("receipt-0");
+        CompletableFuture<Void> second = deleter.delete("receipt-1");
+
+        assertThat(deleter.stop(5000)).isTrue();
+
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+        verify(sqs, times(2)).deleteMessageBatchAsync(any(DeleteMessageBatchRequest.class), any(AsyncHandler.class));
+    }
+}
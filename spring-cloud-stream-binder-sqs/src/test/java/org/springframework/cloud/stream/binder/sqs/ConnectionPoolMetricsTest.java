@@ -0,0 +1,57 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.AWSRequestMetricsFullSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionPoolMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestMetricCollector collector = new SqsBinderMetrics(meterRegistry).connectionPool("sqs", 50);
+
+    @Test
+    public void registersPoolSize() {
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_MAX)).isEqualTo(50);
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_LEASED)).isZero();
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_PENDING)).isZero();
+    }
+
+    @Test
+    public void recordsCountersOfLastRequest() {
+        collector.collectMetrics(request(3, 1), null);
+        collector.collectMetrics(request(5, 2), null);
+
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_LEASED)).isEqualTo(5);
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_PENDING)).isEqualTo(2);
+    }
+
+    @Test
+    public void keepsCountersWhenRequestRecordedNone() {
+        collector.collectMetrics(request(3, 1), null);
+        DefaultRequest<?> request = new DefaultRequest<>("sqs");
+        request.setAWSRequestMetrics(new AWSRequestMetricsFullSupport());
+        collector.collectMetrics(request, null);
+
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_LEASED)).isEqualTo(3);
+        assertThat(gauge(SqsBinderMetrics.CLIENT_CONNECTIONS_PENDING)).isEqualTo(1);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("client", "sqs").gauge().value();
+    }
+
+    private static DefaultRequest<?> request(int leased, int pending) {
+        AWSRequestMetrics metrics = new AWSRequestMetricsFullSupport();
+        metrics.setCounter(AWSRequestMetrics.Field.HttpClientPoolLeasedCount, leased);
+        metrics.setCounter(AWSRequestMetrics.Field.HttpClientPoolPendingCount, pending);
+        DefaultRequest<?> request = new DefaultRequest<>("sqs");
+        request.setAWSRequestMetrics(metrics);
+        return request;
+    }
+}
@@ -0,0 +1,26 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsumerMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqsBinderMetrics metrics = new SqsBinderMetrics(meterRegistry);
+
+    @Test
+    public void reportsInFlightOfBindingBoundAgain() {
+        ConsumerMetrics first = metrics.consumer("queue", "group");
+        first.received(System.nanoTime(), 3);
+        first.completed(3);
+
+        ConsumerMetrics second = metrics.consumer("queue", "group");
+        second.received(System.nanoTime(), 2);
+
+        assertThat(meterRegistry.get(SqsBinderMetrics.CONSUMER_IN_FLIGHT).tags("queue", "queue", "group", "group").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get(SqsBinderMetrics.CONSUMER_RECEIVE_MESSAGES).summary().totalAmount()).isEqualTo(5);
+    }
+}
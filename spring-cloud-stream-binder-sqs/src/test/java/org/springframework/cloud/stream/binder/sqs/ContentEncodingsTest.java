@@ -0,0 +1,26 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.junit.Test;
+
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContentEncodingsTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void encodesPayloadsOfAnySize() {
+        for (int size : new int[] {0, 1, 100, 8192, 100_000, ContentEncodings.MAX_RETAINED_BUFFER_SIZE, 1024 * 1024, 100}) {
+            byte[] payload = new byte[size];
+            random.nextBytes(payload);
+
+            String encoded = ContentEncodings.encodeBase64(payload);
+
+            assertThat(encoded).isEqualTo(Base64.getEncoder().encodeToString(payload));
+            assertThat(ContentEncodings.decodeBase64(encoded)).isEqualTo(payload);
+        }
+    }
+}
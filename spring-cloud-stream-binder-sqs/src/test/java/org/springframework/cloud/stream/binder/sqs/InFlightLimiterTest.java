@@ -0,0 +1,61 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.junit.Test;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InFlightLimiterTest {
+
+    @Test
+    public void rejectsMessagesOverLimitWhenNotBlocking() {
+        InFlightLimiter limiter = new InFlightLimiter(2, false);
+
+        limiter.acquire(MessageBuilder.withPayload("a").build());
+        limiter.acquire(MessageBuilder.withPayload("b").build());
+
+        assertThatThrownBy(() -> limiter.acquire(MessageBuilder.withPayload("c").build()))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("(2)");
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release();
+        limiter.acquire(MessageBuilder.withPayload("c").build());
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void blocksUntilPermitIsReleased() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(1, true);
+        limiter.acquire(MessageBuilder.withPayload("a").build());
+
+        CompletableFuture<Void> acquired = CompletableFuture.runAsync(() -> limiter.acquire(MessageBuilder.withPayload("b").build()));
+        Thread.sleep(100);
+        assertThat(acquired).isNotDone();
+
+        limiter.release();
+        acquired.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    public void throwsWhenInterruptedWhileBlocked() {
+        InFlightLimiter limiter = new InFlightLimiter(1, true);
+        limiter.acquire(MessageBuilder.withPayload("a").build());
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> limiter.acquire(MessageBuilder.withPayload("b").build()))
+                    .isInstanceOf(MessageDeliveryException.class)
+                    .hasCauseInstanceOf(InterruptedException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -1,34 +1,46 @@
 package org.springframework.cloud.stream.binder.sqs;
 
-import com.amazonaws.auth.AWSCredentialsProvider;
-import com.amazonaws.client.builder.AwsClientBuilder;
-import com.amazonaws.services.sns.AmazonSNS;
-import com.amazonaws.services.sns.AmazonSNSClientBuilder;
-import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.AmazonSNSAsyncClientBuilder;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
 import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
 
 import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySns;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySqs;
 import org.testcontainers.containers.localstack.LocalStackContainer;
 import org.testcontainers.containers.localstack.LocalStackContainer.Service;
 
 /**
- * Creates local SQS with TestContainers and deletes all queues when finished.
+ * Provides local SQS and SNS and deletes all queues and topics when finished.
+ *
+ * By default tests run against the in-memory {@link InMemorySqs} and {@link InMemorySns}. Running with
+ * {@code -Dsqs.binder.localstack=true} starts LocalStack with TestContainers instead.
  *
  * @author Maciej Walkowiak
  */
 public class LocalAwsResource extends TestWatcher {
 
-    private LocalStackContainer localstack = new LocalStackContainer().withServices(Service.SQS,
-                                                                                    Service.SNS);
+    private static final boolean LOCALSTACK = Boolean.getBoolean("sqs.binder.localstack");
+
+    private LocalStackContainer localstack;
+    private InMemorySqs inMemorySqs;
+    private InMemorySns inMemorySns;
 
-    private AmazonSQS sqsClient;
-    private AmazonSNS snsClient;
+    private AmazonSQSAsync sqsClient;
+    private AmazonSNSAsync snsClient;
 
 
     @Override
     protected void starting(Description description) {
-        this.localstack.start();
+        if (LOCALSTACK) {
+            this.localstack = new LocalStackContainer().withServices(Service.SQS, Service.SNS);
+            this.localstack.start();
+        } else {
+            this.inMemorySqs = new InMemorySqs();
+            this.inMemorySns = new InMemorySns(this.inMemorySqs);
+        }
         this.sqsClient = createSqsClient();
         this.snsClient = createSnsClient();
     }
@@ -41,26 +53,35 @@ public class LocalAwsResource extends TestWatcher {
         snsClient.listTopics()
                  .getTopics()
                  .forEach(topic -> snsClient.deleteTopic(topic.getTopicArn()));
-        localstack.stop();
-    }
-
-    public AwsClientBuilder.EndpointConfiguration getEndpoint(Service service) {
-        return localstack.getEndpointConfiguration(service);
-    }
-
-    public AWSCredentialsProvider getCredentialsProvider() {
-        return localstack.getDefaultCredentialsProvider();
+        if (localstack != null) {
+            localstack.stop();
+        } else {
+            inMemorySns.shutdown();
+            inMemorySqs.shutdown();
+        }
     }
 
-    private AmazonSQS createSqsClient() {
+    /**
+     * @return SQS client for the local SQS, shared by all callers when running in-memory
+     */
+    public AmazonSQSAsync createSqsClient() {
+        if (localstack == null) {
+            return inMemorySqs;
+        }
         AmazonSQSAsyncClientBuilder builder = AmazonSQSAsyncClientBuilder.standard();
         builder.setEndpointConfiguration(localstack.getEndpointConfiguration(Service.SQS));
         builder.setCredentials(localstack.getDefaultCredentialsProvider());
         return builder.build();
     }
 
-    private AmazonSNS createSnsClient() {
-        AmazonSNSClientBuilder builder = AmazonSNSClientBuilder.standard();
+    /**
+     * @return SNS client for the local SNS, shared by all callers when running in-memory
+     */
+    public AmazonSNSAsync createSnsClient() {
+        if (localstack == null) {
+            return inMemorySns;
+        }
+        AmazonSNSAsyncClientBuilder builder = AmazonSNSAsyncClientBuilder.standard();
         builder.setEndpointConfiguration(localstack.getEndpointConfiguration(Service.SNS));
         builder.setCredentials(localstack.getDefaultCredentialsProvider());
         return builder.build();
@@ -0,0 +1,93 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+
+import org.junit.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class MessageAttributesMapperTest {
+
+    private final MessageAttributesMapper mapper = new MessageAttributesMapper();
+
+    @Test
+    public void mapsHeadersMatchingPatterns() {
+        mapper.setHeaderFilter(new HeaderFilter("!internal*", "*"));
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("traceparent", "00-trace-span-01");
+        headers.put("internalState", "skipped");
+        headers.put("retries", 3);
+        headers.put(SqsBinderHeaders.CONTENT_ENCODING, "gzip");
+
+        Map<String, MessageAttributeValue> attributes = mapper.toSnsAttributes(new MessageHeaders(headers));
+
+        assertThat(attributes).containsOnlyKeys("traceparent", "retries", SqsBinderHeaders.CONTENT_ENCODING);
+        assertThat(attributes.get("retries").getDataType()).isEqualTo("Number.java.lang.Integer");
+    }
+
+    @Test
+    public void keepsBinderHeadersAndEarlierPatternsWithinAttributeLimit() {
+        mapper.setHeaderFilter(new HeaderFilter("b3", "*"));
+        mapper.setProducerTimestamp(true);
+        Map<String, Object> headers = new HashMap<>();
+        for (int i = 0; i < 12; i++) {
+            headers.put("custom" + i, "value");
+        }
+        headers.put("b3", "trace-span-1");
+        headers.put(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON);
+        headers.put(SqsBinderHeaders.CLAIM_CHECK, "pointer");
+
+        Map<String, MessageAttributeValue> attributes = mapper.toSnsAttributes(new MessageHeaders(headers));
+
+        assertThat(attributes).hasSize(MessageAttributesMapper.MAX_ATTRIBUTES);
+        assertThat(attributes).containsKeys(SqsBinderHeaders.PRODUCER_TIMESTAMP, SqsBinderHeaders.CLAIM_CHECK,
+                                            MessageHeaders.CONTENT_TYPE, "b3");
+        assertThat(Long.parseLong(attributes.get(SqsBinderHeaders.PRODUCER_TIMESTAMP).getStringValue()))
+                .isCloseTo(System.currentTimeMillis(), within(10000L));
+    }
+
+    @Test
+    public void sizesSnsAndSqsAttributesAlike() {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("name", "välue");
+        headers.put("binary", new byte[] {1, 2, 3});
+        MessageHeaders messageHeaders = new MessageHeaders(headers);
+
+        int snsSize = MessageAttributesMapper.sizeOf("bödy", mapper.toSnsAttributes(messageHeaders));
+        int sqsSize = MessageAttributesMapper.sizeOf("bödy", mapper.toSqsAttributes(messageHeaders));
+
+        assertThat(snsSize).isEqualTo(sqsSize)
+                           .isEqualTo("bödy".length() + 1 + "name".length() + "String".length() + "välue".length() + 1
+                                      + "binary".length() + "Binary".length() + 3);
+    }
+
+    @Test
+    public void keepsRawMessageAttributeWithinAttributeLimit() {
+        mapper.setRawMessage(true);
+        mapper.setProducerTimestamp(true);
+        Map<String, Object> headers = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            headers.put("custom" + i, "value");
+        }
+
+        Map<String, com.amazonaws.services.sqs.model.MessageAttributeValue> attributes = mapper.toSqsAttributes(new MessageHeaders(headers));
+
+        assertThat(attributes).hasSize(MessageAttributesMapper.MAX_ATTRIBUTES)
+                              .containsKeys(SqsBinderHeaders.RAW_MESSAGE, SqsBinderHeaders.PRODUCER_TIMESTAMP);
+        assertThat(attributes.get(SqsBinderHeaders.RAW_MESSAGE).getStringValue()).isEqualTo("true");
+    }
+
+    @Test
+    public void doesNotCopyRawMessageHeaderOfReceivedMessage() {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(SqsBinderHeaders.RAW_MESSAGE, "true");
+
+        assertThat(mapper.toSnsAttributes(new MessageHeaders(headers))).doesNotContainKey(SqsBinderHeaders.RAW_MESSAGE);
+    }
+}
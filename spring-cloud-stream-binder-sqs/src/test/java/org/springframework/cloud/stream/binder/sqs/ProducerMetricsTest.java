@@ -0,0 +1,60 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.Test;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProducerMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqsBinderMetrics metrics = new SqsBinderMetrics(meterRegistry);
+
+    @Test
+    public void recordsPublishesBatchesAndMessages() {
+        ProducerMetrics producerMetrics = metrics.producer("topic");
+
+        producerMetrics.published(System.nanoTime(), true);
+        producerMetrics.published(System.nanoTime(), false);
+        producerMetrics.batch(7);
+        producerMetrics.completed();
+        producerMetrics.completed();
+        producerMetrics.failed();
+
+        assertThat(meterRegistry.get(SqsBinderMetrics.PRODUCER_PUBLISH).tags("destination", "topic", "result", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SqsBinderMetrics.PRODUCER_PUBLISH).tags("destination", "topic", "result", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SqsBinderMetrics.PRODUCER_BATCH_SIZE).tag("destination", "topic").summary().totalAmount()).isEqualTo(7);
+        assertThat(meterRegistry.get(SqsBinderMetrics.PRODUCER_MESSAGES).tags("result", "success").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(SqsBinderMetrics.PRODUCER_MESSAGES).tags("result", "failure").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void sharesMetersOfDestinationBoundAgain() {
+        metrics.producer("topic").completed();
+        metrics.producer("topic").completed();
+
+        assertThat(meterRegistry.get(SqsBinderMetrics.PRODUCER_MESSAGES).tags("result", "success").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void reportsInFlightOfLimiterOfDestinationBoundAgain() {
+        InFlightLimiter first = new InFlightLimiter(10, false);
+        metrics.producerInFlight("topic", first);
+        first.acquire(MessageBuilder.withPayload("a").build());
+
+        assertThat(inFlight()).isEqualTo(1);
+
+        InFlightLimiter second = new InFlightLimiter(10, false);
+        metrics.producerInFlight("topic", second);
+        second.acquire(MessageBuilder.withPayload("b").build());
+        second.acquire(MessageBuilder.withPayload("c").build());
+
+        assertThat(inFlight()).isEqualTo(2);
+    }
+
+    private double inFlight() {
+        return meterRegistry.get(SqsBinderMetrics.PRODUCER_IN_FLIGHT).tag("destination", "topic").gauge().value();
+    }
+}
@@ -0,0 +1,105 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ReactiveSnsPublisherTest {
+
+    private final List<AsyncHandler<PublishRequest, PublishResult>> inFlight = new CopyOnWriteArrayList<>();
+
+    private AmazonSNSAsync sns;
+    private ReactiveSnsPublisher publisher;
+
+    @Before
+    public void setup() {
+        this.sns = mock(AmazonSNSAsync.class);
+        doAnswer(invocation -> {
+            inFlight.add(invocation.getArgument(1));
+            return null;
+        }).when(sns).publishAsync(any(PublishRequest.class), any());
+        this.publisher = new ReactiveSnsPublisher(sns, "topic-arn");
+    }
+
+    @Test
+    public void publishesNoMoreThanMaxInFlightMessagesAtOnce() {
+        publisher.setMaxInFlight(2);
+        List<Message<?>> published = new CopyOnWriteArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        publisher.publish(Flux.range(0, 3).map(i -> MessageBuilder.withPayload("message-" + i).build()))
+                 .subscribe(published::add, null, () -> completed.set(true));
+        assertThat(inFlight).hasSize(2);
+
+        complete(0, "id-0");
+        assertThat(published).extracting(message -> message.getHeaders().get(AwsHeaders.MESSAGE_ID)).containsExactly("id-0");
+        assertThat(inFlight).hasSize(3);
+
+        complete(1, "id-1");
+        complete(2, "id-2");
+        assertThat(published).hasSize(3);
+        assertThat(completed).isTrue();
+    }
+
+    @Test
+    public void mapsFailuresToMessageDeliveryException() {
+        Message<String> message = MessageBuilder.withPayload("a").build();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        publisher.publish(message).subscribe(null, error::set);
+        inFlight.get(0).onError(new IllegalStateException("throttled"));
+
+        assertThat(error.get()).isInstanceOf(MessageDeliveryException.class)
+                               .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(((MessageDeliveryException) error.get()).getFailedMessage()).isSameAs(message);
+    }
+
+    @Test
+    public void mapsRejectedPublishesToMessageDeliveryException() {
+        doThrow(new IllegalStateException("executor shut down")).when(sns).publishAsync(any(PublishRequest.class), any());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        publisher.publish(MessageBuilder.withPayload("a").build()).subscribe(null, error::set);
+
+        assertThat(error.get()).isInstanceOf(MessageDeliveryException.class)
+                               .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void sendsHeadersAsMessageAttributes() {
+        publisher.publish(MessageBuilder.withPayload("a").setHeader("attribute", "value").build()).subscribe();
+
+        ArgumentCaptor<PublishRequest> request = ArgumentCaptor.forClass(PublishRequest.class);
+        verify(sns).publishAsync(request.capture(), any());
+        assertThat(request.getValue().getTopicArn()).isEqualTo("topic-arn");
+        assertThat(request.getValue().getMessage()).isEqualTo("a");
+        assertThat(request.getValue().getMessageAttributes()).containsKeys("attribute", SqsBinderHeaders.PRODUCER_TIMESTAMP);
+    }
+
+    private void complete(int index, String messageId) {
+        AsyncHandler<PublishRequest, PublishResult> handler = inFlight.get(index);
+        handler.onSuccess(null, new PublishResult().withMessageId(messageId));
+    }
+}
@@ -0,0 +1,152 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySqs;
+import org.springframework.integration.channel.DirectChannel;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactiveSqsInboundChannelAdapterTest {
+
+    private final InMemorySqs sqs = new InMemorySqs();
+    private final DirectChannel outputChannel = new DirectChannel();
+    private final CountDownLatch handled = new CountDownLatch(1);
+    private final AtomicReference<String> handlerThread = new AtomicReference<>();
+
+    private ReactiveSqsInboundChannelAdapter adapter;
+
+    @Before
+    public void setup() {
+        this.adapter = new ReactiveSqsInboundChannelAdapter(sqs, "queue");
+        this.adapter.setOutputChannel(outputChannel);
+        this.adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true));
+        this.adapter.setBeanFactory(new DefaultListableBeanFactory());
+        this.adapter.setWaitTimeOut(1);
+    }
+
+    @After
+    public void tearDown() {
+        this.adapter.stop();
+        this.sqs.shutdown();
+    }
+
+    @Test
+    public void handsMessagesOverOnThreadOfAdapter() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        start(false);
+
+        sqs.sendMessage(queueUrl, "a");
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(handlerThread.get()).startsWith("sqs-queue");
+        awaitInFlight(queueUrl, "0");
+    }
+
+    @Test
+    public void deletesFailedMessageWithAlwaysDeletionPolicy() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.ALWAYS);
+        start(true);
+
+        sqs.sendMessage(queueUrl, "a");
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        awaitInFlight(queueUrl, "0");
+    }
+
+    @Test
+    public void keepsFailedMessageWithOnSuccessDeletionPolicy() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.ON_SUCCESS);
+        start(true);
+
+        sqs.sendMessage(queueUrl, "a");
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(inFlight(queueUrl)).isEqualTo("1");
+    }
+
+    @Test
+    public void keepsSucceededMessageWithNeverDeletionPolicy() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.NEVER);
+        start(false);
+
+        sqs.sendMessage(queueUrl, "a");
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(inFlight(queueUrl)).isEqualTo("1");
+    }
+
+    @Test
+    public void deletesFailedMessageWithNoRedriveDeletionPolicyWhenQueueHasNoRedrivePolicy() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        start(true);
+
+        sqs.sendMessage(queueUrl, "a");
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        awaitInFlight(queueUrl, "0");
+    }
+
+    @Test
+    public void keepsFailedMessageWithNoRedriveDeletionPolicyWhenQueueHasRedrivePolicy() throws Exception {
+        String deadLetterQueueUrl = sqs.createQueue("queue-dlq").getQueueUrl();
+        String deadLetterQueueArn = sqs.getQueueAttributes(deadLetterQueueUrl, Collections.singletonList(QueueAttributeName.QueueArn.toString()))
+                                       .getAttributes()
+                                       .get(QueueAttributeName.QueueArn.toString());
+        String queueUrl = sqs.createQueue(new CreateQueueRequest("queue").addAttributesEntry(QueueAttributeName.RedrivePolicy.toString(),
+                "{\"maxReceiveCount\":\"5\",\"deadLetterTargetArn\":\"" + deadLetterQueueArn + "\"}")).getQueueUrl();
+        start(true);
+
+        sqs.sendMessage(queueUrl, "a");
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(inFlight(queueUrl)).isEqualTo("1");
+    }
+
+    private void start(boolean failing) {
+        outputChannel.subscribe(message -> {
+            handlerThread.set(Thread.currentThread().getName());
+            handled.countDown();
+            if (failing) {
+                throw new IllegalStateException("failed to handle " + message.getPayload());
+            }
+        });
+        adapter.afterPropertiesSet();
+        adapter.start();
+    }
+
+    private void awaitInFlight(String queueUrl, String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!expected.equals(inFlight(queueUrl)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(inFlight(queueUrl)).isEqualTo(expected);
+    }
+
+    private String inFlight(String queueUrl) {
+        Map<String, String> attributes = sqs.getQueueAttributes(queueUrl, Arrays.asList(QueueAttributeName.ApproximateNumberOfMessages.toString(),
+                                                                                        QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString()))
+                                            .getAttributes();
+        assertThat(attributes).containsEntry(QueueAttributeName.ApproximateNumberOfMessages.toString(), "0");
+        return attributes.get(QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString());
+    }
+}
@@ -0,0 +1,110 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscription;
+import org.springframework.cloud.aws.messaging.listener.Acknowledgment;
+import org.springframework.cloud.stream.binder.sqs.backlog.QueueBacklogMonitor;
+import org.springframework.cloud.stream.binder.sqs.test.InMemorySqs;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ReactiveSqsReceiverTest {
+
+    private final InMemorySqs sqs = new InMemorySqs();
+
+    @After
+    public void tearDown() {
+        sqs.shutdown();
+    }
+
+    @Test
+    public void receivesOnlyRequestedMessages() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        for (int i = 0; i < 5; i++) {
+            sqs.sendMessage(queueUrl, "message-" + i);
+        }
+        ReactiveSqsReceiver receiver = new ReactiveSqsReceiver(sqs, "queue");
+        receiver.setWaitTimeOut(1);
+        receiver.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true));
+        List<Message<?>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        receiver.receive().subscribe(new BaseSubscriber<Message<?>>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(2);
+            }
+
+            @Override
+            protected void hookOnNext(Message<?> message) {
+                received.add(message);
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting("payload").containsExactlyInAnyOrder("message-0", "message-1");
+        assertThat(attributes(queueUrl)).containsEntry(QueueAttributeName.ApproximateNumberOfMessages.toString(), "3")
+                                        .containsEntry(QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString(), "2");
+
+        for (Message<?> message : received) {
+            ((Acknowledgment) message.getHeaders().get(AwsHeaders.ACKNOWLEDGMENT)).acknowledge().get();
+        }
+        assertThat(attributes(queueUrl)).containsEntry(QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString(), "0");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reportsReceivedMessagesToBacklogMonitor() throws Exception {
+        String queueUrl = sqs.createQueue("queue").getQueueUrl();
+        sqs.sendMessage(queueUrl, "message");
+        QueueBacklogMonitor backlogMonitor = mock(QueueBacklogMonitor.class);
+        ReactiveSqsReceiver receiver = new ReactiveSqsReceiver(sqs, "queue");
+        receiver.setWaitTimeOut(1);
+        receiver.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true));
+        receiver.setBacklogMonitor(backlogMonitor);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        receiver.receive().subscribe(new BaseSubscriber<Message<?>>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            protected void hookOnNext(Message<?> message) {
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        ArgumentCaptor<List<com.amazonaws.services.sqs.model.Message>> messages = ArgumentCaptor.forClass(List.class);
+        verify(backlogMonitor).recordReceived(eq("queue"), messages.capture());
+        assertThat(messages.getValue()).hasSize(1);
+        assertThat(messages.getValue().get(0).getAttributes()).containsKey(MessageSystemAttributeName.SentTimestamp.toString());
+    }
+
+    private Map<String, String> attributes(String queueUrl) {
+        return sqs.getQueueAttributes(queueUrl, Arrays.asList(QueueAttributeName.ApproximateNumberOfMessages.toString(),
+                                                              QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString()))
+                  .getAttributes();
+    }
+}
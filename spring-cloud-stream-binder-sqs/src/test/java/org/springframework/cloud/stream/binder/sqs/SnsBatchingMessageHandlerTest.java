@@ -0,0 +1,170 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.BatchResultErrorEntry;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchResult;
+import com.amazonaws.services.sns.model.PublishBatchResultEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SnsBatchingMessageHandlerTest {
+
+    private AmazonSNSAsync sns;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private QueueChannel failureChannel;
+    private SnsBatchingMessageHandler handler;
+
+    @Before
+    public void setup() {
+        this.sns = mock(AmazonSNSAsync.class);
+        when(sns.publishBatch(any(PublishBatchRequest.class))).thenReturn(new PublishBatchResult());
+
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.initialize();
+        this.failureChannel = new QueueChannel();
+
+        this.handler = new SnsBatchingMessageHandler(sns, "topic-arn");
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, taskScheduler);
+        this.handler.setBeanFactory(beanFactory);
+        this.handler.setFailureChannel(failureChannel);
+        this.handler.setBatchSize(3);
+        this.handler.setLingerTime(60_000);
+        this.handler.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.taskScheduler.destroy();
+    }
+
+    @Test
+    public void publishesWhenBatchIsFull() {
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+        handler.handleMessage(MessageBuilder.withPayload("b").build());
+        verify(sns, never()).publishBatch(any(PublishBatchRequest.class));
+
+        handler.handleMessage(MessageBuilder.withPayload("c").build());
+
+        ArgumentCaptor<PublishBatchRequest> request = ArgumentCaptor.forClass(PublishBatchRequest.class);
+        verify(sns).publishBatch(request.capture());
+        assertThat(request.getValue().getTopicArn()).isEqualTo("topic-arn");
+        assertThat(request.getValue().getPublishBatchRequestEntries()).extracting("message")
+                                                                      .containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void publishesWhenBatchWouldExceedMaxBytes() {
+        handler.setMaxBatchBytes(10);
+
+        handler.handleMessage(MessageBuilder.withPayload("123456").build());
+        handler.handleMessage(MessageBuilder.withPayload("789012").build());
+
+        verify(sns, times(1)).publishBatch(any(PublishBatchRequest.class));
+    }
+
+    @Test
+    public void publishesRemainingMessagesOnStop() {
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        handler.stop();
+
+        verify(sns).publishBatch(any(PublishBatchRequest.class));
+    }
+
+    @Test
+    public void sendsFailedEntriesToFailureChannel() {
+        when(sns.publishBatch(any(PublishBatchRequest.class)))
+                .thenReturn(new PublishBatchResult().withFailed(new BatchResultErrorEntry().withId("1")
+                                                                                           .withCode("InternalError")
+                                                                                           .withMessage("failed")));
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+        handler.handleMessage(MessageBuilder.withPayload("b").build());
+        handler.handleMessage(MessageBuilder.withPayload("c").build());
+
+        Message<?> errorMessage = failureChannel.receive(0);
+        assertThat(errorMessage).isNotNull();
+        assertThat(errorMessage.getPayload()).isInstanceOf(MessageDeliveryException.class);
+        assertThat(((MessageDeliveryException) errorMessage.getPayload()).getFailedMessage().getPayload()).isEqualTo("b");
+        assertThat(failureChannel.receive(0)).isNull();
+    }
+
+    @Test
+    public void releasesInFlightPermitsOfAsyncBatches() {
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(3, false);
+        handler.setInFlightLimiter(inFlightLimiter);
+        handler.setAsync(true);
+        doAnswer(invocation -> {
+            PublishBatchRequest request = invocation.getArgument(0);
+            invocation.<AsyncHandler<PublishBatchRequest, PublishBatchResult>>getArgument(1)
+                    .onSuccess(request, new PublishBatchResult().withSuccessful(new PublishBatchResultEntry().withId("0").withMessageId("id-0"),
+                                                                                new PublishBatchResultEntry().withId("1").withMessageId("id-1"))
+                                                                .withFailed(new BatchResultErrorEntry().withId("2")
+                                                                                                       .withCode("InternalError")
+                                                                                                       .withMessage("failed")));
+            return null;
+        }).when(sns).publishBatchAsync(any(PublishBatchRequest.class), any());
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+        handler.handleMessage(MessageBuilder.withPayload("b").build());
+        assertThat(inFlightLimiter.getInFlight()).isEqualTo(2);
+        handler.handleMessage(MessageBuilder.withPayload("c").build());
+
+        verify(sns, never()).publishBatch(any(PublishBatchRequest.class));
+        assertThat(inFlightLimiter.getInFlight()).isZero();
+        assertThat(((MessageDeliveryException) failureChannel.receive(0).getPayload()).getFailedMessage().getPayload()).isEqualTo("c");
+    }
+
+    @Test
+    public void failsBatchRejectedByAsyncClient() {
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(3, false);
+        handler.setInFlightLimiter(inFlightLimiter);
+        handler.setAsync(true);
+        handler.setBatchSize(2);
+        doThrow(new IllegalStateException("executor shut down")).when(sns).publishBatchAsync(any(PublishBatchRequest.class), any());
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+        handler.handleMessage(MessageBuilder.withPayload("b").build());
+
+        assertThat(inFlightLimiter.getInFlight()).isZero();
+        assertThat(failureChannel.receive(0)).isNotNull();
+        assertThat(failureChannel.receive(0)).isNotNull();
+    }
+
+    @Test
+    public void doesNotHoldInFlightPermitOfMessageFailingToConvert() {
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(1, false);
+        handler.setInFlightLimiter(inFlightLimiter);
+        handler.setMessageGroupIdExpression(new SpelExpressionParser().parseExpression("payload.missing"));
+
+        assertThatThrownBy(() -> handler.handleMessage(MessageBuilder.withPayload("a").build()))
+                .isInstanceOf(MessagingException.class);
+
+        assertThat(inFlightLimiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SnsEnvelopeDecoderTest {
+
+    private final SnsEnvelopeDecoder decoder = new SnsEnvelopeDecoder();
+
+    @Test
+    public void unwrapsJsonMessage() throws IOException {
+        SnsEnvelopeDecoder.SnsNotification notification = decoder.decode(envelope("{\\\"name\\\":\\\"hello\\\"}"));
+
+        assertThat(notification.getMessage()).isEqualTo("{\"name\":\"hello\"}");
+    }
+
+    @Test
+    public void unwrapsTextMessage() throws IOException {
+        SnsEnvelopeDecoder.SnsNotification notification = decoder.decode(envelope("hello"));
+
+        assertThat(notification.getMessage()).isEqualTo("hello");
+    }
+
+    @Test
+    public void preservesEscapedQuotesAndBracesInsideMessage() throws IOException {
+        SnsEnvelopeDecoder.SnsNotification notification = decoder.decode(envelope("{\\\"text\\\":\\\"say \\\\\\\"{hi}\\\\\\\"\\\"}"));
+
+        assertThat(notification.getMessage()).isEqualTo("{\"text\":\"say \\\"{hi}\\\"\"}");
+    }
+
+    @Test
+    public void mapsMessageAttributes() throws IOException {
+        String envelope = "{\"Type\":\"Notification\",\"Message\":\"hello\",\"MessageAttributes\":{"
+                          + "\"contentType\":{\"Type\":\"String\",\"Value\":\"text/plain\"},"
+                          + "\"scst_partition\":{\"Type\":\"Number\",\"Value\":\"2\"},"
+                          + "\"bytes\":{\"Type\":\"Binary\",\"Value\":\"AQI=\"}}}";
+
+        SnsEnvelopeDecoder.SnsNotification notification = decoder.decode(envelope);
+
+        assertThat(notification.getAttributes()).containsEntry("contentType", "text/plain")
+                                                .containsEntry("scst_partition", 2L)
+                                                .containsEntry("bytes", new byte[] {1, 2});
+    }
+
+    @Test
+    public void restoresClassOfNumberAttributes() throws IOException {
+        String envelope = "{\"Type\":\"Notification\",\"Message\":\"hello\",\"MessageAttributes\":{"
+                          + "\"integer\":{\"Type\":\"Number.java.lang.Integer\",\"Value\":\"2\"},"
+                          + "\"double\":{\"Type\":\"Number.java.lang.Double\",\"Value\":\"1.5\"},"
+                          + "\"unknown\":{\"Type\":\"Number.com.example.Amount\",\"Value\":\"3\"}}}";
+
+        SnsEnvelopeDecoder.SnsNotification notification = decoder.decode(envelope);
+
+        assertThat(notification.getAttributes()).containsEntry("integer", 2)
+                                                .containsEntry("double", 1.5d)
+                                                .containsEntry("unknown", 3L);
+    }
+
+    @Test
+    public void failsWhenMessageIsMissing() {
+        assertThatThrownBy(() -> decoder.decode("{\"Type\":\"Notification\"}")).isInstanceOf(IOException.class);
+    }
+
+    private String envelope(String escapedMessage) {
+        return "{\"Type\":\"Notification\",\"MessageId\":\"1\",\"TopicArn\":\"arn:aws:sns:eu-west-1:1:topic\","
+               + "\"Message\":\"" + escapedMessage + "\",\"Timestamp\":\"2018-01-01T00:00:00.000Z\"}";
+    }
+}
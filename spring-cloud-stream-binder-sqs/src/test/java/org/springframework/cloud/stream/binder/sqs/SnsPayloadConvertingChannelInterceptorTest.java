@@ -0,0 +1,187 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cloud.stream.binder.sqs.compression.GzipPayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.Lz4PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.compression.ZstdPayloadCompressor;
+import org.springframework.cloud.stream.binder.sqs.payload.FileSystemPayloadStore;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class SnsPayloadConvertingChannelInterceptorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SqsProducerProperties producerProperties = new SqsProducerProperties();
+    private final SnsPayloadConvertingChannelInterceptor interceptor = new SnsPayloadConvertingChannelInterceptor(producerProperties);
+
+    @Test
+    public void convertsPayloadToUtf8Text() {
+        Message<?> message = interceptor.preSend(MessageBuilder.withPayload("zażółć".getBytes(StandardCharsets.UTF_8)).build(), null);
+
+        assertThat(message.getPayload()).isEqualTo("zażółć");
+        assertThat(message.getHeaders()).doesNotContainKey(SqsBinderHeaders.CONTENT_ENCODING);
+    }
+
+    @Test
+    public void encodesBinaryPayloadAndConsumerDecodesItBack() {
+        producerProperties.setBinary(true);
+        byte[] payload = new byte[] {0, -1, 42, -128, 127};
+
+        Message<?> sent = interceptor.preSend(MessageBuilder.withPayload(payload).build(), null);
+        Message<?> received = new SnsAwareMessageBuilderFactory(true).fromMessage(sent).build();
+
+        assertThat(sent.getPayload()).isInstanceOf(String.class);
+        assertThat(sent.getHeaders()).containsEntry(SqsBinderHeaders.CONTENT_ENCODING, ContentEncodings.BASE64);
+        assertThat(received.getPayload()).isEqualTo(payload);
+    }
+
+    @Test
+    public void compressesPayloadsAboveThresholdAndConsumerDecompressesThem() {
+        producerProperties.setCompression(GzipPayloadCompressor.NAME);
+        producerProperties.setCompressionThreshold(100);
+        SnsPayloadConvertingChannelInterceptor compressingInterceptor = new SnsPayloadConvertingChannelInterceptor(producerProperties);
+        byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+        String large = new String(new char[1000]).replace('\0', 'a');
+
+        Message<?> sentSmall = compressingInterceptor.preSend(MessageBuilder.withPayload(small).build(), null);
+        Message<?> sentLarge = compressingInterceptor.preSend(MessageBuilder.withPayload(large.getBytes(StandardCharsets.UTF_8)).build(), null);
+        Message<?> received = new SnsAwareMessageBuilderFactory(true).fromMessage(sentLarge).build();
+
+        assertThat(sentSmall.getPayload()).isEqualTo("small");
+        assertThat(sentLarge.getHeaders()).containsEntry(SqsBinderHeaders.CONTENT_ENCODING, "utf-8,gzip,base64");
+        assertThat(((String) sentLarge.getPayload()).length()).isLessThan(large.length());
+        assertThat(received.getPayload()).isEqualTo(large);
+    }
+
+    @Test
+    public void restoresCompressedBinaryPayloadsAsBytes() {
+        producerProperties.setBinary(true);
+        producerProperties.setCompression(GzipPayloadCompressor.NAME);
+        producerProperties.setCompressionThreshold(0);
+        byte[] payload = new byte[] {0, -1, 42, -128, 127};
+
+        Message<?> sent = new SnsPayloadConvertingChannelInterceptor(producerProperties).preSend(MessageBuilder.withPayload(payload).build(), null);
+        Message<?> received = new SnsAwareMessageBuilderFactory(true).fromMessage(sent).build();
+
+        assertThat(sent.getHeaders()).containsEntry(SqsBinderHeaders.CONTENT_ENCODING, "gzip,base64");
+        assertThat(received.getPayload()).isEqualTo(payload);
+    }
+
+    @Test
+    public void compressesWithLz4() {
+        assertRoundTrip(Lz4PayloadCompressor.NAME);
+    }
+
+    @Test
+    public void compressesWithZstd() {
+        assertRoundTrip(ZstdPayloadCompressor.NAME);
+    }
+
+    @Test
+    public void compressesWithAdditionalCompressor() {
+        PayloadCompressor reversing = new PayloadCompressor() {
+            @Override
+            public String getName() {
+                return "reverse";
+            }
+
+            @Override
+            public byte[] compress(byte[] payload) {
+                byte[] reversed = new byte[payload.length];
+                for (int i = 0; i < payload.length; i++) {
+                    reversed[i] = payload[payload.length - 1 - i];
+                }
+                return reversed;
+            }
+
+            @Override
+            public byte[] decompress(byte[] payload) {
+                return compress(payload);
+            }
+        };
+
+        assertRoundTrip("reverse", new PayloadCompressors(Collections.singletonList(reversing)));
+    }
+
+    @Test
+    public void storesPayloadsAboveClaimCheckThresholdAndConsumerRetrievesThem() throws IOException {
+        producerProperties.setClaimCheck(true);
+        producerProperties.setClaimCheckThreshold(100);
+        FileSystemPayloadStore payloadStore = new FileSystemPayloadStore(temporaryFolder.getRoot().toPath());
+        SnsPayloadConvertingChannelInterceptor claimCheckInterceptor =
+                new SnsPayloadConvertingChannelInterceptor(producerProperties, new PayloadCompressors(), payloadStore);
+        String large = new String(new char[1000]).replace('\0', 'a');
+
+        Message<?> sent = claimCheckInterceptor.preSend(MessageBuilder.withPayload(large.getBytes(StandardCharsets.UTF_8)).build(), null);
+        Message<?> received = new SnsAwareMessageBuilderFactory(true, new PayloadCompressors(), payloadStore).fromMessage(sent).build();
+
+        assertThat(sent.getHeaders()).containsEntry(SqsBinderHeaders.CLAIM_CHECK, sent.getPayload());
+        assertThat(Files.readAllBytes(Paths.get(URI.create((String) sent.getPayload())))).isEqualTo(large.getBytes(StandardCharsets.UTF_8));
+        assertThat(received.getPayload()).isEqualTo(large);
+    }
+
+    @Test
+    public void streamsCompressedStoredPayloadsOnlyWhenRead() throws IOException {
+        producerProperties.setCompression(GzipPayloadCompressor.NAME);
+        producerProperties.setCompressionThreshold(100);
+        producerProperties.setClaimCheck(true);
+        producerProperties.setClaimCheckThreshold(10);
+        PayloadStore payloadStore = spy(new FileSystemPayloadStore(temporaryFolder.getRoot().toPath()));
+        SnsPayloadConvertingChannelInterceptor claimCheckInterceptor =
+                new SnsPayloadConvertingChannelInterceptor(producerProperties, new PayloadCompressors(), payloadStore);
+        SnsAwareMessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory(true, new PayloadCompressors(), payloadStore);
+        messageBuilderFactory.setStreamStoredPayloads(true);
+        byte[] large = new String(new char[1000]).replace('\0', 'a').getBytes(StandardCharsets.UTF_8);
+
+        Message<?> sent = claimCheckInterceptor.preSend(MessageBuilder.withPayload(large).build(), null);
+        Message<?> received = messageBuilderFactory.fromMessage(sent).build();
+
+        assertThat(sent.getHeaders()).containsEntry(SqsBinderHeaders.CONTENT_ENCODING, "utf-8,gzip");
+        assertThat(received.getPayload()).isInstanceOf(Resource.class);
+        verify(payloadStore, never()).retrieve(anyString());
+        try (InputStream inputStream = ((Resource) received.getPayload()).getInputStream()) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(large);
+        }
+    }
+
+    private void assertRoundTrip(String compression) {
+        assertRoundTrip(compression, new PayloadCompressors());
+    }
+
+    private void assertRoundTrip(String compression, PayloadCompressors compressors) {
+        producerProperties.setCompression(compression);
+        producerProperties.setCompressionThreshold(0);
+        String payload = "zażółć gęślą jaźń " + new String(new char[500]).replace('\0', 'a');
+
+        Message<?> sent = new SnsPayloadConvertingChannelInterceptor(producerProperties, compressors)
+                .preSend(MessageBuilder.withPayload(payload.getBytes(StandardCharsets.UTF_8)).build(), null);
+        Message<?> received = new SnsAwareMessageBuilderFactory(true, compressors).fromMessage(sent).build();
+
+        assertThat(sent.getHeaders()).containsEntry(SqsBinderHeaders.CONTENT_ENCODING, "utf-8," + compression + ",base64");
+        assertThat(received.getPayload()).isEqualTo(payload);
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SnsPublishingMessageHandlerTest {
+
+    private AmazonSNSAsync sns;
+    private QueueChannel failureChannel;
+    private QueueChannel successChannel;
+    private SnsPublishingMessageHandler handler;
+
+    @Before
+    public void setup() {
+        this.sns = mock(AmazonSNSAsync.class);
+        this.failureChannel = new QueueChannel();
+        this.successChannel = new QueueChannel();
+
+        this.handler = new SnsPublishingMessageHandler(sns, "topic-arn");
+        this.handler.setBeanFactory(new DefaultListableBeanFactory());
+        this.handler.setFailureChannel(failureChannel);
+        this.handler.setSuccessChannel(successChannel);
+    }
+
+    @Test
+    public void throwsFailuresToSendingThreadInSyncMode() {
+        when(sns.publish(any(PublishRequest.class))).thenThrow(new IllegalStateException("throttled"));
+        handler.setAsync(false);
+
+        assertThatThrownBy(() -> handler.handleMessage(MessageBuilder.withPayload("a").build()))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(failureChannel.receive(0)).isNull();
+    }
+
+    @Test
+    public void reportsFailuresToFailureChannelInAsyncMode() {
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(1, false);
+        handler.setInFlightLimiter(inFlightLimiter);
+        doAnswer(invocation -> {
+            invocation.<AsyncHandler<PublishRequest, PublishResult>>getArgument(1).onError(new IllegalStateException("throttled"));
+            return null;
+        }).when(sns).publishAsync(any(PublishRequest.class), any());
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        Message<?> error = failureChannel.receive(0);
+        assertThat(error.getPayload()).isInstanceOf(MessageDeliveryException.class);
+        assertThat(inFlightLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void reportsPublishedMessagesToSuccessChannel() {
+        when(sns.publish(any(PublishRequest.class))).thenReturn(new PublishResult().withMessageId("id"));
+        handler.setAsync(false);
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        assertThat(successChannel.receive(0).getHeaders()).containsEntry(AwsHeaders.MESSAGE_ID, "id");
+    }
+}
@@ -1,9 +1,7 @@
 package org.springframework.cloud.stream.binder.sqs;
 
 import com.amazonaws.services.sns.AmazonSNSAsync;
-import com.amazonaws.services.sns.AmazonSNSAsyncClientBuilder;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
-import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
 
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -30,7 +28,6 @@ import org.springframework.messaging.SubscribableChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringRunner;
-import org.testcontainers.containers.localstack.LocalStackContainer.Service;
 
 import java.util.Date;
 import java.util.concurrent.CountDownLatch;
@@ -84,18 +81,12 @@ public class SqsBinderProcessorTests {
 
         @Bean
         public AmazonSQSAsync amazonSQSAsync() {
-            AmazonSQSAsyncClientBuilder builder = AmazonSQSAsyncClientBuilder.standard();
-            builder.setEndpointConfiguration(localAwsResource.getEndpoint(Service.SQS));
-            builder.setCredentials(localAwsResource.getCredentialsProvider());
-            return builder.build();
+            return localAwsResource.createSqsClient();
         }
 
         @Bean
         public AmazonSNSAsync amazonSNSAsync() {
-            AmazonSNSAsyncClientBuilder builder = AmazonSNSAsyncClientBuilder.standard();
-            builder.setEndpointConfiguration(localAwsResource.getEndpoint(Service.SNS));
-            builder.setCredentials(localAwsResource.getCredentialsProvider());
-            return builder.build();
+            return localAwsResource.createSnsClient();
         }
 
         @Bean(name = Processor.INPUT + "." + CONSUMER_GROUP + ".errors")
@@ -0,0 +1,358 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.aws.messaging.listener.Acknowledgment;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.stream.binder.sqs.compression.PayloadCompressors;
+import org.springframework.cloud.stream.binder.sqs.payload.PayloadStore;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SqsInboundChannelAdapterTest {
+
+    private AmazonSQSAsync sqs;
+    private QueueChannel outputChannel;
+    private SqsInboundChannelAdapter adapter;
+
+    @Before
+    public void setup() {
+        this.sqs = mock(AmazonSQSAsync.class);
+        when(sqs.getQueueUrl(anyString())).thenReturn(new GetQueueUrlResult().withQueueUrl("queue-url"));
+        when(sqs.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenReturn(new GetQueueAttributesResult());
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", "a"), sqsMessage("2", "b")))
+                .thenReturn(new ReceiveMessageResult());
+
+        this.outputChannel = new QueueChannel();
+        this.adapter = new SqsInboundChannelAdapter(sqs, "queue");
+        this.adapter.setOutputChannel(outputChannel);
+        this.adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true));
+        this.adapter.setBeanFactory(new DefaultListableBeanFactory());
+        this.adapter.setConcurrency(3);
+        this.adapter.setQueueStopTimeout(1000);
+    }
+
+    @After
+    public void tearDown() {
+        this.adapter.stop();
+    }
+
+    @Test
+    public void deliversMessagesFromConcurrentPollersAndDeletesThem() {
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> first = outputChannel.receive(5000);
+        Message<?> second = outputChannel.receive(5000);
+
+        assertThat(first.getHeaders()).containsEntry(AwsHeaders.QUEUE, "queue");
+        assertThat(new Object[] {first.getPayload(), second.getPayload()}).containsExactlyInAnyOrder("a", "b");
+        verify(sqs, timeout(5000).times(2)).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+        ArgumentCaptor<ReceiveMessageRequest> request = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(sqs, timeout(5000).atLeast(3)).receiveMessage(request.capture());
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue-url");
+    }
+
+    @Test
+    public void recordsReceiveAndHandlerMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        adapter.setMetrics(new SqsBinderMetrics(meterRegistry).consumer("queue", "group"));
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        outputChannel.receive(5000);
+        outputChannel.receive(5000);
+        verify(sqs, timeout(5000).times(2)).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+
+        assertThat(meterRegistry.get(SqsBinderMetrics.CONSUMER_RECEIVE_MESSAGES).tags("queue", "queue", "group", "group")
+                                .summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(SqsBinderMetrics.CONSUMER_HANDLE).tag("result", "success").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(SqsBinderMetrics.CONSUMER_IN_FLIGHT).gauge().value()).isZero();
+    }
+
+    @Test
+    public void addsAcknowledgmentAndDoesNotDeleteWithNeverDeletionPolicy() {
+        adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.NEVER);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> message = outputChannel.receive(5000);
+
+        assertThat(message.getHeaders()).containsKey(AwsHeaders.ACKNOWLEDGMENT);
+        verify(sqs, never()).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void doesNotDeleteStoredPayloadWhenMessageDeletionFails() throws Exception {
+        PayloadStore payloadStore = claimCheckedMessages();
+        adapter.setPayloadStore(payloadStore);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        outputChannel.receive(5000);
+        ArgumentCaptor<AsyncHandler> handler = ArgumentCaptor.forClass(AsyncHandler.class);
+        verify(sqs, timeout(5000)).deleteMessageAsync(any(DeleteMessageRequest.class), handler.capture());
+        verify(payloadStore, never()).delete(anyString());
+
+        handler.getValue().onError(new IllegalStateException("failed"));
+        verify(payloadStore, never()).delete(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deletesStoredPayloadOfDeletedMessage() throws Exception {
+        PayloadStore payloadStore = claimCheckedMessages();
+        adapter.setPayloadStore(payloadStore);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        outputChannel.receive(5000);
+        ArgumentCaptor<AsyncHandler> handler = ArgumentCaptor.forClass(AsyncHandler.class);
+        verify(sqs, timeout(5000)).deleteMessageAsync(any(DeleteMessageRequest.class), handler.capture());
+
+        handler.getValue().onSuccess(new DeleteMessageRequest(), new DeleteMessageResult());
+        verify(payloadStore, timeout(5000)).delete("pointer");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deletesStoredPayloadOnlyOnceMessageIsAcknowledgedWithNeverDeletionPolicy() throws Exception {
+        PayloadStore payloadStore = claimCheckedMessages();
+        adapter.setPayloadStore(payloadStore);
+        adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.NEVER);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> message = outputChannel.receive(5000);
+        verify(sqs, timeout(5000).atLeast(2)).receiveMessage(any(ReceiveMessageRequest.class));
+        verify(payloadStore, never()).delete(anyString());
+
+        ((Acknowledgment) message.getHeaders().get(AwsHeaders.ACKNOWLEDGMENT)).acknowledge();
+        ArgumentCaptor<AsyncHandler> handler = ArgumentCaptor.forClass(AsyncHandler.class);
+        verify(sqs).deleteMessageAsync(any(DeleteMessageRequest.class), handler.capture());
+        verify(payloadStore, never()).delete(anyString());
+
+        handler.getValue().onSuccess(new DeleteMessageRequest(), new DeleteMessageResult());
+        verify(payloadStore).delete("pointer");
+    }
+
+    @Test
+    public void deliversBatchAndDeletesOnlyMessagesNotMarkedAsFailed() throws Exception {
+        CompletableFuture<Message<?>> batch = new CompletableFuture<>();
+        DirectChannel batchChannel = new DirectChannel();
+        batchChannel.subscribe(message -> {
+            ((BatchAcknowledgment) message.getHeaders().get(SqsBinderHeaders.BATCH_ACKNOWLEDGMENT)).markFailed(1);
+            batch.complete(message);
+        });
+        adapter.setOutputChannel(batchChannel);
+        adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.ON_SUCCESS);
+        adapter.setBatchMode(true);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> message = batch.get(5, TimeUnit.SECONDS);
+
+        assertThat(message.getPayload()).isEqualTo(Arrays.asList("a", "b"));
+        assertThat((List<?>) message.getHeaders().get(SqsBinderHeaders.BATCH_HEADERS)).hasSize(2);
+        verify(sqs, timeout(5000)).deleteMessageAsync(argThat(request -> "receipt-1".equals(request.getReceiptHandle())),
+                                                      any(AsyncHandler.class));
+        verify(sqs, never()).deleteMessageAsync(argThat(request -> "receipt-2".equals(request.getReceiptHandle())),
+                                                any(AsyncHandler.class));
+    }
+
+    @Test
+    public void handlesMessageGroupInOrderAndReleasesRestOfGroupAfterFailure() {
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", "a").addAttributesEntry("MessageGroupId", "g"),
+                                                                    sqsMessage("2", "fail").addAttributesEntry("MessageGroupId", "g"),
+                                                                    sqsMessage("3", "c").addAttributesEntry("MessageGroupId", "g")))
+                .thenReturn(new ReceiveMessageResult());
+        List<Object> handled = new CopyOnWriteArrayList<>();
+        DirectChannel groupChannel = new DirectChannel();
+        groupChannel.subscribe(message -> {
+            handled.add(message.getPayload());
+            if ("fail".equals(message.getPayload())) {
+                throw new IllegalStateException("failed");
+            }
+        });
+        adapter.setOutputChannel(groupChannel);
+        adapter.setFifo(true);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> request = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqs, timeout(5000)).changeMessageVisibilityBatchAsync(request.capture(), any(AsyncHandler.class));
+        assertThat(request.getValue().getEntries()).extracting("receiptHandle").containsExactly("receipt-3");
+        assertThat(handled).containsExactly("a", "fail");
+    }
+
+    @Test
+    public void handlesMessagesOnVirtualThreads() {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+        List<String> threads = new CopyOnWriteArrayList<>();
+        DirectChannel channel = new DirectChannel();
+        channel.subscribe(message -> threads.add(Thread.currentThread().getName()));
+        adapter.setOutputChannel(channel);
+        adapter.setVirtualThreads(true);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        verify(sqs, timeout(5000).times(2)).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+        assertThat(threads).hasSize(2).allMatch(thread -> thread.startsWith("queue-handler-"));
+    }
+
+    /**
+     * Makes the queue return a single message claim-checked in the returned store.
+     */
+    private PayloadStore claimCheckedMessages() throws IOException {
+        PayloadStore payloadStore = mock(PayloadStore.class);
+        when(payloadStore.retrieve("pointer")).thenReturn(new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8)));
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", "pointer")
+                        .addMessageAttributesEntry(SqsBinderHeaders.CLAIM_CHECK, new MessageAttributeValue().withDataType("String")
+                                                                                                          .withStringValue("pointer"))))
+                .thenReturn(new ReceiveMessageResult());
+        adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(true, new PayloadCompressors(), payloadStore));
+        return payloadStore;
+    }
+
+    @Test
+    public void filtersMessageAttributesOfRawMessages() {
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", "a").addMessageAttributesEntry("traceparent", stringAttribute("trace"))
+                                                                                        .addMessageAttributesEntry("internalState", stringAttribute("skipped"))))
+                .thenReturn(new ReceiveMessageResult());
+        HeaderFilter headerFilter = new HeaderFilter("!internal*", "*");
+        SnsAwareMessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory(true);
+        messageBuilderFactory.setHeaderFilter(headerFilter);
+        adapter.setMessageBuilderFactory(messageBuilderFactory);
+        adapter.setHeaderFilter(headerFilter);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> message = outputChannel.receive(5000);
+
+        assertThat(message.getPayload()).isEqualTo("a");
+        assertThat(message.getHeaders()).containsEntry("traceparent", "trace")
+                                        .doesNotContainKey("internalState");
+    }
+
+    @Test
+    public void filtersMessageAttributesOfSnsEnvelope() {
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", envelope("a",
+                        "\"traceparent\":{\"Type\":\"String\",\"Value\":\"trace\"},"
+                        + "\"internalState\":{\"Type\":\"String\",\"Value\":\"skipped\"}"))))
+                .thenReturn(new ReceiveMessageResult());
+        HeaderFilter headerFilter = new HeaderFilter("!internal*", "*");
+        SnsAwareMessageBuilderFactory messageBuilderFactory = new SnsAwareMessageBuilderFactory(false);
+        messageBuilderFactory.setHeaderFilter(headerFilter);
+        adapter.setMessageBuilderFactory(messageBuilderFactory);
+        adapter.setHeaderFilter(headerFilter);
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        Message<?> message = outputChannel.receive(5000);
+
+        assertThat(message.getPayload()).isEqualTo("a");
+        assertThat(message.getHeaders()).containsEntry("traceparent", "trace")
+                                        .doesNotContainKey("internalState");
+    }
+
+    @Test
+    public void recordsEndToEndLatencyFromProducerTimestampOfRawMessages() {
+        long producerTimestamp = System.currentTimeMillis() - 1000;
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", "a").addMessageAttributesEntry(SqsBinderHeaders.PRODUCER_TIMESTAMP,
+                        new MessageAttributeValue().withDataType("Number.java.lang.Long").withStringValue(String.valueOf(producerTimestamp))),
+                                                                    sqsMessage("2", "b")))
+                .thenReturn(new ReceiveMessageResult());
+
+        assertEndToEndLatencyRecorded();
+    }
+
+    @Test
+    public void recordsEndToEndLatencyFromProducerTimestampOfSnsEnvelope() {
+        long producerTimestamp = System.currentTimeMillis() - 1000;
+        when(sqs.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(new ReceiveMessageResult().withMessages(sqsMessage("1", envelope("a",
+                        "\"" + SqsBinderHeaders.PRODUCER_TIMESTAMP + "\":{\"Type\":\"Number\",\"Value\":\"" + producerTimestamp + "\"}")),
+                                                                    sqsMessage("2", envelope("b", ""))))
+                .thenReturn(new ReceiveMessageResult());
+        adapter.setMessageBuilderFactory(new SnsAwareMessageBuilderFactory(false));
+
+        assertEndToEndLatencyRecorded();
+    }
+
+    /**
+     * Expects the first of two received messages to carry a producer timestamp 1 second in the past.
+     */
+    private void assertEndToEndLatencyRecorded() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        adapter.setMetrics(new SqsBinderMetrics(meterRegistry).consumer("queue", "group"));
+        adapter.afterPropertiesSet();
+        adapter.start();
+
+        outputChannel.receive(5000);
+        outputChannel.receive(5000);
+
+        Timer endToEnd = meterRegistry.get(SqsBinderMetrics.CONSUMER_END_TO_END).tags("queue", "queue", "group", "group").timer();
+        assertThat(endToEnd.count()).isEqualTo(1);
+        assertThat(endToEnd.totalTime(TimeUnit.MILLISECONDS)).isBetween(1000.0, 60000.0);
+    }
+
+    private static String envelope(String message, String attributes) {
+        return "{\"Type\":\"Notification\",\"Message\":\"" + message + "\",\"MessageAttributes\":{" + attributes + "}}";
+    }
+
+    private static MessageAttributeValue stringAttribute(String value) {
+        return new MessageAttributeValue().withDataType("String").withStringValue(value);
+    }
+
+    private static com.amazonaws.services.sqs.model.Message sqsMessage(String id, String body) {
+        return new com.amazonaws.services.sqs.model.Message().withMessageId(id)
+                                                             .withReceiptHandle("receipt-" + id)
+                                                             .withBody(body);
+    }
+}
@@ -0,0 +1,107 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SqsSendingMessageHandlerTest {
+
+    private AmazonSQSAsync sqs;
+    private QueueChannel failureChannel;
+    private QueueChannel successChannel;
+    private SqsSendingMessageHandler handler;
+
+    @Before
+    public void setup() {
+        this.sqs = mock(AmazonSQSAsync.class);
+        this.failureChannel = new QueueChannel();
+        this.successChannel = new QueueChannel();
+
+        this.handler = new SqsSendingMessageHandler(sqs, "queue-url");
+        this.handler.setBeanFactory(new DefaultListableBeanFactory());
+        this.handler.setFailureChannel(failureChannel);
+        this.handler.setSuccessChannel(successChannel);
+    }
+
+    @Test
+    public void sendsEachMessageAsRawMessage() {
+        when(sqs.sendMessage(any(SendMessageRequest.class))).thenReturn(new SendMessageResult().withMessageId("id"));
+        handler.setAsync(false);
+
+        handler.handleMessage(MessageBuilder.withPayload("a")
+                                            .setHeader("attribute", "value")
+                                            .setHeader(SqsBinderHeaders.MESSAGE_GROUP_ID, "group")
+                                            .build());
+
+        ArgumentCaptor<SendMessageRequest> request = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqs).sendMessage(request.capture());
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue-url");
+        assertThat(request.getValue().getMessageBody()).isEqualTo("a");
+        assertThat(request.getValue().getMessageGroupId()).isEqualTo("group");
+        assertThat(request.getValue().getMessageAttributes()).containsKeys("attribute", SqsBinderHeaders.RAW_MESSAGE);
+        assertThat(successChannel.receive(0).getHeaders()).containsEntry(AwsHeaders.MESSAGE_ID, "id");
+    }
+
+    @Test
+    public void sendsRawMessageAttributeWithinAttributeLimit() {
+        when(sqs.sendMessage(any(SendMessageRequest.class))).thenReturn(new SendMessageResult().withMessageId("id"));
+        handler.setAsync(false);
+        MessageBuilder<String> message = MessageBuilder.withPayload("a");
+        for (int i = 0; i < 10; i++) {
+            message.setHeader("custom" + i, "value");
+        }
+
+        handler.handleMessage(message.build());
+
+        ArgumentCaptor<SendMessageRequest> request = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqs).sendMessage(request.capture());
+        assertThat(request.getValue().getMessageAttributes()).hasSize(MessageAttributesMapper.MAX_ATTRIBUTES)
+                                                             .containsKey(SqsBinderHeaders.RAW_MESSAGE);
+    }
+
+    @Test
+    public void throwsFailuresToSendingThreadInSyncMode() {
+        when(sqs.sendMessage(any(SendMessageRequest.class))).thenThrow(new IllegalStateException("throttled"));
+        handler.setAsync(false);
+
+        assertThatThrownBy(() -> handler.handleMessage(MessageBuilder.withPayload("a").build()))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(failureChannel.receive(0)).isNull();
+    }
+
+    @Test
+    public void reportsFailuresToFailureChannelInAsyncMode() {
+        InFlightLimiter inFlightLimiter = new InFlightLimiter(1, false);
+        handler.setInFlightLimiter(inFlightLimiter);
+        doAnswer(invocation -> {
+            invocation.<AsyncHandler<SendMessageRequest, SendMessageResult>>getArgument(1).onError(new IllegalStateException("throttled"));
+            return null;
+        }).when(sqs).sendMessageAsync(any(SendMessageRequest.class), any());
+
+        handler.handleMessage(MessageBuilder.withPayload("a").build());
+
+        Message<?> error = failureChannel.receive(0);
+        assertThat(error.getPayload()).isInstanceOf(MessageDeliveryException.class);
+        assertThat(inFlightLimiter.getInFlight()).isZero();
+    }
+}
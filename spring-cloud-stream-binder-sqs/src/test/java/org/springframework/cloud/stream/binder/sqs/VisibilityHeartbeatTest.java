@@ -0,0 +1,48 @@
+package org.springframework.cloud.stream.binder.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class VisibilityHeartbeatTest {
+
+    private final AmazonSQSAsync sqs = mock(AmazonSQSAsync.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void extendsVisibilityOfMessagesStillBeingHandled() {
+        VisibilityHeartbeat heartbeat = new VisibilityHeartbeat(sqs, "queue-url", mock(TaskScheduler.class), 1);
+        heartbeat.track("handled");
+        heartbeat.track("in-progress");
+        heartbeat.untrack("handled");
+
+        heartbeat.extend();
+
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> request = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqs).changeMessageVisibilityBatchAsync(request.capture(), any(AsyncHandler.class));
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue-url");
+        assertThat(request.getValue().getEntries()).extracting("receiptHandle").containsExactly("in-progress");
+        assertThat(request.getValue().getEntries()).extracting("visibilityTimeout").containsExactly(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void doesNotExtendMessagesFarFromExpiry() {
+        VisibilityHeartbeat heartbeat = new VisibilityHeartbeat(sqs, "queue-url", mock(TaskScheduler.class), 300);
+        heartbeat.track("received");
+
+        heartbeat.extend();
+
+        verify(sqs, never()).changeMessageVisibilityBatchAsync(any(ChangeMessageVisibilityBatchRequest.class), any(AsyncHandler.class));
+    }
+}
@@ -0,0 +1,97 @@
+package org.springframework.cloud.stream.binder.sqs.backlog;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class QueueBacklogMonitorTest {
+
+    private final AmazonSQSAsync sqs = mock(AmazonSQSAsync.class);
+
+    private final QueueBacklogMonitor monitor = new QueueBacklogMonitor(sqs, 1000);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readsAllCountsWithSingleRequest() {
+        respondWith(7, 2, 1);
+        monitor.register("queue", "group", "queue-url");
+        monitor.recordReceived("queue", System.currentTimeMillis() - 60000);
+
+        monitor.sample();
+
+        verify(sqs).getQueueAttributesAsync(any(GetQueueAttributesRequest.class), any(AsyncHandler.class));
+        verifyNoMoreInteractions(sqs);
+        QueueBacklog backlog = monitor.getBacklog("queue");
+        assertThat(backlog.getVisibleMessages()).isEqualTo(7);
+        assertThat(backlog.getNotVisibleMessages()).isEqualTo(2);
+        assertThat(backlog.getDelayedMessages()).isEqualTo(1);
+        assertThat(backlog.getAgeOfOldestMessage()).isBetween(60000L, 70000L);
+        assertThat(backlog.getFailure()).isNull();
+    }
+
+    @Test
+    public void recordsOldestSentTimestampOfReceivedMessages() {
+        respondWith(1, 2, 0);
+        monitor.register("queue", "group", "queue-url");
+        long now = System.currentTimeMillis();
+        monitor.recordReceived("queue", Arrays.asList(message(now - 10000), message(now - 60000), new Message()));
+
+        monitor.sample();
+
+        assertThat(monitor.getBacklog("queue").getAgeOfOldestMessage()).isBetween(60000L, 70000L);
+    }
+
+    @Test
+    public void reportsLaggingQueuesFromCachedSamples() {
+        QueueBacklogHealthIndicator healthIndicator = new QueueBacklogHealthIndicator(monitor);
+        healthIndicator.setMaxVisibleMessages(5L);
+        monitor.register("queue", "group", "queue-url");
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+        respondWith(3, 0, 0);
+        monitor.sample();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+
+        respondWith(10, 0, 0);
+        monitor.sample();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    private static Message message(long sentTimestamp) {
+        return new Message().addAttributesEntry(MessageSystemAttributeName.SentTimestamp.toString(), String.valueOf(sentTimestamp));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respondWith(long visible, long notVisible, long delayed) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(QueueAttributeName.ApproximateNumberOfMessages.toString(), String.valueOf(visible));
+        attributes.put(QueueAttributeName.ApproximateNumberOfMessagesNotVisible.toString(), String.valueOf(notVisible));
+        attributes.put(QueueAttributeName.ApproximateNumberOfMessagesDelayed.toString(), String.valueOf(delayed));
+        doAnswer(invocation -> {
+            GetQueueAttributesRequest request = invocation.getArgument(0);
+            assertThat(request.getAttributeNames()).hasSize(3);
+            ((AsyncHandler<GetQueueAttributesRequest, GetQueueAttributesResult>) invocation.getArgument(1))
+                    .onSuccess(request, new GetQueueAttributesResult().withAttributes(attributes));
+            return null;
+        }).when(sqs).getQueueAttributesAsync(any(GetQueueAttributesRequest.class), any(AsyncHandler.class));
+    }
+}
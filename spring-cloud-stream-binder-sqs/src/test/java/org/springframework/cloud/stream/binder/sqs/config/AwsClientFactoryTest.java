@@ -0,0 +1,127 @@
+package org.springframework.cloud.stream.binder.sqs.config;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cloud.aws.core.region.StaticRegionProvider;
+import org.springframework.cloud.stream.binder.sqs.SqsBinderMetrics;
+import org.springframework.cloud.stream.binder.sqs.VirtualThreads;
+import org.springframework.cloud.stream.binder.sqs.properties.SqsBinderConfigurationProperties;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AwsClientFactoryTest {
+
+    private final SqsBinderConfigurationProperties properties = new SqsBinderConfigurationProperties();
+    private final AmazonSQSAsyncClientBuilder builder = AmazonSQSAsyncClientBuilder.standard();
+
+    private AmazonSQSAsync client;
+    private ExecutorService executor;
+
+    @After
+    public void tearDown() {
+        if (this.client != null) {
+            this.client.shutdown();
+        }
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void mapsClientProperties() {
+        SqsBinderConfigurationProperties.ClientProperties client = properties.getClient();
+        client.setMaxConnections(120);
+        client.setConnectionTimeout(1000);
+        client.setConnectionTtl(60000L);
+        client.setSocketTimeout(2000);
+        client.setRequestTimeout(3000);
+        client.setTcpKeepAlive(true);
+        client.setGzip(true);
+
+        build(null);
+
+        ClientConfiguration clientConfiguration = builder.getClientConfiguration();
+        assertThat(clientConfiguration.getMaxConnections()).isEqualTo(120);
+        assertThat(clientConfiguration.getConnectionTimeout()).isEqualTo(1000);
+        assertThat(clientConfiguration.getConnectionTTL()).isEqualTo(60000L);
+        assertThat(clientConfiguration.getSocketTimeout()).isEqualTo(2000);
+        assertThat(clientConfiguration.getRequestTimeout()).isEqualTo(3000);
+        assertThat(clientConfiguration.useTcpKeepAlive()).isTrue();
+        assertThat(clientConfiguration.useGzip()).isTrue();
+        assertThat(builder.getRegion()).isEqualTo("eu-west-1");
+    }
+
+    @Test
+    public void keepsClientDefaultsWithoutClientProperties() {
+        build(null);
+
+        ClientConfiguration defaults = new ClientConfiguration();
+        ClientConfiguration clientConfiguration = builder.getClientConfiguration();
+        assertThat(clientConfiguration.getMaxConnections()).isEqualTo(defaults.getMaxConnections());
+        assertThat(clientConfiguration.getConnectionTimeout()).isEqualTo(defaults.getConnectionTimeout());
+        assertThat(clientConfiguration.getSocketTimeout()).isEqualTo(defaults.getSocketTimeout());
+        assertThat(builder.getExecutorFactory()).isNull();
+        assertThat(builder.getMetricsCollector()).isNull();
+    }
+
+    @Test
+    public void usesFixedPoolOfAsyncExecutorThreads() throws Exception {
+        properties.getClient().setAsyncExecutorThreads(3);
+
+        build(null);
+
+        Thread thread = executorThread();
+        assertThat(thread.getName()).startsWith("sqs-client-");
+        assertThat(thread.isDaemon()).isFalse();
+    }
+
+    @Test
+    public void usesVirtualThreadsWhenSupported() throws Exception {
+        properties.setVirtualThreads(true);
+        properties.getClient().setAsyncExecutorThreads(3);
+
+        build(null);
+
+        Thread thread = executorThread();
+        assertThat(thread.getName()).startsWith("sqs-client-");
+        // virtual threads are always daemon threads, unlike those of the fixed pool used before Java 21
+        assertThat(thread.isDaemon()).isEqualTo(VirtualThreads.isSupported());
+    }
+
+    @Test
+    public void registersConnectionPoolGaugesWithMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        properties.getClient().setMaxConnections(25);
+
+        build(new SqsBinderMetrics(meterRegistry));
+
+        assertThat(builder.getMetricsCollector()).isNotNull();
+        assertThat(meterRegistry.get(SqsBinderMetrics.CLIENT_CONNECTIONS_MAX).tag("client", "sqs").gauge().value()).isEqualTo(25);
+    }
+
+    private void build(SqsBinderMetrics metrics) {
+        this.client = new AwsClientFactory(new AWSStaticCredentialsProvider(new BasicAWSCredentials("key", "secret")),
+                                           new StaticRegionProvider("eu-west-1"),
+                                           properties,
+                                           metrics)
+                .build(builder, "sqs");
+    }
+
+    private Thread executorThread() throws Exception {
+        this.executor = builder.getExecutorFactory().newExecutor();
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        this.executor.submit(() -> thread.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+        return thread.get();
+    }
+}
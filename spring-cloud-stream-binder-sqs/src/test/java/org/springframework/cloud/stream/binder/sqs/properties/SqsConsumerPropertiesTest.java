@@ -25,4 +25,17 @@ public class SqsConsumerPropertiesTest {
                                    .containsEntry(QueueAttributeName.MaximumMessageSize.toString(), "1000");
     }
 
+    @Test
+    public void createsFifoQueueAttributes() {
+        SqsConsumerProperties.QueueProperties queue = new SqsConsumerProperties().getQueue();
+        queue.setFifoQueue(true);
+        queue.setContentBasedDeduplication(true);
+
+        Map<String, String> queueAttributes = queue.toQueueAttributes();
+
+        assertThat(queueAttributes).containsOnlyKeys(QueueAttributeName.FifoQueue.toString(),
+                                                     QueueAttributeName.ContentBasedDeduplication.toString())
+                                   .containsEntry(QueueAttributeName.FifoQueue.toString(), "true")
+                                   .containsEntry(QueueAttributeName.ContentBasedDeduplication.toString(), "true");
+    }
 }
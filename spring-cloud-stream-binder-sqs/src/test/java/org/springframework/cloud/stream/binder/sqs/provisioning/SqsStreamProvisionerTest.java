@@ -1,11 +1,9 @@
 package org.springframework.cloud.stream.binder.sqs.provisioning;
 
 import com.amazonaws.services.sns.AmazonSNSAsync;
-import com.amazonaws.services.sns.AmazonSNSAsyncClientBuilder;
 import com.amazonaws.services.sns.model.Subscription;
 import com.amazonaws.services.sns.model.Topic;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
-import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
 import com.amazonaws.services.sqs.model.QueueAttributeName;
 
 import org.jetbrains.annotations.NotNull;
@@ -15,15 +13,19 @@ import org.junit.Test;
 import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
 import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
 import org.springframework.cloud.stream.binder.sqs.LocalAwsResource;
+import org.springframework.cloud.stream.binder.sqs.properties.PartitionRouting;
+import org.springframework.cloud.stream.binder.sqs.properties.ProvisioningMode;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsConsumerProperties;
 import org.springframework.cloud.stream.binder.sqs.properties.SqsProducerProperties;
-import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.springframework.cloud.stream.provisioning.ProvisioningException;
+import org.springframework.expression.common.LiteralExpression;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class SqsStreamProvisionerTest {
 
@@ -36,15 +38,8 @@ public class SqsStreamProvisionerTest {
 
     @Before
     public void setup() {
-        AmazonSQSAsyncClientBuilder builder = AmazonSQSAsyncClientBuilder.standard();
-        builder.setEndpointConfiguration(localAwsResource.getEndpoint(LocalStackContainer.Service.SQS));
-        builder.setCredentials(localAwsResource.getCredentialsProvider());
-        this.sqs = builder.build();
-
-        AmazonSNSAsyncClientBuilder snsBuilder = AmazonSNSAsyncClientBuilder.standard();
-        snsBuilder.setEndpointConfiguration(localAwsResource.getEndpoint(LocalStackContainer.Service.SNS));
-        snsBuilder.setCredentials(localAwsResource.getCredentialsProvider());
-        this.sns = snsBuilder.build();
+        this.sqs = localAwsResource.createSqsClient();
+        this.sns = localAwsResource.createSnsClient();
 
         this.sqsStreamProvisioner = new SqsStreamProvisioner(sqs, sns);
 
@@ -111,6 +106,22 @@ public class SqsStreamProvisionerTest {
         assertThat(sns.getSubscriptionAttributes(subscriptions.get(0).getSubscriptionArn()).getAttributes()).doesNotContainKeys("FilterPolicy");
     }
 
+    @Test
+    public void enablesRawMessageDeliveryOnSubscription() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.getExtension().setRawMessageDelivery(true);
+
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name",
+                                                          "group-name",
+                                                          consumerProperties);
+
+        List<String> topicArns = listTopicsArns();
+        List<Subscription> subscriptions = sns.listSubscriptionsByTopic(topicArns.get(0)).getSubscriptions();
+        assertThat(sns.getSubscriptionAttributes(subscriptions.get(0).getSubscriptionArn())
+                      .getAttributes()
+                      .get("RawMessageDelivery")).isEqualTo("true");
+    }
+
     // partitioning enabled
     @Test
     public void createsSqsQueueWhenPartitioningEnabled() {
@@ -147,6 +158,40 @@ public class SqsStreamProvisionerTest {
                       .get("FilterPolicy")).isEqualTo("{\"scst_partition\": [2]}");
     }
 
+    @Test
+    public void subscribesToPartitionTopicWithoutFilterPolicyWithTopicRouting() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.setPartitioned(true);
+        consumerProperties.setInstanceIndex(2);
+        consumerProperties.getExtension().setPartitionRouting(PartitionRouting.TOPIC);
+
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name",
+                                                          "group-name",
+                                                          consumerProperties);
+
+        List<String> topicArns = listTopicsArns();
+        assertThat(topicArns).hasSize(1);
+        assertThat(topicArns.get(0)).endsWith("topic-name-2");
+        List<Subscription> subscriptions = sns.listSubscriptionsByTopic(topicArns.get(0)).getSubscriptions();
+        assertThat(subscriptions).hasSize(1);
+        assertThat(sns.getSubscriptionAttributes(subscriptions.get(0).getSubscriptionArn()).getAttributes()).doesNotContainKeys("FilterPolicy");
+    }
+
+    @Test
+    public void createsOnlyPartitionQueueWithQueueRouting() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.setPartitioned(true);
+        consumerProperties.setInstanceIndex(2);
+        consumerProperties.getExtension().setPartitionRouting(PartitionRouting.QUEUE);
+
+        SqsConsumerDestination destination = (SqsConsumerDestination) sqsStreamProvisioner.provisionConsumerDestination("topic-name",
+                                                                                                                        "group-name",
+                                                                                                                        consumerProperties);
+
+        assertThat(destination.getName()).isEqualTo("group-name-2");
+        assertThat(listTopicsArns()).isEmpty();
+    }
+
     // producer provisioning
     @Test
     public void createsSnsTopicWhenProvisionsProducer() {
@@ -159,6 +204,85 @@ public class SqsStreamProvisionerTest {
         assertThat(sns.getTopicAttributes(topicArns.get(0)).getAttributes().get("TopicArn")).endsWith("topic-name");
     }
 
+    @Test
+    public void createsSqsQueueWithoutTopicWhenProvisionsDirectProducer() {
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        producerProperties.getExtension().setDirectToQueue(true);
+        producerProperties.setRequiredGroups("group-name");
+
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+
+        assertThat(destination.getTopicArn()).isNull();
+        assertThat(destination.getQueueUrl()).endsWith("group-name");
+        assertThat(sqs.listQueues("group-name").getQueueUrls()).containsExactly(destination.getQueueUrl());
+        assertThat(listTopicsArns()).isEmpty();
+    }
+
+    @Test
+    public void createsQueueWithQueuePropertiesWhenDirectProducerBindsBeforeConsumer() {
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        producerProperties.getExtension().setDirectToQueue(true);
+        producerProperties.getExtension().getQueue().setDelaySeconds(10);
+        producerProperties.setRequiredGroups("group-name");
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.getExtension().getQueue().setDelaySeconds(10);
+
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties);
+
+        assertThat(sqs.listQueues("group-name").getQueueUrls()).containsExactly(destination.getQueueUrl());
+        assertThat(sqs.getQueueAttributes(destination.getQueueUrl(), Arrays.asList(QueueAttributeName.DelaySeconds.toString()))
+                      .getAttributes()).containsEntry(QueueAttributeName.DelaySeconds.toString(), "10");
+    }
+
+    @Test
+    public void createsFifoQueueWhenDirectProducerQueuePropertiesAreFifo() {
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        producerProperties.getExtension().setDirectToQueue(true);
+        producerProperties.getExtension().getQueue().setFifoQueue(true);
+        producerProperties.setRequiredGroups("group-name");
+
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+
+        assertThat(destination.getQueueUrl()).endsWith("group-name.fifo");
+    }
+
+    @Test
+    public void createsTopicPerPartitionWithTopicRouting() {
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        producerProperties.setPartitionCount(2);
+        producerProperties.setPartitionKeyExpression(new LiteralExpression("key"));
+        producerProperties.getExtension().setPartitionRouting(PartitionRouting.TOPIC);
+
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+
+        assertThat(destination.getPartitions()).hasSize(2);
+        assertThat(destination.getNameForPartition(1)).isEqualTo("topic-name-1");
+        assertThat(destination.getPartitions().get(1).getTopicArn()).endsWith("topic-name-1");
+        assertThat(listTopicsArns()).hasSize(2);
+    }
+
+    @Test
+    public void createsQueuePerPartitionWithQueueRouting() {
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        producerProperties.setPartitionCount(2);
+        producerProperties.setPartitionKeyExpression(new LiteralExpression("key"));
+        producerProperties.setRequiredGroups("group-name");
+        producerProperties.getExtension().setPartitionRouting(PartitionRouting.QUEUE);
+
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+
+        assertThat(destination.getPartitions()).extracting("queueUrl").hasSize(2);
+        assertThat(destination.getPartitions().get(1).getQueueUrl()).endsWith("group-name-1");
+        assertThat(sqs.listQueues("group-name").getQueueUrls()).hasSize(2);
+        assertThat(listTopicsArns()).isEmpty();
+    }
+
     // consumer provisioning
     @Test
     public void createsSqsQueueWithAttributes() {
@@ -176,6 +300,112 @@ public class SqsStreamProvisionerTest {
                       .get(QueueAttributeName.DelaySeconds.toString())).isEqualTo("10");
     }
 
+    // provisioning modes
+    @Test
+    public void reusesExistingSubscriptionWhenProvisioningIfMissing() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties);
+
+        SqsStreamProvisioner ifMissingProvisioner = new SqsStreamProvisioner(sqs, sns);
+        ifMissingProvisioner.setProvisioningMode(ProvisioningMode.IF_MISSING);
+        ifMissingProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties);
+        ifMissingProvisioner.provisionConsumerDestination("topic-name", "other-group-name", consumerProperties);
+
+        List<String> topicArns = listTopicsArns();
+        assertThat(topicArns).hasSize(1);
+        assertThat(sns.listSubscriptionsByTopic(topicArns.get(0)).getSubscriptions()).hasSize(2);
+    }
+
+    @Test
+    public void setsMissingAttributesOfExistingSubscriptionWhenProvisioningIfMissing() {
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name",
+                                                          new ExtendedConsumerProperties<>(new SqsConsumerProperties()));
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.getExtension().setRawMessageDelivery(true);
+
+        SqsStreamProvisioner ifMissingProvisioner = new SqsStreamProvisioner(sqs, sns);
+        ifMissingProvisioner.setProvisioningMode(ProvisioningMode.IF_MISSING);
+        ifMissingProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties);
+
+        List<Subscription> subscriptions = sns.listSubscriptionsByTopic(listTopicsArns().get(0)).getSubscriptions();
+        assertThat(subscriptions).hasSize(1);
+        assertThat(sns.getSubscriptionAttributes(subscriptions.get(0).getSubscriptionArn()).getAttributes())
+                .containsEntry("RawMessageDelivery", "true");
+    }
+
+    @Test
+    public void failsWhenSubscriptionAttributesDifferWhenProvisioningVerifyOnly() {
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name",
+                                                          new ExtendedConsumerProperties<>(new SqsConsumerProperties()));
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.getExtension().setRawMessageDelivery(true);
+
+        SqsStreamProvisioner verifyOnlyProvisioner = new SqsStreamProvisioner(sqs, sns);
+        verifyOnlyProvisioner.setProvisioningMode(ProvisioningMode.VERIFY_ONLY);
+
+        assertThatThrownBy(() -> verifyOnlyProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties))
+                .isInstanceOf(ProvisioningException.class)
+                .hasMessageContaining("RawMessageDelivery");
+    }
+
+    @Test
+    public void failsWhenResourceIsMissingWhenProvisioningVerifyOnly() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        sqsStreamProvisioner.setProvisioningMode(ProvisioningMode.VERIFY_ONLY);
+
+        assertThatThrownBy(() -> sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties))
+                .isInstanceOf(ProvisioningException.class);
+        assertThat(listTopicsArns()).isEmpty();
+        assertThat(sqs.listQueues("group-name").getQueueUrls()).isEmpty();
+    }
+
+    @Test
+    public void findsTopicsCreatedSinceListingOnlyAfterRefreshWhenProvisioningVerifyOnly() {
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+        sqsStreamProvisioner.setProvisioningMode(ProvisioningMode.VERIFY_ONLY);
+        assertThatThrownBy(() -> sqsStreamProvisioner.provisionProducerDestination("topic-name", producerProperties))
+                .isInstanceOf(ProvisioningException.class);
+
+        String topicArn = sns.createTopic("topic-name").getTopicArn();
+        assertThatThrownBy(() -> sqsStreamProvisioner.provisionProducerDestination("topic-name", producerProperties))
+                .isInstanceOf(ProvisioningException.class);
+
+        sqsStreamProvisioner.refreshExistingTopics();
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+        assertThat(destination.getTopicArn()).isEqualTo(topicArn);
+    }
+
+    // caching
+    @Test
+    public void provisionsQueueAgainWhenRequestedWithOtherAttributes() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        consumerProperties.getExtension().getQueue().setDelaySeconds(10);
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties);
+
+        ExtendedConsumerProperties<SqsConsumerProperties> otherConsumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        otherConsumerProperties.getExtension().getQueue().setDelaySeconds(20);
+
+        assertThatThrownBy(() -> sqsStreamProvisioner.provisionConsumerDestination("other-topic-name", "group-name", otherConsumerProperties))
+                .isInstanceOf(ProvisioningException.class);
+    }
+
+    @Test
+    public void provisionsPreparedDestinationOnce() {
+        ExtendedConsumerProperties<SqsConsumerProperties> consumerProperties = new ExtendedConsumerProperties<>(new SqsConsumerProperties());
+        ExtendedProducerProperties<SqsProducerProperties> producerProperties = new ExtendedProducerProperties<>(new SqsProducerProperties());
+
+        sqsStreamProvisioner.prepareConsumerDestination("topic-name", "group-name", consumerProperties);
+        sqsStreamProvisioner.prepareProducerDestination("topic-name", producerProperties);
+        sqsStreamProvisioner.provisionConsumerDestination("topic-name", "group-name", consumerProperties);
+        SqsProducerDestination destination = (SqsProducerDestination) sqsStreamProvisioner.provisionProducerDestination("topic-name",
+                                                                                                                        producerProperties);
+
+        assertThat(listTopicsArns()).containsExactly(destination.getTopicArn());
+        assertThat(sqs.listQueues("group-name").getQueueUrls()).hasSize(1);
+        assertThat(sns.listSubscriptionsByTopic(destination.getTopicArn()).getSubscriptions()).hasSize(1);
+    }
+
     @NotNull
     private List<String> listTopicsArns() {
         return sns.listTopics()